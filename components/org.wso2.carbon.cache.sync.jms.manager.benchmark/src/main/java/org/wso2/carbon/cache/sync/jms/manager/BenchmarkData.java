@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.wso2.carbon.caching.impl.CachingConstants;
+import org.wso2.carbon.caching.impl.clustering.ClusterCacheInvalidationRequest;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.cache.CacheEntryInfo;
+import javax.jms.JMSException;
+
+/**
+ * Cache invalidations and configurations shared by the benchmarks.
+ */
+final class BenchmarkData {
+
+    static final String TENANT_DOMAIN = "carbon.super";
+    static final int TENANT_ID = -1234;
+    static final String PRODUCER_NAME = "benchmark-node";
+    static final String CACHE_MANAGER_NAME = "IdentityApplicationManagementCacheManager";
+    static final String WIRE_FORMAT_JSON = "json";
+    static final String KEY_TYPE_STRING = "string";
+    static final String KEY_TYPE_OBJECT = "object";
+    static final String DENY_LIST_NONE = "none";
+    static final String DENY_LIST_EXACT = "exact";
+    static final String DENY_LIST_WILDCARD = "wildcard";
+
+    private static final String[] CACHE_NAMES = {"AppInfoCache", "ServiceProviderCache", "OAuthCache",
+            "AuthorizationGrantCache", "SessionDataCache", "ClaimCache", "UserRolesCache", "TenantCache"};
+
+    private BenchmarkData() {
+
+    }
+
+    /**
+     * Applies the configurations of a node with the MB based cache invalidation enabled.
+     *
+     * @param wireFormat Wire format of the cache invalidation messages.
+     * @param denyList   Deny-list type.
+     */
+    static void applyConfig(String wireFormat, String denyList) {
+
+        CacheSyncConfig config = new CacheSyncConfig.Builder()
+                .enabled(true)
+                .producerName(PRODUCER_NAME)
+                .binaryWireFormat(JMSUtils.WIRE_FORMAT_BINARY.equals(wireFormat))
+                .build();
+        JMSUtils.applyConfig(config, PropagationFilter.compile(createDenyList(denyList)));
+    }
+
+    /**
+     * Creates a producer publishing to an in-memory JMS stand-in.
+     *
+     * @param jms JMS stand-in.
+     * @return JMS producer.
+     * @throws JMSException If the session pool cannot be created.
+     */
+    static JMSProducer createProducer(InMemoryJms jms) throws JMSException {
+
+        return new JMSProducer(new ProducerSessionPool(jms.createConnection(), jms.createTopic(), 1));
+    }
+
+    static List<ClusterCacheInvalidationRequest> createRequests(int count, String keyType) {
+
+        List<ClusterCacheInvalidationRequest> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ClusterCacheInvalidationRequest.CacheInfo cacheInfo = new ClusterCacheInvalidationRequest.CacheInfo(
+                    CACHE_MANAGER_NAME, getLocalCacheName(i), createKey(i, keyType));
+            requests.add(new ClusterCacheInvalidationRequest(cacheInfo, TENANT_DOMAIN, TENANT_ID));
+        }
+        return requests;
+    }
+
+    static CacheEntryInfo createCacheEntryInfo(String cacheName, Object cacheKey) {
+
+        return new CacheEntryInfo(CACHE_MANAGER_NAME, cacheName, cacheKey, TENANT_DOMAIN, TENANT_ID);
+    }
+
+    static String getLocalCacheName(int index) {
+
+        return CachingConstants.LOCAL_CACHE_PREFIX + CACHE_NAMES[index % CACHE_NAMES.length];
+    }
+
+    static int getCacheNameCount() {
+
+        return CACHE_NAMES.length;
+    }
+
+    private static Object createKey(int index, String keyType) {
+
+        String clientId = "client-" + index + "-5f0e8b9a2c4d4f6e8a1b3c5d7e9f0a2b";
+        if (KEY_TYPE_OBJECT.equals(keyType)) {
+            return new BenchmarkCacheKey(clientId, "user-" + index + "@" + TENANT_DOMAIN);
+        }
+        return clientId;
+    }
+
+    private static Map<String, List<String>> createDenyList(String denyList) {
+
+        if (DENY_LIST_EXACT.equals(denyList)) {
+            return Collections.singletonMap(CACHE_MANAGER_NAME, Arrays.asList("AppInfoCache", "OAuthCache"));
+        }
+        if (DENY_LIST_WILDCARD.equals(denyList)) {
+            Map<String, List<String>> patterns = new HashMap<>();
+            patterns.put("IdentityApplication*", Arrays.asList("App*", "OAuth*"));
+            patterns.put("*", Collections.singletonList("Tenant*"));
+            return patterns;
+        }
+        return Collections.emptyMap();
+    }
+
+    /**
+     * Composite cache key serialized with Java serialization in both wire formats.
+     */
+    static final class BenchmarkCacheKey implements Serializable {
+
+        private static final long serialVersionUID = 2480176402553916412L;
+
+        private final String clientId;
+        private final String userId;
+
+        BenchmarkCacheKey(String clientId, String userId) {
+
+            this.clientId = clientId;
+            this.userId = userId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof BenchmarkCacheKey)) {
+                return false;
+            }
+            BenchmarkCacheKey that = (BenchmarkCacheKey) o;
+            return Objects.equals(clientId, that.clientId) && Objects.equals(userId, that.userId);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return Objects.hash(clientId, userId);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.jms.BytesMessage;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.TextMessage;
+
+/**
+ * Measures parsing a received cache invalidation frame and deserializing its cache keys, as done by
+ * {@link JMSConsumer#invalidateCache(String)} and {@link JMSConsumer#invalidateCache(byte[])} before the local caches
+ * are invalidated. The frames are produced by {@link JMSProducer} through an in-memory JMS stand-in.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConsumerDecodeBenchmark {
+
+    @Param({BenchmarkData.WIRE_FORMAT_JSON, JMSUtils.WIRE_FORMAT_BINARY})
+    public String wireFormat;
+
+    @Param({BenchmarkData.KEY_TYPE_STRING, BenchmarkData.KEY_TYPE_OBJECT})
+    public String keyType;
+
+    @Param({"1", "100"})
+    public int frameSize;
+
+    private String jsonFrame;
+    private byte[] binaryFrame;
+
+    @Setup
+    public void setUp() throws JMSException {
+
+        BenchmarkData.applyConfig(wireFormat, BenchmarkData.DENY_LIST_NONE);
+        InMemoryJms jms = new InMemoryJms();
+        BenchmarkData.createProducer(jms).sendInvalidationBatch(BenchmarkData.createRequests(frameSize, keyType));
+        Message message = jms.getLastMessage();
+        if (message instanceof BytesMessage) {
+            BytesMessage bytesMessage = (BytesMessage) message;
+            binaryFrame = new byte[(int) bytesMessage.getBodyLength()];
+            bytesMessage.readBytes(binaryFrame);
+        } else if (message instanceof TextMessage) {
+            jsonFrame = ((TextMessage) message).getText();
+        } else {
+            throw new IllegalStateException("No cache invalidation frame is published.");
+        }
+    }
+
+    @Benchmark
+    public void decodeFrame(Blackhole blackhole) throws IOException {
+
+        List<InvalidationEntry> entries = jsonFrame != null ? JMSConsumer.decodeJsonFrame(jsonFrame) :
+                InvalidationMessageCodec.decode(binaryFrame);
+        for (InvalidationEntry entry : entries) {
+            blackhole.consume(entry.getCacheKey());
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.jms.BytesMessage;
+import javax.jms.Connection;
+import javax.jms.Message;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+import javax.jms.Topic;
+
+/**
+ * In-memory stand-in of a JMS broker connection. Sessions create plain text and bytes messages, and producers only
+ * record the last message sent, so that the benchmarks measure the cost of building the messages rather than the cost
+ * of a broker round trip. The stand-in adds a constant dynamic proxy dispatch cost to every JMS call.
+ */
+final class InMemoryJms {
+
+    private static final String TOPIC_NAME = "CacheTopic";
+
+    private final LongAdder sentCount = new LongAdder();
+    private volatile Message lastMessage;
+
+    /**
+     * Creates a connection whose sessions publish to this stand-in.
+     *
+     * @return JMS connection.
+     */
+    Connection createConnection() {
+
+        return proxy(Connection.class, (proxy, method, args) -> {
+            if ("createSession".equals(method.getName())) {
+                return createSession();
+            }
+            return defaultValue(method.getReturnType());
+        });
+    }
+
+    Topic createTopic() {
+
+        return proxy(Topic.class, (proxy, method, args) -> {
+            if ("getTopicName".equals(method.getName()) || "toString".equals(method.getName())) {
+                return TOPIC_NAME;
+            }
+            return defaultValue(method.getReturnType());
+        });
+    }
+
+    long getSentCount() {
+
+        return sentCount.sum();
+    }
+
+    /**
+     * Returns the message most recently sent through this stand-in.
+     *
+     * @return Last sent message, or null if no message is sent.
+     */
+    Message getLastMessage() {
+
+        return lastMessage;
+    }
+
+    private Session createSession() {
+
+        return proxy(Session.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "createProducer":
+                    return createProducer();
+                case "createTextMessage":
+                    return createTextMessage(args == null ? null : (String) args[0]);
+                case "createBytesMessage":
+                    return createBytesMessage();
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        });
+    }
+
+    private MessageProducer createProducer() {
+
+        return proxy(MessageProducer.class, (proxy, method, args) -> {
+            if ("send".equals(method.getName()) && args != null && args[0] instanceof Message) {
+                sentCount.increment();
+                lastMessage = (Message) args[0];
+            }
+            return defaultValue(method.getReturnType());
+        });
+    }
+
+    private static TextMessage createTextMessage(String text) {
+
+        return proxy(TextMessage.class, (proxy, method, args) -> {
+            if ("getText".equals(method.getName())) {
+                return text;
+            }
+            return defaultValue(method.getReturnType());
+        });
+    }
+
+    private static BytesMessage createBytesMessage() {
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        return proxy(BytesMessage.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "writeBytes":
+                    body.write((byte[]) args[0], 0, ((byte[]) args[0]).length);
+                    return null;
+                case "getBodyLength":
+                    return (long) body.size();
+                case "readBytes":
+                    byte[] bytes = body.toByteArray();
+                    System.arraycopy(bytes, 0, args[0], 0, bytes.length);
+                    return bytes.length;
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+
+        return type.cast(Proxy.newProxyInstance(InMemoryJms.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object defaultValue(Class<?> type) {
+
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.cache.CacheEntryInfo;
+import javax.jms.JMSException;
+
+/**
+ * Measures the checks applied by {@link JMSProducer#send(CacheEntryInfo)} before an invalidation is handed over for
+ * sending. The producer is not started, hence accepted invalidations are dropped once they pass the checks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProducerSendBenchmark {
+
+    private JMSProducer producer;
+    private CacheEntryInfo allowedEntry;
+    private CacheEntryInfo deniedEntry;
+    private CacheEntryInfo nonLocalEntry;
+
+    @Setup
+    public void setUp() throws JMSException {
+
+        BenchmarkData.applyConfig(BenchmarkData.WIRE_FORMAT_JSON, BenchmarkData.DENY_LIST_EXACT);
+        producer = BenchmarkData.createProducer(new InMemoryJms());
+        allowedEntry = BenchmarkData.createCacheEntryInfo(BenchmarkData.getLocalCacheName(1), "allowed-key");
+        deniedEntry = BenchmarkData.createCacheEntryInfo(BenchmarkData.getLocalCacheName(0), "denied-key");
+        nonLocalEntry = BenchmarkData.createCacheEntryInfo("AppInfoCache", "non-local-key");
+    }
+
+    @Benchmark
+    public void sendAllowed() {
+
+        producer.send(allowedEntry);
+    }
+
+    @Benchmark
+    public void sendDenied() {
+
+        producer.send(deniedEntry);
+    }
+
+    @Benchmark
+    public void sendNonLocalCache() {
+
+        producer.send(nonLocalEntry);
+    }
+}
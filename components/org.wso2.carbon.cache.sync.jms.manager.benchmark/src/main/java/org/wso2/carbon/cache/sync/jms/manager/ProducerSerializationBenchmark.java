@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.carbon.caching.impl.clustering.ClusterCacheInvalidationRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.jms.JMSException;
+
+/**
+ * Measures building and publishing a cache invalidation frame, covering the DTO mapping, key serialization and
+ * Jackson encoding of the JSON wire format, and the binary wire format. Frames are published to an in-memory JMS
+ * stand-in. Single invalidation frames of the JSON wire format go through
+ * {@link JMSProducer#sendInvalidationMessage(ClusterCacheInvalidationRequest)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProducerSerializationBenchmark {
+
+    @Param({BenchmarkData.WIRE_FORMAT_JSON, JMSUtils.WIRE_FORMAT_BINARY})
+    public String wireFormat;
+
+    @Param({BenchmarkData.KEY_TYPE_STRING, BenchmarkData.KEY_TYPE_OBJECT})
+    public String keyType;
+
+    @Param({"1", "100"})
+    public int frameSize;
+
+    private JMSProducer producer;
+    private List<ClusterCacheInvalidationRequest> requests;
+
+    @Setup
+    public void setUp() throws JMSException {
+
+        BenchmarkData.applyConfig(wireFormat, BenchmarkData.DENY_LIST_NONE);
+        producer = BenchmarkData.createProducer(new InMemoryJms());
+        requests = BenchmarkData.createRequests(frameSize, keyType);
+    }
+
+    @Benchmark
+    public void sendFrame() {
+
+        producer.sendInvalidationBatch(requests);
+    }
+}
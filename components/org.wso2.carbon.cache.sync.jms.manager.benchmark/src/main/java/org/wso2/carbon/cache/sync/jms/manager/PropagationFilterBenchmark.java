@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the deny-list check of {@link JMSUtils#isAllowedToPropagate(String, String)} over a rotating set of cache
+ * names, with no deny-list, an exact deny-list and a wildcard deny-list.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PropagationFilterBenchmark {
+
+    @Param({BenchmarkData.DENY_LIST_NONE, BenchmarkData.DENY_LIST_EXACT, BenchmarkData.DENY_LIST_WILDCARD})
+    public String denyList;
+
+    private String[] cacheNames;
+    private int index;
+
+    @Setup
+    public void setUp() {
+
+        BenchmarkData.applyConfig(BenchmarkData.WIRE_FORMAT_JSON, denyList);
+        cacheNames = new String[BenchmarkData.getCacheNameCount()];
+        for (int i = 0; i < cacheNames.length; i++) {
+            cacheNames[i] = BenchmarkData.getLocalCacheName(i);
+        }
+    }
+
+    @Benchmark
+    public boolean isAllowedToPropagate() {
+
+        index = (index + 1) % cacheNames.length;
+        return JMSUtils.isAllowedToPropagate(BenchmarkData.CACHE_MANAGER_NAME, cacheNames[index]);
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Self-tuning flush interval and batch size of the {@link InvalidationBatcher}, adapted to the observed enqueue rate,
+ * the latency of sending a message to the broker and the depth of the dispatch queue.
+ * <p>
+ * While fewer than half an invalidation arrives during the time taken to send a message, the batch size is kept at a
+ * single invalidation, hence invalidations are sent as soon as they are added. As the enqueue rate grows, the flush
+ * interval grows along with the number of invalidations arriving while a message is sent, and the batch size follows
+ * the number of invalidations expected within the flush interval. The flush interval is kept between the configured
+ * bounds, and the longest flush interval is used while the dispatch queue is more than half full.
+ * </p>
+ */
+public class AdaptiveBatchingPolicy {
+
+    // Time constant of the enqueue rate average. The rate observed a few seconds ago no longer affects the average.
+    private static final double RATE_TIME_CONSTANT_NANOS = TimeUnit.SECONDS.toNanos(1);
+    // Weight of the latest send latency in the send latency average.
+    private static final double LATENCY_WEIGHT = 0.2;
+    // Number of invalidations arriving while a message is sent, from which invalidations are batched.
+    private static final double BATCHING_THRESHOLD = 0.5;
+    // Fill ratio of the dispatch queue from which the longest flush interval is used.
+    private static final double QUEUE_PRESSURE_RATIO = 0.5;
+
+    private final long minFlushIntervalNanos;
+    private final long maxFlushIntervalNanos;
+    private final int maxBatchSize;
+    private final LongSupplier clock;
+    private volatile DoubleSupplier queueFillRatio = () -> 0;
+
+    // Decaying event rate in invalidations per nanosecond, as of the last enqueue.
+    private double enqueueRate;
+    private long lastEnqueueNanos;
+    private double sendLatencyNanos;
+    private volatile long flushIntervalNanos;
+    private volatile int batchSize = 1;
+
+    public AdaptiveBatchingPolicy(int minFlushIntervalMillis, int maxFlushIntervalMillis, int maxBatchSize) {
+
+        this(minFlushIntervalMillis, maxFlushIntervalMillis, maxBatchSize, System::nanoTime);
+    }
+
+    AdaptiveBatchingPolicy(int minFlushIntervalMillis, int maxFlushIntervalMillis, int maxBatchSize,
+                           LongSupplier clock) {
+
+        this.maxFlushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(maxFlushIntervalMillis);
+        this.minFlushIntervalNanos = Math.min(TimeUnit.MILLISECONDS.toNanos(minFlushIntervalMillis),
+                maxFlushIntervalNanos);
+        this.maxBatchSize = maxBatchSize;
+        this.clock = clock;
+        this.flushIntervalNanos = minFlushIntervalNanos;
+        this.lastEnqueueNanos = clock.getAsLong();
+    }
+
+    /**
+     * Sets the source of the dispatch queue fill ratio, between 0 for an empty queue and 1 for a full queue.
+     *
+     * @param queueFillRatio Dispatch queue fill ratio.
+     */
+    public void setQueueFillRatio(DoubleSupplier queueFillRatio) {
+
+        this.queueFillRatio = queueFillRatio;
+    }
+
+    /**
+     * Records a cache invalidation added to the batcher.
+     */
+    public synchronized void recordEnqueue() {
+
+        long now = clock.getAsLong();
+        enqueueRate = getDecayedRate(now) + 1 / RATE_TIME_CONSTANT_NANOS;
+        lastEnqueueNanos = now;
+        update(enqueueRate);
+    }
+
+    /**
+     * Records the time taken to send a message to the broker.
+     *
+     * @param elapsedNanos Send latency in nanoseconds.
+     */
+    public synchronized void recordSendLatency(long elapsedNanos) {
+
+        sendLatencyNanos = sendLatencyNanos == 0 ? elapsedNanos :
+                sendLatencyNanos + LATENCY_WEIGHT * (elapsedNanos - sendLatencyNanos);
+        update(getDecayedRate(clock.getAsLong()));
+    }
+
+    /**
+     * Time the oldest invalidation of a batch waits before the batch is flushed.
+     *
+     * @return Flush interval in nanoseconds.
+     */
+    public long getFlushIntervalNanos() {
+
+        return flushIntervalNanos;
+    }
+
+    /**
+     * Number of invalidations from which a batch is flushed without waiting for the flush interval.
+     *
+     * @return Batch size, between 1 and the maximum batch size.
+     */
+    public int getBatchSize() {
+
+        return batchSize;
+    }
+
+    public int getMaxBatchSize() {
+
+        return maxBatchSize;
+    }
+
+    /**
+     * Enqueue rate averaged over the last few seconds.
+     *
+     * @return Invalidations per second.
+     */
+    public synchronized double getEnqueueRate() {
+
+        return getDecayedRate(clock.getAsLong()) * TimeUnit.SECONDS.toNanos(1);
+    }
+
+    /**
+     * Average time taken to send a message to the broker.
+     *
+     * @return Send latency in nanoseconds.
+     */
+    public synchronized long getSendLatencyNanos() {
+
+        return (long) sendLatencyNanos;
+    }
+
+    private double getDecayedRate(long now) {
+
+        return enqueueRate * Math.exp(-Math.max(0, now - lastEnqueueNanos) / RATE_TIME_CONSTANT_NANOS);
+    }
+
+    private void update(double rate) {
+
+        double arrivalsPerSend = rate * sendLatencyNanos;
+        long interval;
+        if (queueFillRatio.getAsDouble() >= QUEUE_PRESSURE_RATIO) {
+            interval = maxFlushIntervalNanos;
+        } else if (arrivalsPerSend < BATCHING_THRESHOLD) {
+            interval = minFlushIntervalNanos;
+        } else {
+            interval = Math.max(minFlushIntervalNanos,
+                    Math.min(maxFlushIntervalNanos, (long) (sendLatencyNanos * arrivalsPerSend)));
+        }
+        flushIntervalNanos = interval;
+        if (arrivalsPerSend < BATCHING_THRESHOLD && interval < maxFlushIntervalNanos) {
+            batchSize = 1;
+        } else {
+            batchSize = (int) Math.max(1, Math.min(maxBatchSize, Math.ceil(rate * interval)));
+        }
+    }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.caching.impl.clustering.ClusterCacheInvalidationRequest;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.jms.CompletionListener;
+import javax.jms.JMSException;
+import javax.jms.Message;
+
+/**
+ * Publishes cache invalidation messages without waiting for the broker to acknowledge them. The number of messages
+ * in flight is bounded by a window, and a sender waits for a slot once the window is full, so that a slow broker
+ * pushes back on the dispatch queue instead of piling up unacknowledged messages in memory.
+ * <p>
+ * A message reported as failed by the provider keeps its slot and is resent after a delay growing with each attempt.
+ * Once the retry limit is reached, the failure is reported to the {@link PublishHandler}.
+ * </p>
+ */
+public class AsyncPublisher {
+
+    private static final Log log = LogFactory.getLog(AsyncPublisher.class);
+    // Number of times a message failed asynchronously is resent before the failure is reported.
+    private static final int DEFAULT_MAX_RETRIES = 3;
+    // Delay before the first resend of a failed message, multiplied by the attempt for the subsequent resends.
+    private static final long DEFAULT_RETRY_DELAY_MILLIS = 100;
+
+    private final int maxInFlight;
+    private final int maxRetries;
+    private final long retryDelayMillis;
+    private final PublishHandler handler;
+    private final Semaphore window;
+    private final ScheduledExecutorService retryScheduler;
+    private final LongAdder retries = new LongAdder();
+
+    public AsyncPublisher(int maxInFlight, PublishHandler handler) {
+
+        this(maxInFlight, DEFAULT_MAX_RETRIES, DEFAULT_RETRY_DELAY_MILLIS, handler);
+    }
+
+    AsyncPublisher(int maxInFlight, int maxRetries, long retryDelayMillis, PublishHandler handler) {
+
+        this.maxInFlight = maxInFlight;
+        this.maxRetries = maxRetries;
+        this.retryDelayMillis = retryDelayMillis;
+        this.handler = handler;
+        this.window = new Semaphore(maxInFlight);
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-sync-publish-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Hands a message over to the given sender, waiting for a slot in the in-flight window if the window is full.
+     *
+     * @param sender            Sends the message and notifies the given listener once the message is acknowledged.
+     * @param invalidationCount Number of cache invalidations carried by the message.
+     * @param requests          Cache invalidation requests of the message, reported back if the message fails.
+     * @throws JMSException If the message cannot be handed over to the provider, or the caller is interrupted while
+     *                      waiting for a slot.
+     */
+    public void publish(Sender sender, int invalidationCount, List<ClusterCacheInvalidationRequest> requests)
+            throws JMSException {
+
+        try {
+            window.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JMSException("Interrupted while waiting to publish a cache invalidation message.");
+        }
+        PublishListener listener = new PublishListener(sender, invalidationCount, requests, System.nanoTime(), 0);
+        try {
+            sender.send(listener);
+        } catch (JMSException | RuntimeException e) {
+            window.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Number of messages handed over to the provider and not yet acknowledged or failed.
+     *
+     * @return In-flight message count.
+     */
+    public int getInFlightCount() {
+
+        return maxInFlight - window.availablePermits();
+    }
+
+    /**
+     * Number of resends of the messages failed asynchronously.
+     *
+     * @return Resend count.
+     */
+    public long getRetryCount() {
+
+        return retries.sum();
+    }
+
+    /**
+     * Waits for the in-flight messages to be acknowledged or failed, and stops the retry timer.
+     *
+     * @param timeoutMillis Maximum time to wait for the in-flight messages.
+     * @return True if all the in-flight messages were completed within the timeout.
+     */
+    public boolean shutdown(long timeoutMillis) {
+
+        boolean drained = false;
+        try {
+            drained = window.tryAcquire(maxInFlight, timeoutMillis, TimeUnit.MILLISECONDS);
+            if (drained) {
+                window.release(maxInFlight);
+            } else {
+                log.warn(getInFlightCount() + " cache invalidation messages were not acknowledged by the broker "
+                        + "within " + timeoutMillis + " ms of the shutdown.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            retryScheduler.shutdownNow();
+        }
+        return drained;
+    }
+
+    private void resend(PublishListener failed, Exception cause) {
+
+        if (failed.attempt >= maxRetries) {
+            window.release();
+            handler.onFailed(failed.invalidationCount, failed.requests, cause);
+            return;
+        }
+        retries.increment();
+        PublishListener listener = new PublishListener(failed.sender, failed.invalidationCount, failed.requests,
+                failed.start, failed.attempt + 1);
+        try {
+            retryScheduler.schedule(() -> {
+                try {
+                    listener.sender.send(listener);
+                } catch (JMSException | RuntimeException e) {
+                    resend(listener, e);
+                }
+            }, retryDelayMillis * listener.attempt, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // The publisher is shut down, hence the message is not resent.
+            window.release();
+            handler.onFailed(failed.invalidationCount, failed.requests, cause);
+        }
+    }
+
+    /**
+     * Sends a message through the JMS provider.
+     */
+    @FunctionalInterface
+    public interface Sender {
+
+        void send(CompletionListener completionListener) throws JMSException;
+    }
+
+    /**
+     * Receives the outcome of the published messages.
+     */
+    public interface PublishHandler {
+
+        /**
+         * Called once a message is acknowledged by the broker.
+         *
+         * @param invalidationCount Number of cache invalidations carried by the message.
+         * @param elapsedNanos      Time from the first attempt to the acknowledgement.
+         */
+        void onSent(int invalidationCount, long elapsedNanos);
+
+        /**
+         * Called once a message failed and is not resent anymore.
+         *
+         * @param invalidationCount Number of cache invalidations carried by the message.
+         * @param requests          Cache invalidation requests of the message.
+         * @param cause             Failure of the last attempt.
+         */
+        void onFailed(int invalidationCount, List<ClusterCacheInvalidationRequest> requests, Exception cause);
+    }
+
+    private final class PublishListener implements CompletionListener {
+
+        private final Sender sender;
+        private final int invalidationCount;
+        private final List<ClusterCacheInvalidationRequest> requests;
+        private final long start;
+        private final int attempt;
+
+        PublishListener(Sender sender, int invalidationCount, List<ClusterCacheInvalidationRequest> requests,
+                        long start, int attempt) {
+
+            this.sender = sender;
+            this.invalidationCount = invalidationCount;
+            this.requests = requests;
+            this.start = start;
+            this.attempt = attempt;
+        }
+
+        @Override
+        public void onCompletion(Message message) {
+
+            window.release();
+            handler.onSent(invalidationCount, System.nanoTime() - start);
+        }
+
+        @Override
+        public void onException(Message message, Exception exception) {
+
+            if (log.isDebugEnabled()) {
+                log.debug("Failed to publish a cache invalidation message on attempt " + (attempt + 1) + ".",
+                        exception);
+            }
+            resend(this, exception);
+        }
+    }
+}
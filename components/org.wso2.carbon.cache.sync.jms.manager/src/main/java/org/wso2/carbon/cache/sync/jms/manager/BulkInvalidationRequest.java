@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.wso2.carbon.caching.impl.clustering.ClusterCacheInvalidationRequest;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Cache invalidation request covering more than a single cache key. It is sent through the same dispatch path as the
+ * single key invalidations, and is applied by the receiving nodes within a single tenant flow.
+ * <p>
+ * The cache key of a bulk request is always null. The cache name is null unless the scope is
+ * {@link InvalidationScope#CACHE_KEYS}, and the cache manager name is null for {@link InvalidationScope#TENANT}.
+ * </p>
+ */
+public class BulkInvalidationRequest extends ClusterCacheInvalidationRequest {
+
+    private static final long serialVersionUID = 1L;
+
+    private final InvalidationScope scope;
+    private final List<Object> cacheKeys;
+
+    private BulkInvalidationRequest(InvalidationScope scope, String tenantDomain, int tenantId,
+                                    String cacheManagerName, String cacheName, List<Object> cacheKeys) {
+
+        super(new CacheInfo(cacheManagerName, cacheName, null), tenantDomain, tenantId);
+        this.scope = scope;
+        this.cacheKeys = cacheKeys;
+    }
+
+    /**
+     * Creates a request invalidating every cache of a tenant.
+     *
+     * @param tenantDomain Tenant domain.
+     * @param tenantId     Tenant id.
+     * @return Bulk invalidation request.
+     */
+    public static BulkInvalidationRequest forTenant(String tenantDomain, int tenantId) {
+
+        return new BulkInvalidationRequest(InvalidationScope.TENANT, tenantDomain, tenantId, null, null,
+                Collections.emptyList());
+    }
+
+    /**
+     * Creates a request invalidating every local cache of a cache manager of a tenant.
+     *
+     * @param tenantDomain     Tenant domain.
+     * @param tenantId         Tenant id.
+     * @param cacheManagerName Cache manager name.
+     * @return Bulk invalidation request.
+     */
+    public static BulkInvalidationRequest forCacheManager(String tenantDomain, int tenantId, String cacheManagerName) {
+
+        return new BulkInvalidationRequest(InvalidationScope.CACHE_MANAGER, tenantDomain, tenantId, cacheManagerName,
+                null, Collections.emptyList());
+    }
+
+    /**
+     * Creates a request invalidating a set of keys of a cache.
+     *
+     * @param tenantDomain     Tenant domain.
+     * @param tenantId         Tenant id.
+     * @param cacheManagerName Cache manager name.
+     * @param cacheName        Cache name, including its local cache prefix.
+     * @param cacheKeys        Cache keys to be invalidated.
+     * @return Bulk invalidation request.
+     */
+    public static BulkInvalidationRequest forCacheKeys(String tenantDomain, int tenantId, String cacheManagerName,
+                                                       String cacheName, Collection<?> cacheKeys) {
+
+        return new BulkInvalidationRequest(InvalidationScope.CACHE_KEYS, tenantDomain, tenantId, cacheManagerName,
+                cacheName, Collections.unmodifiableList(new ArrayList<>(cacheKeys)));
+    }
+
+    public InvalidationScope getScope() {
+
+        return scope;
+    }
+
+    /**
+     * Cache keys invalidated by a {@link InvalidationScope#CACHE_KEYS} request.
+     *
+     * @return Cache keys, or an empty list for the other scopes.
+     */
+    public List<Object> getCacheKeys() {
+
+        return cacheKeys;
+    }
+
+    /**
+     * Returns the scope of a cache invalidation request.
+     *
+     * @param request Cache invalidation request.
+     * @return Scope of the request, which is {@link InvalidationScope#KEY} unless it is a bulk request.
+     */
+    public static InvalidationScope getScope(ClusterCacheInvalidationRequest request) {
+
+        return request instanceof BulkInvalidationRequest ? ((BulkInvalidationRequest) request).scope :
+                InvalidationScope.KEY;
+    }
+
+    @Override
+    public String toString() {
+
+        return "BulkInvalidationRequest{scope=" + scope + ", tenantId=" + getTenantId() + ", cacheManagerName=" +
+                getCacheInfo().getCacheManagerName() + ", cacheName=" + getCacheInfo().getCacheName() +
+                ", cacheKeys=" + cacheKeys.size() + "}";
+    }
+}
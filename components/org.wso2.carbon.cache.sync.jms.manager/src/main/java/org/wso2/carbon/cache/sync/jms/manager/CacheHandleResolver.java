@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.caching.impl.CacheImpl;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.Status;
+
+/**
+ * Caches the local cache handles resolved for received cache invalidations, keyed by tenant id, cache manager name and
+ * cache name. A handle is reused only while its cache is started. Caches stopped due to being removed, their cache
+ * manager being shut down or their tenant being unloaded are resolved again through the cache manager factory.
+ * <p>
+ * Handles must be resolved within the tenant flow of the invalidation, since cache managers are tenant specific.
+ * </p>
+ */
+public class CacheHandleResolver {
+
+    private static final Log log = LogFactory.getLog(CacheHandleResolver.class);
+    // Maximum number of handles kept before the resolved handles are discarded.
+    private static final int DEFAULT_MAX_HANDLES = 10000;
+
+    private final int maxHandles;
+    private final Map<CacheIdentifier, CacheImpl<?, ?>> handles = new ConcurrentHashMap<>();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    public CacheHandleResolver() {
+
+        this(DEFAULT_MAX_HANDLES);
+    }
+
+    public CacheHandleResolver(int maxHandles) {
+
+        this.maxHandles = maxHandles;
+    }
+
+    /**
+     * Resolves the local cache of the current tenant.
+     *
+     * @param tenantId         Tenant id of the current tenant flow.
+     * @param cacheManagerName Cache manager name.
+     * @param cacheName        Cache name.
+     * @return Cache handle, or null if the cache is not a local cache implementation.
+     */
+    public CacheImpl<?, ?> resolve(int tenantId, String cacheManagerName, String cacheName) {
+
+        CacheIdentifier cacheIdentifier = new CacheIdentifier(tenantId, cacheManagerName, cacheName);
+        CacheImpl<?, ?> handle = handles.get(cacheIdentifier);
+        if (handle != null && handle.getStatus() == Status.STARTED) {
+            hitCount.incrementAndGet();
+            return handle;
+        }
+
+        missCount.incrementAndGet();
+        CacheManager cacheManager = Caching.getCacheManagerFactory().getCacheManager(cacheManagerName);
+        Cache<Object, Object> cache = cacheManager.getCache(cacheName);
+        if (!(cache instanceof CacheImpl)) {
+            handles.remove(cacheIdentifier);
+            return null;
+        }
+        handle = (CacheImpl<?, ?>) cache;
+        if (handles.size() >= maxHandles && !handles.containsKey(cacheIdentifier)) {
+            if (log.isDebugEnabled()) {
+                log.debug("Discarding " + handles.size() + " resolved cache handles.");
+            }
+            handles.clear();
+        }
+        handles.put(cacheIdentifier, handle);
+        return handle;
+    }
+
+    /**
+     * Discards the resolved cache handles of a tenant.
+     *
+     * @param tenantId Tenant id.
+     */
+    public void invalidateTenant(int tenantId) {
+
+        handles.keySet().removeIf(cacheIdentifier -> cacheIdentifier.getTenantId() == tenantId);
+    }
+
+    /**
+     * Discards the resolved handle of a cache.
+     *
+     * @param tenantId         Tenant id.
+     * @param cacheManagerName Cache manager name.
+     * @param cacheName        Cache name.
+     */
+    public void invalidate(int tenantId, String cacheManagerName, String cacheName) {
+
+        handles.remove(new CacheIdentifier(tenantId, cacheManagerName, cacheName));
+    }
+
+    /**
+     * Discards all the resolved cache handles.
+     */
+    public void clear() {
+
+        handles.clear();
+    }
+
+    public int size() {
+
+        return handles.size();
+    }
+
+    public long getHitCount() {
+
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+
+        return missCount.get();
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.wso2.carbon.caching.impl.clustering.ClusterCacheInvalidationRequest;
+
+import java.util.Objects;
+
+/**
+ * Identifies a cache of a tenant.
+ */
+class CacheIdentifier {
+
+    private final int tenantId;
+    private final String cacheManagerName;
+    private final String cacheName;
+
+    CacheIdentifier(ClusterCacheInvalidationRequest request) {
+
+        this(request.getTenantId(), request.getCacheInfo().getCacheManagerName(),
+                request.getCacheInfo().getCacheName());
+    }
+
+    CacheIdentifier(int tenantId, String cacheManagerName, String cacheName) {
+
+        this.tenantId = tenantId;
+        this.cacheManagerName = cacheManagerName;
+        this.cacheName = cacheName;
+    }
+
+    int getTenantId() {
+
+        return tenantId;
+    }
+
+    String getCacheManagerName() {
+
+        return cacheManagerName;
+    }
+
+    String getCacheName() {
+
+        return cacheName;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CacheIdentifier)) {
+            return false;
+        }
+        CacheIdentifier that = (CacheIdentifier) o;
+        return tenantId == that.tenantId && Objects.equals(cacheManagerName, that.cacheManagerName) &&
+                Objects.equals(cacheName, that.cacheName);
+    }
+
+    @Override
+    public int hashCode() {
+
+        return Objects.hash(tenantId, cacheManagerName, cacheName);
+    }
+}
@@ -0,0 +1,596 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import java.nio.file.Path;
+
+/**
+ * Immutable snapshot of the cache sync configurations. Configurations read on every cache invalidation are parsed
+ * once into a snapshot, which is replaced as a whole when the configurations are reloaded.
+ */
+public final class CacheSyncConfig {
+
+    private final Boolean enabled;
+    private final boolean hybridMode;
+    private final int echoSuppressionWindowMillis;
+    private final String producerName;
+    private final boolean durableSubscriber;
+    private final boolean batchingEnabled;
+    private final int batchMaxSize;
+    private final int batchFlushIntervalMillis;
+    private final boolean adaptiveBatchingEnabled;
+    private final int batchMinFlushIntervalMillis;
+    private final boolean coalescingEnabled;
+    private final int coalescingWindowMillis;
+    private final boolean binaryWireFormat;
+    private final int dispatchQueueCapacity;
+    private final InvalidationDispatchQueue.OverflowPolicy dispatchOverflowPolicy;
+    private final int dispatchSenderThreads;
+    private final int producerSessionPoolSize;
+    private final int dispatchOfferTimeoutMillis;
+    private final Path dispatchSpoolDirectory;
+    private final boolean asyncPublishEnabled;
+    private final int dispatchMaxInFlight;
+    private final int reconnectInitialBackoffMillis;
+    private final int reconnectMaxBackoffMillis;
+    private final boolean outageSpoolEnabled;
+    private final int outageSpoolSegmentSizeKB;
+    private final int outageSpoolMaxSizeMB;
+    private final boolean keyFingerprintEnabled;
+    private final boolean sequencingEnabled;
+    private final boolean versioningEnabled;
+    private final int maxClockSkewMillis;
+    private final int consumerWorkerThreads;
+    private final boolean senderSelectorEnabled;
+    private final boolean interestFilterEnabled;
+    private final TopicSharding topicSharding;
+    private final boolean metricsEnabled;
+    private final boolean profilerEnabled;
+    private final int profilerTopK;
+    private final int profilerWindowSeconds;
+    private final int profilerSampleRate;
+
+    private CacheSyncConfig(Builder builder) {
+
+        this.enabled = builder.enabled;
+        this.hybridMode = builder.hybridMode;
+        this.echoSuppressionWindowMillis = builder.echoSuppressionWindowMillis;
+        this.producerName = builder.producerName;
+        this.durableSubscriber = builder.durableSubscriber;
+        this.batchingEnabled = builder.batchingEnabled;
+        this.batchMaxSize = builder.batchMaxSize;
+        this.batchFlushIntervalMillis = builder.batchFlushIntervalMillis;
+        this.adaptiveBatchingEnabled = builder.adaptiveBatchingEnabled;
+        this.batchMinFlushIntervalMillis = builder.batchMinFlushIntervalMillis;
+        this.coalescingEnabled = builder.coalescingEnabled;
+        this.coalescingWindowMillis = builder.coalescingWindowMillis;
+        this.binaryWireFormat = builder.binaryWireFormat;
+        this.dispatchQueueCapacity = builder.dispatchQueueCapacity;
+        this.dispatchOverflowPolicy = builder.dispatchOverflowPolicy;
+        this.dispatchSenderThreads = builder.dispatchSenderThreads;
+        this.producerSessionPoolSize = builder.producerSessionPoolSize;
+        this.dispatchOfferTimeoutMillis = builder.dispatchOfferTimeoutMillis;
+        this.dispatchSpoolDirectory = builder.dispatchSpoolDirectory;
+        this.asyncPublishEnabled = builder.asyncPublishEnabled;
+        this.dispatchMaxInFlight = builder.dispatchMaxInFlight;
+        this.reconnectInitialBackoffMillis = builder.reconnectInitialBackoffMillis;
+        this.reconnectMaxBackoffMillis = builder.reconnectMaxBackoffMillis;
+        this.outageSpoolEnabled = builder.outageSpoolEnabled;
+        this.outageSpoolSegmentSizeKB = builder.outageSpoolSegmentSizeKB;
+        this.outageSpoolMaxSizeMB = builder.outageSpoolMaxSizeMB;
+        this.keyFingerprintEnabled = builder.keyFingerprintEnabled;
+        this.sequencingEnabled = builder.sequencingEnabled;
+        this.versioningEnabled = builder.versioningEnabled;
+        this.maxClockSkewMillis = builder.maxClockSkewMillis;
+        this.consumerWorkerThreads = builder.consumerWorkerThreads;
+        this.senderSelectorEnabled = builder.senderSelectorEnabled;
+        this.interestFilterEnabled = builder.interestFilterEnabled;
+        this.topicSharding = builder.topicSharding;
+        this.metricsEnabled = builder.metricsEnabled;
+        this.profilerEnabled = builder.profilerEnabled;
+        this.profilerTopK = builder.profilerTopK;
+        this.profilerWindowSeconds = builder.profilerWindowSeconds;
+        this.profilerSampleRate = builder.profilerSampleRate;
+    }
+
+    /**
+     * Enabled state of the cache invalidator.
+     *
+     * @return Boolean representing the enabled state, or null if the property is not set.
+     */
+    public Boolean getEnabled() {
+
+        return enabled;
+    }
+
+    public boolean isHybridMode() {
+
+        return hybridMode;
+    }
+
+    public int getEchoSuppressionWindowMillis() {
+
+        return echoSuppressionWindowMillis;
+    }
+
+    public String getProducerName() {
+
+        return producerName;
+    }
+
+    public boolean isDurableSubscriber() {
+
+        return durableSubscriber;
+    }
+
+    public boolean isBatchingEnabled() {
+
+        return batchingEnabled;
+    }
+
+    public int getBatchMaxSize() {
+
+        return batchMaxSize;
+    }
+
+    public int getBatchFlushIntervalMillis() {
+
+        return batchFlushIntervalMillis;
+    }
+
+    public boolean isAdaptiveBatchingEnabled() {
+
+        return adaptiveBatchingEnabled;
+    }
+
+    public int getBatchMinFlushIntervalMillis() {
+
+        return batchMinFlushIntervalMillis;
+    }
+
+    public boolean isCoalescingEnabled() {
+
+        return coalescingEnabled;
+    }
+
+    public int getCoalescingWindowMillis() {
+
+        return coalescingWindowMillis;
+    }
+
+    public boolean isBinaryWireFormat() {
+
+        return binaryWireFormat;
+    }
+
+    public int getDispatchQueueCapacity() {
+
+        return dispatchQueueCapacity;
+    }
+
+    public InvalidationDispatchQueue.OverflowPolicy getDispatchOverflowPolicy() {
+
+        return dispatchOverflowPolicy;
+    }
+
+    public int getDispatchSenderThreads() {
+
+        return dispatchSenderThreads;
+    }
+
+    public int getProducerSessionPoolSize() {
+
+        return producerSessionPoolSize;
+    }
+
+    public int getDispatchOfferTimeoutMillis() {
+
+        return dispatchOfferTimeoutMillis;
+    }
+
+    public Path getDispatchSpoolDirectory() {
+
+        return dispatchSpoolDirectory;
+    }
+
+    public boolean isAsyncPublishEnabled() {
+
+        return asyncPublishEnabled;
+    }
+
+    public int getDispatchMaxInFlight() {
+
+        return dispatchMaxInFlight;
+    }
+
+    public int getReconnectInitialBackoffMillis() {
+
+        return reconnectInitialBackoffMillis;
+    }
+
+    public int getReconnectMaxBackoffMillis() {
+
+        return reconnectMaxBackoffMillis;
+    }
+
+    public boolean isOutageSpoolEnabled() {
+
+        return outageSpoolEnabled;
+    }
+
+    public int getOutageSpoolSegmentSizeKB() {
+
+        return outageSpoolSegmentSizeKB;
+    }
+
+    public int getOutageSpoolMaxSizeMB() {
+
+        return outageSpoolMaxSizeMB;
+    }
+
+    public boolean isKeyFingerprintEnabled() {
+
+        return keyFingerprintEnabled;
+    }
+
+    public boolean isSequencingEnabled() {
+
+        return sequencingEnabled;
+    }
+
+    public boolean isVersioningEnabled() {
+
+        return versioningEnabled;
+    }
+
+    public int getMaxClockSkewMillis() {
+
+        return maxClockSkewMillis;
+    }
+
+    public int getConsumerWorkerThreads() {
+
+        return consumerWorkerThreads;
+    }
+
+    public boolean isSenderSelectorEnabled() {
+
+        return senderSelectorEnabled;
+    }
+
+    public boolean isInterestFilterEnabled() {
+
+        return interestFilterEnabled;
+    }
+
+    public TopicSharding getTopicSharding() {
+
+        return topicSharding;
+    }
+
+    public boolean isMetricsEnabled() {
+
+        return metricsEnabled;
+    }
+
+    public boolean isProfilerEnabled() {
+
+        return profilerEnabled;
+    }
+
+    public int getProfilerTopK() {
+
+        return profilerTopK;
+    }
+
+    public int getProfilerWindowSeconds() {
+
+        return profilerWindowSeconds;
+    }
+
+    public int getProfilerSampleRate() {
+
+        return profilerSampleRate;
+    }
+
+    /**
+     * Builder of the configuration snapshot. Unset values default to the defaults of the configurations.
+     */
+    public static class Builder {
+
+        private Boolean enabled;
+        private boolean hybridMode;
+        private int echoSuppressionWindowMillis = JMSUtils.DEFAULT_ECHO_SUPPRESSION_WINDOW_MILLIS;
+        private String producerName;
+        private boolean durableSubscriber;
+        private boolean batchingEnabled;
+        private int batchMaxSize = JMSUtils.DEFAULT_BATCH_MAX_SIZE;
+        private int batchFlushIntervalMillis = JMSUtils.DEFAULT_BATCH_FLUSH_INTERVAL_MILLIS;
+        private boolean adaptiveBatchingEnabled;
+        private int batchMinFlushIntervalMillis = JMSUtils.DEFAULT_BATCH_MIN_FLUSH_INTERVAL_MILLIS;
+        private boolean coalescingEnabled;
+        private int coalescingWindowMillis = JMSUtils.DEFAULT_COALESCING_WINDOW_MILLIS;
+        private boolean binaryWireFormat;
+        private int dispatchQueueCapacity = JMSUtils.DEFAULT_DISPATCH_QUEUE_CAPACITY;
+        private InvalidationDispatchQueue.OverflowPolicy dispatchOverflowPolicy =
+                InvalidationDispatchQueue.OverflowPolicy.CLEAR_ALL;
+        private int dispatchSenderThreads = JMSUtils.DEFAULT_DISPATCH_SENDER_THREADS;
+        private int producerSessionPoolSize = JMSUtils.DEFAULT_DISPATCH_SENDER_THREADS;
+        private int dispatchOfferTimeoutMillis = JMSUtils.DEFAULT_DISPATCH_OFFER_TIMEOUT_MILLIS;
+        private Path dispatchSpoolDirectory;
+        private boolean asyncPublishEnabled;
+        private int dispatchMaxInFlight = JMSUtils.DEFAULT_DISPATCH_MAX_IN_FLIGHT;
+        private int reconnectInitialBackoffMillis = JMSUtils.DEFAULT_RECONNECT_INITIAL_BACKOFF_MILLIS;
+        private int reconnectMaxBackoffMillis = JMSUtils.DEFAULT_RECONNECT_MAX_BACKOFF_MILLIS;
+        private boolean outageSpoolEnabled;
+        private int outageSpoolSegmentSizeKB = JMSUtils.DEFAULT_OUTAGE_SPOOL_SEGMENT_SIZE_KB;
+        private int outageSpoolMaxSizeMB = JMSUtils.DEFAULT_OUTAGE_SPOOL_MAX_SIZE_MB;
+        private boolean keyFingerprintEnabled;
+        private boolean sequencingEnabled;
+        private boolean versioningEnabled;
+        private int maxClockSkewMillis = JMSUtils.DEFAULT_MAX_CLOCK_SKEW_MILLIS;
+        private int consumerWorkerThreads = 1;
+        private boolean senderSelectorEnabled;
+        private boolean interestFilterEnabled;
+        private TopicSharding topicSharding = TopicSharding.NONE;
+        private boolean metricsEnabled = true;
+        private boolean profilerEnabled;
+        private int profilerTopK = JMSUtils.DEFAULT_PROFILER_TOP_K;
+        private int profilerWindowSeconds = JMSUtils.DEFAULT_PROFILER_WINDOW_SECONDS;
+        private int profilerSampleRate = 1;
+
+        public Builder enabled(Boolean enabled) {
+
+            this.enabled = enabled;
+            return this;
+        }
+
+        public Builder hybridMode(boolean hybridMode) {
+
+            this.hybridMode = hybridMode;
+            return this;
+        }
+
+        public Builder echoSuppressionWindowMillis(int echoSuppressionWindowMillis) {
+
+            this.echoSuppressionWindowMillis = echoSuppressionWindowMillis;
+            return this;
+        }
+
+        public Builder producerName(String producerName) {
+
+            this.producerName = producerName;
+            return this;
+        }
+
+        public Builder durableSubscriber(boolean durableSubscriber) {
+
+            this.durableSubscriber = durableSubscriber;
+            return this;
+        }
+
+        public Builder batchingEnabled(boolean batchingEnabled) {
+
+            this.batchingEnabled = batchingEnabled;
+            return this;
+        }
+
+        public Builder batchMaxSize(int batchMaxSize) {
+
+            this.batchMaxSize = batchMaxSize;
+            return this;
+        }
+
+        public Builder batchFlushIntervalMillis(int batchFlushIntervalMillis) {
+
+            this.batchFlushIntervalMillis = batchFlushIntervalMillis;
+            return this;
+        }
+
+        public Builder adaptiveBatchingEnabled(boolean adaptiveBatchingEnabled) {
+
+            this.adaptiveBatchingEnabled = adaptiveBatchingEnabled;
+            return this;
+        }
+
+        public Builder batchMinFlushIntervalMillis(int batchMinFlushIntervalMillis) {
+
+            this.batchMinFlushIntervalMillis = batchMinFlushIntervalMillis;
+            return this;
+        }
+
+        public Builder coalescingEnabled(boolean coalescingEnabled) {
+
+            this.coalescingEnabled = coalescingEnabled;
+            return this;
+        }
+
+        public Builder coalescingWindowMillis(int coalescingWindowMillis) {
+
+            this.coalescingWindowMillis = coalescingWindowMillis;
+            return this;
+        }
+
+        public Builder binaryWireFormat(boolean binaryWireFormat) {
+
+            this.binaryWireFormat = binaryWireFormat;
+            return this;
+        }
+
+        public Builder dispatchQueueCapacity(int dispatchQueueCapacity) {
+
+            this.dispatchQueueCapacity = dispatchQueueCapacity;
+            return this;
+        }
+
+        public Builder dispatchOverflowPolicy(InvalidationDispatchQueue.OverflowPolicy dispatchOverflowPolicy) {
+
+            this.dispatchOverflowPolicy = dispatchOverflowPolicy;
+            return this;
+        }
+
+        public Builder dispatchSenderThreads(int dispatchSenderThreads) {
+
+            this.dispatchSenderThreads = dispatchSenderThreads;
+            return this;
+        }
+
+        public Builder producerSessionPoolSize(int producerSessionPoolSize) {
+
+            this.producerSessionPoolSize = producerSessionPoolSize;
+            return this;
+        }
+
+        public Builder dispatchOfferTimeoutMillis(int dispatchOfferTimeoutMillis) {
+
+            this.dispatchOfferTimeoutMillis = dispatchOfferTimeoutMillis;
+            return this;
+        }
+
+        public Builder dispatchSpoolDirectory(Path dispatchSpoolDirectory) {
+
+            this.dispatchSpoolDirectory = dispatchSpoolDirectory;
+            return this;
+        }
+
+        public Builder asyncPublishEnabled(boolean asyncPublishEnabled) {
+
+            this.asyncPublishEnabled = asyncPublishEnabled;
+            return this;
+        }
+
+        public Builder dispatchMaxInFlight(int dispatchMaxInFlight) {
+
+            this.dispatchMaxInFlight = dispatchMaxInFlight;
+            return this;
+        }
+
+        public Builder reconnectInitialBackoffMillis(int reconnectInitialBackoffMillis) {
+
+            this.reconnectInitialBackoffMillis = reconnectInitialBackoffMillis;
+            return this;
+        }
+
+        public Builder reconnectMaxBackoffMillis(int reconnectMaxBackoffMillis) {
+
+            this.reconnectMaxBackoffMillis = reconnectMaxBackoffMillis;
+            return this;
+        }
+
+        public Builder outageSpoolEnabled(boolean outageSpoolEnabled) {
+
+            this.outageSpoolEnabled = outageSpoolEnabled;
+            return this;
+        }
+
+        public Builder outageSpoolSegmentSizeKB(int outageSpoolSegmentSizeKB) {
+
+            this.outageSpoolSegmentSizeKB = outageSpoolSegmentSizeKB;
+            return this;
+        }
+
+        public Builder outageSpoolMaxSizeMB(int outageSpoolMaxSizeMB) {
+
+            this.outageSpoolMaxSizeMB = outageSpoolMaxSizeMB;
+            return this;
+        }
+
+        public Builder keyFingerprintEnabled(boolean keyFingerprintEnabled) {
+
+            this.keyFingerprintEnabled = keyFingerprintEnabled;
+            return this;
+        }
+
+        public Builder sequencingEnabled(boolean sequencingEnabled) {
+
+            this.sequencingEnabled = sequencingEnabled;
+            return this;
+        }
+
+        public Builder versioningEnabled(boolean versioningEnabled) {
+
+            this.versioningEnabled = versioningEnabled;
+            return this;
+        }
+
+        public Builder maxClockSkewMillis(int maxClockSkewMillis) {
+
+            this.maxClockSkewMillis = maxClockSkewMillis;
+            return this;
+        }
+
+        public Builder consumerWorkerThreads(int consumerWorkerThreads) {
+
+            this.consumerWorkerThreads = consumerWorkerThreads;
+            return this;
+        }
+
+        public Builder senderSelectorEnabled(boolean senderSelectorEnabled) {
+
+            this.senderSelectorEnabled = senderSelectorEnabled;
+            return this;
+        }
+
+        public Builder interestFilterEnabled(boolean interestFilterEnabled) {
+
+            this.interestFilterEnabled = interestFilterEnabled;
+            return this;
+        }
+
+        public Builder topicSharding(TopicSharding topicSharding) {
+
+            this.topicSharding = topicSharding;
+            return this;
+        }
+
+        public Builder metricsEnabled(boolean metricsEnabled) {
+
+            this.metricsEnabled = metricsEnabled;
+            return this;
+        }
+
+        public Builder profilerEnabled(boolean profilerEnabled) {
+
+            this.profilerEnabled = profilerEnabled;
+            return this;
+        }
+
+        public Builder profilerTopK(int profilerTopK) {
+
+            this.profilerTopK = profilerTopK;
+            return this;
+        }
+
+        public Builder profilerWindowSeconds(int profilerWindowSeconds) {
+
+            this.profilerWindowSeconds = profilerWindowSeconds;
+            return this;
+        }
+
+        public Builder profilerSampleRate(int profilerSampleRate) {
+
+            this.profilerSampleRate = profilerSampleRate;
+            return this;
+        }
+
+        public CacheSyncConfig build() {
+
+            return new CacheSyncConfig(this);
+        }
+    }
+}
@@ -0,0 +1,530 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of the cache sync pipeline, shared by the producer and the consumer of the node. The metrics are exposed
+ * over JMX under {@value #OBJECT_NAME}, from where they can be scraped by any JMX based metrics registry.
+ */
+public class CacheSyncMetrics implements CacheSyncMetricsMXBean {
+
+    public static final String OBJECT_NAME = "org.wso2.carbon.cache.sync:type=CacheSyncMetrics";
+
+    private static final CacheSyncMetrics INSTANCE = new CacheSyncMetrics();
+
+    private final LongAdder messagesSent = new LongAdder();
+    private final LongAdder invalidationsSent = new LongAdder();
+    private final LongAdder sendFailures = new LongAdder();
+    private final LongAdder serializationFailures = new LongAdder();
+    private final LongAdder deniedInvalidations = new LongAdder();
+    private final LongAdder invalidTenantInvalidations = new LongAdder();
+    private final LatencyHistogram sendLatency = new LatencyHistogram();
+    private final LongAdder messagesReceived = new LongAdder();
+    private final LongAdder invalidationsReceived = new LongAdder();
+    private final LongAdder selfFilteredMessages = new LongAdder();
+    private final LongAdder uninterestedInvalidations = new LongAdder();
+    private final LongAdder fingerprintFallbacks = new LongAdder();
+    private final LongAdder sequenceGaps = new LongAdder();
+    private final LongAdder recoveries = new LongAdder();
+    private final LongAdder recoveredCaches = new LongAdder();
+    private final LongAdder staleInvalidations = new LongAdder();
+    private final LongAdder localClusterForwards = new LongAdder();
+    private final LongAdder suppressedEchoes = new LongAdder();
+    private final LongAdder deserializationFailures = new LongAdder();
+    private final LongAdder applyFailures = new LongAdder();
+    private final LatencyHistogram applyLatency = new LatencyHistogram();
+    private final LongAdder reconnects = new LongAdder();
+    private final LongAdder failedReconnectAttempts = new LongAdder();
+    private final LongAdder totalReconnectNanos = new LongAdder();
+    private final AtomicLong maxReconnectNanos = new AtomicLong();
+
+    private volatile InvalidationDispatchQueue dispatchQueue;
+    private volatile AdaptiveBatchingPolicy batchingPolicy;
+    private volatile AsyncPublisher asyncPublisher;
+    private volatile JMSConnectionManager producerConnection;
+    private volatile MappedInvalidationSpool outageSpool;
+    private volatile JMSConnectionManager consumerConnection;
+    private volatile PartitionedInvalidationExecutor invalidationExecutor;
+
+    CacheSyncMetrics() {
+
+    }
+
+    public static CacheSyncMetrics getInstance() {
+
+        return INSTANCE;
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server.
+     */
+    public static void registerMBean() {
+
+        JMSUtils.registerMBean(INSTANCE, OBJECT_NAME);
+    }
+
+    /**
+     * Unregisters the metrics from the platform MBean server.
+     */
+    public static void unregisterMBean() {
+
+        JMSUtils.unregisterMBean(OBJECT_NAME);
+    }
+
+    void recordSent(int invalidations, long elapsedNanos) {
+
+        messagesSent.increment();
+        invalidationsSent.add(invalidations);
+        sendLatency.record(elapsedNanos);
+    }
+
+    void recordSendFailure() {
+
+        sendFailures.increment();
+    }
+
+    void recordSerializationFailure() {
+
+        serializationFailures.increment();
+    }
+
+    void recordDenied() {
+
+        deniedInvalidations.increment();
+    }
+
+    void recordInvalidTenant() {
+
+        invalidTenantInvalidations.increment();
+    }
+
+    void recordReceived(int invalidations) {
+
+        messagesReceived.increment();
+        invalidationsReceived.add(invalidations);
+    }
+
+    void recordSelfFiltered() {
+
+        selfFilteredMessages.increment();
+    }
+
+    void recordUninterested(int invalidations) {
+
+        uninterestedInvalidations.add(invalidations);
+    }
+
+    void recordFingerprintFallback() {
+
+        fingerprintFallbacks.increment();
+    }
+
+    void recordSequenceGap() {
+
+        sequenceGaps.increment();
+    }
+
+    void recordRecovery(int caches) {
+
+        recoveries.increment();
+        recoveredCaches.add(caches);
+    }
+
+    void recordStaleInvalidation() {
+
+        staleInvalidations.increment();
+    }
+
+    void recordForwardedToLocalCluster(int invalidations) {
+
+        localClusterForwards.add(invalidations);
+    }
+
+    void recordSuppressedEcho() {
+
+        suppressedEchoes.increment();
+    }
+
+    void recordDeserializationFailure() {
+
+        deserializationFailures.increment();
+    }
+
+    void recordApplied(long elapsedNanos) {
+
+        applyLatency.record(elapsedNanos);
+    }
+
+    void recordApplyFailure() {
+
+        applyFailures.increment();
+    }
+
+    void recordReconnect(long elapsedNanos) {
+
+        reconnects.increment();
+        totalReconnectNanos.add(elapsedNanos);
+        maxReconnectNanos.accumulateAndGet(elapsedNanos, Math::max);
+    }
+
+    void recordFailedReconnectAttempt() {
+
+        failedReconnectAttempts.increment();
+    }
+
+    void setDispatchQueue(InvalidationDispatchQueue dispatchQueue) {
+
+        this.dispatchQueue = dispatchQueue;
+    }
+
+    void setBatchingPolicy(AdaptiveBatchingPolicy batchingPolicy) {
+
+        this.batchingPolicy = batchingPolicy;
+    }
+
+    void setAsyncPublisher(AsyncPublisher asyncPublisher) {
+
+        this.asyncPublisher = asyncPublisher;
+    }
+
+    void setOutageSpool(MappedInvalidationSpool outageSpool) {
+
+        this.outageSpool = outageSpool;
+    }
+
+    void setProducerConnection(JMSConnectionManager producerConnection) {
+
+        this.producerConnection = producerConnection;
+    }
+
+    void setConsumerConnection(JMSConnectionManager consumerConnection) {
+
+        this.consumerConnection = consumerConnection;
+    }
+
+    void setInvalidationExecutor(PartitionedInvalidationExecutor invalidationExecutor) {
+
+        this.invalidationExecutor = invalidationExecutor;
+    }
+
+    @Override
+    public long getMessagesSent() {
+
+        return messagesSent.sum();
+    }
+
+    @Override
+    public long getInvalidationsSent() {
+
+        return invalidationsSent.sum();
+    }
+
+    @Override
+    public long getSendFailures() {
+
+        return sendFailures.sum();
+    }
+
+    @Override
+    public long getSerializationFailures() {
+
+        return serializationFailures.sum();
+    }
+
+    @Override
+    public long getDeniedInvalidations() {
+
+        return deniedInvalidations.sum();
+    }
+
+    @Override
+    public long getInvalidTenantInvalidations() {
+
+        return invalidTenantInvalidations.sum();
+    }
+
+    @Override
+    public long getSendLatencyMeanMicros() {
+
+        return sendLatency.getMeanMicros();
+    }
+
+    @Override
+    public long getSendLatencyP50Micros() {
+
+        return sendLatency.getPercentileMicros(50);
+    }
+
+    @Override
+    public long getSendLatencyP99Micros() {
+
+        return sendLatency.getPercentileMicros(99);
+    }
+
+    @Override
+    public long getSendLatencyMaxMicros() {
+
+        return sendLatency.getMaxMicros();
+    }
+
+    @Override
+    public int getDispatchQueueDepth() {
+
+        InvalidationDispatchQueue queue = dispatchQueue;
+        return queue == null ? 0 : queue.getQueueDepth();
+    }
+
+    @Override
+    public long getDispatchQueueRejected() {
+
+        InvalidationDispatchQueue queue = dispatchQueue;
+        return queue == null ? 0 : queue.getRejectedCount();
+    }
+
+    @Override
+    public long getDispatchQueueDropped() {
+
+        InvalidationDispatchQueue queue = dispatchQueue;
+        return queue == null ? 0 : queue.getDroppedCount();
+    }
+
+    @Override
+    public long getDispatchQueueCollapsed() {
+
+        InvalidationDispatchQueue queue = dispatchQueue;
+        return queue == null ? 0 : queue.getCollapsedCount();
+    }
+
+    @Override
+    public long getBatchFlushIntervalMicros() {
+
+        AdaptiveBatchingPolicy policy = batchingPolicy;
+        return policy == null ? 0 : TimeUnit.NANOSECONDS.toMicros(policy.getFlushIntervalNanos());
+    }
+
+    @Override
+    public int getBatchSize() {
+
+        AdaptiveBatchingPolicy policy = batchingPolicy;
+        return policy == null ? 0 : policy.getBatchSize();
+    }
+
+    @Override
+    public int getInFlightMessages() {
+
+        AsyncPublisher publisher = asyncPublisher;
+        return publisher == null ? 0 : publisher.getInFlightCount();
+    }
+
+    @Override
+    public long getPublishRetries() {
+
+        AsyncPublisher publisher = asyncPublisher;
+        return publisher == null ? 0 : publisher.getRetryCount();
+    }
+
+    @Override
+    public int getOutageSpoolSize() {
+
+        MappedInvalidationSpool spool = outageSpool;
+        return spool == null ? 0 : spool.size();
+    }
+
+    @Override
+    public long getOutageSpoolCollapsed() {
+
+        MappedInvalidationSpool spool = outageSpool;
+        return spool == null ? 0 : spool.getCollapsedCount();
+    }
+
+    @Override
+    public String getProducerConnectionState() {
+
+        return getState(producerConnection);
+    }
+
+    @Override
+    public String getConsumerConnectionState() {
+
+        return getState(consumerConnection);
+    }
+
+    @Override
+    public long getMessagesReceived() {
+
+        return messagesReceived.sum();
+    }
+
+    @Override
+    public long getInvalidationsReceived() {
+
+        return invalidationsReceived.sum();
+    }
+
+    @Override
+    public long getSelfFilteredMessages() {
+
+        return selfFilteredMessages.sum();
+    }
+
+    @Override
+    public long getUninterestedInvalidations() {
+
+        return uninterestedInvalidations.sum();
+    }
+
+    @Override
+    public long getFingerprintFallbacks() {
+
+        return fingerprintFallbacks.sum();
+    }
+
+    @Override
+    public long getSequenceGaps() {
+
+        return sequenceGaps.sum();
+    }
+
+    @Override
+    public long getRecoveries() {
+
+        return recoveries.sum();
+    }
+
+    @Override
+    public long getRecoveredCaches() {
+
+        return recoveredCaches.sum();
+    }
+
+    @Override
+    public long getStaleInvalidations() {
+
+        return staleInvalidations.sum();
+    }
+
+    @Override
+    public long getLocalClusterForwards() {
+
+        return localClusterForwards.sum();
+    }
+
+    @Override
+    public long getSuppressedEchoes() {
+
+        return suppressedEchoes.sum();
+    }
+
+    @Override
+    public long getDeserializationFailures() {
+
+        return deserializationFailures.sum();
+    }
+
+    @Override
+    public long getApplyFailures() {
+
+        return applyFailures.sum();
+    }
+
+    @Override
+    public long getApplyLatencyMeanMicros() {
+
+        return applyLatency.getMeanMicros();
+    }
+
+    @Override
+    public long getApplyLatencyP50Micros() {
+
+        return applyLatency.getPercentileMicros(50);
+    }
+
+    @Override
+    public long getApplyLatencyP99Micros() {
+
+        return applyLatency.getPercentileMicros(99);
+    }
+
+    @Override
+    public long getApplyLatencyMaxMicros() {
+
+        return applyLatency.getMaxMicros();
+    }
+
+    @Override
+    public int getConsumerPendingInvalidations() {
+
+        PartitionedInvalidationExecutor executor = invalidationExecutor;
+        if (executor == null) {
+            return 0;
+        }
+        int pending = 0;
+        for (int i = 0; i < executor.getPartitionCount(); i++) {
+            pending += executor.getPendingCount(i);
+        }
+        return pending;
+    }
+
+    @Override
+    public int getConsumerMaxQueueDepth() {
+
+        PartitionedInvalidationExecutor executor = invalidationExecutor;
+        if (executor == null) {
+            return 0;
+        }
+        int maxDepth = 0;
+        for (int i = 0; i < executor.getPartitionCount(); i++) {
+            maxDepth = Math.max(maxDepth, executor.getQueueDepth(i));
+        }
+        return maxDepth;
+    }
+
+    @Override
+    public long getReconnects() {
+
+        return reconnects.sum();
+    }
+
+    @Override
+    public long getFailedReconnectAttempts() {
+
+        return failedReconnectAttempts.sum();
+    }
+
+    @Override
+    public long getReconnectMeanMillis() {
+
+        long count = reconnects.sum();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalReconnectNanos.sum() / count);
+    }
+
+    @Override
+    public long getReconnectMaxMillis() {
+
+        return TimeUnit.NANOSECONDS.toMillis(maxReconnectNanos.get());
+    }
+
+    private static String getState(JMSConnectionManager connectionManager) {
+
+        return (connectionManager == null ? JMSConnectionManager.State.DOWN : connectionManager.getState()).name();
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+/**
+ * JMX view of the cache sync pipeline metrics. Counters are cumulative since the bundle is started, and latencies are
+ * reported in microseconds.
+ */
+public interface CacheSyncMetricsMXBean {
+
+    long getMessagesSent();
+
+    long getInvalidationsSent();
+
+    long getSendFailures();
+
+    long getSerializationFailures();
+
+    long getDeniedInvalidations();
+
+    long getInvalidTenantInvalidations();
+
+    long getSendLatencyMeanMicros();
+
+    long getSendLatencyP50Micros();
+
+    long getSendLatencyP99Micros();
+
+    long getSendLatencyMaxMicros();
+
+    int getDispatchQueueDepth();
+
+    long getDispatchQueueRejected();
+
+    long getDispatchQueueDropped();
+
+    long getDispatchQueueCollapsed();
+
+    long getBatchFlushIntervalMicros();
+
+    int getBatchSize();
+
+    int getInFlightMessages();
+
+    long getPublishRetries();
+
+    int getOutageSpoolSize();
+
+    long getOutageSpoolCollapsed();
+
+    String getProducerConnectionState();
+
+    String getConsumerConnectionState();
+
+    long getMessagesReceived();
+
+    long getInvalidationsReceived();
+
+    long getSelfFilteredMessages();
+
+    long getUninterestedInvalidations();
+
+    long getFingerprintFallbacks();
+
+    long getSequenceGaps();
+
+    long getRecoveries();
+
+    long getRecoveredCaches();
+
+    long getStaleInvalidations();
+
+    long getLocalClusterForwards();
+
+    long getSuppressedEchoes();
+
+    long getDeserializationFailures();
+
+    long getApplyFailures();
+
+    long getApplyLatencyMeanMicros();
+
+    long getApplyLatencyP50Micros();
+
+    long getApplyLatencyP99Micros();
+
+    long getApplyLatencyMaxMicros();
+
+    int getConsumerPendingInvalidations();
+
+    int getConsumerMaxQueueDepth();
+
+    long getReconnects();
+
+    long getFailedReconnectAttempts();
+
+    long getReconnectMeanMillis();
+
+    long getReconnectMaxMillis();
+}
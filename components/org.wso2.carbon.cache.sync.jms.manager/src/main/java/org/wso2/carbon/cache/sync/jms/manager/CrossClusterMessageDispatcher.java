@@ -39,6 +39,11 @@ public class CrossClusterMessageDispatcher implements CacheInvalidationRequestPr
         }
 
         if (JMSUtils.getRunInHybridModeProperty()) {
+            // Invalidations passed to the local cluster from the broker are not sent back to the broker.
+            if (HybridClusterBridge.getInstance().suppressEcho(clusterCacheInvalidationRequest)) {
+                log.debug("Cache invalidation message received from the broker is not sent back to the broker.");
+                return;
+            }
             log.debug("Sending cache invalidation message across multiple clustering.");
             JMSProducer producer = JMSProducer.getInstance();
             producer.sendAsyncInvalidation(clusterCacheInvalidationRequest);
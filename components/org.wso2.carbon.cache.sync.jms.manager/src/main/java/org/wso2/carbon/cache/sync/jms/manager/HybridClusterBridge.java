@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.caching.impl.clustering.ClusterCacheInvalidationRequest;
+import org.wso2.carbon.caching.impl.clustering.ClusterCacheInvalidationRequestSender;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.cache.CacheEntryInfo;
+import javax.cache.CacheInvalidationRequestSender;
+
+/**
+ * Bridges cache invalidations between the message broker and the local cluster of a node running in hybrid mode.
+ * The invalidations of a message received from the broker are passed to the local cluster through a single sender,
+ * sending each distinct invalidation once.
+ * <p>
+ * The keys passed to the local cluster are tracked for the echo suppression window. The local cluster members
+ * propagate the invalidations they receive towards the broker on their own threads, and each of them receives the
+ * message from the broker as well. An invalidation of a tracked key propagated towards the broker within the window is
+ * therefore taken as the echo of an invalidation received from the broker, and is not sent back to the broker, on
+ * whichever member and thread it is propagated.
+ * </p>
+ */
+public class HybridClusterBridge {
+
+    private static final Log log = LogFactory.getLog(HybridClusterBridge.class);
+    private static final HybridClusterBridge INSTANCE = new HybridClusterBridge(
+            new ClusterCacheInvalidationRequestSender());
+
+    private final CacheInvalidationRequestSender localClusterSender;
+    private final CacheSyncMetrics metrics = CacheSyncMetrics.getInstance();
+    // Time until which the echoes of each forwarded key are suppressed, in System.nanoTime() units.
+    private final Map<ForwardedInvalidation, Long> forwarded = new ConcurrentHashMap<>();
+    // Time the expired keys were last dropped, in System.nanoTime() units.
+    private final AtomicLong lastPurge = new AtomicLong(System.nanoTime());
+
+    HybridClusterBridge(CacheInvalidationRequestSender localClusterSender) {
+
+        this.localClusterSender = localClusterSender;
+    }
+
+    public static HybridClusterBridge getInstance() {
+
+        return INSTANCE;
+    }
+
+    /**
+     * Passes the invalidations received from the broker to the local cluster. The local cluster messages carry a single
+     * key each, hence the invalidations are deduplicated instead of being batched.
+     *
+     * @param invalidations Invalidations received from the broker.
+     */
+    public void forwardToLocalCluster(List<CacheEntryInfo> invalidations) {
+
+        long now = System.nanoTime();
+        long window = TimeUnit.MILLISECONDS.toNanos(JMSUtils.getEchoSuppressionWindowMillis());
+        Set<ForwardedInvalidation> sent = new HashSet<>();
+        for (CacheEntryInfo cacheEntryInfo : invalidations) {
+            ForwardedInvalidation forwardedInvalidation = new ForwardedInvalidation(cacheEntryInfo);
+            if (!sent.add(forwardedInvalidation)) {
+                continue;
+            }
+            // Tracked before being sent, so that the echoes of the invalidation are never propagated before it is.
+            forwarded.put(forwardedInvalidation, now + window);
+            if (log.isDebugEnabled()) {
+                log.debug("Sending cache invalidation message for local clustering: " + cacheEntryInfo);
+            }
+            localClusterSender.send(cacheEntryInfo);
+        }
+        metrics.recordForwardedToLocalCluster(sent.size());
+        purgeExpired(now, window);
+    }
+
+    /**
+     * Checks whether an invalidation to be propagated to the broker is the echo of an invalidation of the same key
+     * passed to the local cluster from the broker within the echo suppression window.
+     *
+     * @param request Invalidation propagated from the local cluster.
+     * @return True if the invalidation is not to be sent to the broker.
+     */
+    public boolean suppressEcho(ClusterCacheInvalidationRequest request) {
+
+        ForwardedInvalidation forwardedInvalidation = new ForwardedInvalidation(request);
+        Long expiry = forwarded.get(forwardedInvalidation);
+        if (expiry == null) {
+            return false;
+        }
+        if (expiry - System.nanoTime() < 0) {
+            forwarded.remove(forwardedInvalidation, expiry);
+            return false;
+        }
+        metrics.recordSuppressedEcho();
+        return true;
+    }
+
+    /**
+     * Number of forwarded keys of which the echoes may still be suppressed.
+     *
+     * @return Tracked forwarded key count.
+     */
+    int getForwardedSize() {
+
+        return forwarded.size();
+    }
+
+    /**
+     * Drops the expired keys once per window, unless another thread is already dropping them.
+     *
+     * @param now    Current time, in System.nanoTime() units.
+     * @param window Echo suppression window, in nanoseconds.
+     */
+    private void purgeExpired(long now, long window) {
+
+        long previous = lastPurge.get();
+        if (now - previous >= window && lastPurge.compareAndSet(previous, now)) {
+            forwarded.values().removeIf(expiry -> expiry - now < 0);
+        }
+    }
+
+    /**
+     * An invalidation of a key of a cache, passed to the local cluster or propagated from it.
+     */
+    private static final class ForwardedInvalidation {
+
+        private final CacheIdentifier cacheIdentifier;
+        private final Object cacheKey;
+
+        private ForwardedInvalidation(CacheEntryInfo cacheEntryInfo) {
+
+            this.cacheIdentifier = new CacheIdentifier(cacheEntryInfo.getTenantId(),
+                    cacheEntryInfo.getCacheManagerName(), cacheEntryInfo.getCacheName());
+            this.cacheKey = cacheEntryInfo.getCacheKey();
+        }
+
+        private ForwardedInvalidation(ClusterCacheInvalidationRequest request) {
+
+            this.cacheIdentifier = new CacheIdentifier(request);
+            this.cacheKey = request.getCacheInfo().getCacheKey();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ForwardedInvalidation)) {
+                return false;
+            }
+            ForwardedInvalidation that = (ForwardedInvalidation) o;
+            return cacheIdentifier.equals(that.cacheIdentifier) && Objects.equals(cacheKey, that.cacheKey);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return Objects.hash(cacheIdentifier, cacheKey);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hybrid logical clock of a node, stamping the cache invalidation messages it sends. A stamp holds the physical time
+ * in milliseconds in its upper 48 bits and a logical counter in its lower 16 bits, hence the stamps of a node strictly
+ * increase even if several messages are sent within a millisecond or the system clock is set back.
+ * <p>
+ * A stamp is taken after the invalidated entries were changed. A message of a node stamped lower than another message
+ * of the same node therefore carries invalidations of changes which were made before the other message was sent.
+ * </p>
+ * <p>
+ * Stamps received from other nodes are merged into the clock, hence a stamp taken after receiving a message is greater
+ * than the stamp of the message. The stamps of different nodes are otherwise ordered only as far as their system
+ * clocks are synchronized.
+ * </p>
+ */
+public class HybridLogicalClock {
+
+    private static final int LOGICAL_BITS = 16;
+
+    private final String origin;
+    private final AtomicLong last = new AtomicLong();
+
+    public HybridLogicalClock() {
+
+        this(UUID.randomUUID().toString());
+    }
+
+    public HybridLogicalClock(String origin) {
+
+        this.origin = origin;
+    }
+
+    /**
+     * Origin of the stamps of the clock, unique to the clock.
+     *
+     * @return Origin.
+     */
+    public String getOrigin() {
+
+        return origin;
+    }
+
+    /**
+     * Takes a stamp greater than every stamp taken before.
+     *
+     * @return Stamp.
+     */
+    public long tick() {
+
+        long physical = System.currentTimeMillis() << LOGICAL_BITS;
+        return last.accumulateAndGet(physical, (previous, now) -> Math.max(previous + 1, now));
+    }
+
+    /**
+     * Merges a stamp received from another node, so that the stamps taken afterwards are greater than it.
+     *
+     * @param stamp Received stamp.
+     */
+    public void receive(long stamp) {
+
+        long physical = System.currentTimeMillis() << LOGICAL_BITS;
+        last.accumulateAndGet(stamp, (previous, received) -> Math.max(Math.max(previous, received), physical));
+    }
+
+    /**
+     * Physical time of a stamp.
+     *
+     * @param stamp Stamp.
+     * @return Time in milliseconds.
+     */
+    public static long getPhysicalTime(long stamp) {
+
+        return stamp >>> LOGICAL_BITS;
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.caching.impl.clustering.ClusterCacheInvalidationRequest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Collects cache invalidation requests into multi-entry frames. A frame is handed over to the flush handler once it
+ * reaches the configured batch size or once the oldest pending request has waited for the configured flush interval,
+ * whichever happens first. With an {@link AdaptiveBatchingPolicy}, the batch size and the flush interval are taken
+ * from the policy as each request is added.
+ */
+public class InvalidationBatcher {
+
+    private static final Log log = LogFactory.getLog(InvalidationBatcher.class);
+
+    private final int maxBatchSize;
+    private final long flushIntervalMillis;
+    private final AdaptiveBatchingPolicy batchingPolicy;
+    private final Consumer<List<ClusterCacheInvalidationRequest>> flushHandler;
+    private final ScheduledExecutorService scheduler;
+    private List<ClusterCacheInvalidationRequest> pending;
+    private ScheduledFuture<?> scheduledFlush;
+
+    public InvalidationBatcher(int maxBatchSize, long flushIntervalMillis,
+                               Consumer<List<ClusterCacheInvalidationRequest>> flushHandler) {
+
+        this(maxBatchSize, flushIntervalMillis, null, flushHandler);
+    }
+
+    public InvalidationBatcher(AdaptiveBatchingPolicy batchingPolicy,
+                               Consumer<List<ClusterCacheInvalidationRequest>> flushHandler) {
+
+        this(batchingPolicy.getMaxBatchSize(), 0, batchingPolicy, flushHandler);
+    }
+
+    private InvalidationBatcher(int maxBatchSize, long flushIntervalMillis, AdaptiveBatchingPolicy batchingPolicy,
+                                Consumer<List<ClusterCacheInvalidationRequest>> flushHandler) {
+
+        this.maxBatchSize = maxBatchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.batchingPolicy = batchingPolicy;
+        this.flushHandler = flushHandler;
+        this.pending = new ArrayList<>(maxBatchSize);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-sync-batch-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Adds a cache invalidation request to the current batch.
+     *
+     * @param request Cache invalidation request.
+     */
+    public void add(ClusterCacheInvalidationRequest request) {
+
+        int batchSize = maxBatchSize;
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        if (batchingPolicy != null) {
+            batchingPolicy.recordEnqueue();
+            batchSize = batchingPolicy.getBatchSize();
+            flushIntervalNanos = batchingPolicy.getFlushIntervalNanos();
+        }
+        List<ClusterCacheInvalidationRequest> batch = null;
+        synchronized (this) {
+            pending.add(request);
+            if (pending.size() >= batchSize) {
+                batch = drain();
+            } else if (scheduledFlush == null && !scheduler.isShutdown()) {
+                scheduledFlush = scheduler.schedule(this::flush, flushIntervalNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        if (batch != null) {
+            flushHandler.accept(batch);
+        }
+    }
+
+    /**
+     * Returns the policy adapting the batch size and the flush interval.
+     *
+     * @return Adaptive batching policy, or null if the batch size and the flush interval are fixed.
+     */
+    public AdaptiveBatchingPolicy getBatchingPolicy() {
+
+        return batchingPolicy;
+    }
+
+    /**
+     * Hands over all pending cache invalidation requests to the flush handler.
+     */
+    public void flush() {
+
+        List<ClusterCacheInvalidationRequest> batch;
+        synchronized (this) {
+            batch = drain();
+        }
+        if (!batch.isEmpty()) {
+            flushHandler.accept(batch);
+        }
+    }
+
+    /**
+     * Flushes the pending cache invalidation requests and stops the flush timer.
+     */
+    public void shutdown() {
+
+        scheduler.shutdownNow();
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Error while flushing pending cache invalidation messages.", e);
+        }
+    }
+
+    private List<ClusterCacheInvalidationRequest> drain() {
+
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        if (pending.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<ClusterCacheInvalidationRequest> batch = pending;
+        pending = new ArrayList<>(maxBatchSize);
+        return batch;
+    }
+}
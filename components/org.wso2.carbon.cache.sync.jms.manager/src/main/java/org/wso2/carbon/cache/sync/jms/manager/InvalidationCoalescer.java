@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.caching.impl.clustering.ClusterCacheInvalidationRequest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Collapses repeated cache invalidation requests before they are dispatched to the broker. Requests are held for the
+ * configured coalescing window, during which
+ * <ul>
+ *     <li>a request for a key which already has a pending invalidation is suppressed, and</li>
+ *     <li>a clear-all request for a cache absorbs all the pending invalidations of the same cache, as well as the
+ *     invalidations received for that cache until the window is flushed.</li>
+ * </ul>
+ * Invalidations are keyed by tenant id, cache manager name, cache name and cache key.
+ */
+public class InvalidationCoalescer {
+
+    private static final Log log = LogFactory.getLog(InvalidationCoalescer.class);
+
+    private final long windowMillis;
+    private final Consumer<ClusterCacheInvalidationRequest> downstream;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicLong receivedCount = new AtomicLong();
+    private final AtomicLong suppressedDuplicateCount = new AtomicLong();
+    private final AtomicLong suppressedByClearAllCount = new AtomicLong();
+    private Map<CacheIdentifier, PendingInvalidations> pending = new LinkedHashMap<>();
+    private ScheduledFuture<?> scheduledFlush;
+
+    public InvalidationCoalescer(long windowMillis, Consumer<ClusterCacheInvalidationRequest> downstream) {
+
+        this.windowMillis = windowMillis;
+        this.downstream = downstream;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-sync-coalescer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Adds a cache invalidation request to the coalescing window.
+     *
+     * @param request Cache invalidation request.
+     */
+    public void add(ClusterCacheInvalidationRequest request) {
+
+        receivedCount.incrementAndGet();
+        Object cacheKey = request.getCacheInfo().getCacheKey();
+        if (cacheKey == null) {
+            downstream.accept(request);
+            return;
+        }
+
+        synchronized (this) {
+            PendingInvalidations pendingInvalidations =
+                    pending.computeIfAbsent(new CacheIdentifier(request), id -> new PendingInvalidations());
+            if (JMSUtils.CLEAR_ALL_PREFIX.equals(cacheKey)) {
+                if (pendingInvalidations.clearAllRequest != null) {
+                    suppressedDuplicateCount.incrementAndGet();
+                } else {
+                    suppressedByClearAllCount.addAndGet(pendingInvalidations.requests.size());
+                    pendingInvalidations.requests.clear();
+                    pendingInvalidations.clearAllRequest = request;
+                }
+            } else if (pendingInvalidations.clearAllRequest != null) {
+                suppressedByClearAllCount.incrementAndGet();
+            } else if (pendingInvalidations.requests.putIfAbsent(cacheKey, request) != null) {
+                suppressedDuplicateCount.incrementAndGet();
+            }
+
+            if (scheduledFlush == null && !scheduler.isShutdown()) {
+                scheduledFlush = scheduler.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Dispatches all the pending cache invalidation requests.
+     */
+    public void flush() {
+
+        Map<CacheIdentifier, PendingInvalidations> flushed;
+        synchronized (this) {
+            if (scheduledFlush != null) {
+                scheduledFlush.cancel(false);
+                scheduledFlush = null;
+            }
+            if (pending.isEmpty()) {
+                return;
+            }
+            flushed = pending;
+            pending = new LinkedHashMap<>();
+        }
+
+        for (PendingInvalidations pendingInvalidations : flushed.values()) {
+            for (ClusterCacheInvalidationRequest request : pendingInvalidations.getRequests()) {
+                downstream.accept(request);
+            }
+        }
+    }
+
+    /**
+     * Dispatches the pending cache invalidation requests and stops the flush timer.
+     */
+    public void shutdown() {
+
+        scheduler.shutdownNow();
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Error while dispatching pending cache invalidation messages.", e);
+        }
+    }
+
+    /**
+     * Number of cache invalidation requests received by the coalescer.
+     *
+     * @return Received request count.
+     */
+    public long getReceivedCount() {
+
+        return receivedCount.get();
+    }
+
+    /**
+     * Number of cache invalidation requests suppressed since an invalidation for the same key was already pending.
+     *
+     * @return Suppressed duplicate count.
+     */
+    public long getSuppressedDuplicateCount() {
+
+        return suppressedDuplicateCount.get();
+    }
+
+    /**
+     * Number of cache invalidation requests absorbed by a pending clear-all request of the same cache.
+     *
+     * @return Suppressed request count.
+     */
+    public long getSuppressedByClearAllCount() {
+
+        return suppressedByClearAllCount.get();
+    }
+
+    /**
+     * Invalidations waiting in the coalescing window for a single cache.
+     */
+    private static class PendingInvalidations {
+
+        private final Map<Object, ClusterCacheInvalidationRequest> requests = new LinkedHashMap<>();
+        private ClusterCacheInvalidationRequest clearAllRequest;
+
+        private List<ClusterCacheInvalidationRequest> getRequests() {
+
+            List<ClusterCacheInvalidationRequest> pendingRequests = new ArrayList<>(requests.values());
+            if (clearAllRequest != null) {
+                pendingRequests.add(clearAllRequest);
+            }
+            return pendingRequests;
+        }
+    }
+}
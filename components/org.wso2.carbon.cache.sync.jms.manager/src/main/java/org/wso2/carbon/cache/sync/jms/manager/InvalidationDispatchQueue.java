@@ -0,0 +1,516 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.caching.impl.clustering.ClusterCacheInvalidationRequest;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Bounded queue between the cache listeners and the JMS senders. The capacity is counted in cache invalidations, and
+ * the configured {@link OverflowPolicy} decides what happens to an invalidation which does not fit into the queue.
+ * <p>
+ * The queue is drained by a fixed number of sender threads, each of which hands over one frame at a time to the
+ * sender callback.
+ * </p>
+ */
+public class InvalidationDispatchQueue {
+
+    private static final Log log = LogFactory.getLog(InvalidationDispatchQueue.class);
+    private static final long IDLE_WAIT_MILLIS = 100;
+
+    /**
+     * Action taken when an invalidation does not fit into the dispatch queue.
+     */
+    public enum OverflowPolicy {
+
+        // Block the caller until there is space in the queue or the offer timeout elapses.
+        BLOCK,
+        // Drop the oldest queued invalidations to make space.
+        DROP_OLDEST,
+        // Collapse every queued invalidation into a single clear-all invalidation per cache.
+        CLEAR_ALL,
+        // Write the invalidations to a spool file, which is drained once the queue has space.
+        SPILL;
+
+        /**
+         * Resolves the overflow policy from its configured name.
+         *
+         * @param value Configured policy name.
+         * @return Overflow policy, or {@link #CLEAR_ALL} if the value is blank or not a known policy.
+         */
+        public static OverflowPolicy fromConfig(String value) {
+
+            if (StringUtils.isBlank(value)) {
+                return CLEAR_ALL;
+            }
+            try {
+                return OverflowPolicy.valueOf(value.trim().toUpperCase(Locale.ENGLISH));
+            } catch (IllegalArgumentException e) {
+                log.warn("Unknown dispatch queue overflow policy: " + value + ". Using " + CLEAR_ALL);
+                return CLEAR_ALL;
+            }
+        }
+    }
+
+    private final int capacity;
+    private final OverflowPolicy overflowPolicy;
+    private final long offerTimeoutNanos;
+    private final Consumer<List<ClusterCacheInvalidationRequest>> sender;
+    private final InvalidationSpool spool;
+    private final ArrayDeque<List<ClusterCacheInvalidationRequest>> frames = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    // Orders the frames appended to the spool, which are written without holding the queue lock.
+    private final ReentrantLock spillLock = new ReentrantLock();
+    private final Condition spillTurn = spillLock.newCondition();
+    private final List<Thread> senderThreads = new ArrayList<>();
+    private volatile boolean running = true;
+    private int size;
+    // Frames accepted to be spilled, and not yet appended to the spool. Guarded by the queue lock.
+    private int pendingSpillCount;
+    private long issuedSpillCount;
+    // Guarded by the spill lock.
+    private long appendedSpillCount;
+
+    private final AtomicLong enqueuedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong collapsedCount = new AtomicLong();
+    private final AtomicLong spilledCount = new AtomicLong();
+    private final AtomicLong enqueueCallCount = new AtomicLong();
+    private final AtomicLong totalEnqueueNanos = new AtomicLong();
+    private final AtomicLong maxEnqueueNanos = new AtomicLong();
+
+    public InvalidationDispatchQueue(int capacity, OverflowPolicy overflowPolicy, long offerTimeoutMillis,
+                                     int senderCount, InvalidationSpool spool,
+                                     Consumer<List<ClusterCacheInvalidationRequest>> sender) {
+
+        this.capacity = capacity;
+        this.overflowPolicy = overflowPolicy == OverflowPolicy.SPILL && spool == null ?
+                OverflowPolicy.CLEAR_ALL : overflowPolicy;
+        this.offerTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(offerTimeoutMillis);
+        this.spool = spool;
+        this.sender = sender;
+        for (int i = 0; i < senderCount; i++) {
+            Thread thread = new Thread(this::runSender, "cache-sync-sender-" + i);
+            thread.setDaemon(true);
+            senderThreads.add(thread);
+            thread.start();
+        }
+    }
+
+    /**
+     * Adds a frame of cache invalidation requests to the queue, applying the overflow policy if the queue is full.
+     *
+     * @param frame Cache invalidation requests to be sent together.
+     * @return True if the invalidations were accepted, false if they were rejected.
+     */
+    public boolean enqueue(List<ClusterCacheInvalidationRequest> frame) {
+
+        long start = System.nanoTime();
+        boolean accepted;
+        long spillTicket = -1;
+        lock.lock();
+        try {
+            if (isSpilled(frame)) {
+                spillTicket = issuedSpillCount++;
+                pendingSpillCount++;
+                accepted = true;
+            } else {
+                accepted = offer(frame);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        } finally {
+            lock.unlock();
+        }
+        if (spillTicket >= 0) {
+            // The frame is written to the disk without holding the lock, so that the sender threads are not held up.
+            spill(frame, spillTicket);
+        }
+        recordEnqueueLatency(System.nanoTime() - start);
+        if (accepted) {
+            enqueuedCount.addAndGet(frame.size());
+        } else {
+            rejectedCount.addAndGet(frame.size());
+            if (log.isDebugEnabled()) {
+                log.debug("Rejected " + frame.size() + " cache invalidation messages as the dispatch queue is full.");
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Stops accepting invalidations and waits for the sender threads to drain the queue.
+     *
+     * @param timeoutMillis Maximum time to wait for the queue to be drained.
+     */
+    public void shutdown(long timeoutMillis) {
+
+        lock.lock();
+        try {
+            running = false;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        try {
+            for (Thread thread : senderThreads) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining > 0) {
+                    thread.join(remaining);
+                }
+                thread.interrupt();
+            }
+        } catch (InterruptedException e) {
+            senderThreads.forEach(Thread::interrupt);
+            Thread.currentThread().interrupt();
+        }
+
+        int pending = getQueueDepth();
+        if (pending > 0) {
+            log.warn("Discarding " + pending + " cache invalidation messages pending in the dispatch queue.");
+        }
+        if (spool != null) {
+            spool.close();
+        }
+    }
+
+    /**
+     * Number of cache invalidations waiting in the queue, including the invalidations spilled to disk.
+     *
+     * @return Queue depth.
+     */
+    public int getQueueDepth() {
+
+        lock.lock();
+        try {
+            return spool != null ? size + spool.size() : size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getCapacity() {
+
+        return capacity;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+
+        return overflowPolicy;
+    }
+
+    public int getSenderCount() {
+
+        return senderThreads.size();
+    }
+
+    public long getEnqueuedCount() {
+
+        return enqueuedCount.get();
+    }
+
+    /**
+     * Number of cache invalidations rejected because the queue was full or shut down.
+     *
+     * @return Rejected invalidation count.
+     */
+    public long getRejectedCount() {
+
+        return rejectedCount.get();
+    }
+
+    /**
+     * Number of queued cache invalidations dropped to make space for newer invalidations.
+     *
+     * @return Dropped invalidation count.
+     */
+    public long getDroppedCount() {
+
+        return droppedCount.get();
+    }
+
+    /**
+     * Number of cache invalidations replaced by clear-all invalidations of their caches.
+     *
+     * @return Collapsed invalidation count.
+     */
+    public long getCollapsedCount() {
+
+        return collapsedCount.get();
+    }
+
+    /**
+     * Number of cache invalidations written to the spool.
+     *
+     * @return Spilled invalidation count.
+     */
+    public long getSpilledCount() {
+
+        return spilledCount.get();
+    }
+
+    /**
+     * Average time spent by the callers to enqueue a frame.
+     *
+     * @return Average enqueue latency in nanoseconds.
+     */
+    public long getAverageEnqueueLatencyNanos() {
+
+        long callCount = enqueueCallCount.get();
+        return callCount == 0 ? 0 : totalEnqueueNanos.get() / callCount;
+    }
+
+    /**
+     * Maximum time spent by a caller to enqueue a frame.
+     *
+     * @return Maximum enqueue latency in nanoseconds.
+     */
+    public long getMaxEnqueueLatencyNanos() {
+
+        return maxEnqueueNanos.get();
+    }
+
+    private boolean offer(List<ClusterCacheInvalidationRequest> frame) throws InterruptedException {
+
+        if (!running) {
+            return false;
+        }
+        if (hasSpace(frame) && (spool == null || spool.size() == 0)) {
+            add(frame);
+            return true;
+        }
+
+        switch (overflowPolicy) {
+            case BLOCK:
+                long nanos = offerTimeoutNanos;
+                while (!hasSpace(frame)) {
+                    if (nanos <= 0 || !running) {
+                        return false;
+                    }
+                    nanos = notFull.awaitNanos(nanos);
+                }
+                add(frame);
+                return true;
+            case DROP_OLDEST:
+                while (!hasSpace(frame)) {
+                    List<ClusterCacheInvalidationRequest> oldest = frames.poll();
+                    size -= oldest.size();
+                    droppedCount.addAndGet(oldest.size());
+                }
+                add(frame);
+                return true;
+            default:
+                collapse(frame);
+                return true;
+        }
+    }
+
+    /**
+     * Checks whether a frame is to be spilled to the disk, which is done by the caller once the lock is released.
+     *
+     * @param frame Cache invalidation requests to be enqueued.
+     * @return True if the frame is to be spilled.
+     */
+    private boolean isSpilled(List<ClusterCacheInvalidationRequest> frame) {
+
+        // Frames are spilled while older frames are spooled or being spooled as well, so that they are sent in order.
+        return overflowPolicy == OverflowPolicy.SPILL && running &&
+                (!hasSpace(frame) || pendingSpillCount > 0 || spool.size() > 0);
+    }
+
+    /**
+     * Appends a frame to the spool, after the frames accepted to be spilled before it.
+     *
+     * @param frame       Cache invalidation requests to be spilled.
+     * @param spillTicket Order in which the frame was accepted to be spilled.
+     */
+    private void spill(List<ClusterCacheInvalidationRequest> frame, long spillTicket) {
+
+        IOException failure = null;
+        spillLock.lock();
+        try {
+            while (appendedSpillCount != spillTicket) {
+                spillTurn.awaitUninterruptibly();
+            }
+            try {
+                spool.append(frame);
+                spilledCount.addAndGet(frame.size());
+            } catch (IOException e) {
+                failure = e;
+            }
+            appendedSpillCount++;
+            spillTurn.signalAll();
+        } finally {
+            spillLock.unlock();
+        }
+
+        lock.lock();
+        try {
+            pendingSpillCount--;
+            if (failure != null) {
+                log.error("Error while spilling cache invalidation messages to disk.", failure);
+                collapse(frame);
+            } else {
+                notEmpty.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean hasSpace(List<ClusterCacheInvalidationRequest> frame) {
+
+        // A frame larger than the capacity is still accepted into an empty queue.
+        return size == 0 || size + frame.size() <= capacity;
+    }
+
+    private void add(List<ClusterCacheInvalidationRequest> frame) {
+
+        frames.add(frame);
+        size += frame.size();
+        notEmpty.signal();
+    }
+
+    private void collapse(List<ClusterCacheInvalidationRequest> frame) {
+
+        Map<CacheIdentifier, ClusterCacheInvalidationRequest> clearAllRequests = new LinkedHashMap<>();
+        int collapsed = frame.size();
+        for (List<ClusterCacheInvalidationRequest> queued : frames) {
+            collapsed += queued.size();
+            addClearAllRequests(queued, clearAllRequests);
+        }
+        addClearAllRequests(frame, clearAllRequests);
+
+        frames.clear();
+        size = 0;
+        add(new ArrayList<>(clearAllRequests.values()));
+        collapsedCount.addAndGet(collapsed - clearAllRequests.size());
+        if (log.isDebugEnabled()) {
+            log.debug("Collapsed " + collapsed + " queued cache invalidation messages into " +
+                    clearAllRequests.size() + " clear-all messages.");
+        }
+    }
+
+    /**
+     * Collapses cache invalidation requests into a clear-all invalidation per cache.
+     *
+     * @param requests         Cache invalidation requests.
+     * @param clearAllRequests Clear-all invalidations of the caches, to which the requests are added.
+     */
+    static void addClearAllRequests(List<ClusterCacheInvalidationRequest> requests,
+                                    Map<CacheIdentifier, ClusterCacheInvalidationRequest> clearAllRequests) {
+
+        for (ClusterCacheInvalidationRequest request : requests) {
+            InvalidationScope scope = BulkInvalidationRequest.getScope(request);
+            if (scope == InvalidationScope.TENANT || scope == InvalidationScope.CACHE_MANAGER) {
+                // Tenant and cache manager invalidations already cover whole caches, hence they are kept as they are.
+                clearAllRequests.putIfAbsent(new CacheIdentifier(request), request);
+                continue;
+            }
+            clearAllRequests.computeIfAbsent(new CacheIdentifier(request), id -> new ClusterCacheInvalidationRequest(
+                    new ClusterCacheInvalidationRequest.CacheInfo(request.getCacheInfo().getCacheManagerName(),
+                            request.getCacheInfo().getCacheName(), JMSUtils.CLEAR_ALL_PREFIX),
+                    request.getTenantDomain(), request.getTenantId()));
+        }
+    }
+
+    private void runSender() {
+
+        while (true) {
+            List<ClusterCacheInvalidationRequest> frame;
+            try {
+                frame = take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (frame == null) {
+                return;
+            }
+            try {
+                sender.accept(frame);
+            } catch (RuntimeException e) {
+                log.error("Error while sending cache invalidation messages.", e);
+            }
+        }
+    }
+
+    private List<ClusterCacheInvalidationRequest> take() throws InterruptedException {
+
+        while (true) {
+            lock.lock();
+            try {
+                List<ClusterCacheInvalidationRequest> frame = frames.poll();
+                if (frame != null) {
+                    size -= frame.size();
+                    notFull.signal();
+                    return frame;
+                }
+                if (spool == null || spool.size() == 0) {
+                    // The senders keep running until the frames being spilled are written and sent as well.
+                    if (!running && pendingSpillCount == 0) {
+                        return null;
+                    }
+                    notEmpty.await(IDLE_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+                    continue;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            // The queue is empty, refill it with the oldest spilled frame.
+            try {
+                List<ClusterCacheInvalidationRequest> frame = spool.poll();
+                if (frame != null && !frame.isEmpty()) {
+                    return frame;
+                }
+            } catch (IOException e) {
+                log.error("Error while reading spilled cache invalidation messages.", e);
+            }
+        }
+    }
+
+    private void recordEnqueueLatency(long nanos) {
+
+        enqueueCallCount.incrementAndGet();
+        totalEnqueueNanos.addAndGet(nanos);
+        maxEnqueueNanos.accumulateAndGet(nanos, Math::max);
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * A single cache invalidation received from the message broker. The cache key is decoded lazily, so that entries
+ * which are not applied locally never pay for key deserialization. The cache key of a
+ * {@link InvalidationScope#CACHE_KEYS} entry is the list of invalidated keys, while the tenant and cache manager
+ * scoped entries carry no cache key. A {@link InvalidationScope#KEY_FINGERPRINT} entry carries only the fingerprint
+ * of the invalidated key.
+ */
+public class InvalidationEntry {
+
+    private final InvalidationScope scope;
+    private final int tenantId;
+    private final String tenantDomain;
+    private final String cacheManagerName;
+    private final String cacheName;
+    private final long keyFingerprint;
+    private KeyDecoder keyDecoder;
+    private Object cacheKey;
+    private Integer encodedKeyHash;
+    private String origin;
+    private long stamp;
+
+    public InvalidationEntry(int tenantId, String tenantDomain, String cacheManagerName, String cacheName,
+                             Object cacheKey) {
+
+        this.scope = InvalidationScope.KEY;
+        this.tenantId = tenantId;
+        this.tenantDomain = tenantDomain;
+        this.cacheManagerName = cacheManagerName;
+        this.cacheName = cacheName;
+        this.cacheKey = cacheKey;
+        this.keyFingerprint = 0;
+    }
+
+    public InvalidationEntry(int tenantId, String tenantDomain, String cacheManagerName, String cacheName,
+                             KeyDecoder keyDecoder) {
+
+        this(InvalidationScope.KEY, tenantId, tenantDomain, cacheManagerName, cacheName, keyDecoder);
+    }
+
+    public InvalidationEntry(InvalidationScope scope, int tenantId, String tenantDomain, String cacheManagerName,
+                             String cacheName, KeyDecoder keyDecoder) {
+
+        this.scope = scope;
+        this.tenantId = tenantId;
+        this.tenantDomain = tenantDomain;
+        this.cacheManagerName = cacheManagerName;
+        this.cacheName = cacheName;
+        this.keyDecoder = keyDecoder;
+        this.keyFingerprint = 0;
+    }
+
+    public InvalidationEntry(int tenantId, String tenantDomain, String cacheManagerName, String cacheName,
+                             long keyFingerprint) {
+
+        this.scope = InvalidationScope.KEY_FINGERPRINT;
+        this.tenantId = tenantId;
+        this.tenantDomain = tenantDomain;
+        this.cacheManagerName = cacheManagerName;
+        this.cacheName = cacheName;
+        this.keyFingerprint = keyFingerprint;
+    }
+
+    public InvalidationScope getScope() {
+
+        return scope;
+    }
+
+    public int getTenantId() {
+
+        return tenantId;
+    }
+
+    public String getTenantDomain() {
+
+        return tenantDomain;
+    }
+
+    public String getCacheManagerName() {
+
+        return cacheManagerName;
+    }
+
+    public String getCacheName() {
+
+        return cacheName;
+    }
+
+    /**
+     * Returns the fingerprint of the invalidated key of a {@link InvalidationScope#KEY_FINGERPRINT} entry.
+     *
+     * @return Key fingerprint.
+     */
+    public long getKeyFingerprint() {
+
+        return keyFingerprint;
+    }
+
+    /**
+     * Returns a hash of the invalidated key. The hash of an entry decoded from a message is taken from the encoded key,
+     * so that the key is not decoded to compute it. The hash identifies the key within the wire format it was encoded
+     * with.
+     *
+     * @return Key hash.
+     */
+    int getKeyHash() {
+
+        if (scope == InvalidationScope.KEY_FINGERPRINT) {
+            return Long.hashCode(keyFingerprint);
+        }
+        if (encodedKeyHash != null) {
+            return encodedKeyHash;
+        }
+        // A key which is not decoded yet is not hashed, hence its entry is identified by its cache alone.
+        return keyDecoder == null ? Objects.hashCode(cacheKey) : 0;
+    }
+
+    /**
+     * Sets the hash of the encoded key of the entry.
+     *
+     * @param encodedKeyHash Hash of the encoded key.
+     */
+    void setEncodedKeyHash(int encodedKeyHash) {
+
+        this.encodedKeyHash = encodedKeyHash;
+    }
+
+    /**
+     * Returns the origin of the hybrid logical clock stamp of the message carrying the invalidation.
+     *
+     * @return Origin, or null if the message is not stamped.
+     */
+    public String getOrigin() {
+
+        return origin;
+    }
+
+    /**
+     * Returns the hybrid logical clock stamp of the message carrying the invalidation.
+     *
+     * @return Stamp.
+     */
+    public long getStamp() {
+
+        return stamp;
+    }
+
+    /**
+     * Sets the hybrid logical clock stamp of the message carrying the invalidation.
+     *
+     * @param origin Origin of the stamp.
+     * @param stamp  Stamp.
+     */
+    void setStamp(String origin, long stamp) {
+
+        this.origin = origin;
+        this.stamp = stamp;
+    }
+
+    /**
+     * Returns the cache key of the invalidation, decoding it on first access.
+     *
+     * @return Cache key.
+     * @throws IOException If the cache key cannot be decoded.
+     */
+    public Object getCacheKey() throws IOException {
+
+        if (keyDecoder != null) {
+            cacheKey = keyDecoder.decode();
+            keyDecoder = null;
+        }
+        return cacheKey;
+    }
+
+    /**
+     * Decodes the cache key of an invalidation entry.
+     */
+    @FunctionalInterface
+    public interface KeyDecoder {
+
+        Object decode() throws IOException;
+    }
+}
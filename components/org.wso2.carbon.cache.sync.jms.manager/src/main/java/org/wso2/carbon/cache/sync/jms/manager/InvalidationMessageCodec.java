@@ -0,0 +1,783 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.caching.impl.clustering.ClusterCacheInvalidationRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Binary codec for cache invalidation frames, which are sent as JMS {@code BytesMessage}s.
+ * <p>
+ * A frame starts with a magic byte, the format version and the number of entries. Each entry carries the tenant id,
+ * the tenant domain, the cache manager name, the cache name and the cache key. Names are written once per frame and
+ * referred to by index afterwards. Cache keys of type {@link String}, {@link Long}, {@link Integer} and
+ * {@link ArrayList}s of those are written in a compact form, while any other key falls back to Java serialization.
+ * </p>
+ * <p>
+ * Frames carrying bulk invalidations are written with the format version 2, where each entry starts with its
+ * {@link InvalidationScope} code. A {@link InvalidationScope#CACHE_KEYS} entry is followed by the number of keys and
+ * the keys, while the tenant and cache manager scoped entries carry no key. Frames without bulk invalidations are still
+ * written with the version 1, hence they are read by the nodes which do not support bulk invalidations.
+ * </p>
+ * <p>
+ * Frames may identify the invalidated keys by their {@link KeyFingerprint}. Such frames are written with the format
+ * version 2, where a {@link InvalidationScope#KEY_FINGERPRINT} entry carries the 64-bit fingerprint in place of the
+ * key. Clear-all invalidations still carry their key.
+ * </p>
+ */
+@SuppressFBWarnings(
+    value = "OBJECT_DESERIALIZATION",
+    justification = "Legacy deserialization used for cache keys; safe in controlled cluster"
+)
+public final class InvalidationMessageCodec {
+
+    private static final Log log = LogFactory.getLog(InvalidationMessageCodec.class);
+
+    static final byte MAGIC = (byte) 0xCA;
+    static final byte VERSION = 1;
+    static final byte BULK_VERSION = 2;
+
+    private static final byte KEY_NULL = 0;
+    private static final byte KEY_STRING = 1;
+    private static final byte KEY_LONG = 2;
+    private static final byte KEY_INTEGER = 3;
+    private static final byte KEY_LIST = 4;
+    private static final byte KEY_SERIALIZED = 5;
+    // Maximum nesting of compact key lists, as lists are written with scalar elements only.
+    private static final int MAX_KEY_LIST_DEPTH = 1;
+
+    private static final int NAME_NULL = 0;
+    private static final int NAME_INLINE = 1;
+    private static final int NAME_REFERENCE_OFFSET = 2;
+
+    // Upper bound for the names kept in the intern table, to avoid unbounded growth with dynamic cache names.
+    private static final int MAX_INTERNED_NAMES = 4096;
+    private static final Map<String, String> INTERNED_NAMES = new ConcurrentHashMap<>();
+
+    private InvalidationMessageCodec() {
+
+    }
+
+    /**
+     * Checks whether the given payload is a binary cache invalidation frame.
+     *
+     * @param payload Message payload.
+     * @return True if the payload starts with the frame magic byte.
+     */
+    public static boolean isBinaryFrame(byte[] payload) {
+
+        return payload != null && payload.length > 1 && payload[0] == MAGIC;
+    }
+
+    /**
+     * Encodes the given cache invalidation requests into a single binary frame. Requests with a cache key that cannot
+     * be serialized are skipped.
+     *
+     * @param requests Cache invalidation requests.
+     * @return Encoded frame.
+     */
+    public static byte[] encode(List<ClusterCacheInvalidationRequest> requests) {
+
+        return encode(requests, false);
+    }
+
+    /**
+     * Encodes the given cache invalidation requests into a single binary frame, identifying the invalidated keys by
+     * their fingerprints if requested. Requests with a cache key that cannot be serialized are skipped.
+     *
+     * @param requests        Cache invalidation requests.
+     * @param keyFingerprints Whether single key invalidations carry the fingerprint of the key instead of the key.
+     * @return Encoded frame.
+     */
+    public static byte[] encode(List<ClusterCacheInvalidationRequest> requests, boolean keyFingerprints) {
+
+        FrameWriter writer = new FrameWriter(32 + requests.size() * 64);
+        writeFrame(requests, keyFingerprints, writer);
+        return writer.toByteArray();
+    }
+
+    /**
+     * Encodes the given cache invalidation requests into a single binary frame, written directly into the given buffer
+     * from its position. Requests with a cache key that cannot be serialized are skipped.
+     *
+     * @param requests Cache invalidation requests.
+     * @param target   Buffer into which the frame is written.
+     * @return Length of the encoded frame.
+     * @throws BufferOverflowException If the frame does not fit into the remaining space of the buffer, in which case
+     *                                 the remaining space may have been partially written.
+     */
+    public static int encode(List<ClusterCacheInvalidationRequest> requests, ByteBuffer target) {
+
+        int start = target.position();
+        writeFrame(requests, false, new FrameWriter(target));
+        return target.position() - start;
+    }
+
+    private static void writeFrame(List<ClusterCacheInvalidationRequest> requests, boolean keyFingerprints,
+                                   FrameWriter writer) {
+
+        boolean bulk = keyFingerprints;
+        for (ClusterCacheInvalidationRequest request : requests) {
+            if (request instanceof BulkInvalidationRequest) {
+                bulk = true;
+                break;
+            }
+        }
+        writer.writeByte(MAGIC);
+        writer.writeByte(bulk ? BULK_VERSION : VERSION);
+        int countPosition = writer.reserveInt();
+
+        Map<String, Integer> names = new HashMap<>();
+        int count = 0;
+        for (ClusterCacheInvalidationRequest request : requests) {
+            ClusterCacheInvalidationRequest.CacheInfo cacheInfo = request.getCacheInfo();
+            InvalidationScope scope = BulkInvalidationRequest.getScope(request);
+            Object cacheKey = cacheInfo.getCacheKey();
+            byte[] serializedKey = null;
+            List<byte[]> encodedKeys = null;
+            Long keyFingerprint = null;
+            if (keyFingerprints && scope == InvalidationScope.KEY && isFingerprinted(cacheKey)) {
+                keyFingerprint = fingerprint(cacheInfo, cacheKey);
+                if (keyFingerprint == null) {
+                    continue;
+                }
+                scope = InvalidationScope.KEY_FINGERPRINT;
+            } else if (scope == InvalidationScope.CACHE_KEYS) {
+                encodedKeys = encodeKeys(cacheInfo, ((BulkInvalidationRequest) request).getCacheKeys());
+            } else if (scope == InvalidationScope.KEY && !isCompactKey(cacheKey)) {
+                serializedKey = serializeKey(cacheInfo, cacheKey);
+                if (serializedKey == null) {
+                    continue;
+                }
+            }
+
+            if (bulk) {
+                writer.writeByte(scope.getCode());
+            }
+            writer.writeZigZag(request.getTenantId());
+            writeName(writer, names, request.getTenantDomain());
+            writeName(writer, names, cacheInfo.getCacheManagerName());
+            writeName(writer, names, cacheInfo.getCacheName());
+            if (keyFingerprint != null) {
+                writer.writeLong(keyFingerprint);
+            } else if (encodedKeys != null) {
+                writer.writeVarInt(encodedKeys.size());
+                for (byte[] encodedKey : encodedKeys) {
+                    writer.writeBytes(encodedKey);
+                }
+            } else if (serializedKey != null) {
+                writeSerializedKey(writer, serializedKey);
+            } else if (scope == InvalidationScope.KEY) {
+                writeCompactKey(writer, cacheKey);
+            }
+            count++;
+        }
+        writer.writeIntAt(countPosition, count);
+    }
+
+    /**
+     * Decodes a binary frame into invalidation entries. Cache keys are decoded lazily, on first access.
+     *
+     * @param frame Encoded frame.
+     * @return Invalidation entries of the frame.
+     * @throws IOException If the frame is malformed or of an unsupported version.
+     */
+    public static List<InvalidationEntry> decode(byte[] frame) throws IOException {
+
+        FrameReader reader = new FrameReader(frame, 0);
+        if (reader.readByte() != MAGIC) {
+            throw new IOException("Payload is not a cache invalidation frame.");
+        }
+        byte version = reader.readByte();
+        if (version != VERSION && version != BULK_VERSION) {
+            throw new IOException("Unsupported cache invalidation frame version: " + version);
+        }
+        int count = reader.readInt();
+        if (count < 0) {
+            throw new IOException("Invalid cache invalidation entry count: " + count);
+        }
+
+        List<String> names = new ArrayList<>();
+        List<InvalidationEntry> entries = new ArrayList<>(Math.min(count, 1024));
+        for (int i = 0; i < count; i++) {
+            InvalidationScope scope = version == BULK_VERSION ? readScope(reader) : InvalidationScope.KEY;
+            int tenantId = reader.readZigZag();
+            String tenantDomain = readName(reader, names);
+            String cacheManagerName = readName(reader, names);
+            String cacheName = readName(reader, names);
+            int keyPosition = reader.position();
+            switch (scope) {
+                case KEY:
+                    skipKey(reader, 0);
+                    InvalidationEntry keyEntry = new InvalidationEntry(tenantId, tenantDomain, cacheManagerName,
+                            cacheName, () -> readKey(new FrameReader(frame, keyPosition), 0));
+                    keyEntry.setEncodedKeyHash(hash(frame, keyPosition, reader.position()));
+                    entries.add(keyEntry);
+                    break;
+                case KEY_FINGERPRINT:
+                    entries.add(new InvalidationEntry(tenantId, tenantDomain, cacheManagerName, cacheName,
+                            reader.readLong()));
+                    break;
+                case CACHE_KEYS:
+                    skipKeys(reader);
+                    InvalidationEntry keysEntry = new InvalidationEntry(scope, tenantId, tenantDomain,
+                            cacheManagerName, cacheName, () -> readKeys(new FrameReader(frame, keyPosition)));
+                    keysEntry.setEncodedKeyHash(hash(frame, keyPosition, reader.position()));
+                    entries.add(keysEntry);
+                    break;
+                default:
+                    entries.add(new InvalidationEntry(scope, tenantId, tenantDomain, cacheManagerName, cacheName,
+                            () -> null));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Serializes a cache key with Java serialization.
+     *
+     * @param cacheKey Cache key.
+     * @return Serialized cache key.
+     * @throws IOException If the key cannot be serialized.
+     */
+    public static byte[] serializeKey(Object cacheKey) throws IOException {
+
+        try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+             ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream)) {
+            objectOutputStream.writeObject(cacheKey);
+            objectOutputStream.flush();
+            return byteArrayOutputStream.toByteArray();
+        }
+    }
+
+    /**
+     * Deserializes a Java serialized cache key, allowing only the classes permitted for cache keys.
+     *
+     * @param data Serialized cache key.
+     * @return Cache key.
+     * @throws IOException If the key cannot be deserialized.
+     */
+    public static Object deserializeKey(byte[] data) throws IOException {
+
+        try (ObjectInputStream objectInputStream = new SafeObjectInputStream(new ByteArrayInputStream(data))) {
+            return objectInputStream.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Failed to deserialize cache invalidation message", e);
+        }
+    }
+
+    private static int hash(byte[] frame, int from, int to) {
+
+        int hash = 1;
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + frame[i];
+        }
+        return hash;
+    }
+
+    private static InvalidationScope readScope(FrameReader reader) throws IOException {
+
+        byte code = reader.readByte();
+        InvalidationScope scope = InvalidationScope.fromCode(code);
+        if (scope == null) {
+            throw new IOException("Unknown cache invalidation scope: " + code);
+        }
+        return scope;
+    }
+
+    /**
+     * Checks whether a single key invalidation can be sent with the fingerprint of its key. Clear-all invalidations
+     * always carry their key.
+     *
+     * @param cacheKey Cache key.
+     * @return True if the key is sent as a fingerprint.
+     */
+    static boolean isFingerprinted(Object cacheKey) {
+
+        return cacheKey != null && !JMSUtils.CLEAR_ALL_PREFIX.equals(cacheKey);
+    }
+
+    private static Long fingerprint(ClusterCacheInvalidationRequest.CacheInfo cacheInfo, Object cacheKey) {
+
+        try {
+            return KeyFingerprint.of(cacheKey);
+        } catch (IOException e) {
+            log.error("Failed to compute the fingerprint of a cache key. CacheManager: " +
+                    cacheInfo.getCacheManagerName() + ", Cache: " + cacheInfo.getCacheName() + ", Key class: " +
+                    cacheKey.getClass().getName(), e);
+            return null;
+        }
+    }
+
+    private static byte[] serializeKey(ClusterCacheInvalidationRequest.CacheInfo cacheInfo, Object cacheKey) {
+
+        if (!(cacheKey instanceof Serializable)) {
+            log.error("Cache key is not Serializable. CacheManager: " + cacheInfo.getCacheManagerName() +
+                    ", Cache: " + cacheInfo.getCacheName() + ", Key class: " + cacheKey.getClass().getName());
+            return null;
+        }
+        try {
+            return serializeKey(cacheKey);
+        } catch (IOException e) {
+            log.error("Failed to serialize cache key of the cache '" + cacheInfo.getCacheName() + "'.", e);
+            return null;
+        }
+    }
+
+    private static List<byte[]> encodeKeys(ClusterCacheInvalidationRequest.CacheInfo cacheInfo,
+                                           List<Object> cacheKeys) {
+
+        // Keys are encoded upfront, so that the keys which cannot be serialized are left out of the key count.
+        List<byte[]> encodedKeys = new ArrayList<>(cacheKeys.size());
+        for (Object cacheKey : cacheKeys) {
+            FrameWriter keyWriter = new FrameWriter(16);
+            if (isCompactKey(cacheKey)) {
+                writeCompactKey(keyWriter, cacheKey);
+            } else {
+                byte[] serializedKey = serializeKey(cacheInfo, cacheKey);
+                if (serializedKey == null) {
+                    continue;
+                }
+                writeSerializedKey(keyWriter, serializedKey);
+            }
+            encodedKeys.add(keyWriter.toByteArray());
+        }
+        return encodedKeys;
+    }
+
+    private static void writeSerializedKey(FrameWriter writer, byte[] serializedKey) {
+
+        writer.writeByte(KEY_SERIALIZED);
+        writer.writeVarInt(serializedKey.length);
+        writer.writeBytes(serializedKey);
+    }
+
+    private static List<Object> readKeys(FrameReader reader) throws IOException {
+
+        int size = reader.readVarInt();
+        List<Object> cacheKeys = new ArrayList<>(Math.min(size, 1024));
+        for (int i = 0; i < size; i++) {
+            cacheKeys.add(readKey(reader, 0));
+        }
+        return cacheKeys;
+    }
+
+    private static void skipKeys(FrameReader reader) throws IOException {
+
+        int size = reader.readVarInt();
+        for (int i = 0; i < size; i++) {
+            skipKey(reader, 0);
+        }
+    }
+
+    private static boolean isCompactKey(Object cacheKey) {
+
+        if (cacheKey == null || isCompactScalar(cacheKey)) {
+            return true;
+        }
+        // Lists are read back as ArrayLists, hence other lists are serialized to keep their type.
+        if (cacheKey.getClass() == ArrayList.class) {
+            for (Object element : (List<?>) cacheKey) {
+                if (element != null && !isCompactScalar(element)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean isCompactScalar(Object value) {
+
+        return value instanceof String || value instanceof Long || value instanceof Integer;
+    }
+
+    private static void writeCompactKey(FrameWriter writer, Object cacheKey) {
+
+        if (cacheKey == null) {
+            writer.writeByte(KEY_NULL);
+        } else if (cacheKey instanceof String) {
+            writer.writeByte(KEY_STRING);
+            writer.writeString((String) cacheKey);
+        } else if (cacheKey instanceof Long) {
+            writer.writeByte(KEY_LONG);
+            writer.writeLong((Long) cacheKey);
+        } else if (cacheKey instanceof Integer) {
+            writer.writeByte(KEY_INTEGER);
+            writer.writeInt((Integer) cacheKey);
+        } else {
+            List<?> elements = (List<?>) cacheKey;
+            writer.writeByte(KEY_LIST);
+            writer.writeVarInt(elements.size());
+            for (Object element : elements) {
+                writeCompactKey(writer, element);
+            }
+        }
+    }
+
+    private static Object readKey(FrameReader reader, int depth) throws IOException {
+
+        byte type = reader.readByte();
+        switch (type) {
+            case KEY_NULL:
+                return null;
+            case KEY_STRING:
+                return reader.readString();
+            case KEY_LONG:
+                return reader.readLong();
+            case KEY_INTEGER:
+                return reader.readInt();
+            case KEY_LIST:
+                checkKeyListDepth(depth);
+                int size = reader.readVarInt();
+                List<Object> elements = new ArrayList<>(Math.min(size, 64));
+                for (int i = 0; i < size; i++) {
+                    elements.add(readKey(reader, depth + 1));
+                }
+                return elements;
+            case KEY_SERIALIZED:
+                return deserializeKey(reader.readBytes(reader.readVarInt()));
+            default:
+                throw new IOException("Unknown cache key type: " + type);
+        }
+    }
+
+    private static void skipKey(FrameReader reader, int depth) throws IOException {
+
+        byte type = reader.readByte();
+        switch (type) {
+            case KEY_NULL:
+                return;
+            case KEY_STRING:
+            case KEY_SERIALIZED:
+                reader.skip(reader.readVarInt());
+                return;
+            case KEY_LONG:
+                reader.skip(Long.BYTES);
+                return;
+            case KEY_INTEGER:
+                reader.skip(Integer.BYTES);
+                return;
+            case KEY_LIST:
+                checkKeyListDepth(depth);
+                int size = reader.readVarInt();
+                for (int i = 0; i < size; i++) {
+                    skipKey(reader, depth + 1);
+                }
+                return;
+            default:
+                throw new IOException("Unknown cache key type: " + type);
+        }
+    }
+
+    private static void checkKeyListDepth(int depth) throws IOException {
+
+        if (depth >= MAX_KEY_LIST_DEPTH) {
+            throw new IOException("Cache key lists are nested deeper than " + MAX_KEY_LIST_DEPTH + " level.");
+        }
+    }
+
+    private static void writeName(FrameWriter writer, Map<String, Integer> names, String name) {
+
+        if (name == null) {
+            writer.writeVarInt(NAME_NULL);
+            return;
+        }
+        Integer index = names.get(name);
+        if (index != null) {
+            writer.writeVarInt(index + NAME_REFERENCE_OFFSET);
+            return;
+        }
+        names.put(name, names.size());
+        writer.writeVarInt(NAME_INLINE);
+        writer.writeString(name);
+    }
+
+    private static String readName(FrameReader reader, List<String> names) throws IOException {
+
+        int reference = reader.readVarInt();
+        if (reference == NAME_NULL) {
+            return null;
+        }
+        if (reference == NAME_INLINE) {
+            String name = intern(reader.readString());
+            names.add(name);
+            return name;
+        }
+        int index = reference - NAME_REFERENCE_OFFSET;
+        if (index >= names.size()) {
+            throw new IOException("Invalid name reference in cache invalidation frame: " + index);
+        }
+        return names.get(index);
+    }
+
+    private static String intern(String name) {
+
+        String interned = INTERNED_NAMES.get(name);
+        if (interned != null) {
+            return interned;
+        }
+        if (INTERNED_NAMES.size() >= MAX_INTERNED_NAMES) {
+            return name;
+        }
+        interned = INTERNED_NAMES.putIfAbsent(name, name);
+        return interned != null ? interned : name;
+    }
+
+    /**
+     * Custom ObjectInputStream that enforces a strict allow-list during deserialization to prevent unsafe or
+     * malicious classes from being loaded. This prevents deserialization attacks.
+     */
+    private static class SafeObjectInputStream extends ObjectInputStream {
+
+        SafeObjectInputStream(InputStream in) throws IOException {
+
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+
+            String className = desc.getName();
+
+            // Only allow CacheInvalidationMessageDTO and core Java classes
+            if (className.startsWith("org.wso2.carbon.")) {
+                return super.resolveClass(desc);
+            }
+            throw new InvalidClassException("Unauthorized deserialization attempt", className);
+        }
+    }
+
+    /**
+     * Big-endian writer of frames, into a growable heap buffer or into a given buffer of a fixed size.
+     */
+    private static class FrameWriter {
+
+        private ByteBuffer buffer;
+        // Whether the buffer is grown once full, instead of failing the write.
+        private final boolean growable;
+
+        FrameWriter(int initialCapacity) {
+
+            this.buffer = ByteBuffer.allocate(initialCapacity);
+            this.growable = true;
+        }
+
+        FrameWriter(ByteBuffer target) {
+
+            this.buffer = target;
+            this.growable = false;
+        }
+
+        void writeByte(int value) {
+
+            ensureCapacity(1);
+            buffer.put((byte) value);
+        }
+
+        void writeInt(int value) {
+
+            ensureCapacity(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        int reserveInt() {
+
+            int reserved = buffer.position();
+            writeInt(0);
+            return reserved;
+        }
+
+        void writeIntAt(int index, int value) {
+
+            buffer.putInt(index, value);
+        }
+
+        void writeLong(long value) {
+
+            writeInt((int) (value >>> 32));
+            writeInt((int) value);
+        }
+
+        void writeVarInt(int value) {
+
+            while ((value & ~0x7F) != 0) {
+                writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            writeByte(value);
+        }
+
+        void writeZigZag(int value) {
+
+            writeVarInt((value << 1) ^ (value >> 31));
+        }
+
+        void writeBytes(byte[] bytes) {
+
+            ensureCapacity(bytes.length);
+            buffer.put(bytes);
+        }
+
+        void writeString(String value) {
+
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            writeBytes(bytes);
+        }
+
+        byte[] toByteArray() {
+
+            return Arrays.copyOf(buffer.array(), buffer.position());
+        }
+
+        private void ensureCapacity(int length) {
+
+            if (buffer.remaining() >= length) {
+                return;
+            }
+            if (!growable) {
+                throw new BufferOverflowException();
+            }
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + length));
+            buffer.flip();
+            buffer = grown.put(buffer);
+        }
+    }
+
+    /**
+     * Bounds-checked reader over an encoded frame.
+     */
+    private static class FrameReader {
+
+        private final byte[] buffer;
+        private int position;
+
+        FrameReader(byte[] buffer, int position) {
+
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        int position() {
+
+            return position;
+        }
+
+        byte readByte() throws IOException {
+
+            require(1);
+            return buffer[position++];
+        }
+
+        int readInt() throws IOException {
+
+            require(Integer.BYTES);
+            int value = ((buffer[position] & 0xFF) << 24) | ((buffer[position + 1] & 0xFF) << 16) |
+                    ((buffer[position + 2] & 0xFF) << 8) | (buffer[position + 3] & 0xFF);
+            position += Integer.BYTES;
+            return value;
+        }
+
+        long readLong() throws IOException {
+
+            return ((long) readInt() << 32) | (readInt() & 0xFFFFFFFFL);
+        }
+
+        int readVarInt() throws IOException {
+
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                byte current = readByte();
+                value |= (current & 0x7F) << shift;
+                if ((current & 0x80) == 0) {
+                    if (value < 0) {
+                        throw new IOException("Invalid length in cache invalidation frame.");
+                    }
+                    return value;
+                }
+            }
+            throw new IOException("Malformed variable length integer in cache invalidation frame.");
+        }
+
+        int readZigZag() throws IOException {
+
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                byte current = readByte();
+                value |= (current & 0x7F) << shift;
+                if ((current & 0x80) == 0) {
+                    return (value >>> 1) ^ -(value & 1);
+                }
+            }
+            throw new IOException("Malformed variable length integer in cache invalidation frame.");
+        }
+
+        byte[] readBytes(int length) throws IOException {
+
+            require(length);
+            byte[] bytes = Arrays.copyOfRange(buffer, position, position + length);
+            position += length;
+            return bytes;
+        }
+
+        String readString() throws IOException {
+
+            int length = readVarInt();
+            require(length);
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        void skip(int length) throws IOException {
+
+            require(length);
+            position += length;
+        }
+
+        private void require(int length) throws IOException {
+
+            if (length < 0 || length > buffer.length - position) {
+                throw new EOFException("Unexpected end of cache invalidation frame.");
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+/**
+ * Extent of a cache invalidation. Besides the invalidation of a single cache key, a single message may invalidate a
+ * set of keys of a cache, every local cache of a cache manager, or every cache of a tenant. A single cache key may also
+ * be identified by its {@link KeyFingerprint} instead of the key itself.
+ */
+public enum InvalidationScope {
+
+    /**
+     * A single key of a cache, or the whole cache for a clear-all invalidation.
+     */
+    KEY(0),
+    /**
+     * A set of keys of a cache.
+     */
+    CACHE_KEYS(1),
+    /**
+     * Every local cache of a cache manager of the tenant.
+     */
+    CACHE_MANAGER(2),
+    /**
+     * Every cache of the tenant.
+     */
+    TENANT(3),
+    /**
+     * A single key of a local cache, identified by the fingerprint of the key.
+     */
+    KEY_FINGERPRINT(4);
+
+    private final int code;
+
+    InvalidationScope(int code) {
+
+        this.code = code;
+    }
+
+    /**
+     * Code of the scope in the binary wire format.
+     *
+     * @return Scope code.
+     */
+    public int getCode() {
+
+        return code;
+    }
+
+    /**
+     * Returns the scope of a code of the binary wire format.
+     *
+     * @param code Scope code.
+     * @return Invalidation scope, or null if the code is not known.
+     */
+    public static InvalidationScope fromCode(int code) {
+
+        for (InvalidationScope scope : values()) {
+            if (scope.code == code) {
+                return scope;
+            }
+        }
+        return null;
+    }
+}
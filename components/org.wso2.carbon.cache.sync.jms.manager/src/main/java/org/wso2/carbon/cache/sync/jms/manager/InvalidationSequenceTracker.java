@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.caching.impl.CachingConstants;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracks the sequence numbers of the received cache invalidation messages, along with the local caches seen in the
+ * received invalidations, so that the node recovers from the messages lost while its non-durable subscription was
+ * closed or lagging behind.
+ * <p>
+ * Sequence numbers are tracked per stream, which is a producer session of a node along with the topic it sends to.
+ * The messages of a stream are delivered in order, hence a sequence number beyond the next expected one means that
+ * the messages in between were lost. The first message of an unknown stream is accepted as it is.
+ * </p>
+ * <p>
+ * The caches invalidated by the lost messages are not known. A recovery therefore clears the local caches seen in the
+ * received invalidations, limited to the most recently seen caches, instead of every cache of the node.
+ * </p>
+ */
+public class InvalidationSequenceTracker {
+
+    private static final Log log = LogFactory.getLog(InvalidationSequenceTracker.class);
+    // Maximum number of tracked streams before the tracked streams are discarded.
+    private static final int DEFAULT_MAX_STREAMS = 1024;
+    // Maximum number of recently seen local caches cleared by a recovery.
+    private static final int DEFAULT_MAX_CACHES = 1000;
+
+    private final int maxStreams;
+    private final Map<String, Long> lastSequences = new HashMap<>();
+    private final Map<CacheIdentifier, String> seenCaches;
+
+    public InvalidationSequenceTracker() {
+
+        this(DEFAULT_MAX_STREAMS, DEFAULT_MAX_CACHES);
+    }
+
+    public InvalidationSequenceTracker(int maxStreams, int maxCaches) {
+
+        this.maxStreams = maxStreams;
+        // Ordered by access, so that the least recently seen cache is dropped first.
+        this.seenCaches = new LinkedHashMap<CacheIdentifier, String>(16, 0.75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheIdentifier, String> eldest) {
+
+                return size() > maxCaches;
+            }
+        };
+    }
+
+    /**
+     * Records the sequence number of a received message.
+     *
+     * @param stream   Stream of the message.
+     * @param sequence Sequence number of the message.
+     * @return True if messages of the stream were lost before this message.
+     */
+    public synchronized boolean record(String stream, long sequence) {
+
+        Long last = lastSequences.get(stream);
+        if (last == null) {
+            if (lastSequences.size() >= maxStreams) {
+                // Streams of the producers which are gone are never removed otherwise.
+                if (log.isDebugEnabled()) {
+                    log.debug("Discarding " + lastSequences.size() + " tracked cache invalidation streams.");
+                }
+                lastSequences.clear();
+            }
+            lastSequences.put(stream, sequence);
+            return false;
+        }
+        if (sequence <= last) {
+            return false;
+        }
+        lastSequences.put(stream, sequence);
+        return sequence > last + 1;
+    }
+
+    /**
+     * Records the local caches of the received invalidations, to be cleared by the next recovery. Bulk invalidations
+     * of cache managers and tenants already clear their caches.
+     *
+     * @param entries Received invalidation entries.
+     */
+    public synchronized void recordCaches(List<InvalidationEntry> entries) {
+
+        for (InvalidationEntry entry : entries) {
+            if (entry.getScope() == InvalidationScope.CACHE_MANAGER || entry.getScope() == InvalidationScope.TENANT ||
+                    entry.getCacheName() == null ||
+                    !entry.getCacheName().startsWith(CachingConstants.LOCAL_CACHE_PREFIX)) {
+                continue;
+            }
+            seenCaches.put(new CacheIdentifier(entry.getTenantId(), entry.getCacheManagerName(), entry.getCacheName()),
+                    entry.getTenantDomain());
+        }
+    }
+
+    /**
+     * Returns the clear-all invalidations of the recently seen local caches, to be applied on a recovery.
+     *
+     * @return Clear-all invalidation entries.
+     */
+    public synchronized List<InvalidationEntry> getRecoveryEntries() {
+
+        List<InvalidationEntry> entries = new ArrayList<>(seenCaches.size());
+        for (Map.Entry<CacheIdentifier, String> seenCache : seenCaches.entrySet()) {
+            CacheIdentifier cacheIdentifier = seenCache.getKey();
+            entries.add(new InvalidationEntry(cacheIdentifier.getTenantId(), seenCache.getValue(),
+                    cacheIdentifier.getCacheManagerName(), cacheIdentifier.getCacheName(), JMSUtils.CLEAR_ALL_PREFIX));
+        }
+        return entries;
+    }
+
+    /**
+     * Forgets the tracked streams, once the caches are cleared after a reconnect. The messages lost while the
+     * subscription was closed are therefore not recovered from again.
+     */
+    public synchronized void reset() {
+
+        lastSequences.clear();
+    }
+
+    public synchronized int getStreamCount() {
+
+        return lastSequences.size();
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.caching.impl.clustering.ClusterCacheInvalidationRequest;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * File backed first-in first-out store for cache invalidation frames which do not fit into the dispatch queue.
+ * Frames are written in the binary wire format, prefixed by their length and the number of invalidations they carry.
+ */
+public class InvalidationSpool {
+
+    private static final Log log = LogFactory.getLog(InvalidationSpool.class);
+    private static final int RECORD_HEADER_BYTES = Integer.BYTES * 2;
+
+    private final Path file;
+    private final FileChannel channel;
+    private long readPosition;
+    private long writePosition;
+    private int size;
+
+    public InvalidationSpool(Path directory) throws IOException {
+
+        Files.createDirectories(directory);
+        this.file = directory.resolve("cache-invalidation.spool");
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Appends a frame of cache invalidation requests to the spool.
+     *
+     * @param frame Cache invalidation requests.
+     * @throws IOException If the frame cannot be written.
+     */
+    public synchronized void append(List<ClusterCacheInvalidationRequest> frame) throws IOException {
+
+        byte[] data = InvalidationMessageCodec.encode(frame);
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_BYTES + data.length);
+        buffer.putInt(data.length).putInt(frame.size()).put(data).flip();
+        while (buffer.hasRemaining()) {
+            writePosition += channel.write(buffer, writePosition);
+        }
+        size += frame.size();
+    }
+
+    /**
+     * Removes the oldest frame from the spool.
+     *
+     * @return Cache invalidation requests of the oldest frame, or null if the spool is empty.
+     * @throws IOException If the frame cannot be read.
+     */
+    public synchronized List<ClusterCacheInvalidationRequest> poll() throws IOException {
+
+        if (readPosition >= writePosition) {
+            return null;
+        }
+        ByteBuffer header = read(readPosition, RECORD_HEADER_BYTES);
+        int length = header.getInt();
+        int count = header.getInt();
+        ByteBuffer data = read(readPosition + RECORD_HEADER_BYTES, length);
+        readPosition += RECORD_HEADER_BYTES + length;
+        size -= count;
+        if (readPosition >= writePosition) {
+            // Reclaim the disk space once every spooled frame has been read.
+            channel.truncate(0);
+            readPosition = 0;
+            writePosition = 0;
+            size = 0;
+        }
+
+        return toRequests(InvalidationMessageCodec.decode(data.array()));
+    }
+
+    /**
+     * Number of cache invalidations held in the spool.
+     *
+     * @return Spooled invalidation count.
+     */
+    public synchronized int size() {
+
+        return size;
+    }
+
+    /**
+     * Closes and deletes the spool file.
+     */
+    public synchronized void close() {
+
+        try {
+            channel.close();
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.error("Error while closing the cache invalidation spool.", e);
+        }
+    }
+
+    /**
+     * Rebuilds the cache invalidation requests of a spooled frame.
+     *
+     * @param entries Decoded entries of the frame.
+     * @return Cache invalidation requests, without the entries whose cache key cannot be read.
+     */
+    static List<ClusterCacheInvalidationRequest> toRequests(List<InvalidationEntry> entries) {
+
+        List<ClusterCacheInvalidationRequest> frame = new ArrayList<>(entries.size());
+        for (InvalidationEntry entry : entries) {
+            try {
+                frame.add(toRequest(entry));
+            } catch (IOException e) {
+                log.error("Error while reading the spooled cache invalidation of the cache '" +
+                        entry.getCacheName() + "'.", e);
+            }
+        }
+        return frame;
+    }
+
+    private static ClusterCacheInvalidationRequest toRequest(InvalidationEntry entry) throws IOException {
+
+        switch (entry.getScope()) {
+            case TENANT:
+                return BulkInvalidationRequest.forTenant(entry.getTenantDomain(), entry.getTenantId());
+            case CACHE_MANAGER:
+                return BulkInvalidationRequest.forCacheManager(entry.getTenantDomain(), entry.getTenantId(),
+                        entry.getCacheManagerName());
+            case CACHE_KEYS:
+                return BulkInvalidationRequest.forCacheKeys(entry.getTenantDomain(), entry.getTenantId(),
+                        entry.getCacheManagerName(), entry.getCacheName(), (List<?>) entry.getCacheKey());
+            default:
+                return new ClusterCacheInvalidationRequest(new ClusterCacheInvalidationRequest.CacheInfo(
+                        entry.getCacheManagerName(), entry.getCacheName(), entry.getCacheKey()),
+                        entry.getTenantDomain(), entry.getTenantId());
+        }
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new EOFException("Unexpected end of the cache invalidation spool.");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.wso2.carbon.caching.impl.CachingConstants;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Sampling profiler of the invalidation traffic sent and received by the node, per tenant and per cache. Caches are
+ * identified by their tenant domain, cache manager and cache name. Each dimension keeps a bounded space-saving counter
+ * per fixed time window, and reports the heaviest keys of the last completed window along with their rates. One in
+ * every sample rate invalidations is counted, weighted by the sample rate. The profiler is exposed over JMX under
+ * {@value #OBJECT_NAME}.
+ */
+public class InvalidationTrafficProfiler implements InvalidationTrafficProfilerMXBean {
+
+    public static final String OBJECT_NAME = "org.wso2.carbon.cache.sync:type=InvalidationTrafficProfiler";
+
+    // Number of counters kept per reported entry, improving the accuracy of the reported counts.
+    private static final int COUNTERS_PER_ENTRY = 4;
+    private static final String KEY_SEPARATOR = "/";
+    private static final InvalidationTrafficProfiler INSTANCE =
+            new InvalidationTrafficProfiler(System::currentTimeMillis);
+
+    private final LongSupplier clock;
+    private volatile boolean enabled;
+    private volatile int sampleRate = 1;
+    private volatile int windowSeconds;
+    private volatile Window sentCaches;
+    private volatile Window receivedCaches;
+    private volatile Window sentTenants;
+    private volatile Window receivedTenants;
+
+    InvalidationTrafficProfiler(LongSupplier clock) {
+
+        this.clock = clock;
+    }
+
+    public static InvalidationTrafficProfiler getInstance() {
+
+        return INSTANCE;
+    }
+
+    /**
+     * Starts profiling with new windows.
+     *
+     * @param topK          Number of tenants and caches reported per dimension.
+     * @param windowSeconds Length of a profiling window.
+     * @param sampleRate    Profile one in every sample rate invalidations.
+     */
+    public synchronized void start(int topK, int windowSeconds, int sampleRate) {
+
+        long windowMillis = TimeUnit.SECONDS.toMillis(windowSeconds);
+        this.windowSeconds = windowSeconds;
+        this.sampleRate = sampleRate;
+        this.sentCaches = new Window(topK, windowMillis);
+        this.receivedCaches = new Window(topK, windowMillis);
+        this.sentTenants = new Window(topK, windowMillis);
+        this.receivedTenants = new Window(topK, windowMillis);
+        this.enabled = true;
+    }
+
+    public synchronized void stop() {
+
+        enabled = false;
+    }
+
+    public static void registerMBean() {
+
+        JMSUtils.registerMBean(INSTANCE, OBJECT_NAME);
+    }
+
+    public static void unregisterMBean() {
+
+        JMSUtils.unregisterMBean(OBJECT_NAME);
+    }
+
+    /**
+     * Profiles an invalidation sent to other nodes.
+     *
+     * @param tenantDomain     Tenant domain.
+     * @param cacheManagerName Cache manager name.
+     * @param cacheName        Cache name.
+     */
+    void recordSent(String tenantDomain, String cacheManagerName, String cacheName) {
+
+        if (enabled) {
+            record(sentTenants, sentCaches, tenantDomain, cacheManagerName, cacheName);
+        }
+    }
+
+    /**
+     * Profiles an invalidation received from other nodes.
+     *
+     * @param tenantDomain     Tenant domain.
+     * @param cacheManagerName Cache manager name.
+     * @param cacheName        Cache name.
+     */
+    void recordReceived(String tenantDomain, String cacheManagerName, String cacheName) {
+
+        if (enabled) {
+            record(receivedTenants, receivedCaches, tenantDomain, cacheManagerName, cacheName);
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+
+        return enabled;
+    }
+
+    @Override
+    public int getWindowSeconds() {
+
+        return windowSeconds;
+    }
+
+    @Override
+    public int getSampleRate() {
+
+        return sampleRate;
+    }
+
+    @Override
+    public List<TrafficEntry> getTopSentCaches() {
+
+        return getLastWindow(sentCaches);
+    }
+
+    @Override
+    public List<TrafficEntry> getTopReceivedCaches() {
+
+        return getLastWindow(receivedCaches);
+    }
+
+    @Override
+    public List<TrafficEntry> getTopSentTenants() {
+
+        return getLastWindow(sentTenants);
+    }
+
+    @Override
+    public List<TrafficEntry> getTopReceivedTenants() {
+
+        return getLastWindow(receivedTenants);
+    }
+
+    @Override
+    public synchronized void reset() {
+
+        if (sentCaches != null) {
+            start(sentCaches.topK, windowSeconds, sampleRate);
+        }
+    }
+
+    private void record(Window tenants, Window caches, String tenantDomain, String cacheManagerName,
+                        String cacheName) {
+
+        int rate = sampleRate;
+        if (rate > 1 && ThreadLocalRandom.current().nextInt(rate) != 0) {
+            return;
+        }
+        long now = clock.getAsLong();
+        tenants.add(String.valueOf(tenantDomain), rate, now);
+        caches.add(tenantDomain + KEY_SEPARATOR + cacheManagerName + KEY_SEPARATOR + getDisplayName(cacheName),
+                rate, now);
+    }
+
+    private List<TrafficEntry> getLastWindow(Window window) {
+
+        return window == null ? Collections.emptyList() : window.getLastWindow(clock.getAsLong());
+    }
+
+    private static String getDisplayName(String cacheName) {
+
+        if (cacheName != null && cacheName.startsWith(CachingConstants.LOCAL_CACHE_PREFIX)) {
+            return cacheName.substring(CachingConstants.LOCAL_CACHE_PREFIX.length());
+        }
+        return cacheName;
+    }
+
+    /**
+     * Space-saving counter of the current window, and the heaviest keys of the last completed window.
+     */
+    private static final class Window {
+
+        private final int topK;
+        private final long windowMillis;
+        private SpaceSavingCounter current;
+        private List<TrafficEntry> last = Collections.emptyList();
+        private long windowStart = -1;
+
+        private Window(int topK, long windowMillis) {
+
+            this.topK = topK;
+            this.windowMillis = windowMillis;
+            this.current = new SpaceSavingCounter(topK * COUNTERS_PER_ENTRY);
+        }
+
+        private synchronized void add(String key, long increment, long now) {
+
+            rotate(now);
+            current.add(key, increment);
+        }
+
+        private synchronized List<TrafficEntry> getLastWindow(long now) {
+
+            rotate(now);
+            return last;
+        }
+
+        private void rotate(long now) {
+
+            if (windowStart < 0) {
+                windowStart = now;
+                return;
+            }
+            long elapsed = now - windowStart;
+            if (elapsed < windowMillis) {
+                return;
+            }
+            if (elapsed >= 2 * windowMillis) {
+                // No invalidation was recorded during the last completed window.
+                last = Collections.emptyList();
+            } else {
+                List<TrafficEntry> entries = new ArrayList<>(topK);
+                double seconds = windowMillis / 1000.0;
+                for (SpaceSavingCounter.Counter counter : current.getTop(topK)) {
+                    entries.add(new TrafficEntry(counter.getKey(), counter.getCount(), counter.getError(),
+                            counter.getCount() / seconds));
+                }
+                last = Collections.unmodifiableList(entries);
+            }
+            current = new SpaceSavingCounter(topK * COUNTERS_PER_ENTRY);
+            windowStart = now - elapsed % windowMillis;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import java.util.List;
+
+/**
+ * JMX view of the invalidation traffic profiler. Each list holds the heaviest tenants or caches of the last completed
+ * profiling window, in the descending order of their invalidation counts.
+ */
+public interface InvalidationTrafficProfilerMXBean {
+
+    boolean isEnabled();
+
+    int getWindowSeconds();
+
+    int getSampleRate();
+
+    List<TrafficEntry> getTopSentCaches();
+
+    List<TrafficEntry> getTopReceivedCaches();
+
+    List<TrafficEntry> getTopSentTenants();
+
+    List<TrafficEntry> getTopReceivedTenants();
+
+    /**
+     * Discards the collected traffic and starts a new window.
+     */
+    void reset();
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.cache.Cache;
+import javax.cache.event.CacheEntryCreatedListener;
+import javax.cache.event.CacheEntryEvent;
+import javax.cache.event.CacheEntryListenerException;
+
+/**
+ * Tracks the stamps of the last invalidations applied to the most recently invalidated keys, per origin of the
+ * stamps, and the stamps of the most recently loaded local entries, so that late or duplicated invalidations do not
+ * evict entries which were loaded after them.
+ * <p>
+ * Once an invalidation stamped by an origin is applied to a key, any entry of the key found afterwards was loaded
+ * after every change invalidated by the earlier stamps of that origin. An invalidation of the key from the same origin
+ * with a stamp not greater than the applied one is therefore stale, and is skipped. A clear-all invalidation applied to
+ * a cache makes the earlier invalidations of all the keys of the cache from its origin stale.
+ * </p>
+ * <p>
+ * Local entries are stamped by the clock of this node as they are created, and the clock merges the stamps of the
+ * received invalidations. An invalidation of any origin is skipped as well if the local entry of its key was stamped
+ * later than the invalidation by more than the maximum clock skew, as the entry was then loaded after the invalidated
+ * change was made. Keys dropped from the tracked keys are invalidated as usual.
+ * </p>
+ * <p>
+ * The stamps are kept in concurrent maps, so that the consumer workers do not contend on a lock. Once the number of
+ * tracked keys exceeds the maximum, the least recently used keys are dropped in bulk by a single thread.
+ * </p>
+ */
+public class InvalidationVersionTracker implements CacheEntryCreatedListener {
+
+    // Maximum number of tracked keys.
+    static final int DEFAULT_MAX_KEYS = 10000;
+    // Fraction of the maximum number of tracked keys dropped at once, so that the keys are not sorted on every insert.
+    private static final int TRIM_FRACTION = 8;
+
+    private final Map<VersionKey, TrackedStamp> appliedStamps = new ConcurrentHashMap<>();
+    private final Map<VersionKey, TrackedStamp> loadedStamps = new ConcurrentHashMap<>();
+    private final AtomicBoolean trimming = new AtomicBoolean();
+    private final HybridLogicalClock clock = new HybridLogicalClock();
+    private final int maxKeys;
+    private final long maxClockSkewMillis;
+
+    public InvalidationVersionTracker() {
+
+        this(DEFAULT_MAX_KEYS, JMSUtils.DEFAULT_MAX_CLOCK_SKEW_MILLIS);
+    }
+
+    public InvalidationVersionTracker(int maxKeys) {
+
+        this(maxKeys, JMSUtils.DEFAULT_MAX_CLOCK_SKEW_MILLIS);
+    }
+
+    public InvalidationVersionTracker(int maxKeys, long maxClockSkewMillis) {
+
+        this.maxKeys = maxKeys;
+        this.maxClockSkewMillis = maxClockSkewMillis;
+    }
+
+    @Override
+    public void entryCreated(CacheEntryEvent cacheEntryEvent) throws CacheEntryListenerException {
+
+        Cache<?, ?> cache = cacheEntryEvent.getSource();
+        recordLoaded(PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId(true),
+                cache.getCacheManager().getName(), cache.getName(), cacheEntryEvent.getKey());
+    }
+
+    /**
+     * Records a local entry of a key loaded into a cache.
+     *
+     * @param tenantId         Tenant id.
+     * @param cacheManagerName Cache manager name.
+     * @param cacheName        Cache name.
+     * @param cacheKey         Key of the loaded entry.
+     */
+    public void recordLoaded(int tenantId, String cacheManagerName, String cacheName, Object cacheKey) {
+
+        if (cacheKey == null) {
+            return;
+        }
+        record(loadedStamps, new VersionKey(null, tenantId, cacheManagerName, cacheName, cacheKey), clock.tick());
+    }
+
+    /**
+     * Merges the stamp of a received message into the clock of this node. Stamps ahead of the local time by more than
+     * the maximum clock skew are not merged, so that a node with a wrong clock does not move the clock forward.
+     *
+     * @param stamp Stamp of a received message.
+     */
+    public void receive(long stamp) {
+
+        if (HybridLogicalClock.getPhysicalTime(stamp) <= System.currentTimeMillis() + maxClockSkewMillis) {
+            clock.receive(stamp);
+        }
+    }
+
+    /**
+     * Checks whether an invalidation of a key is older than the invalidations already applied to the key or to its
+     * cache.
+     *
+     * @param entry    Stamped invalidation entry.
+     * @param cacheKey Invalidated key, or the key fingerprint of a key fingerprint invalidation.
+     * @return True if the invalidation is stale.
+     */
+    public boolean isStale(InvalidationEntry entry, Object cacheKey) {
+
+        return isStale(appliedStamps.get(new VersionKey(entry, cacheKey)), entry.getStamp()) ||
+                isStale(appliedStamps.get(new VersionKey(entry, JMSUtils.CLEAR_ALL_PREFIX)), entry.getStamp());
+    }
+
+    /**
+     * Checks whether the local entry of an invalidated key was loaded after the invalidated change was made.
+     *
+     * @param entry    Stamped invalidation entry.
+     * @param cacheKey Invalidated key.
+     * @return True if the local entry was stamped later than the invalidation by more than the maximum clock skew.
+     */
+    public boolean isOlderThanLocalEntry(InvalidationEntry entry, Object cacheKey) {
+
+        if (JMSUtils.CLEAR_ALL_PREFIX.equals(cacheKey)) {
+            return false;
+        }
+        TrackedStamp loaded = loadedStamps.get(new VersionKey(null, entry.getTenantId(), entry.getCacheManagerName(),
+                entry.getCacheName(), cacheKey));
+        if (loaded == null) {
+            return false;
+        }
+        loaded.access();
+        return HybridLogicalClock.getPhysicalTime(loaded.stamp) >
+                HybridLogicalClock.getPhysicalTime(entry.getStamp()) + maxClockSkewMillis;
+    }
+
+    /**
+     * Records an invalidation applied to a key, or to its cache if the key is the clear-all key.
+     *
+     * @param entry    Stamped invalidation entry.
+     * @param cacheKey Invalidated key, or the key fingerprint of a key fingerprint invalidation.
+     */
+    public void recordApplied(InvalidationEntry entry, Object cacheKey) {
+
+        record(appliedStamps, new VersionKey(entry, cacheKey), entry.getStamp());
+    }
+
+    public int size() {
+
+        return appliedStamps.size();
+    }
+
+    /**
+     * Number of local entries of which the load stamps are tracked.
+     *
+     * @return Tracked loaded key count.
+     */
+    public int getLoadedSize() {
+
+        return loadedStamps.size();
+    }
+
+    private void record(Map<VersionKey, TrackedStamp> stamps, VersionKey versionKey, long stamp) {
+
+        stamps.merge(versionKey, new TrackedStamp(stamp),
+                (current, recorded) -> current.stamp >= recorded.stamp ? current.access() : recorded);
+        if (stamps.size() > maxKeys) {
+            trim(stamps);
+        }
+    }
+
+    private static boolean isStale(TrackedStamp applied, long stamp) {
+
+        if (applied == null) {
+            return false;
+        }
+        applied.access();
+        return stamp <= applied.stamp;
+    }
+
+    /**
+     * Drops the least recently used keys, unless another thread is already dropping them. The size is checked again
+     * once dropped, as the keys recorded meanwhile are not dropped by the other threads.
+     *
+     * @param stamps Tracked stamps.
+     */
+    private void trim(Map<VersionKey, TrackedStamp> stamps) {
+
+        while (stamps.size() > maxKeys && trimming.compareAndSet(false, true)) {
+            try {
+                long[] accessTimes = stamps.values().stream().mapToLong(tracked -> tracked.lastAccess).toArray();
+                int excess = accessTimes.length - (maxKeys - maxKeys / TRIM_FRACTION);
+                if (excess > 0) {
+                    Arrays.sort(accessTimes);
+                    long threshold = accessTimes[excess - 1];
+                    stamps.values().removeIf(tracked -> tracked.lastAccess <= threshold);
+                }
+            } finally {
+                trimming.set(false);
+            }
+        }
+    }
+
+    /**
+     * Stamp of the last invalidation applied to a key, or of the local entry of a key, along with the time the key was
+     * last used.
+     */
+    private static final class TrackedStamp {
+
+        private final long stamp;
+        private volatile long lastAccess = System.nanoTime();
+
+        private TrackedStamp(long stamp) {
+
+            this.stamp = stamp;
+        }
+
+        private TrackedStamp access() {
+
+            lastAccess = System.nanoTime();
+            return this;
+        }
+    }
+
+    /**
+     * A key of a cache, along with the origin of the stamps of its invalidations, or no origin for a local entry.
+     */
+    private static final class VersionKey {
+
+        private final String origin;
+        private final int tenantId;
+        private final String cacheManagerName;
+        private final String cacheName;
+        private final Object cacheKey;
+
+        private VersionKey(InvalidationEntry entry, Object cacheKey) {
+
+            this(entry.getOrigin(), entry.getTenantId(), entry.getCacheManagerName(), entry.getCacheName(), cacheKey);
+        }
+
+        private VersionKey(String origin, int tenantId, String cacheManagerName, String cacheName, Object cacheKey) {
+
+            this.origin = origin;
+            this.tenantId = tenantId;
+            this.cacheManagerName = cacheManagerName;
+            this.cacheName = cacheName;
+            this.cacheKey = cacheKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof VersionKey)) {
+                return false;
+            }
+            VersionKey that = (VersionKey) o;
+            return tenantId == that.tenantId && Objects.equals(origin, that.origin) &&
+                    Objects.equals(cacheManagerName, that.cacheManagerName) &&
+                    Objects.equals(cacheName, that.cacheName) && Objects.equals(cacheKey, that.cacheKey);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return Objects.hash(origin, tenantId, cacheManagerName, cacheName, cacheKey);
+        }
+    }
+}
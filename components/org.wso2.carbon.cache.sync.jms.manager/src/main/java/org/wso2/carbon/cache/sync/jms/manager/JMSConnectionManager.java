@@ -0,0 +1,347 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.jms.ExceptionListener;
+import javax.jms.JMSException;
+import javax.naming.NamingException;
+
+/**
+ * Keeps a JMS connection established in the background. A lost connection is signalled by the
+ * {@link ExceptionListener} of the connection, and is re-established by a single reconnect thread with exponential
+ * backoff and jitter, so that the nodes losing the broker at the same time do not reconnect at the same time.
+ * <p>
+ * The connection state is only read by the threads publishing or receiving messages, hence they fail fast instead of
+ * waiting for the broker while it is unavailable. The state is {@link State#RECONNECTING} for the first
+ * reconnect attempts, and {@link State#DOWN} once the attempts exceed the retry limit. Reconnect attempts are kept up
+ * at the maximum backoff while the connection is down.
+ * </p>
+ * <p>
+ * The connection is established without holding the monitor of the manager, which only guards the state, hence the
+ * threads waiting for the connection are not held up by a slow broker beyond their timeout.
+ * </p>
+ */
+public class JMSConnectionManager {
+
+    private static final Log log = LogFactory.getLog(JMSConnectionManager.class);
+
+    private final String name;
+    private final Connector connector;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final int retryLimit;
+    private final CacheSyncMetrics metrics = CacheSyncMetrics.getInstance();
+    private final ScheduledExecutorService scheduler;
+    private volatile State state = State.DOWN;
+    private ScheduledFuture<?> scheduledReconnect;
+    // Incremented on every connection attempt, so that failures of the previous connections are ignored.
+    private int generation;
+    private int attempts;
+    private long outageStart;
+    private boolean stopped;
+    // Set while a connection attempt is in progress, so that a single attempt is made at a time.
+    private boolean connecting;
+
+    /**
+     * Creates a connection manager.
+     *
+     * @param name                 Name of the connection, used in the logs and the reconnect thread name.
+     * @param connector            Establishes and closes the connection and the resources created on it.
+     * @param initialBackoffMillis Delay before the first reconnect attempt.
+     * @param maxBackoffMillis     Maximum delay between reconnect attempts.
+     * @param retryLimit           Number of failed reconnect attempts after which the connection is considered down.
+     */
+    public JMSConnectionManager(String name, Connector connector, long initialBackoffMillis, long maxBackoffMillis,
+                                int retryLimit) {
+
+        this.name = name;
+        this.connector = connector;
+        this.initialBackoffMillis = Math.max(1, initialBackoffMillis);
+        this.maxBackoffMillis = Math.max(this.initialBackoffMillis, maxBackoffMillis);
+        this.retryLimit = retryLimit;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-sync-" + name + "-reconnect");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Establishes the connection on the calling thread. If the broker is unavailable, the connection is established
+     * in the background.
+     *
+     * @return True if the connection is established.
+     */
+    public boolean start() {
+
+        synchronized (this) {
+            if (stopped || state == State.CONNECTED || scheduledReconnect != null || connecting) {
+                return state == State.CONNECTED;
+            }
+            connecting = true;
+        }
+        boolean connected = connect();
+        synchronized (this) {
+            connecting = false;
+            if (connected || stopped) {
+                return connected;
+            }
+            log.warn("The " + name + " could not connect to the message broker. Connecting in the background.");
+            beginOutage();
+            return false;
+        }
+    }
+
+    /**
+     * Current state of the connection.
+     *
+     * @return Connection state.
+     */
+    public State getState() {
+
+        return state;
+    }
+
+    /**
+     * Checks whether the connection is established.
+     *
+     * @return True if the connection is established.
+     */
+    public boolean isConnected() {
+
+        return state == State.CONNECTED;
+    }
+
+    /**
+     * Waits for the connection to be established. Used by the background threads publishing messages, while the
+     * threads updating the caches only read the state.
+     *
+     * @param timeoutMillis Maximum time to wait.
+     * @return True if the connection is established, or false if the timeout elapsed or the manager is shut down.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public synchronized boolean awaitConnected(long timeoutMillis) throws InterruptedException {
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (state != State.CONNECTED && !stopped) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        return state == State.CONNECTED;
+    }
+
+    /**
+     * Stops reconnecting. The connection itself is closed by its owner.
+     */
+    public synchronized void shutdown() {
+
+        stopped = true;
+        notifyAll();
+        state = State.DOWN;
+        if (scheduledReconnect != null) {
+            scheduledReconnect.cancel(false);
+            scheduledReconnect = null;
+        }
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Delay before a reconnect attempt. The delay doubles with each attempt up to the maximum backoff, and half of it
+     * is randomized.
+     *
+     * @param attempt Number of the failed attempts so far.
+     * @return Delay in milliseconds.
+     */
+    long getBackoffMillis(int attempt) {
+
+        long backoff = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt, 20));
+        long half = backoff / 2;
+        return backoff - half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+
+    /**
+     * Establishes the connection, and publishes the state once it is established. Called without holding the monitor.
+     *
+     * @return True if the connection is established.
+     */
+    private boolean connect() {
+
+        int connectionGeneration;
+        synchronized (this) {
+            connectionGeneration = ++generation;
+        }
+        try {
+            connector.connect(exception -> onException(connectionGeneration, exception));
+        } catch (JMSException | NamingException | RuntimeException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("The " + name + " failed to connect to the message broker.", e);
+            }
+            connector.disconnect();
+            return false;
+        }
+        boolean published;
+        synchronized (this) {
+            published = !stopped;
+            if (published) {
+                state = State.CONNECTED;
+                attempts = 0;
+                notifyAll();
+            }
+        }
+        if (!published) {
+            // The owner may have closed its resources on the shutdown, before the connection was established.
+            connector.disconnect();
+            return false;
+        }
+        try {
+            // The owner is notified on the reconnect thread, after the state is published.
+            scheduler.execute(connector::connected);
+        } catch (RejectedExecutionException e) {
+            log.debug("The " + name + " is connected after the shutdown.");
+        }
+        return true;
+    }
+
+    private void onException(int connectionGeneration, JMSException exception) {
+
+        // Exception listeners are called by the threads of the provider, hence the connection is not closed on them.
+        try {
+            scheduler.execute(() -> connectionLost(connectionGeneration, exception));
+        } catch (RejectedExecutionException e) {
+            log.debug("The " + name + " connection is closed after the shutdown.");
+        }
+    }
+
+    private void connectionLost(int connectionGeneration, JMSException exception) {
+
+        synchronized (this) {
+            if (stopped || connectionGeneration != generation || state != State.CONNECTED) {
+                return;
+            }
+            log.warn("The " + name + " lost the connection to the message broker. Reconnecting.", exception);
+            state = State.RECONNECTING;
+        }
+        connector.disconnect();
+        synchronized (this) {
+            if (!stopped) {
+                beginOutage();
+            }
+        }
+    }
+
+    private void beginOutage() {
+
+        state = State.RECONNECTING;
+        attempts = 0;
+        outageStart = System.nanoTime();
+        scheduleReconnect();
+    }
+
+    private void scheduleReconnect() {
+
+        try {
+            scheduledReconnect = scheduler.schedule(this::reconnect, getBackoffMillis(attempts),
+                    TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            scheduledReconnect = null;
+        }
+    }
+
+    private void reconnect() {
+
+        synchronized (this) {
+            scheduledReconnect = null;
+            if (stopped || state == State.CONNECTED || connecting) {
+                return;
+            }
+            connecting = true;
+        }
+        boolean connected = connect();
+        synchronized (this) {
+            connecting = false;
+            if (connected) {
+                long elapsed = System.nanoTime() - outageStart;
+                metrics.recordReconnect(elapsed);
+                log.info("The " + name + " reconnected to the message broker in "
+                        + TimeUnit.NANOSECONDS.toMillis(elapsed) + " ms.");
+                return;
+            }
+            if (stopped) {
+                return;
+            }
+            metrics.recordFailedReconnectAttempt();
+            attempts++;
+            if (state == State.RECONNECTING && attempts > retryLimit) {
+                state = State.DOWN;
+                log.error("The " + name + " could not reconnect to the message broker after " + attempts
+                        + " attempts. Retrying with a backoff of up to " + maxBackoffMillis + " ms.");
+            }
+            scheduleReconnect();
+        }
+    }
+
+    /**
+     * State of the connection.
+     */
+    public enum State {
+
+        CONNECTED,
+        RECONNECTING,
+        DOWN
+    }
+
+    /**
+     * Establishes and closes a connection along with the resources created on it.
+     */
+    public interface Connector {
+
+        /**
+         * Establishes the connection and creates the resources on it.
+         *
+         * @param exceptionListener Listener to be set on the connection to signal its failure.
+         * @throws JMSException    If the connection or a resource cannot be created.
+         * @throws NamingException If the destination cannot be looked up.
+         */
+        void connect(ExceptionListener exceptionListener) throws JMSException, NamingException;
+
+        /**
+         * Closes the connection and the resources created on it, ignoring failures.
+         */
+        void disconnect();
+
+        /**
+         * Called on the reconnect thread once the connection is established.
+         */
+        default void connected() {
+
+        }
+    }
+}
@@ -24,25 +24,33 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.cache.sync.jms.manager.internal.CacheInvalidationMessageDTO;
 import org.wso2.carbon.caching.impl.CacheImpl;
-import org.wso2.carbon.caching.impl.clustering.ClusterCacheInvalidationRequestSender;
+import org.wso2.carbon.caching.impl.CacheManagerFactoryImpl;
+import org.wso2.carbon.caching.impl.CachingConstants;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InvalidClassException;
-import java.io.ObjectInputStream;
-import java.io.ObjectStreamClass;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
 
-import javax.cache.Cache;
 import javax.cache.CacheEntryInfo;
 import javax.cache.CacheManager;
+import javax.cache.CacheManagerFactory;
 import javax.cache.Caching;
+import javax.jms.BytesMessage;
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
+import javax.jms.ExceptionListener;
 import javax.jms.JMSException;
+import javax.jms.Message;
 import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
 import javax.jms.Session;
 import javax.jms.TextMessage;
 import javax.jms.Topic;
@@ -50,27 +58,40 @@ import javax.naming.InitialContext;
 import javax.naming.NamingException;
 
 import static org.wso2.carbon.cache.sync.jms.manager.JMSUtils.PRODUCER_RETRY_LIMIT;
-import static org.wso2.carbon.cache.sync.jms.manager.JMSUtils.getProducerName;
 
 /**
  * This class contains the logic for receiving cache invalidation message.
  */
-@SuppressFBWarnings(
-    value = "OBJECT_DESERIALIZATION",
-    justification = "Legacy deserialization used for cache keys; safe in controlled cluster"
-)
 public class JMSConsumer {
 
     private static final Log log = LogFactory.getLog(JMSConsumer.class);
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    // Maximum time to wait for the received invalidations to be applied on shutdown.
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10000;
 
     private final ConnectionFactory connectionFactory;
     private final InitialContext initialContext;
+    // Producer name overriding the configured one, used to run several nodes in the same JVM.
+    private final String producerName;
     private Topic topic;
-
-    Session session;
-    Connection connection;
-    MessageConsumer consumer;
+    private final CacheHandleResolver cacheHandleResolver = new CacheHandleResolver();
+    private final LocalCacheInterest localCacheInterest = new LocalCacheInterest();
+    private final KeyFingerprintIndex keyFingerprintIndex = new KeyFingerprintIndex();
+    private final InvalidationSequenceTracker sequenceTracker = new InvalidationSequenceTracker();
+    private final InvalidationVersionTracker versionTracker = new InvalidationVersionTracker(
+            InvalidationVersionTracker.DEFAULT_MAX_KEYS, JMSUtils.getMaxClockSkewMillis());
+    private final HybridClusterBridge hybridClusterBridge = HybridClusterBridge.getInstance();
+    private final CacheSyncMetrics metrics = CacheSyncMetrics.getInstance();
+    private final InvalidationTrafficProfiler profiler = InvalidationTrafficProfiler.getInstance();
+    private volatile PartitionedInvalidationExecutor invalidationExecutor;
+    private volatile JMSConnectionManager connectionManager;
+
+    // Written by the reconnect thread, and closed by the reconnect and the shutdown threads.
+    private volatile Session session;
+    private volatile Connection connection;
+    private volatile MessageConsumer consumer;
+    // Subscriptions to the shard topics, used instead of the consumer if topic sharding is enabled.
+    private final List<MessageConsumer> shardConsumers = new CopyOnWriteArrayList<>();
 
     private static volatile JMSConsumer instance;
 
@@ -82,6 +103,21 @@ public class JMSConsumer {
         } catch (NamingException | JMSException | IOException e) {
             throw new RuntimeException("Error initializing JMS client resources", e);
         }
+        this.producerName = null;
+    }
+
+    /**
+     * Creates a consumer connecting through the given connection factory, and skipping the messages sent with the
+     * given producer name instead of the configured one.
+     *
+     * @param connectionFactory Connection factory of the broker.
+     * @param producerName      Producer name of the node.
+     */
+    JMSConsumer(ConnectionFactory connectionFactory, String producerName) {
+
+        this.initialContext = null;
+        this.connectionFactory = connectionFactory;
+        this.producerName = producerName;
     }
 
     public static JMSConsumer getInstance() {
@@ -103,33 +139,123 @@ public class JMSConsumer {
             log.debug("JMS MB based cache invalidation is not enabled.");
             return;
         }
-        int retryCount = 0;
-        while (session == null && retryCount <= PRODUCER_RETRY_LIMIT) {
+        int workerThreads = JMSUtils.getConsumerWorkerThreads();
+        if (workerThreads > 1 && invalidationExecutor == null) {
+            // A single subscription receives the messages, and the workers apply them in parallel.
+            invalidationExecutor = new PartitionedInvalidationExecutor(workerThreads,
+                    entries -> invalidateCache(entries));
+            metrics.setInvalidationExecutor(invalidationExecutor);
+            log.info("Cache invalidation messages are applied by " + workerThreads + " worker threads.");
+        }
+        // The broker may be unavailable at startup, in which case the consumer subscribes in the background.
+        JMSConnectionManager manager = new JMSConnectionManager("cache invalidation consumer", new ConsumerConnector(),
+                JMSUtils.getReconnectInitialBackoffMillis(), JMSUtils.getReconnectMaxBackoffMillis(),
+                PRODUCER_RETRY_LIMIT);
+        connectionManager = manager;
+        metrics.setConsumerConnection(manager);
+        manager.start();
+    }
+
+    private MessageListener createMessageListener() {
+
+        return message -> {
+            if (!(message instanceof TextMessage) && !(message instanceof BytesMessage)) {
+                // Ignore other message types.
+                return;
+            }
             try {
-                // establish the connection over specified topic.
-                startConnection();
-                // Message listener for the subscriber.
-                consumer.setMessageListener(message -> {
-                    if (!(message instanceof TextMessage)) {
-                        // Ignore non-TextMessage.
-                        return;
+                String sender = message.getStringProperty(JMSUtils.SENDER);
+                // Skip processing if the sender is the same as the producer, unless filtered by the broker.
+                String producerName = getProducerName();
+                if (producerName != null && StringUtils.equals(producerName, sender)) {
+                    metrics.recordSelfFiltered();
+                    return;
+                }
+                List<InvalidationEntry> entries;
+                try {
+                    if (message instanceof BytesMessage) {
+                        BytesMessage bytesMessage = (BytesMessage) message;
+                        byte[] frame = new byte[(int) bytesMessage.getBodyLength()];
+                        bytesMessage.readBytes(frame);
+                        entries = InvalidationMessageCodec.decode(frame);
+                    } else {
+                        entries = decodeJsonFrame(((TextMessage) message).getText());
                     }
-                    try {
-                        String sender = message.getStringProperty(JMSUtils.SENDER);
-                        // Skip processing if the sender is the same as the producer.
-                        if (JMSUtils.getProducerName() != null && StringUtils.equals(
-                                JMSUtils.getProducerName(), sender)) {
-                            return;
-                        }
-                        invalidateCache(((TextMessage) message).getText());
-                    } catch (JMSException e) {
-                        log.error("Error in reading the cache invalidation message.", e);
+                } catch (IOException e) {
+                    metrics.recordDeserializationFailure();
+                    log.error("Error while decoding the cache invalidation message.", e);
+                    return;
+                }
+                metrics.recordReceived(entries.size());
+                if (JMSUtils.isSequencingEnabled()) {
+                    trackSequence(message, entries);
+                }
+                if (JMSUtils.isVersioningEnabled()) {
+                    stampEntries(message, entries);
+                }
+                if (profiler.isEnabled()) {
+                    for (InvalidationEntry entry : entries) {
+                        profiler.recordReceived(entry.getTenantDomain(), entry.getCacheManagerName(),
+                                entry.getCacheName());
                     }
-                });
-            } catch (JMSException | NamingException e) {
-                log.error("Error while listening to JMS message broker. ", e);
-                retryCount++;
+                }
+                PartitionedInvalidationExecutor executor = invalidationExecutor;
+                if (executor != null) {
+                    executor.execute(entries, message.getJMSTimestamp());
+                } else {
+                    invalidateCache(entries);
+                }
+            } catch (JMSException e) {
+                log.error("Error in reading the cache invalidation message.", e);
+            } catch (Exception e) {
+                log.error("Error processing cache invalidation message", e);
             }
+        };
+    }
+
+    private void trackSequence(Message message, List<InvalidationEntry> entries) throws JMSException {
+
+        String stream = message.getStringProperty(JMSUtils.SEQUENCE_STREAM);
+        if (stream != null && sequenceTracker.record(stream, message.getLongProperty(JMSUtils.SEQUENCE))) {
+            metrics.recordSequenceGap();
+            recover("Cache invalidation messages of the stream '" + stream + "' were lost.");
+        }
+        // Caches of the received message are recorded after the recovery, as the message is applied after it.
+        sequenceTracker.recordCaches(entries);
+    }
+
+    private void stampEntries(Message message, List<InvalidationEntry> entries) throws JMSException {
+
+        String origin = message.getStringProperty(JMSUtils.CLOCK_ORIGIN);
+        if (origin == null || !message.propertyExists(JMSUtils.CLOCK_STAMP)) {
+            return;
+        }
+        long stamp = message.getLongProperty(JMSUtils.CLOCK_STAMP);
+        versionTracker.receive(stamp);
+        for (InvalidationEntry entry : entries) {
+            entry.setStamp(origin, stamp);
+        }
+    }
+
+    /**
+     * Clears the local caches seen in the recently received invalidations, as the invalidations sent to them may have
+     * been lost. The caches are cleared ahead of the invalidations received afterwards.
+     *
+     * @param reason Reason of the recovery.
+     */
+    void recover(String reason) {
+
+        List<InvalidationEntry> entries = sequenceTracker.getRecoveryEntries();
+        metrics.recordRecovery(entries.size());
+        log.warn(reason + " Clearing " + entries.size() + " recently invalidated local caches.");
+        if (entries.isEmpty()) {
+            return;
+        }
+        PartitionedInvalidationExecutor executor = invalidationExecutor;
+        if (executor != null) {
+            executor.execute(entries, 0);
+        } else {
+            invalidateCache(entries);
         }
     }
 
@@ -137,67 +263,426 @@ public class JMSConsumer {
     public void invalidateCache(String message) {
 
         try {
-            CacheInvalidationMessageDTO dto = OBJECT_MAPPER.readValue(message, CacheInvalidationMessageDTO.class);
-            Object cacheKey = deserializeFromBase64(dto.getCacheKeyBase64());
+            invalidateCache(decodeJsonFrame(message));
+        } catch (Exception e) {
+            log.error("Error processing cache invalidation message", e);
+        }
+    }
+
+    /**
+     * Producer name of the node, used to skip the messages sent by the node itself.
+     *
+     * @return Producer name, or null if no producer name is configured.
+     */
+    String getProducerName() {
+
+        return producerName != null ? producerName : JMSUtils.getProducerName();
+    }
+
+    /**
+     * Returns the workers applying the received cache invalidations.
+     *
+     * @return Partitioned invalidation executor, or null if the invalidations are applied on the receiving thread.
+     */
+    public PartitionedInvalidationExecutor getInvalidationExecutor() {
+
+        return invalidationExecutor;
+    }
+
+    /**
+     * Returns the cache handles resolved for the received cache invalidations.
+     *
+     * @return Cache handle resolver.
+     */
+    public CacheHandleResolver getCacheHandleResolver() {
+
+        return cacheHandleResolver;
+    }
+
+    /**
+     * Returns the local caches tracked as populated on this node.
+     *
+     * @return Local cache interest.
+     */
+    public LocalCacheInterest getLocalCacheInterest() {
+
+        return localCacheInterest;
+    }
+
+    /**
+     * Returns the stamps of the applied invalidations and of the local entries on this node.
+     *
+     * @return Invalidation version tracker.
+     */
+    public InvalidationVersionTracker getVersionTracker() {
+
+        return versionTracker;
+    }
+
+    /**
+     * Returns the keys of the local caches on this node indexed by their fingerprints.
+     *
+     * @return Key fingerprint index.
+     */
+    public KeyFingerprintIndex getKeyFingerprintIndex() {
+
+        return keyFingerprintIndex;
+    }
+
+    /**
+     * Applies the cache invalidations of a frame in the binary wire format.
+     *
+     * @param frame Binary cache invalidation frame.
+     */
+    public void invalidateCache(byte[] frame) {
+
+        try {
+            invalidateCache(InvalidationMessageCodec.decode(frame));
+        } catch (Exception e) {
+            log.error("Error processing cache invalidation message", e);
+        }
+    }
 
-            if (log.isDebugEnabled()) {
-                log.debug("Received cache invalidation message from other cluster nodes for '" + cacheKey +
-                        "' of the cache '" + dto.getCacheName() + "' of the cache manager '" + dto.getCacheManagerName()
-                        + "'.");
+    /**
+     * Applies the given cache invalidations. Entries are grouped by tenant, so that the invalidations of a tenant are
+     * applied within a single tenant flow while preserving the order of the entries of that tenant. Bulk
+     * invalidations are applied within the same tenant flow as the other invalidations of their tenant.
+     *
+     * @param entries Cache invalidation entries of a received frame.
+     */
+    void invalidateCache(List<InvalidationEntry> entries) {
+
+        long start = System.nanoTime();
+        boolean interestFilterEnabled = JMSUtils.isInterestFilterEnabled();
+        // Skip the local caches which hold no entries before starting their tenant flows.
+        List<InvalidationEntry> interestedEntries = interestFilterEnabled ? filterUninterested(entries) : entries;
+        if (interestFilterEnabled && interestedEntries.isEmpty()) {
+            return;
+        }
+        if (interestedEntries.size() == 1) {
+            applyInvalidations(interestedEntries, interestFilterEnabled);
+        } else {
+            Map<Integer, List<InvalidationEntry>> entriesByTenant = new LinkedHashMap<>();
+            for (InvalidationEntry entry : interestedEntries) {
+                entriesByTenant.computeIfAbsent(entry.getTenantId(), tenantId -> new ArrayList<>()).add(entry);
+            }
+            for (List<InvalidationEntry> tenantEntries : entriesByTenant.values()) {
+                applyInvalidations(tenantEntries, interestFilterEnabled);
             }
+        }
+        metrics.recordApplied(System.nanoTime() - start);
+    }
 
-            try {
-                PrivilegedCarbonContext.startTenantFlow();
-                PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
-                carbonContext.setTenantId(dto.getTenantId());
-                carbonContext.setTenantDomain(dto.getTenantDomain());
-                CacheManager cacheMgr = Caching.getCacheManagerFactory()
-                                    .getCacheManager(dto.getCacheManagerName());
-                Cache<Object, Object> cacheObject = cacheMgr.getCache(dto.getCacheName());
-                if (cacheObject instanceof CacheImpl) {
-                    if (JMSUtils.CLEAR_ALL_PREFIX.equals(cacheKey)) {
-                        ((CacheImpl<?, ?>) cacheObject).removeAllLocal();
-                    } else {
-                        ((CacheImpl<?, ?>) cacheObject).removeLocal(cacheKey);
+    private List<InvalidationEntry> filterUninterested(List<InvalidationEntry> entries) {
+
+        List<InvalidationEntry> interested = new ArrayList<>(entries.size());
+        for (InvalidationEntry entry : entries) {
+            if (localCacheInterest.isInterested(entry.getTenantId(), entry.getCacheManagerName(),
+                    entry.getCacheName())) {
+                interested.add(entry);
+            }
+        }
+        if (interested.size() < entries.size()) {
+            metrics.recordUninterested(entries.size() - interested.size());
+        }
+        return interested;
+    }
+
+    @SuppressFBWarnings
+    private void applyInvalidations(List<InvalidationEntry> tenantEntries, boolean interestFilterEnabled) {
+
+        InvalidationEntry firstEntry = tenantEntries.get(0);
+        boolean isHybridMode = JMSUtils.getRunInHybridModeProperty();
+        boolean keyFingerprintEnabled = JMSUtils.isKeyFingerprintEnabled();
+        List<CacheEntryInfo> localClusterInvalidations = new ArrayList<>();
+        try {
+            PrivilegedCarbonContext.startTenantFlow();
+            PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+            carbonContext.setTenantId(firstEntry.getTenantId());
+            carbonContext.setTenantDomain(firstEntry.getTenantDomain());
+            for (InvalidationEntry entry : tenantEntries) {
+                if (entry.getScope() == InvalidationScope.KEY_FINGERPRINT) {
+                    applyFingerprintInvalidation(entry, interestFilterEnabled, keyFingerprintEnabled,
+                            isHybridMode ? localClusterInvalidations : null);
+                    continue;
+                }
+                if (entry.getScope() != InvalidationScope.KEY) {
+                    applyBulkInvalidation(entry, interestFilterEnabled,
+                            isHybridMode ? localClusterInvalidations : null);
+                    continue;
+                }
+                try {
+                    Object cacheKey = entry.getCacheKey();
+                    boolean versioned = entry.getOrigin() != null && cacheKey != null;
+                    // Local entries are not compared in hybrid mode, as the invalidation is passed on to the local
+                    // cluster members, which may hold older entries of the key.
+                    if (versioned && (versionTracker.isStale(entry, cacheKey) ||
+                            !isHybridMode && versionTracker.isOlderThanLocalEntry(entry, cacheKey))) {
+                        metrics.recordStaleInvalidation();
+                        continue;
+                    }
+
+                    if (log.isDebugEnabled()) {
+                        log.debug("Received cache invalidation message from other cluster nodes for '" + cacheKey +
+                                "' of the cache '" + entry.getCacheName() + "' of the cache manager '" +
+                                entry.getCacheManagerName() + "'.");
+                    }
+
+                    long interestGeneration = localCacheInterest.getGeneration();
+                    CacheImpl<?, ?> cache = cacheHandleResolver.resolve(entry.getTenantId(),
+                            entry.getCacheManagerName(), entry.getCacheName());
+                    if (interestFilterEnabled && cache != null) {
+                        trackInterest(entry, cache, interestGeneration);
+                    }
+                    if (cache != null) {
+                        if (JMSUtils.CLEAR_ALL_PREFIX.equals(cacheKey)) {
+                            cache.removeAllLocal();
+                        } else {
+                            cache.removeLocal(cacheKey);
+                        }
+                    }
+                    if (versioned) {
+                        versionTracker.recordApplied(entry, cacheKey);
                     }
+
+                    if (isHybridMode && cacheKey != null) {
+                        localClusterInvalidations.add(new CacheEntryInfo(
+                                entry.getCacheManagerName(),
+                                entry.getCacheName(),
+                                cacheKey,
+                                entry.getTenantDomain(),
+                                entry.getTenantId()
+                        ));
+                    }
+                } catch (Exception e) {
+                    metrics.recordApplyFailure();
+                    log.error("Error processing cache invalidation message for cache '" + entry.getCacheName() +
+                            "' of the cache manager '" + entry.getCacheManagerName() + "'.", e);
                 }
-            } finally {
-                PrivilegedCarbonContext.endTenantFlow();
-            }
-
-            // If hybrid mode is enabled pass invalidation msg to local cluster.
-            if (JMSUtils.getRunInHybridModeProperty() && cacheKey != null) {
-                CacheEntryInfo cacheEntryInfo = new CacheEntryInfo(
-                        dto.getCacheManagerName(),
-                        dto.getCacheName(),
-                        cacheKey,
-                        dto.getTenantDomain(),
-                        dto.getTenantId()
-                );
-                log.debug("Sending cache invalidation message for local clustering: " + cacheEntryInfo);
-                ClusterCacheInvalidationRequestSender cacheInvalidationRequestSender =
-                        new ClusterCacheInvalidationRequestSender();
-                cacheInvalidationRequestSender.send(cacheEntryInfo);
+            }
+        } finally {
+            PrivilegedCarbonContext.endTenantFlow();
+        }
+
+        // If hybrid mode is enabled pass invalidation msg to local cluster.
+        if (!localClusterInvalidations.isEmpty()) {
+            hybridClusterBridge.forwardToLocalCluster(localClusterInvalidations);
+        }
+    }
+
+    /**
+     * Evicts the local entries of the key identified by the fingerprint of an invalidation. Keys are found through the
+     * key fingerprint index, and every local entry of the cache is evicted if the keys of the cache are not indexed.
+     *
+     * @param entry                     Key fingerprint invalidation entry.
+     * @param interestFilterEnabled     Whether the local caches holding no entries are tracked.
+     * @param keyFingerprintEnabled     Whether the keys of the local caches are indexed by their fingerprints.
+     * @param localClusterInvalidations Invalidations to be passed to the local cluster, or null if not in hybrid mode.
+     */
+    private void applyFingerprintInvalidation(InvalidationEntry entry, boolean interestFilterEnabled,
+                                              boolean keyFingerprintEnabled,
+                                              List<CacheEntryInfo> localClusterInvalidations) {
+
+        if (log.isDebugEnabled()) {
+            log.debug("Received cache invalidation message from other cluster nodes for the key fingerprint '" +
+                    Long.toHexString(entry.getKeyFingerprint()) + "' of the cache '" + entry.getCacheName() +
+                    "' of the cache manager '" + entry.getCacheManagerName() + "'.");
+        }
+        boolean versioned = entry.getOrigin() != null;
+        if (versioned && versionTracker.isStale(entry, entry.getKeyFingerprint())) {
+            metrics.recordStaleInvalidation();
+            return;
+        }
+        try {
+            long interestGeneration = localCacheInterest.getGeneration();
+            CacheImpl<?, ?> cache = cacheHandleResolver.resolve(entry.getTenantId(), entry.getCacheManagerName(),
+                    entry.getCacheName());
+            if (cache == null) {
+                return;
+            }
+            if (interestFilterEnabled) {
+                trackInterest(entry, cache, interestGeneration);
+            }
+            List<Object> cacheKeys = null;
+            if (keyFingerprintEnabled) {
+                cacheKeys = keyFingerprintIndex.removeKeys(entry.getTenantId(), entry.getCacheManagerName(),
+                        entry.getCacheName(), entry.getKeyFingerprint());
+                // A cache is iterated once until its indexed keys are discarded.
+                if (cacheKeys == null && keyFingerprintIndex.indexAll(entry.getTenantId(),
+                        entry.getCacheManagerName(), entry.getCacheName(), cache)) {
+                    cacheKeys = keyFingerprintIndex.removeKeys(entry.getTenantId(), entry.getCacheManagerName(),
+                            entry.getCacheName(), entry.getKeyFingerprint());
+                }
+            }
+            if (cacheKeys == null) {
+                metrics.recordFingerprintFallback();
+                if (keyFingerprintEnabled) {
+                    keyFingerprintIndex.markCleared(entry.getTenantId(), entry.getCacheManagerName(),
+                            entry.getCacheName());
+                }
+                cache.removeAllLocal();
+                addLocalClusterInvalidation(localClusterInvalidations, entry, entry.getCacheName(),
+                        JMSUtils.CLEAR_ALL_PREFIX);
+            } else {
+                for (Object cacheKey : cacheKeys) {
+                    cache.removeLocal(cacheKey);
+                    addLocalClusterInvalidation(localClusterInvalidations, entry, entry.getCacheName(), cacheKey);
+                }
+            }
+            if (versioned) {
+                versionTracker.recordApplied(entry, entry.getKeyFingerprint());
             }
         } catch (Exception e) {
-            log.error("Error processing cache invalidation message", e);
+            metrics.recordApplyFailure();
+            log.error("Error processing cache invalidation message for cache '" + entry.getCacheName() +
+                    "' of the cache manager '" + entry.getCacheManagerName() + "'.", e);
+        }
+    }
+
+    /**
+     * Applies a bulk invalidation within the tenant flow of its tenant.
+     *
+     * @param entry                     Bulk invalidation entry.
+     * @param interestFilterEnabled     Whether the local caches holding no entries are tracked.
+     * @param localClusterInvalidations Invalidations to be passed to the local cluster, or null if not in hybrid mode.
+     */
+    private void applyBulkInvalidation(InvalidationEntry entry, boolean interestFilterEnabled,
+                                       List<CacheEntryInfo> localClusterInvalidations) {
+
+        if (log.isDebugEnabled()) {
+            log.debug("Received " + entry.getScope() + " cache invalidation message from other cluster nodes for " +
+                    "the cache '" + entry.getCacheName() + "' of the cache manager '" + entry.getCacheManagerName() +
+                    "' of the tenant '" + entry.getTenantDomain() + "'.");
+        }
+        try {
+            switch (entry.getScope()) {
+                case CACHE_KEYS:
+                    List<?> cacheKeys = (List<?>) entry.getCacheKey();
+                    long interestGeneration = localCacheInterest.getGeneration();
+                    CacheImpl<?, ?> cache = cacheHandleResolver.resolve(entry.getTenantId(),
+                            entry.getCacheManagerName(), entry.getCacheName());
+                    if (interestFilterEnabled && cache != null) {
+                        trackInterest(entry, cache, interestGeneration);
+                    }
+                    for (Object cacheKey : cacheKeys) {
+                        if (cache != null) {
+                            cache.removeLocal(cacheKey);
+                        }
+                        addLocalClusterInvalidation(localClusterInvalidations, entry, entry.getCacheName(), cacheKey);
+                    }
+                    break;
+                case CACHE_MANAGER:
+                    CacheManager cacheManager =
+                            Caching.getCacheManagerFactory().getCacheManager(entry.getCacheManagerName());
+                    for (Object managedCache : cacheManager.getCaches()) {
+                        if (!(managedCache instanceof CacheImpl)) {
+                            continue;
+                        }
+                        CacheImpl<?, ?> localCache = (CacheImpl<?, ?>) managedCache;
+                        if (localCache.getName() != null &&
+                                localCache.getName().startsWith(CachingConstants.LOCAL_CACHE_PREFIX)) {
+                            localCache.removeAllLocal();
+                            addLocalClusterInvalidation(localClusterInvalidations, entry, localCache.getName(),
+                                    JMSUtils.CLEAR_ALL_PREFIX);
+                        }
+                    }
+                    break;
+                case TENANT:
+                    // Cache managers of the tenant are created again on their next use, as after unloading the tenant.
+                    CacheManagerFactory cacheManagerFactory = Caching.getCacheManagerFactory();
+                    if (cacheManagerFactory instanceof CacheManagerFactoryImpl) {
+                        ((CacheManagerFactoryImpl) cacheManagerFactory).removeAllCacheManagers(
+                                entry.getTenantDomain());
+                    }
+                    cacheHandleResolver.invalidateTenant(entry.getTenantId());
+                    localCacheInterest.invalidateTenant(entry.getTenantId());
+                    keyFingerprintIndex.invalidateTenant(entry.getTenantId());
+                    if (localClusterInvalidations != null) {
+                        // Sent by a node which is not in hybrid mode, as such nodes do not send tenant invalidations.
+                        log.warn("Tenant cache invalidation of the tenant '" + entry.getTenantDomain() +
+                                "' is not passed to the local cluster in hybrid mode.");
+                    }
+                    break;
+                default:
+                    break;
+            }
+        } catch (Exception e) {
+            metrics.recordApplyFailure();
+            log.error("Error processing " + entry.getScope() + " cache invalidation message for the cache manager '" +
+                    entry.getCacheManagerName() + "' of the tenant '" + entry.getTenantDomain() + "'.", e);
+        }
+    }
+
+    private static void addLocalClusterInvalidation(List<CacheEntryInfo> localClusterInvalidations,
+                                                    InvalidationEntry entry, String cacheName, Object cacheKey) {
+
+        if (localClusterInvalidations != null && cacheKey != null) {
+            localClusterInvalidations.add(new CacheEntryInfo(entry.getCacheManagerName(), cacheName, cacheKey,
+                    entry.getTenantDomain(), entry.getTenantId()));
+        }
+    }
+
+    private void trackInterest(InvalidationEntry entry, CacheImpl<?, ?> cache, long interestGeneration) {
+
+        if (localCacheInterest.isKnown(entry.getTenantId(), entry.getCacheManagerName(), entry.getCacheName())) {
+            return;
+        }
+        // A cache is checked once until it is forgotten, hence the cost of iterating it is not paid per invalidation.
+        if (cache.iterator().hasNext()) {
+            localCacheInterest.markPopulated(entry.getTenantId(), entry.getCacheManagerName(), entry.getCacheName());
+        } else {
+            localCacheInterest.markEmpty(entry.getTenantId(), entry.getCacheManagerName(), entry.getCacheName(),
+                    interestGeneration);
         }
     }
 
     public void closeResources() {
 
+        JMSConnectionManager manager = connectionManager;
+        if (manager != null) {
+            connectionManager = null;
+            manager.shutdown();
+            metrics.setConsumerConnection(null);
+        }
         try {
-            if (consumer != null) {
-                consumer.close();
+            closeConsumers();
+            PartitionedInvalidationExecutor executor = invalidationExecutor;
+            if (executor != null) {
+                invalidationExecutor = null;
+                executor.shutdown(SHUTDOWN_TIMEOUT_MILLIS);
+                metrics.setInvalidationExecutor(null);
             }
+            closeConnection();
+        } catch (JMSException e) {
+            log.error("Error closing JMS resources", e);
+        }
+    }
+
+    private void closeConsumers() throws JMSException {
+
+        if (consumer != null) {
+            consumer.close();
+            consumer = null;
+        }
+        for (MessageConsumer shardConsumer : shardConsumers) {
+            shardConsumer.close();
+        }
+        shardConsumers.clear();
+    }
+
+    private void closeConnection() throws JMSException {
+
+        try {
             if (session != null) {
                 session.close();
             }
-            if (connection != null) {
-                connection.close();
+        } finally {
+            session = null;
+            Connection closedConnection = connection;
+            connection = null;
+            if (closedConnection != null) {
+                closedConnection.close();
             }
-        } catch (JMSException e) {
-            log.error("Error closing JMS resources", e);
         }
     }
 
@@ -211,43 +696,173 @@ public class JMSConsumer {
         connection.start();
         session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
         this.topic = JMSUtils.getCacheTopic(initialContext, session);
-        if (isDurableSubscription) {
-            consumer = session.createDurableSubscriber(topic, JMSUtils.DURABLE_SUB_NAME_PREFIX + getProducerName());
+        String selector = JMSUtils.isSenderSelectorEnabled() ? getSenderSelector(getProducerName()) : null;
+        if (selector != null) {
+            log.info("Subscribing to the cache invalidation topic with the message selector: " + selector);
+        }
+        String subscriptionName = isDurableSubscription ? JMSUtils.DURABLE_SUB_NAME_PREFIX + getProducerName() : null;
+        TopicSharding sharding = JMSUtils.getTopicSharding();
+        if (!sharding.isEnabled()) {
+            consumer = subscribe(topic, subscriptionName, selector);
+            return;
+        }
+        shardConsumers.clear();
+        int[] shards = sharding.getSubscribedShards();
+        for (int shard : shards) {
+            Topic shardTopic = session.createTopic(sharding.getTopicName(topic.getTopicName(), shard));
+            shardConsumers.add(subscribe(shardTopic, subscriptionName != null ?
+                    sharding.getTopicName(subscriptionName, shard) : null, selector));
+        }
+        log.info("Subscribed to the cache invalidation shards " + Arrays.toString(shards) + " of "
+                + sharding.getShardCount() + ".");
+    }
+
+    private MessageConsumer subscribe(Topic subscribedTopic, String subscriptionName, String selector)
+            throws JMSException {
+
+        if (subscriptionName != null) {
+            return session.createDurableSubscriber(subscribedTopic, subscriptionName, selector, false);
+        }
+        return session.createConsumer(subscribedTopic, selector);
+    }
+
+    /**
+     * Builds a message selector excluding the messages sent by a node. Messages without a sender are still received.
+     *
+     * @param producerName Producer name of the node.
+     * @return Message selector, or null if the node has no producer name.
+     */
+    static String getSenderSelector(String producerName) {
+
+        if (StringUtils.isEmpty(producerName)) {
+            return null;
+        }
+        // String literals of message selectors escape a single quote with another single quote.
+        return JMSUtils.SENDER + " IS NULL OR " + JMSUtils.SENDER + " <> '" + producerName.replace("'", "''") + "'";
+    }
+
+    static List<InvalidationEntry> decodeJsonFrame(String message) throws IOException {
+
+        List<CacheInvalidationMessageDTO> dtos;
+        if (isBatchFrame(message)) {
+            dtos = Arrays.asList(OBJECT_MAPPER.readValue(message, CacheInvalidationMessageDTO[].class));
         } else {
-            consumer = session.createConsumer(topic);
+            dtos = Collections.singletonList(OBJECT_MAPPER.readValue(message, CacheInvalidationMessageDTO.class));
+        }
+        List<InvalidationEntry> entries = new ArrayList<>(dtos.size());
+        for (CacheInvalidationMessageDTO dto : dtos) {
+            InvalidationScope scope = getScope(dto);
+            if (scope == InvalidationScope.KEY) {
+                InvalidationEntry entry = new InvalidationEntry(dto.getTenantId(), dto.getTenantDomain(),
+                        dto.getCacheManagerName(), dto.getCacheName(),
+                        () -> deserializeFromBase64(dto.getCacheKeyBase64()));
+                entry.setEncodedKeyHash(Objects.hashCode(dto.getCacheKeyBase64()));
+                entries.add(entry);
+            } else if (scope == InvalidationScope.KEY_FINGERPRINT) {
+                if (dto.getCacheKeyFingerprint() == null) {
+                    throw new IOException("Key fingerprint is missing in the cache invalidation message.");
+                }
+                entries.add(new InvalidationEntry(dto.getTenantId(), dto.getTenantDomain(),
+                        dto.getCacheManagerName(), dto.getCacheName(), dto.getCacheKeyFingerprint()));
+            } else if (scope == InvalidationScope.CACHE_KEYS) {
+                InvalidationEntry entry = new InvalidationEntry(scope, dto.getTenantId(), dto.getTenantDomain(),
+                        dto.getCacheManagerName(), dto.getCacheName(), () -> deserializeKeys(dto));
+                entry.setEncodedKeyHash(Objects.hashCode(dto.getCacheKeysBase64()));
+                entries.add(entry);
+            } else {
+                entries.add(new InvalidationEntry(scope, dto.getTenantId(), dto.getTenantDomain(),
+                        dto.getCacheManagerName(), dto.getCacheName(), () -> null));
+            }
+        }
+        return entries;
+    }
+
+    private static boolean isBatchFrame(String message) {
+
+        // Batch frames are JSON arrays of cache invalidation entries, while single invalidations are JSON objects.
+        for (int i = 0; i < message.length(); i++) {
+            char character = message.charAt(i);
+            if (!Character.isWhitespace(character)) {
+                return character == '[';
+            }
+        }
+        return false;
+    }
+
+    private static InvalidationScope getScope(CacheInvalidationMessageDTO dto) throws IOException {
+
+        if (dto.getScope() == null) {
+            return InvalidationScope.KEY;
+        }
+        try {
+            return InvalidationScope.valueOf(dto.getScope());
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Unknown cache invalidation scope: " + dto.getScope(), e);
+        }
+    }
+
+    private static List<Object> deserializeKeys(CacheInvalidationMessageDTO dto) throws IOException {
+
+        if (dto.getCacheKeysBase64() == null) {
+            return Collections.emptyList();
+        }
+        List<Object> cacheKeys = new ArrayList<>(dto.getCacheKeysBase64().size());
+        for (String cacheKeyBase64 : dto.getCacheKeysBase64()) {
+            cacheKeys.add(deserializeFromBase64(cacheKeyBase64));
         }
+        return cacheKeys;
     }
 
     private static Object deserializeFromBase64(String base64) throws IOException {
 
-        byte[] data = Base64.getDecoder().decode(base64);
+        return InvalidationMessageCodec.deserializeKey(Base64.getDecoder().decode(base64));
+    }
 
-        // Custom ObjectInputStream that enforces a strict allow-list during deserialization to
-        // prevent unsafe or malicious classes from being loaded. This prevents deserialization attacks.
-        class SafeObjectInputStream extends ObjectInputStream {
+    /**
+     * Subscribes to the cache invalidation topic, and closes the subscription once the connection is lost. Once
+     * subscribed again, the caches which may have missed invalidations meanwhile are cleared if sequencing is enabled.
+     */
+    private final class ConsumerConnector implements JMSConnectionManager.Connector {
 
-            public SafeObjectInputStream(InputStream in) throws IOException {
-                super(in);
-            }
+        // Accessed only by the reconnect thread.
+        private boolean connectedBefore;
+
+        @Override
+        public void connect(ExceptionListener exceptionListener) throws JMSException, NamingException {
 
-            @Override
-            protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            // establish the connection over specified topic.
+            startConnection();
+            connection.setExceptionListener(exceptionListener);
+            // Message listener for the subscriber.
+            MessageListener listener = createMessageListener();
+            if (consumer != null) {
+                consumer.setMessageListener(listener);
+            }
+            for (MessageConsumer shardConsumer : shardConsumers) {
+                shardConsumer.setMessageListener(listener);
+            }
+        }
 
-                String className = desc.getName();
+        @Override
+        public void connected() {
 
-                // Only allow CacheInvalidationMessageDTO and core Java classes
-                if (className.startsWith("org.wso2.carbon.")) {
-                    return super.resolveClass(desc);
-                }
-                throw new InvalidClassException("Unauthorized deserialization attempt", className);
+            if (connectedBefore && JMSUtils.isSequencingEnabled() && !JMSUtils.isDurableSubscriber()) {
+                // Invalidations sent while the subscription was closed are lost, and are recovered from at once.
+                sequenceTracker.reset();
+                recover("Reconnected to the message broker.");
             }
+            connectedBefore = true;
         }
 
-        try (ObjectInputStream objectInputStream = new SafeObjectInputStream(new ByteArrayInputStream(data))) {
-            return objectInputStream.readObject();
-        } catch (ClassNotFoundException e) {
-            throw new IOException("Failed to deserialize cache invalidation message", e);
+        @Override
+        public void disconnect() {
+
+            try {
+                closeConsumers();
+                closeConnection();
+            } catch (JMSException e) {
+                log.debug("Error while closing the lost JMS connection.", e);
+            }
         }
     }
-
 }
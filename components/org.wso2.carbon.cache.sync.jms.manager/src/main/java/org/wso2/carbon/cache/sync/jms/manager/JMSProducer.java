@@ -30,14 +30,20 @@ import org.wso2.carbon.caching.impl.clustering.ClusterCacheInvalidationRequest;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
 import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.cache.CacheEntryInfo;
 import javax.cache.CacheInvalidationRequestSender;
@@ -46,12 +52,13 @@ import javax.cache.event.CacheEntryEvent;
 import javax.cache.event.CacheEntryListenerException;
 import javax.cache.event.CacheEntryRemovedListener;
 import javax.cache.event.CacheEntryUpdatedListener;
+import javax.jms.BytesMessage;
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
+import javax.jms.ExceptionListener;
 import javax.jms.JMSException;
-import javax.jms.MessageProducer;
+import javax.jms.Message;
 import javax.jms.Session;
-import javax.jms.TextMessage;
 import javax.jms.Topic;
 import javax.naming.InitialContext;
 import javax.naming.NamingException;
@@ -66,14 +73,30 @@ public class JMSProducer implements CacheEntryRemovedListener, CacheEntryUpdated
         CacheInvalidationRequestSender {
 
     private static final Log log = LogFactory.getLog(JMSProducer.class);
-    private static final ExecutorService executorService = Executors.newFixedThreadPool(15);
+    // Maximum time to wait for the dispatch queue to be drained on shutdown.
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 60000;
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
     private final ConnectionFactory connectionFactory;
     private final InitialContext initialContext;
+    private final CacheSyncMetrics metrics = CacheSyncMetrics.getInstance();
+    private final InvalidationTrafficProfiler profiler = InvalidationTrafficProfiler.getInstance();
+    // Producer name overriding the configured one, used to run several nodes in the same JVM.
+    private final String producerName;
+    private final HybridLogicalClock clock = new HybridLogicalClock();
     private Topic topic;
-    private Connection connection;
-    private Session session;
-    private MessageProducer producer;
+    private volatile ShardTopics shardTopics;
+    // Written by the connecting thread, and closed by the reconnect and the shutdown threads.
+    private volatile Connection connection;
+    private volatile ProducerSessionPool sessionPool;
+    private volatile InvalidationDispatchQueue dispatchQueue;
+    private volatile InvalidationBatcher batcher;
+    private volatile InvalidationCoalescer coalescer;
+    private volatile AsyncPublisher asyncPublisher;
+    private volatile JMSConnectionManager connectionManager;
+    private volatile MappedInvalidationSpool outageSpool;
+    // Sends the spooled invalidations, so that the sender threads are not held up while the spool is drained.
+    private volatile ExecutorService outageSpoolDrainer;
+    private final AtomicBoolean drainingOutageSpool = new AtomicBoolean();
     private static volatile JMSProducer instance;
 
     private JMSProducer() {
@@ -84,6 +107,50 @@ public class JMSProducer implements CacheEntryRemovedListener, CacheEntryUpdated
         } catch (NamingException | JMSException | IOException e) {
             throw new RuntimeException("Error initializing JMS client resources", e);
         }
+        this.producerName = null;
+    }
+
+    /**
+     * Creates a producer connecting through the given connection factory, and sending messages with the given
+     * producer name instead of the configured one.
+     *
+     * @param connectionFactory Connection factory of the broker.
+     * @param producerName      Producer name of the node.
+     */
+    JMSProducer(ConnectionFactory connectionFactory, String producerName) {
+
+        this.initialContext = null;
+        this.connectionFactory = connectionFactory;
+        this.producerName = producerName;
+    }
+
+    /**
+     * Creates a producer publishing through the given session pool, without looking up the broker.
+     *
+     * @param sessionPool Pool of sessions and producers of the cache invalidation topic.
+     */
+    JMSProducer(ProducerSessionPool sessionPool) {
+
+        this(sessionPool, null);
+    }
+
+    /**
+     * Creates a producer publishing through the given session pool, and keeping the invalidations which cannot be sent
+     * in the given outage spool.
+     *
+     * @param sessionPool Pool of sessions and producers of the cache invalidation topic.
+     * @param outageSpool Spool of the invalidations which cannot be sent, or null to drop them.
+     */
+    JMSProducer(ProducerSessionPool sessionPool, MappedInvalidationSpool outageSpool) {
+
+        this.initialContext = null;
+        this.connectionFactory = null;
+        this.producerName = null;
+        this.sessionPool = sessionPool;
+        if (outageSpool != null) {
+            this.outageSpool = outageSpool;
+            this.outageSpoolDrainer = createOutageSpoolDrainer();
+        }
     }
 
     public static JMSProducer getInstance() {
@@ -105,10 +172,41 @@ public class JMSProducer implements CacheEntryRemovedListener, CacheEntryUpdated
             return;
         }
 
-        try {
-            startConnection();
-        } catch (JMSException | NamingException e) {
-            throw new RuntimeException("Error starting JMS connection ", e);
+        if (JMSUtils.isOutageSpoolEnabled()) {
+            outageSpool = createOutageSpool();
+            metrics.setOutageSpool(outageSpool);
+            if (outageSpool != null) {
+                outageSpoolDrainer = createOutageSpoolDrainer();
+            }
+        }
+        // The broker may be unavailable at startup, in which case the producer connects in the background.
+        connectionManager = new JMSConnectionManager("cache invalidation producer", new ProducerConnector(),
+                JMSUtils.getReconnectInitialBackoffMillis(), JMSUtils.getReconnectMaxBackoffMillis(),
+                PRODUCER_RETRY_LIMIT);
+        metrics.setProducerConnection(connectionManager);
+        connectionManager.start();
+
+        if (JMSUtils.isAsyncPublishEnabled()) {
+            asyncPublisher = new AsyncPublisher(JMSUtils.getDispatchMaxInFlight(), new PublishHandler());
+            metrics.setAsyncPublisher(asyncPublisher);
+            log.info("Asynchronous cache invalidation message publishing is enabled.");
+        }
+        dispatchQueue = createDispatchQueue();
+        metrics.setDispatchQueue(dispatchQueue);
+        if (JMSUtils.isBatchingEnabled()) {
+            if (JMSUtils.isAdaptiveBatchingEnabled()) {
+                batcher = new InvalidationBatcher(createBatchingPolicy(dispatchQueue), this::enqueue);
+                log.info("Adaptive cache invalidation message batching is enabled.");
+            } else {
+                batcher = new InvalidationBatcher(JMSUtils.getBatchMaxSize(),
+                        JMSUtils.getBatchFlushIntervalMillis(), this::enqueue);
+                log.info("Cache invalidation message batching is enabled.");
+            }
+            metrics.setBatchingPolicy(batcher.getBatchingPolicy());
+        }
+        if (JMSUtils.isCoalescingEnabled()) {
+            coalescer = new InvalidationCoalescer(JMSUtils.getCoalescingWindowMillis(), this::dispatch);
+            log.info("Cache invalidation message coalescing is enabled.");
         }
     }
 
@@ -124,12 +222,14 @@ public class JMSProducer implements CacheEntryRemovedListener, CacheEntryUpdated
             return;
         }
 
-        if (connection == null || session == null) {
-            log.debug("JMS Producer connection is not initialized");
-            retryConnection();
+        // The invalidation is queued while reconnecting, and sent once the connection is re-established.
+        JMSConnectionManager manager = connectionManager;
+        if (manager != null && !manager.isConnected() && log.isDebugEnabled()) {
+            log.debug("JMS Producer is not connected to the message broker. Connection state: " + manager.getState());
         }
 
         if (MultitenantConstants.INVALID_TENANT_ID == tenantId) {
+            metrics.recordInvalidTenant();
             if (log.isDebugEnabled()) {
                 String stackTrace = ExceptionUtils.getStackTrace(new Throwable());
                 log.debug("Tenant information cannot be found in the request. This originated from: \n" + stackTrace);
@@ -142,6 +242,7 @@ public class JMSProducer implements CacheEntryRemovedListener, CacheEntryUpdated
         }
 
         if (!isAllowedToPropagate(cacheEntryInfo.getCacheManagerName(), cacheEntryInfo.getCacheName())) {
+            metrics.recordDenied();
             if (log.isDebugEnabled()) {
                 log.debug("Cache " + cacheEntryInfo.getCacheKey() + " is not allowed to propagate to " +
                         "other clusters as per configurations.");
@@ -169,61 +270,563 @@ public class JMSProducer implements CacheEntryRemovedListener, CacheEntryUpdated
         sendAsyncInvalidation(clusterCacheInvalidationRequest);
     }
 
+    /**
+     * Invalidates every cache of a tenant on the other nodes with a single message. Tenant invalidations are not sent
+     * in hybrid mode, as the receiving nodes cannot pass them on to their local cluster.
+     *
+     * @param tenantDomain Tenant domain.
+     * @param tenantId     Tenant id.
+     */
+    public void invalidateTenant(String tenantDomain, int tenantId) {
+
+        if (JMSUtils.getRunInHybridModeProperty()) {
+            // The caches of a tenant are not known once its cache managers are removed, hence the local cluster could
+            // only be invalidated per cache manager.
+            log.warn("Tenant cache invalidations are not supported in hybrid mode. Invalidate the cache managers of "
+                    + "the tenant '" + tenantDomain + "' instead.");
+            return;
+        }
+        sendBulkInvalidation(BulkInvalidationRequest.forTenant(tenantDomain, tenantId));
+    }
+
+    /**
+     * Invalidates every local cache of a cache manager of a tenant on the other nodes with a single message.
+     *
+     * @param tenantDomain     Tenant domain.
+     * @param tenantId         Tenant id.
+     * @param cacheManagerName Cache manager name.
+     */
+    public void invalidateCacheManager(String tenantDomain, int tenantId, String cacheManagerName) {
+
+        sendBulkInvalidation(BulkInvalidationRequest.forCacheManager(tenantDomain, tenantId, cacheManagerName));
+    }
+
+    /**
+     * Invalidates a set of keys of a local cache on the other nodes with a single message.
+     *
+     * @param tenantDomain     Tenant domain.
+     * @param tenantId         Tenant id.
+     * @param cacheManagerName Cache manager name.
+     * @param cacheName        Cache name, including its local cache prefix.
+     * @param cacheKeys        Cache keys to be invalidated.
+     */
+    public void invalidateKeys(String tenantDomain, int tenantId, String cacheManagerName, String cacheName,
+                               Collection<?> cacheKeys) {
+
+        if (cacheKeys == null || cacheKeys.isEmpty()) {
+            return;
+        }
+        if (cacheName == null || !cacheName.startsWith(CachingConstants.LOCAL_CACHE_PREFIX)) {
+            return;
+        }
+        if (!isAllowedToPropagate(cacheManagerName, cacheName)) {
+            metrics.recordDenied();
+            if (log.isDebugEnabled()) {
+                log.debug("Cache " + cacheName + " is not allowed to propagate to other clusters as per " +
+                        "configurations.");
+            }
+            return;
+        }
+        sendBulkInvalidation(BulkInvalidationRequest.forCacheKeys(tenantDomain, tenantId, cacheManagerName,
+                cacheName, cacheKeys));
+    }
+
+    private void sendBulkInvalidation(BulkInvalidationRequest bulkInvalidationRequest) {
+
+        if (!JMSUtils.isMBCacheInvalidatorEnabled()) {
+            log.debug("MB based cache invalidation is not enabled");
+            return;
+        }
+
+        // The invalidation is queued while reconnecting, and sent once the connection is re-established.
+        JMSConnectionManager manager = connectionManager;
+        if (manager != null && !manager.isConnected() && log.isDebugEnabled()) {
+            log.debug("JMS Producer is not connected to the message broker. Connection state: " + manager.getState());
+        }
+
+        if (MultitenantConstants.INVALID_TENANT_ID == bulkInvalidationRequest.getTenantId()) {
+            metrics.recordInvalidTenant();
+            return;
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Sending bulk cache invalidation message to other cluster nodes: " + bulkInvalidationRequest);
+        }
+        sendAsyncInvalidation(bulkInvalidationRequest);
+    }
+
     @SuppressFBWarnings
     public void sendAsyncInvalidation(ClusterCacheInvalidationRequest clusterCacheInvalidationRequest) {
 
+        ClusterCacheInvalidationRequest.CacheInfo cacheInfo = clusterCacheInvalidationRequest.getCacheInfo();
+        profiler.recordSent(clusterCacheInvalidationRequest.getTenantDomain(), cacheInfo.getCacheManagerName(),
+                cacheInfo.getCacheName());
+        // Collapse repeated invalidations of the same key, if coalescing is enabled.
+        InvalidationCoalescer invalidationCoalescer = coalescer;
+        if (invalidationCoalescer != null) {
+            invalidationCoalescer.add(clusterCacheInvalidationRequest);
+            return;
+        }
+        dispatch(clusterCacheInvalidationRequest);
+    }
+
+    /**
+     * Returns the queue holding the cache invalidation messages waiting to be sent to the broker.
+     *
+     * @return Invalidation dispatch queue, or null if the producer is not started.
+     */
+    public InvalidationDispatchQueue getDispatchQueue() {
+
+        return dispatchQueue;
+    }
+
+    /**
+     * Returns the coalescing stage of the producer.
+     *
+     * @return Invalidation coalescer, or null if coalescing is not enabled.
+     */
+    public InvalidationCoalescer getInvalidationCoalescer() {
+
+        return coalescer;
+    }
+
+    private void dispatch(ClusterCacheInvalidationRequest clusterCacheInvalidationRequest) {
+
+        // Collect the invalidation into the current batch frame, if batching is enabled.
+        InvalidationBatcher invalidationBatcher = batcher;
+        if (invalidationBatcher != null) {
+            invalidationBatcher.add(clusterCacheInvalidationRequest);
+            return;
+        }
+
         // Send cache invalidation message asynchronously.
-        executorService.submit(() -> {
-            sendInvalidationMessage(clusterCacheInvalidationRequest);
+        enqueue(Collections.singletonList(clusterCacheInvalidationRequest));
+    }
+
+    private void enqueue(List<ClusterCacheInvalidationRequest> clusterCacheInvalidationRequests) {
+
+        InvalidationDispatchQueue invalidationDispatchQueue = dispatchQueue;
+        if (invalidationDispatchQueue == null) {
+            if (log.isDebugEnabled()) {
+                log.debug("JMS Producer is not started. Dropping " + clusterCacheInvalidationRequests.size() +
+                        " cache invalidation messages.");
+            }
+            return;
+        }
+        invalidationDispatchQueue.enqueue(clusterCacheInvalidationRequests);
+    }
+
+    private static AdaptiveBatchingPolicy createBatchingPolicy(InvalidationDispatchQueue invalidationDispatchQueue) {
+
+        AdaptiveBatchingPolicy batchingPolicy = new AdaptiveBatchingPolicy(JMSUtils.getBatchMinFlushIntervalMillis(),
+                JMSUtils.getBatchFlushIntervalMillis(), JMSUtils.getBatchMaxSize());
+        batchingPolicy.setQueueFillRatio(() -> (double) invalidationDispatchQueue.getQueueDepth() /
+                invalidationDispatchQueue.getCapacity());
+        return batchingPolicy;
+    }
+
+    private static MappedInvalidationSpool createOutageSpool() {
+
+        int segmentSizeKB = JMSUtils.getOutageSpoolSegmentSizeKB();
+        int maxSegments = Math.max(1, JMSUtils.getOutageSpoolMaxSizeMB() * 1024 / segmentSizeKB);
+        try {
+            MappedInvalidationSpool spool = new MappedInvalidationSpool(
+                    JMSUtils.getDispatchSpoolDirectory().resolve("outage"), segmentSizeKB * 1024, maxSegments);
+            log.info("Cache invalidations which cannot be sent are kept in the outage spool.");
+            return spool;
+        } catch (IOException e) {
+            log.error("Error while opening the cache invalidation outage spool. Cache invalidations which cannot be "
+                    + "sent will be dropped.", e);
+            return null;
+        }
+    }
+
+    private static ExecutorService createOutageSpoolDrainer() {
+
+        return Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-sync-outage-spool-drainer");
+            thread.setDaemon(true);
+            return thread;
         });
     }
 
+    private InvalidationDispatchQueue createDispatchQueue() {
+
+        InvalidationDispatchQueue.OverflowPolicy overflowPolicy = JMSUtils.getDispatchOverflowPolicy();
+        InvalidationSpool spool = null;
+        if (overflowPolicy == InvalidationDispatchQueue.OverflowPolicy.SPILL) {
+            try {
+                spool = new InvalidationSpool(JMSUtils.getDispatchSpoolDirectory());
+            } catch (IOException e) {
+                log.error("Error while creating the cache invalidation spool. Overflowing invalidations will be " +
+                        "collapsed into clear-all invalidations.", e);
+            }
+        }
+        InvalidationDispatchQueue invalidationDispatchQueue = new InvalidationDispatchQueue(
+                JMSUtils.getDispatchQueueCapacity(), overflowPolicy, JMSUtils.getDispatchOfferTimeoutMillis(),
+                JMSUtils.getDispatchSenderThreads(), spool, this::sendInvalidationBatch);
+        if (log.isDebugEnabled()) {
+            log.debug("Cache invalidation dispatch queue started with capacity " +
+                    invalidationDispatchQueue.getCapacity() + ", overflow policy " +
+                    invalidationDispatchQueue.getOverflowPolicy() + " and " +
+                    invalidationDispatchQueue.getSenderCount() + " sender threads.");
+        }
+        return invalidationDispatchQueue;
+    }
+
     @SuppressFBWarnings
     void sendInvalidationMessage(ClusterCacheInvalidationRequest clusterCacheInvalidationRequest) {
 
-        try {
-            if (!isSessionValid(session)) {
-                retryConnection();
+        sendInvalidationBatch(Collections.singletonList(clusterCacheInvalidationRequest));
+    }
+
+    /**
+     * Sends the given cache invalidation requests as a single multi-entry frame. In the JSON wire format the frame is
+     * a JSON array of {@link CacheInvalidationMessageDTO}s, which is unpacked by
+     * {@link JMSConsumer#invalidateCache(String)}. If topic sharding is enabled, the requests are split into a frame
+     * per shard topic, and the bulk requests spanning several shards are sent to every shard topic.
+     * <p>
+     * While invalidations spooled during an outage are pending, the requests are appended to the outage spool instead,
+     * so that they are sent after the older spooled invalidations.
+     * </p>
+     *
+     * @param clusterCacheInvalidationRequests Cache invalidation requests to be sent.
+     */
+    @SuppressFBWarnings
+    void sendInvalidationBatch(List<ClusterCacheInvalidationRequest> clusterCacheInvalidationRequests) {
+
+        MappedInvalidationSpool spool = outageSpool;
+        if (spool != null && spool.size() > 0) {
+            spool.append(clusterCacheInvalidationRequests);
+            drainOutageSpool();
+            return;
+        }
+        for (Map.Entry<Topic, List<ClusterCacheInvalidationRequest>> frame :
+                splitByTopic(clusterCacheInvalidationRequests).entrySet()) {
+            sendFrame(frame.getKey(), frame.getValue());
+        }
+    }
+
+    private Map<Topic, List<ClusterCacheInvalidationRequest>> splitByTopic(
+            List<ClusterCacheInvalidationRequest> clusterCacheInvalidationRequests) {
+
+        ShardTopics topics = shardTopics;
+        if (topics == null) {
+            return Collections.singletonMap(null, clusterCacheInvalidationRequests);
+        }
+        if (clusterCacheInvalidationRequests.size() == 1 &&
+                !topics.isBroadcast(clusterCacheInvalidationRequests.get(0))) {
+            return Collections.singletonMap(topics.getTopic(clusterCacheInvalidationRequests.get(0)),
+                    clusterCacheInvalidationRequests);
+        }
+        // Requests of the same cache are assigned to the same shard, hence their order is kept within the frame.
+        Map<Topic, List<ClusterCacheInvalidationRequest>> frames = new LinkedHashMap<>();
+        for (ClusterCacheInvalidationRequest clusterCacheInvalidationRequest : clusterCacheInvalidationRequests) {
+            if (topics.isBroadcast(clusterCacheInvalidationRequest)) {
+                for (Topic shardTopic : topics.topics) {
+                    frames.computeIfAbsent(shardTopic, shard -> new ArrayList<>()).add(clusterCacheInvalidationRequest);
+                }
+                continue;
             }
-            // Map the cluster request into a stable DTO and serialize the DTO. Some
-            // implementations of ClusterCacheInvalidationRequest do not expose all
-            // subclass fields to Jackson; building our own DTO avoids missing values.
-            CacheInvalidationMessageDTO dto = new CacheInvalidationMessageDTO();
+            frames.computeIfAbsent(topics.getTopic(clusterCacheInvalidationRequest), shard -> new ArrayList<>())
+                    .add(clusterCacheInvalidationRequest);
+        }
+        return frames;
+    }
 
-            dto.setTenantDomain(clusterCacheInvalidationRequest.getTenantDomain());
-            dto.setTenantId(clusterCacheInvalidationRequest.getTenantId());
-            ClusterCacheInvalidationRequest.CacheInfo cacheInfo = clusterCacheInvalidationRequest.getCacheInfo();
-            dto.setCacheManagerName(cacheInfo.getCacheManagerName());
-            dto.setCacheName(cacheInfo.getCacheName());
+    private void sendFrame(Topic destination, List<ClusterCacheInvalidationRequest> clusterCacheInvalidationRequests) {
 
-            Object cacheKey = cacheInfo.getCacheKey();
-            if (cacheKey instanceof Serializable) {
-                dto.setCacheKeyBase64(serializeToBase64(cacheKey));
+        try {
+            publishFrame(destination, clusterCacheInvalidationRequests, false);
+        } catch (JMSException e) {
+            metrics.recordSendFailure();
+            if (spoolUndelivered(clusterCacheInvalidationRequests)) {
+                log.debug("Spooled the cache invalidation messages which could not be sent.", e);
             } else {
-                // Log a clear error if cache key is not serializable
-                // invalidation will be skipped for this key
-                log.error("Cache key is not Serializable. CacheManager: " + cacheInfo.getCacheManagerName() +
-                        ", Cache: " + cacheInfo.getCacheName() + ", Key class: " + cacheKey.getClass().getName());
-                dto.setCacheKeyBase64(null);
+                log.error("Something went wrong with JMS producer connection.", e);
             }
+        }
+    }
 
-            String jsonMessage = OBJECT_MAPPER.writeValueAsString(dto);
-            TextMessage message = session.createTextMessage(jsonMessage);
-            if (StringUtils.isNotBlank(JMSUtils.getProducerName())) {
-                message.setStringProperty(JMSUtils.SENDER, JMSUtils.getProducerName());
+    private void publishFrame(Topic destination, List<ClusterCacheInvalidationRequest> clusterCacheInvalidationRequests,
+                              boolean synchronous) throws JMSException {
+
+        if (JMSUtils.isBinaryWireFormat()) {
+            publish(destination, InvalidationMessageCodec.encode(clusterCacheInvalidationRequests,
+                    JMSUtils.isKeyFingerprintEnabled()), clusterCacheInvalidationRequests.size(),
+                    clusterCacheInvalidationRequests, synchronous);
+            return;
+        }
+        if (clusterCacheInvalidationRequests.size() == 1) {
+            ClusterCacheInvalidationRequest clusterCacheInvalidationRequest = clusterCacheInvalidationRequests.get(0);
+            String jsonMessage;
+            try {
+                jsonMessage = OBJECT_MAPPER.writeValueAsString(createMessageDTO(clusterCacheInvalidationRequest));
+            } catch (JsonProcessingException e) {
+                metrics.recordSerializationFailure();
+                log.error("Failed to serialize cache invalidation message for cache '"
+                        + clusterCacheInvalidationRequest.getCacheInfo().getCacheName() + "' with key '"
+                        + clusterCacheInvalidationRequest.getCacheInfo().getCacheKey() + "'.", e);
+                return;
+            } catch (IOException e) {
+                metrics.recordSerializationFailure();
+                log.error("I/O error occurred while processing cache invalidation message.", e);
+                return;
             }
-            producer.send(message);
-        } catch (JMSException e) {
-            log.error("Something went wrong with JMS producer connection.", e);
+            publish(destination, jsonMessage, 1, clusterCacheInvalidationRequests, synchronous);
+            return;
+        }
+
+        List<CacheInvalidationMessageDTO> frame = new ArrayList<>(clusterCacheInvalidationRequests.size());
+        for (ClusterCacheInvalidationRequest clusterCacheInvalidationRequest : clusterCacheInvalidationRequests) {
+            try {
+                frame.add(createMessageDTO(clusterCacheInvalidationRequest));
+            } catch (IOException e) {
+                metrics.recordSerializationFailure();
+                log.error("I/O error occurred while processing cache invalidation message for cache '"
+                        + clusterCacheInvalidationRequest.getCacheInfo().getCacheName() + "'.", e);
+            }
+        }
+        if (frame.isEmpty()) {
+            return;
+        }
+
+        String payload;
+        try {
+            payload = OBJECT_MAPPER.writeValueAsString(frame);
         } catch (JsonProcessingException e) {
-            log.error("Failed to serialize cache invalidation message for cache '"
-                    + clusterCacheInvalidationRequest.getCacheInfo().getCacheName() + "' with key '"
-                    + clusterCacheInvalidationRequest.getCacheInfo().getCacheKey() + "'.", e);
-        } catch (IOException e) {
-            log.error("I/O error occurred while processing cache invalidation message.", e);
+            metrics.recordSerializationFailure();
+            log.error("Failed to serialize a batch of " + frame.size() + " cache invalidation messages.", e);
+            return;
+        }
+        publish(destination, payload, frame.size(), clusterCacheInvalidationRequests, synchronous);
+        if (log.isDebugEnabled()) {
+            log.debug("Sent a batch of " + frame.size() + " cache invalidation messages.");
+        }
+    }
+
+    /**
+     * Keeps the cache invalidation requests which could not be sent in the outage spool.
+     *
+     * @param clusterCacheInvalidationRequests Cache invalidation requests which could not be sent.
+     * @return True if the requests are spooled, or false if the outage spool is not enabled.
+     */
+    private boolean spoolUndelivered(List<ClusterCacheInvalidationRequest> clusterCacheInvalidationRequests) {
+
+        MappedInvalidationSpool spool = outageSpool;
+        if (spool == null) {
+            return false;
+        }
+        spool.append(clusterCacheInvalidationRequests);
+        return true;
+    }
+
+    /**
+     * Schedules the spooled cache invalidations to be sent, unless they are already being sent.
+     */
+    private void drainOutageSpool() {
+
+        ExecutorService drainer = outageSpoolDrainer;
+        if (drainer == null || !drainingOutageSpool.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            drainer.execute(this::sendSpooledFrames);
+        } catch (RejectedExecutionException e) {
+            // The producer is shutting down, hence the spooled invalidations are kept for the next run.
+            drainingOutageSpool.set(false);
+        }
+    }
+
+    /**
+     * Sends the spooled cache invalidations in order, until the spool is empty or a message cannot be sent.
+     */
+    private void sendSpooledFrames() {
+
+        MappedInvalidationSpool spool = outageSpool;
+        if (spool == null) {
+            drainingOutageSpool.set(false);
+            return;
+        }
+        int drained = 0;
+        boolean failed = false;
+        try {
+            List<ClusterCacheInvalidationRequest> spooledFrame;
+            while ((spooledFrame = spool.peek()) != null) {
+                // Spooled frames are sent synchronously, so that a frame is removed only once it is sent.
+                for (Map.Entry<Topic, List<ClusterCacheInvalidationRequest>> frame :
+                        splitByTopic(spooledFrame).entrySet()) {
+                    publishFrame(frame.getKey(), frame.getValue(), true);
+                }
+                spool.remove();
+                drained += spooledFrame.size();
+            }
+        } catch (JMSException e) {
+            failed = true;
+            metrics.recordSendFailure();
+            log.warn("Failed to send the spooled cache invalidations. They are sent once the connection to the "
+                    + "message broker is re-established.");
+            log.debug("Error while sending the spooled cache invalidations.", e);
+        } finally {
+            drainingOutageSpool.set(false);
+        }
+        if (drained > 0) {
+            log.info("Sent " + drained + " cache invalidations spooled while the message broker was unavailable.");
+        }
+        if (!failed && spool.size() > 0) {
+            // Invalidations appended after the spool was found empty are sent as well.
+            drainOutageSpool();
+        }
+    }
+
+    private CacheInvalidationMessageDTO createMessageDTO(
+            ClusterCacheInvalidationRequest clusterCacheInvalidationRequest) throws IOException {
+
+        // Map the cluster request into a stable DTO and serialize the DTO. Some
+        // implementations of ClusterCacheInvalidationRequest do not expose all
+        // subclass fields to Jackson; building our own DTO avoids missing values.
+        CacheInvalidationMessageDTO dto = new CacheInvalidationMessageDTO();
+
+        dto.setTenantDomain(clusterCacheInvalidationRequest.getTenantDomain());
+        dto.setTenantId(clusterCacheInvalidationRequest.getTenantId());
+        ClusterCacheInvalidationRequest.CacheInfo cacheInfo = clusterCacheInvalidationRequest.getCacheInfo();
+        dto.setCacheManagerName(cacheInfo.getCacheManagerName());
+        dto.setCacheName(cacheInfo.getCacheName());
+
+        InvalidationScope scope = BulkInvalidationRequest.getScope(clusterCacheInvalidationRequest);
+        if (scope != InvalidationScope.KEY) {
+            dto.setScope(scope.name());
+            if (scope == InvalidationScope.CACHE_KEYS) {
+                List<String> cacheKeys = new ArrayList<>();
+                for (Object cacheKey : ((BulkInvalidationRequest) clusterCacheInvalidationRequest).getCacheKeys()) {
+                    if (cacheKey instanceof Serializable) {
+                        cacheKeys.add(serializeToBase64(cacheKey));
+                    } else {
+                        log.error("Cache key is not Serializable. CacheManager: " + cacheInfo.getCacheManagerName() +
+                                ", Cache: " + cacheInfo.getCacheName() + ", Key class: " +
+                                (cacheKey == null ? null : cacheKey.getClass().getName()));
+                    }
+                }
+                dto.setCacheKeysBase64(cacheKeys);
+            }
+            return dto;
+        }
+
+        Object cacheKey = cacheInfo.getCacheKey();
+        if (JMSUtils.isKeyFingerprintEnabled() && InvalidationMessageCodec.isFingerprinted(cacheKey)) {
+            // The key is identified by its fingerprint, hence it is neither serialized nor sent.
+            dto.setScope(InvalidationScope.KEY_FINGERPRINT.name());
+            dto.setCacheKeyFingerprint(KeyFingerprint.of(cacheKey));
+            return dto;
+        }
+        if (cacheKey instanceof Serializable) {
+            dto.setCacheKeyBase64(serializeToBase64(cacheKey));
+        } else {
+            // Log a clear error if cache key is not serializable
+            // invalidation will be skipped for this key
+            log.error("Cache key is not Serializable. CacheManager: " + cacheInfo.getCacheManagerName() +
+                    ", Cache: " + cacheInfo.getCacheName() + ", Key class: " + cacheKey.getClass().getName());
+            dto.setCacheKeyBase64(null);
+        }
+        return dto;
+    }
+
+    private void publish(Topic destination, String payload, int invalidationCount,
+                         List<ClusterCacheInvalidationRequest> clusterCacheInvalidationRequests, boolean synchronous)
+            throws JMSException {
+
+        publishMessage(destination, session -> session.createTextMessage(payload), invalidationCount,
+                clusterCacheInvalidationRequests, synchronous);
+    }
+
+    private void publish(Topic destination, byte[] frame, int invalidationCount,
+                         List<ClusterCacheInvalidationRequest> clusterCacheInvalidationRequests, boolean synchronous)
+            throws JMSException {
+
+        publishMessage(destination, session -> {
+            BytesMessage message = session.createBytesMessage();
+            message.writeBytes(frame);
+            return message;
+        }, invalidationCount, clusterCacheInvalidationRequests, synchronous);
+    }
+
+    private void publishMessage(Topic destination, ProducerSessionPool.MessageCreator messageCreator,
+                                int invalidationCount,
+                                List<ClusterCacheInvalidationRequest> clusterCacheInvalidationRequests,
+                                boolean synchronous) throws JMSException {
+
+        String producerName = getProducerName();
+        ProducerSessionPool.MessageCreator senderMessageCreator = session -> {
+            Message message = messageCreator.create(session);
+            if (StringUtils.isNotBlank(producerName)) {
+                message.setStringProperty(JMSUtils.SENDER, producerName);
+            }
+            if (JMSUtils.isVersioningEnabled()) {
+                // Stamped as the message is created, hence after the invalidated entries were changed.
+                message.setStringProperty(JMSUtils.CLOCK_ORIGIN, clock.getOrigin());
+                message.setLongProperty(JMSUtils.CLOCK_STAMP, clock.tick());
+            }
+            return message;
+        };
+        AsyncPublisher publisher = asyncPublisher;
+        if (publisher != null && !synchronous) {
+            // The pool is resolved on every attempt, as a resend may happen after the connection is re-established.
+            publisher.publish(completionListener -> getSessionPool().sendAsync(destination, senderMessageCreator,
+                    completionListener), invalidationCount, clusterCacheInvalidationRequests);
+            return;
+        }
+        ProducerSessionPool producerSessionPool = getSessionPool();
+        long start = System.nanoTime();
+        if (destination != null) {
+            producerSessionPool.send(destination, senderMessageCreator);
+        } else {
+            producerSessionPool.send(senderMessageCreator);
+        }
+        recordSent(invalidationCount, System.nanoTime() - start);
+    }
+
+    private ProducerSessionPool getSessionPool() throws JMSException {
+
+        JMSConnectionManager manager = connectionManager;
+        if (manager != null && !manager.isConnected()) {
+            // Messages are published by the sender threads, hence waiting here fills up the dispatch queue instead
+            // of blocking the threads updating the caches.
+            try {
+                if (!manager.awaitConnected(JMSUtils.getReconnectMaxBackoffMillis())) {
+                    throw new JMSException("JMS Producer is not connected to the message broker. Connection state: "
+                            + manager.getState());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new JMSException("Interrupted while waiting for the JMS Producer to reconnect.");
+            }
+        }
+        ProducerSessionPool producerSessionPool = sessionPool;
+        if (producerSessionPool == null) {
+            throw new JMSException("JMS Producer connection is not initialized.");
+        }
+        return producerSessionPool;
+    }
+
+    private void recordSent(int invalidationCount, long elapsed) {
+
+        metrics.recordSent(invalidationCount, elapsed);
+        InvalidationBatcher invalidationBatcher = batcher;
+        if (invalidationBatcher != null && invalidationBatcher.getBatchingPolicy() != null) {
+            invalidationBatcher.getBatchingPolicy().recordSendLatency(elapsed);
         }
     }
 
+    /**
+     * Producer name set as the sender of the messages sent by this producer.
+     *
+     * @return Producer name, or null if no producer name is configured.
+     */
+    String getProducerName() {
+
+        return producerName != null ? producerName : JMSUtils.getProducerName();
+    }
+
     @Override
     public void entryCreated(CacheEntryEvent cacheEntryEvent) throws CacheEntryListenerException {
       // No need to send invalidation message for new cache entries.
@@ -251,14 +854,58 @@ public class JMSProducer implements CacheEntryRemovedListener, CacheEntryUpdated
 
     public void shutdownExecutorService() {
 
-        executorService.shutdown();
+        // Pending messages are not held back for a reconnect once the producer is shutting down.
+        JMSConnectionManager manager = connectionManager;
+        if (manager != null) {
+            connectionManager = null;
+            manager.shutdown();
+            metrics.setProducerConnection(null);
+        }
+        InvalidationCoalescer invalidationCoalescer = coalescer;
+        if (invalidationCoalescer != null) {
+            coalescer = null;
+            invalidationCoalescer.shutdown();
+        }
+        InvalidationBatcher invalidationBatcher = batcher;
+        if (invalidationBatcher != null) {
+            batcher = null;
+            invalidationBatcher.shutdown();
+            metrics.setBatchingPolicy(null);
+        }
+        InvalidationDispatchQueue invalidationDispatchQueue = dispatchQueue;
         try {
-            if (!executorService.awaitTermination(60, TimeUnit.SECONDS)) {
-                executorService.shutdownNow();
+            if (invalidationDispatchQueue != null) {
+                dispatchQueue = null;
+                invalidationDispatchQueue.shutdown(SHUTDOWN_TIMEOUT_MILLIS);
+                metrics.setDispatchQueue(null);
+            }
+            // Messages handed over by the dispatch queue are waited for before the connection is closed.
+            AsyncPublisher publisher = asyncPublisher;
+            if (publisher != null) {
+                asyncPublisher = null;
+                publisher.shutdown(SHUTDOWN_TIMEOUT_MILLIS);
+                metrics.setAsyncPublisher(null);
+            }
+            ExecutorService drainer = outageSpoolDrainer;
+            if (drainer != null) {
+                outageSpoolDrainer = null;
+                drainer.shutdown();
+                try {
+                    if (!drainer.awaitTermination(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                        drainer.shutdownNow();
+                    }
+                } catch (InterruptedException e) {
+                    drainer.shutdownNow();
+                    Thread.currentThread().interrupt();
+                }
+            }
+            // Invalidations which could not be sent are kept on the disk for the next run.
+            MappedInvalidationSpool spool = outageSpool;
+            if (spool != null) {
+                outageSpool = null;
+                spool.close();
+                metrics.setOutageSpool(null);
             }
-        } catch (InterruptedException ex) {
-            executorService.shutdownNow();
-            Thread.currentThread().interrupt();
         } finally {
             closeResources();
         }
@@ -266,18 +913,19 @@ public class JMSProducer implements CacheEntryRemovedListener, CacheEntryUpdated
 
     public void closeResources() {
 
+        ProducerSessionPool producerSessionPool = sessionPool;
+        if (producerSessionPool != null) {
+            sessionPool = null;
+            producerSessionPool.close();
+        }
         try {
-            if (producer != null) {
-                producer.close();
-            }
-            if (session != null) {
-                session.close();
-            }
             if (connection != null) {
                 connection.close();
             }
         } catch (JMSException e) {
             log.error("Error closing JMS resources.", e);
+        } finally {
+            connection = null;
         }
     }
 
@@ -285,41 +933,111 @@ public class JMSProducer implements CacheEntryRemovedListener, CacheEntryUpdated
 
         this.connection = JMSUtils.createConnection(connectionFactory);;
         this.connection.start();
-        this.session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
-        this.topic = JMSUtils.getCacheTopic(initialContext, session);
-        this.producer = session.createProducer(topic);
+        // The topic is resolved once, and shared by the producers of all the pooled sessions.
+        Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        try {
+            this.topic = JMSUtils.getCacheTopic(initialContext, session);
+            this.shardTopics = ShardTopics.create(JMSUtils.getTopicSharding(), session, topic);
+        } finally {
+            session.close();
+        }
+        // Producers without a destination are used to send to the shard topics.
+        this.sessionPool = new ProducerSessionPool(connection, shardTopics == null ? topic : null,
+                JMSUtils.getProducerSessionPoolSize(), JMSUtils.isSequencingEnabled());
     }
 
-    private void retryConnection() {
+    private static String serializeToBase64(Object object) throws IOException {
 
-        int retryCount = 0;
-        while ((connection == null || session == null) && retryCount <= PRODUCER_RETRY_LIMIT) {
-            try {
-                startConnection();
-                log.debug("Attempting retry JMS Producer connection.");
-            } catch (JMSException | NamingException e) {
-                retryCount++;
-            }
+        return Base64.getEncoder().encodeToString(InvalidationMessageCodec.serializeKey(object));
+    }
+
+    /**
+     * Connects the producer session pool, and closes it once the connection is lost.
+     */
+    private final class ProducerConnector implements JMSConnectionManager.Connector {
+
+        @Override
+        public void connect(ExceptionListener exceptionListener) throws JMSException, NamingException {
+
+            startConnection();
+            connection.setExceptionListener(exceptionListener);
+        }
+
+        @Override
+        public void disconnect() {
+
+            closeResources();
+        }
+
+        @Override
+        public void connected() {
+
+            drainOutageSpool();
         }
     }
 
-    private boolean isSessionValid(Session session) {
-        try {
-            session.getTransacted();
-            return true;
-        } catch (JMSException e) {
-            log.debug("JMS session is expired or invalid.");
-            return false;
+    /**
+     * Records the outcome of the messages published asynchronously.
+     */
+    private final class PublishHandler implements AsyncPublisher.PublishHandler {
+
+        @Override
+        public void onSent(int invalidationCount, long elapsedNanos) {
+
+            recordSent(invalidationCount, elapsedNanos);
+        }
+
+        @Override
+        public void onFailed(int invalidationCount, List<ClusterCacheInvalidationRequest> requests, Exception cause) {
+
+            metrics.recordSendFailure();
+            if (spoolUndelivered(requests)) {
+                log.debug("Spooled a cache invalidation message which could not be published.", cause);
+                return;
+            }
+            log.error("Failed to publish a cache invalidation message carrying " + invalidationCount
+                    + " cache invalidations.", cause);
         }
     }
 
-    private static String serializeToBase64(Object object) throws IOException {
+    /**
+     * Shard topics of the cache invalidation topic, resolved along with it.
+     */
+    private static final class ShardTopics {
+
+        private final TopicSharding sharding;
+        private final Topic[] topics;
+
+        private ShardTopics(TopicSharding sharding, Topic[] topics) {
+
+            this.sharding = sharding;
+            this.topics = topics;
+        }
+
+        private static ShardTopics create(TopicSharding sharding, Session session, Topic topic) throws JMSException {
 
-        try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-             ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream)) {
-            objectOutputStream.writeObject(object);
-            objectOutputStream.flush();
-            return Base64.getEncoder().encodeToString(byteArrayOutputStream.toByteArray());
+            if (!sharding.isEnabled()) {
+                return null;
+            }
+            Topic[] topics = new Topic[sharding.getShardCount()];
+            for (int shard = 0; shard < topics.length; shard++) {
+                topics[shard] = session.createTopic(sharding.getTopicName(topic.getTopicName(), shard));
+            }
+            log.info("Cache invalidation messages are sharded by " + sharding.getMode() + " across " + topics.length
+                    + " topics.");
+            return new ShardTopics(sharding, topics);
+        }
+
+        private boolean isBroadcast(ClusterCacheInvalidationRequest clusterCacheInvalidationRequest) {
+
+            return sharding.isBroadcast(BulkInvalidationRequest.getScope(clusterCacheInvalidationRequest));
+        }
+
+        private Topic getTopic(ClusterCacheInvalidationRequest clusterCacheInvalidationRequest) {
+
+            ClusterCacheInvalidationRequest.CacheInfo cacheInfo = clusterCacheInvalidationRequest.getCacheInfo();
+            return topics[sharding.getShard(cacheInfo.getCacheManagerName(), cacheInfo.getCacheName(),
+                    clusterCacheInvalidationRequest.getTenantId())];
         }
     }
 
@@ -23,12 +23,17 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.osgi.service.component.ComponentContext;
+import org.wso2.carbon.base.CarbonBaseConstants;
 import org.wso2.carbon.identity.base.IdentityConstants;
 import org.wso2.carbon.identity.core.util.IdentityConfigParser;
 import org.wso2.carbon.identity.core.util.IdentityCoreConstants;
 import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.utils.Axis2ConfigurationContextObserver;
 
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -48,6 +53,10 @@ import javax.jms.ConnectionFactory;
 import javax.jms.JMSException;
 import javax.jms.Session;
 import javax.jms.Topic;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.ObjectName;
 import javax.naming.InitialContext;
 import javax.naming.NamingException;
 import javax.xml.namespace.QName;
@@ -61,6 +70,7 @@ public class JMSUtils {
     public static final String MB_TYPE = "CacheInvalidator.MB.Type";
     public static final String INVALIDATOR_ENABLED_PROPERTY = "CacheInvalidator.MB.Enabled";
     public static final String RUN_IN_HYBRID_MODE_PROPERTY = "CacheInvalidator.MB.HybridMode";
+    public static final String ECHO_SUPPRESSION_WINDOW_PROPERTY = "CacheInvalidator.MB.EchoSuppressionWindowMillis";
     public static final String PRODUCER_NAME_PROPERTY = "CacheInvalidator.MB.ProducerName";
     public static final String JNDI_INITIAL_FACTORY_PROP_NAME = "java.naming.factory.initial";
     public static final String JNDI_PROVIDER_URL_PROP_NAME = "java.naming.provider.url";
@@ -78,6 +88,12 @@ public class JMSUtils {
     // Default producer retry limit.
     public static final int PRODUCER_RETRY_LIMIT = 10;
     public static final String SENDER = "sender";
+    // Message properties carrying the stream and the sequence number of a message, if sequencing is enabled.
+    public static final String SEQUENCE_STREAM = "sequenceStream";
+    public static final String SEQUENCE = "sequence";
+    // Message properties carrying the origin and the hybrid logical clock stamp of a message, if versioning is enabled.
+    public static final String CLOCK_ORIGIN = "clockOrigin";
+    public static final String CLOCK_STAMP = "clockStamp";
     public static final String BROKER_TYPE_RABBITMQ = "rabbitmq";
     public static final String BROKER_TYPE_JMS = "jms";
     public static final String LOOKUP_CONNECTION_FACTORY = "ConnectionFactory";
@@ -86,8 +102,83 @@ public class JMSUtils {
     public static final String CACHE_MANAGER_ELEMENT = "CacheManager";
     public static final String DURABLE_CON_CLIENT_ID_PREFIX = "is-client-id-";
     public static final String DURABLE_SUB_NAME_PREFIX = "is-subscriber-name-";
-
-    private static Map<String, List<String>> mbCacheListConfigurationHolder;
+    public static final String BATCHING_ENABLED_PROPERTY = "CacheInvalidator.MB.Batching.Enabled";
+    public static final String BATCHING_MAX_SIZE_PROPERTY = "CacheInvalidator.MB.Batching.MaxSize";
+    public static final String BATCHING_FLUSH_INTERVAL_PROPERTY = "CacheInvalidator.MB.Batching.FlushIntervalMillis";
+    public static final String BATCHING_ADAPTIVE_PROPERTY = "CacheInvalidator.MB.Batching.Adaptive";
+    public static final String BATCHING_MIN_FLUSH_INTERVAL_PROPERTY =
+            "CacheInvalidator.MB.Batching.MinFlushIntervalMillis";
+    public static final String COALESCING_ENABLED_PROPERTY = "CacheInvalidator.MB.Coalescing.Enabled";
+    public static final String COALESCING_WINDOW_PROPERTY = "CacheInvalidator.MB.Coalescing.WindowMillis";
+    public static final String WIRE_FORMAT_PROPERTY = "CacheInvalidator.MB.WireFormat";
+    public static final String WIRE_FORMAT_JSON = "json";
+    public static final String WIRE_FORMAT_BINARY = "binary";
+    public static final String DISPATCH_QUEUE_CAPACITY_PROPERTY = "CacheInvalidator.MB.Dispatch.QueueCapacity";
+    public static final String DISPATCH_OVERFLOW_POLICY_PROPERTY = "CacheInvalidator.MB.Dispatch.OverflowPolicy";
+    public static final String DISPATCH_SENDER_THREADS_PROPERTY = "CacheInvalidator.MB.Dispatch.SenderThreads";
+    public static final String DISPATCH_OFFER_TIMEOUT_PROPERTY = "CacheInvalidator.MB.Dispatch.OfferTimeoutMillis";
+    public static final String DISPATCH_SPOOL_DIRECTORY_PROPERTY = "CacheInvalidator.MB.Dispatch.SpoolDirectory";
+    public static final String DISPATCH_SESSION_POOL_SIZE_PROPERTY = "CacheInvalidator.MB.Dispatch.SessionPoolSize";
+    public static final String DISPATCH_ASYNC_PUBLISH_PROPERTY = "CacheInvalidator.MB.Dispatch.AsyncPublish";
+    public static final String DISPATCH_MAX_IN_FLIGHT_PROPERTY = "CacheInvalidator.MB.Dispatch.MaxInFlight";
+    public static final String RECONNECT_INITIAL_BACKOFF_PROPERTY =
+            "CacheInvalidator.MB.Reconnect.InitialBackoffMillis";
+    public static final String RECONNECT_MAX_BACKOFF_PROPERTY = "CacheInvalidator.MB.Reconnect.MaxBackoffMillis";
+    public static final String OUTAGE_SPOOL_ENABLED_PROPERTY = "CacheInvalidator.MB.OutageSpool.Enabled";
+    public static final String OUTAGE_SPOOL_SEGMENT_SIZE_PROPERTY = "CacheInvalidator.MB.OutageSpool.SegmentSizeKB";
+    public static final String OUTAGE_SPOOL_MAX_SIZE_PROPERTY = "CacheInvalidator.MB.OutageSpool.MaxSizeMB";
+    public static final String KEY_FINGERPRINT_ENABLED_PROPERTY = "CacheInvalidator.MB.KeyFingerprint.Enabled";
+    public static final String SEQUENCING_ENABLED_PROPERTY = "CacheInvalidator.MB.Sequencing.Enabled";
+    public static final String VERSIONING_ENABLED_PROPERTY = "CacheInvalidator.MB.Versioning.Enabled";
+    public static final String VERSIONING_MAX_CLOCK_SKEW_PROPERTY = "CacheInvalidator.MB.Versioning.MaxClockSkewMillis";
+    public static final String CONSUMER_WORKER_THREADS_PROPERTY = "CacheInvalidator.MB.Consumer.WorkerThreads";
+    public static final String CONSUMER_SENDER_SELECTOR_PROPERTY = "CacheInvalidator.MB.Consumer.SenderSelector";
+    public static final String CONSUMER_INTEREST_FILTER_PROPERTY = "CacheInvalidator.MB.Consumer.InterestFilter";
+    public static final String SHARDING_MODE_PROPERTY = "CacheInvalidator.MB.Sharding.Mode";
+    public static final String SHARDING_SHARD_COUNT_PROPERTY = "CacheInvalidator.MB.Sharding.ShardCount";
+    public static final String SHARDING_SUBSCRIPTIONS_PROPERTY = "CacheInvalidator.MB.Sharding.Subscriptions";
+    public static final String METRICS_ENABLED_PROPERTY = "CacheInvalidator.MB.Metrics.Enabled";
+    public static final String PROFILER_ENABLED_PROPERTY = "CacheInvalidator.MB.Profiler.Enabled";
+    public static final String PROFILER_TOP_K_PROPERTY = "CacheInvalidator.MB.Profiler.TopK";
+    public static final String PROFILER_WINDOW_PROPERTY = "CacheInvalidator.MB.Profiler.WindowSeconds";
+    public static final String PROFILER_SAMPLE_RATE_PROPERTY = "CacheInvalidator.MB.Profiler.SampleRate";
+    // Default time within which invalidations of the local cluster are taken as echoes of the forwarded ones.
+    public static final int DEFAULT_ECHO_SUPPRESSION_WINDOW_MILLIS = 2000;
+    // Default maximum number of invalidations carried in a single batch frame.
+    public static final int DEFAULT_BATCH_MAX_SIZE = 100;
+    // Default time an invalidation may wait for a batch to fill up before being flushed.
+    public static final int DEFAULT_BATCH_FLUSH_INTERVAL_MILLIS = 20;
+    // Default shortest flush interval used by adaptive batching when invalidations are batched.
+    public static final int DEFAULT_BATCH_MIN_FLUSH_INTERVAL_MILLIS = 1;
+    // Default time window within which repeated invalidations of the same key are collapsed.
+    public static final int DEFAULT_COALESCING_WINDOW_MILLIS = 10;
+    // Default maximum number of cache invalidations waiting to be sent to the broker.
+    public static final int DEFAULT_DISPATCH_QUEUE_CAPACITY = 10000;
+    // Default number of threads sending cache invalidation messages to the broker.
+    public static final int DEFAULT_DISPATCH_SENDER_THREADS = 1;
+    // Default time a caller is blocked on a full dispatch queue when the BLOCK overflow policy is used.
+    public static final int DEFAULT_DISPATCH_OFFER_TIMEOUT_MILLIS = 1000;
+    // Default maximum number of messages sent asynchronously and not yet acknowledged by the broker.
+    public static final int DEFAULT_DISPATCH_MAX_IN_FLIGHT = 1000;
+    // Default delay before the first attempt to reconnect to the broker.
+    public static final int DEFAULT_RECONNECT_INITIAL_BACKOFF_MILLIS = 100;
+    // Default maximum delay between the attempts to reconnect to the broker.
+    public static final int DEFAULT_RECONNECT_MAX_BACKOFF_MILLIS = 30000;
+    // Default size of a segment file of the outage spool.
+    public static final int DEFAULT_OUTAGE_SPOOL_SEGMENT_SIZE_KB = 1024;
+    // Default disk space taken by the segment files of the outage spool.
+    public static final int DEFAULT_OUTAGE_SPOOL_MAX_SIZE_MB = 64;
+    // Default bound of the difference between the clocks of the nodes, assumed when comparing their stamps.
+    public static final int DEFAULT_MAX_CLOCK_SKEW_MILLIS = 1000;
+    // Default number of shard topics when topic sharding is enabled.
+    public static final int DEFAULT_SHARD_COUNT = 8;
+    // Default number of tenants and caches reported by the invalidation traffic profiler.
+    public static final int DEFAULT_PROFILER_TOP_K = 20;
+    // Default length of an invalidation traffic profiling window.
+    public static final int DEFAULT_PROFILER_WINDOW_SECONDS = 60;
+
+    private static volatile PropagationFilter propagationFilter;
+    private static volatile CacheSyncConfig config;
 
     private JMSUtils() {
 
@@ -104,6 +195,68 @@ public class JMSUtils {
         return StringUtils.isNotBlank(propertyValue) ? Boolean.valueOf(propertyValue.trim()) : defaultValue;
     };
 
+    private static BiFunction<String, Integer, Integer> getConfiguredIntValue = (String config,
+                                                                                 Integer defaultValue) -> {
+        String propertyValue = IdentityUtil.getProperty(config);
+        if (StringUtils.isBlank(propertyValue)) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(propertyValue.trim());
+        } catch (NumberFormatException e) {
+            log.warn("Invalid value '" + propertyValue + "' configured for " + config + ". Using the default value: "
+                    + defaultValue);
+            return defaultValue;
+        }
+    };
+
+    /**
+     * Returns the current configuration snapshot, loading it on first access.
+     *
+     * @return Cache sync configurations.
+     */
+    public static CacheSyncConfig getConfig() {
+
+        CacheSyncConfig cacheSyncConfig = config;
+        if (cacheSyncConfig == null) {
+            synchronized (JMSUtils.class) {
+                cacheSyncConfig = config;
+                if (cacheSyncConfig == null) {
+                    cacheSyncConfig = loadConfig();
+                    config = cacheSyncConfig;
+                }
+            }
+        }
+        return cacheSyncConfig;
+    }
+
+    /**
+     * Reloads the configuration snapshot and the cache deny-list from the current configurations. Callers keep using
+     * the previous snapshot until the new one is loaded.
+     *
+     * @return Reloaded cache sync configurations.
+     */
+    public static CacheSyncConfig reloadConfig() {
+
+        CacheSyncConfig cacheSyncConfig = loadConfig();
+        config = cacheSyncConfig;
+        reloadPropagationFilter();
+        return cacheSyncConfig;
+    }
+
+    /**
+     * Replaces the configuration snapshot and the cache deny-list with the given ones, without reading the
+     * configurations. Used to run the cache sync components outside a Carbon server.
+     *
+     * @param cacheSyncConfig Cache sync configurations.
+     * @param filter          Cache deny-list.
+     */
+    static void applyConfig(CacheSyncConfig cacheSyncConfig, PropagationFilter filter) {
+
+        config = cacheSyncConfig;
+        propagationFilter = filter;
+    }
+
     /**
      * Configured producer name for the node.
      *
@@ -111,7 +264,7 @@ public class JMSUtils {
      */
     public static String getProducerName() {
 
-        return getConfiguredStringValue.apply(PRODUCER_NAME_PROPERTY);
+        return getConfig().getProducerName();
     }
 
     /**
@@ -121,7 +274,18 @@ public class JMSUtils {
      */
     public static boolean getRunInHybridModeProperty() {
 
-        return getConfiguredBooleanValue.apply(RUN_IN_HYBRID_MODE_PROPERTY, false);
+        return getConfig().isHybridMode();
+    }
+
+    /**
+     * Time within which an invalidation of a key propagated from the local cluster in hybrid mode is taken as the echo
+     * of an invalidation of the key received from the broker, and is not sent back to the broker.
+     *
+     * @return Configured echo suppression window in milliseconds, or the default window if the property is not set.
+     */
+    public static int getEchoSuppressionWindowMillis() {
+
+        return getConfig().getEchoSuppressionWindowMillis();
     }
 
     /**
@@ -131,7 +295,7 @@ public class JMSUtils {
      */
     public static Boolean isMBCacheInvalidatorEnabled() {
 
-        return getConfiguredBooleanValue.apply(INVALIDATOR_ENABLED_PROPERTY, null);
+        return getConfig().getEnabled();
     }
 
     /**
@@ -226,19 +390,17 @@ public class JMSUtils {
      */
     public static boolean isAllowedToPropagate(String cacheManager, String cacheName) {
 
-        Map<String, List<String>> cacheDenyList = getMessageBrokerCacheList();
-        if (cacheDenyList.size() == 0) {
-            return true;
-        }
-        String cache = getCacheName(cacheName);
-        for (Map.Entry<String, List<String>> entry : cacheDenyList.entrySet()) {
-            if (StringUtils.equalsIgnoreCase(cacheManager, entry.getKey())) {
-                if (entry.getValue().contains(cache)) {
-                    return false;
-                }
-            }
-        }
-        return true;
+        return getPropagationFilter().isAllowed(cacheManager, cacheName);
+    }
+
+    /**
+     * Rebuilds the cache deny-list from the current configurations. Senders keep using the previous deny-list until
+     * the new one is compiled.
+     */
+    public static void reloadPropagationFilter() {
+
+        propagationFilter = PropagationFilter.compile(buildMBCacheListConfig());
+        log.debug("Cache invalidation propagation deny-list is reloaded.");
     }
 
     /**
@@ -248,7 +410,361 @@ public class JMSUtils {
      */
     public static Boolean isDurableSubscriber() {
 
-        return getConfiguredBooleanValue.apply(MB_IS_DURABLE_PROP_VALUE, false);
+        return getConfig().isDurableSubscriber();
+    }
+
+    /**
+     * Checks if batching of cache invalidation messages is enabled.
+     *
+     * @return Boolean representing the enabled state, or false if the property is not set.
+     */
+    public static boolean isBatchingEnabled() {
+
+        return getConfig().isBatchingEnabled();
+    }
+
+    /**
+     * Maximum number of cache invalidations sent in a single batch frame.
+     *
+     * @return Configured batch size, or the default batch size if the property is not set.
+     */
+    public static int getBatchMaxSize() {
+
+        return getConfig().getBatchMaxSize();
+    }
+
+    /**
+     * Maximum time in milliseconds a cache invalidation waits in a batch before the batch is flushed.
+     *
+     * @return Configured flush interval, or the default flush interval if the property is not set.
+     */
+    public static int getBatchFlushIntervalMillis() {
+
+        return getConfig().getBatchFlushIntervalMillis();
+    }
+
+    /**
+     * Checks if the flush interval and the size of the batches are adapted to the observed traffic.
+     *
+     * @return Boolean representing the enabled state, or false if the property is not set.
+     */
+    public static boolean isAdaptiveBatchingEnabled() {
+
+        return getConfig().isAdaptiveBatchingEnabled();
+    }
+
+    /**
+     * Shortest flush interval in milliseconds used by adaptive batching when cache invalidations are batched.
+     *
+     * @return Configured minimum flush interval, or the default minimum flush interval if the property is not set.
+     */
+    public static int getBatchMinFlushIntervalMillis() {
+
+        return getConfig().getBatchMinFlushIntervalMillis();
+    }
+
+    /**
+     * Checks if coalescing of repeated cache invalidation messages is enabled.
+     *
+     * @return Boolean representing the enabled state, or false if the property is not set.
+     */
+    public static boolean isCoalescingEnabled() {
+
+        return getConfig().isCoalescingEnabled();
+    }
+
+    /**
+     * Time window in milliseconds within which repeated invalidations of the same key are collapsed.
+     *
+     * @return Configured coalescing window, or the default window if the property is not set.
+     */
+    public static int getCoalescingWindowMillis() {
+
+        return getConfig().getCoalescingWindowMillis();
+    }
+
+    /**
+     * Checks if cache invalidation messages are sent in the binary wire format. Receivers accept both the binary and
+     * the JSON wire formats, hence the binary format should be enabled once all the nodes are upgraded.
+     *
+     * @return True if the binary wire format is configured, false if the JSON wire format is used.
+     */
+    public static boolean isBinaryWireFormat() {
+
+        return getConfig().isBinaryWireFormat();
+    }
+
+    /**
+     * Maximum number of cache invalidations waiting in the dispatch queue to be sent to the broker.
+     *
+     * @return Configured queue capacity, or the default capacity if the property is not set.
+     */
+    public static int getDispatchQueueCapacity() {
+
+        return getConfig().getDispatchQueueCapacity();
+    }
+
+    /**
+     * Action taken when a cache invalidation does not fit into the dispatch queue.
+     *
+     * @return Configured overflow policy, or CLEAR_ALL if the property is not set.
+     */
+    public static InvalidationDispatchQueue.OverflowPolicy getDispatchOverflowPolicy() {
+
+        return getConfig().getDispatchOverflowPolicy();
+    }
+
+    /**
+     * Number of threads sending cache invalidation messages to the broker.
+     *
+     * @return Configured sender thread count, or the default count if the property is not set.
+     */
+    public static int getDispatchSenderThreads() {
+
+        return getConfig().getDispatchSenderThreads();
+    }
+
+    /**
+     * Number of JMS sessions used to publish cache invalidation messages. Each session is used by one sender thread
+     * at a time, hence a pool smaller than the sender thread count limits the number of parallel publishers.
+     *
+     * @return Configured session pool size, or the sender thread count if the property is not set.
+     */
+    public static int getProducerSessionPoolSize() {
+
+        return getConfig().getProducerSessionPoolSize();
+    }
+
+    /**
+     * Maximum time in milliseconds a caller waits for space in a full dispatch queue with the BLOCK overflow policy.
+     *
+     * @return Configured offer timeout, or the default timeout if the property is not set.
+     */
+    public static int getDispatchOfferTimeoutMillis() {
+
+        return getConfig().getDispatchOfferTimeoutMillis();
+    }
+
+    /**
+     * Directory used to spill cache invalidations with the SPILL overflow policy.
+     *
+     * @return Configured spool directory, or the cache-sync/spool directory of the Carbon data directory if the
+     * property is not set.
+     */
+    public static Path getDispatchSpoolDirectory() {
+
+        return getConfig().getDispatchSpoolDirectory();
+    }
+
+    /**
+     * Checks whether cache invalidation messages are sent without waiting for the broker to acknowledge them.
+     *
+     * @return True if asynchronous publishing is enabled.
+     */
+    public static boolean isAsyncPublishEnabled() {
+
+        return getConfig().isAsyncPublishEnabled();
+    }
+
+    /**
+     * Maximum number of messages sent asynchronously and not yet acknowledged by the broker. Sender threads wait
+     * once the limit is reached.
+     *
+     * @return Configured in-flight limit, or the default limit if the property is not set.
+     */
+    public static int getDispatchMaxInFlight() {
+
+        return getConfig().getDispatchMaxInFlight();
+    }
+
+    /**
+     * Delay in milliseconds before the first attempt to reconnect to the broker. The delay doubles with each failed
+     * attempt.
+     *
+     * @return Configured initial backoff, or the default backoff if the property is not set.
+     */
+    public static int getReconnectInitialBackoffMillis() {
+
+        return getConfig().getReconnectInitialBackoffMillis();
+    }
+
+    /**
+     * Maximum delay in milliseconds between the attempts to reconnect to the broker.
+     *
+     * @return Configured maximum backoff, or the default backoff if the property is not set.
+     */
+    public static int getReconnectMaxBackoffMillis() {
+
+        return getConfig().getReconnectMaxBackoffMillis();
+    }
+
+    /**
+     * Checks whether the cache invalidations which could not be sent are kept in the outage spool, and sent once the
+     * broker is available again.
+     *
+     * @return True if the outage spool is enabled.
+     */
+    public static boolean isOutageSpoolEnabled() {
+
+        return getConfig().isOutageSpoolEnabled();
+    }
+
+    /**
+     * Size of a segment file of the outage spool.
+     *
+     * @return Configured segment size in kilobytes, or the default size if the property is not set.
+     */
+    public static int getOutageSpoolSegmentSizeKB() {
+
+        return getConfig().getOutageSpoolSegmentSizeKB();
+    }
+
+    /**
+     * Maximum disk space taken by the segment files of the outage spool.
+     *
+     * @return Configured maximum size in megabytes, or the default size if the property is not set.
+     */
+    public static int getOutageSpoolMaxSizeMB() {
+
+        return getConfig().getOutageSpoolMaxSizeMB();
+    }
+
+    /**
+     * Checks if single key invalidations are sent with the fingerprint of the key instead of the serialized key, and
+     * if the keys of the local caches are indexed by their fingerprints. Fingerprints are not used in hybrid mode,
+     * where the invalidated keys are passed on to the local cluster.
+     *
+     * @return True if key fingerprints are enabled, false by default.
+     */
+    public static boolean isKeyFingerprintEnabled() {
+
+        return getConfig().isKeyFingerprintEnabled() && !getConfig().isHybridMode();
+    }
+
+    /**
+     * Checks if cache invalidation messages are stamped with sequence numbers, and if the consumer clears the recently
+     * invalidated local caches once it detects lost messages or reconnects to the broker.
+     *
+     * @return True if sequencing is enabled, false by default.
+     */
+    public static boolean isSequencingEnabled() {
+
+        return getConfig().isSequencingEnabled();
+    }
+
+    /**
+     * Checks if cache invalidation messages are stamped with a hybrid logical clock, and if the consumer skips the
+     * invalidations of a key which are older than the last invalidation applied to it or than its local entry.
+     *
+     * @return True if versioning is enabled, false by default.
+     */
+    public static boolean isVersioningEnabled() {
+
+        return getConfig().isVersioningEnabled();
+    }
+
+    /**
+     * Maximum difference between the clocks of the nodes. A received invalidation is skipped if the local entry of its
+     * key was loaded later than its stamp by more than this difference.
+     *
+     * @return Configured maximum clock skew in milliseconds, or the default skew if the property is not set.
+     */
+    public static int getMaxClockSkewMillis() {
+
+        return getConfig().getMaxClockSkewMillis();
+    }
+
+    /**
+     * Number of threads applying the received cache invalidation messages. With a single worker, messages are applied
+     * on the thread receiving them.
+     *
+     * @return Configured worker thread count, or 1 if the property is not set.
+     */
+    public static int getConsumerWorkerThreads() {
+
+        return getConfig().getConsumerWorkerThreads();
+    }
+
+    /**
+     * Checks if the consumer subscribes with a message selector excluding the messages sent by the node itself, so
+     * that they are filtered by the broker instead of being delivered to the node.
+     *
+     * @return True if the sender selector is enabled, false by default.
+     */
+    public static boolean isSenderSelectorEnabled() {
+
+        return getConfig().isSenderSelectorEnabled();
+    }
+
+    /**
+     * Checks if the received invalidations of local caches which hold no entries on this node are skipped. The filter
+     * is not applied in hybrid mode, where every invalidation is passed on to the local cluster.
+     *
+     * @return True if the interest filter is enabled, false by default.
+     */
+    public static boolean isInterestFilterEnabled() {
+
+        return getConfig().isInterestFilterEnabled() && !getConfig().isHybridMode();
+    }
+
+    /**
+     * Get the assignment of the cache invalidations to shard topics.
+     *
+     * @return Topic sharding, or {@link TopicSharding#NONE} if all the invalidations use the cache invalidation topic.
+     */
+    public static TopicSharding getTopicSharding() {
+
+        return getConfig().getTopicSharding();
+    }
+
+    /**
+     * Checks if the cache sync metrics are exposed over JMX.
+     *
+     * @return True if the metrics are enabled, which is the default.
+     */
+    public static boolean isMetricsEnabled() {
+
+        return getConfig().isMetricsEnabled();
+    }
+
+    /**
+     * Checks if the invalidation traffic profiler is enabled.
+     *
+     * @return True if the profiler is enabled, false by default.
+     */
+    public static boolean isProfilerEnabled() {
+
+        return getConfig().isProfilerEnabled();
+    }
+
+    /**
+     * Get the number of tenants and caches reported by the invalidation traffic profiler.
+     *
+     * @return Number of reported tenants and caches.
+     */
+    public static int getProfilerTopK() {
+
+        return getConfig().getProfilerTopK();
+    }
+
+    /**
+     * Get the length of an invalidation traffic profiling window.
+     *
+     * @return Window length in seconds.
+     */
+    public static int getProfilerWindowSeconds() {
+
+        return getConfig().getProfilerWindowSeconds();
+    }
+
+    /**
+     * Get the sample rate of the invalidation traffic profiler. One in every sample rate invalidations is profiled.
+     *
+     * @return Sample rate, 1 by default.
+     */
+    public static int getProfilerSampleRate() {
+
+        return getConfig().getProfilerSampleRate();
     }
 
     /**
@@ -265,39 +781,191 @@ public class JMSUtils {
         context.getBundleContext().registerService(CacheEntryUpdatedListener.class.getName(), producer, null);
         context.getBundleContext().registerService(CacheInvalidationRequestPropagator.class.getName(),
                 new CrossClusterMessageDispatcher(), null);
+        context.getBundleContext().registerService(Axis2ConfigurationContextObserver.class.getName(),
+                new TenantCacheHandleCleaner(), null);
+        if (isInterestFilterEnabled()) {
+            // Tracks the local caches populated on this node through their entry creations.
+            context.getBundleContext().registerService(CacheEntryListener.class.getName(),
+                    JMSConsumer.getInstance().getLocalCacheInterest(), null);
+            log.info("Invalidations of local caches which hold no entries on this node are skipped.");
+        }
+        if (isVersioningEnabled()) {
+            // Stamps the local entries through their entry creations, to skip the invalidations older than them.
+            context.getBundleContext().registerService(CacheEntryListener.class.getName(),
+                    JMSConsumer.getInstance().getVersionTracker(), null);
+        }
+        if (isKeyFingerprintEnabled()) {
+            // Indexes the keys of the local caches through their entry creations and removals.
+            KeyFingerprintIndex keyFingerprintIndex = JMSConsumer.getInstance().getKeyFingerprintIndex();
+            context.getBundleContext().registerService(CacheEntryListener.class.getName(), keyFingerprintIndex, null);
+            context.getBundleContext().registerService(CacheEntryRemovedListener.class.getName(),
+                    keyFingerprintIndex, null);
+            log.info("Cache invalidation messages identify the invalidated keys by their fingerprints.");
+        }
         producer.startService();
         JMSConsumer.getInstance().startService();
         log.info("Cache Sync JMS Manager Service bundle activated successfully.");
     }
 
-    private static Map<String, List<String>> getMessageBrokerCacheList() {
+    /**
+     * Registers an MBean of the cache sync manager with the platform MBean server.
+     *
+     * @param mBean      MBean.
+     * @param objectName Object name of the MBean.
+     */
+    public static void registerMBean(Object mBean, String objectName) {
+
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(mBean, new ObjectName(objectName));
+            log.info("Registered the MBean " + objectName + ".");
+        } catch (InstanceAlreadyExistsException e) {
+            log.debug("The MBean " + objectName + " is already registered.");
+        } catch (JMException e) {
+            log.error("Error while registering the MBean " + objectName + ".", e);
+        }
+    }
 
-        if (mbCacheListConfigurationHolder == null) {
-            buildMBCacheListConfig();
+    /**
+     * Unregisters an MBean of the cache sync manager from the platform MBean server.
+     *
+     * @param objectName Object name of the MBean.
+     */
+    public static void unregisterMBean(String objectName) {
+
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(objectName));
+        } catch (InstanceNotFoundException e) {
+            log.debug("The MBean " + objectName + " is not registered.");
+        } catch (JMException e) {
+            log.error("Error while unregistering the MBean " + objectName + ".", e);
         }
-        return mbCacheListConfigurationHolder;
     }
 
-    private static ConnectionFactory createRabbitMQConnectionFactory() throws JMSException {
+    private static CacheSyncConfig loadConfig() {
+
+        try {
+            int senderThreads = getPositiveIntValue(DISPATCH_SENDER_THREADS_PROPERTY, DEFAULT_DISPATCH_SENDER_THREADS);
+            int offerTimeout = getConfiguredIntValue.apply(DISPATCH_OFFER_TIMEOUT_PROPERTY,
+                    DEFAULT_DISPATCH_OFFER_TIMEOUT_MILLIS);
+            return new CacheSyncConfig.Builder()
+                    .enabled(getConfiguredBooleanValue.apply(INVALIDATOR_ENABLED_PROPERTY, null))
+                    .hybridMode(getConfiguredBooleanValue.apply(RUN_IN_HYBRID_MODE_PROPERTY, false))
+                    .echoSuppressionWindowMillis(getPositiveIntValue(ECHO_SUPPRESSION_WINDOW_PROPERTY,
+                            DEFAULT_ECHO_SUPPRESSION_WINDOW_MILLIS))
+                    .producerName(getConfiguredStringValue.apply(PRODUCER_NAME_PROPERTY))
+                    .durableSubscriber(getConfiguredBooleanValue.apply(MB_IS_DURABLE_PROP_VALUE, false))
+                    .batchingEnabled(getConfiguredBooleanValue.apply(BATCHING_ENABLED_PROPERTY, false))
+                    .batchMaxSize(getPositiveIntValue(BATCHING_MAX_SIZE_PROPERTY, DEFAULT_BATCH_MAX_SIZE))
+                    .batchFlushIntervalMillis(getPositiveIntValue(BATCHING_FLUSH_INTERVAL_PROPERTY,
+                            DEFAULT_BATCH_FLUSH_INTERVAL_MILLIS))
+                    .adaptiveBatchingEnabled(getConfiguredBooleanValue.apply(BATCHING_ADAPTIVE_PROPERTY, false))
+                    .batchMinFlushIntervalMillis(getPositiveIntValue(BATCHING_MIN_FLUSH_INTERVAL_PROPERTY,
+                            DEFAULT_BATCH_MIN_FLUSH_INTERVAL_MILLIS))
+                    .coalescingEnabled(getConfiguredBooleanValue.apply(COALESCING_ENABLED_PROPERTY, false))
+                    .coalescingWindowMillis(getPositiveIntValue(COALESCING_WINDOW_PROPERTY,
+                            DEFAULT_COALESCING_WINDOW_MILLIS))
+                    .binaryWireFormat(WIRE_FORMAT_BINARY.equalsIgnoreCase(
+                            getConfiguredStringValue.apply(WIRE_FORMAT_PROPERTY)))
+                    .dispatchQueueCapacity(getPositiveIntValue(DISPATCH_QUEUE_CAPACITY_PROPERTY,
+                            DEFAULT_DISPATCH_QUEUE_CAPACITY))
+                    .dispatchOverflowPolicy(InvalidationDispatchQueue.OverflowPolicy.fromConfig(
+                            getConfiguredStringValue.apply(DISPATCH_OVERFLOW_POLICY_PROPERTY)))
+                    .dispatchSenderThreads(senderThreads)
+                    .producerSessionPoolSize(getPositiveIntValue(DISPATCH_SESSION_POOL_SIZE_PROPERTY, senderThreads))
+                    .dispatchOfferTimeoutMillis(offerTimeout >= 0 ? offerTimeout :
+                            DEFAULT_DISPATCH_OFFER_TIMEOUT_MILLIS)
+                    .dispatchSpoolDirectory(resolveSpoolDirectory())
+                    .asyncPublishEnabled(getConfiguredBooleanValue.apply(DISPATCH_ASYNC_PUBLISH_PROPERTY, false))
+                    .dispatchMaxInFlight(getPositiveIntValue(DISPATCH_MAX_IN_FLIGHT_PROPERTY,
+                            DEFAULT_DISPATCH_MAX_IN_FLIGHT))
+                    .reconnectInitialBackoffMillis(getPositiveIntValue(RECONNECT_INITIAL_BACKOFF_PROPERTY,
+                            DEFAULT_RECONNECT_INITIAL_BACKOFF_MILLIS))
+                    .reconnectMaxBackoffMillis(getPositiveIntValue(RECONNECT_MAX_BACKOFF_PROPERTY,
+                            DEFAULT_RECONNECT_MAX_BACKOFF_MILLIS))
+                    .outageSpoolEnabled(getConfiguredBooleanValue.apply(OUTAGE_SPOOL_ENABLED_PROPERTY, false))
+                    .outageSpoolSegmentSizeKB(getPositiveIntValue(OUTAGE_SPOOL_SEGMENT_SIZE_PROPERTY,
+                            DEFAULT_OUTAGE_SPOOL_SEGMENT_SIZE_KB))
+                    .outageSpoolMaxSizeMB(getPositiveIntValue(OUTAGE_SPOOL_MAX_SIZE_PROPERTY,
+                            DEFAULT_OUTAGE_SPOOL_MAX_SIZE_MB))
+                    .keyFingerprintEnabled(getConfiguredBooleanValue.apply(KEY_FINGERPRINT_ENABLED_PROPERTY, false))
+                    .sequencingEnabled(getConfiguredBooleanValue.apply(SEQUENCING_ENABLED_PROPERTY, false))
+                    .versioningEnabled(getConfiguredBooleanValue.apply(VERSIONING_ENABLED_PROPERTY, false))
+                    .maxClockSkewMillis(getPositiveIntValue(VERSIONING_MAX_CLOCK_SKEW_PROPERTY,
+                            DEFAULT_MAX_CLOCK_SKEW_MILLIS))
+                    .consumerWorkerThreads(getPositiveIntValue(CONSUMER_WORKER_THREADS_PROPERTY, 1))
+                    .senderSelectorEnabled(getConfiguredBooleanValue.apply(CONSUMER_SENDER_SELECTOR_PROPERTY, false))
+                    .interestFilterEnabled(getConfiguredBooleanValue.apply(CONSUMER_INTEREST_FILTER_PROPERTY, false))
+                    .topicSharding(loadTopicSharding())
+                    .metricsEnabled(getConfiguredBooleanValue.apply(METRICS_ENABLED_PROPERTY, true))
+                    .profilerEnabled(getConfiguredBooleanValue.apply(PROFILER_ENABLED_PROPERTY, false))
+                    .profilerTopK(getPositiveIntValue(PROFILER_TOP_K_PROPERTY, DEFAULT_PROFILER_TOP_K))
+                    .profilerWindowSeconds(getPositiveIntValue(PROFILER_WINDOW_PROPERTY,
+                            DEFAULT_PROFILER_WINDOW_SECONDS))
+                    .profilerSampleRate(getPositiveIntValue(PROFILER_SAMPLE_RATE_PROPERTY, 1))
+                    .build();
+        } catch (RuntimeException e) {
+            log.error("Error while loading the cache sync configurations. Using the default configurations.", e);
+            return new CacheSyncConfig.Builder().dispatchSpoolDirectory(resolveSpoolDirectory()).build();
+        }
+    }
 
-        RMQConnectionFactory factory = new RMQConnectionFactory();
-        factory.setUri(getConfiguredStringValue.apply(JNDI_PROVIDER_URL_PROP_VALUE));
-        return factory;
+    private static TopicSharding loadTopicSharding() {
+
+        TopicSharding.Mode mode = TopicSharding.Mode.fromConfig(getConfiguredStringValue.apply(SHARDING_MODE_PROPERTY));
+        String subscriptions = getConfiguredStringValue.apply(SHARDING_SUBSCRIPTIONS_PROPERTY);
+        return TopicSharding.create(mode, getPositiveIntValue(SHARDING_SHARD_COUNT_PROPERTY, DEFAULT_SHARD_COUNT),
+                subscriptions != null ? subscriptions.split(",") : null);
+    }
+
+    private static int getPositiveIntValue(String config, int defaultValue) {
+
+        int value = getConfiguredIntValue.apply(config, defaultValue);
+        return value > 0 ? value : defaultValue;
     }
 
-    private static String getCacheName(String cacheName) {
+    private static Path resolveSpoolDirectory() {
 
-        // Cache names are by default prefixed with "$__local__$." or "$__clear__all__$."
-        String[] cacheNameParts = cacheName.split("\\.");
-        if (cacheNameParts.length >= 2) {
-            return cacheNameParts[1];
+        String spoolDirectory = null;
+        try {
+            spoolDirectory = getConfiguredStringValue.apply(DISPATCH_SPOOL_DIRECTORY_PROPERTY);
+        } catch (RuntimeException e) {
+            log.debug("Error while reading the spool directory configuration.", e);
         }
-        return null;
+        if (spoolDirectory != null) {
+            return Paths.get(spoolDirectory);
+        }
+        String carbonHome = System.getProperty(CarbonBaseConstants.CARBON_HOME);
+        if (StringUtils.isBlank(carbonHome)) {
+            return Paths.get(System.getProperty("java.io.tmpdir"), "cache-sync", "spool");
+        }
+        return Paths.get(carbonHome, "repository", "data", "cache-sync", "spool");
     }
 
-    private static void buildMBCacheListConfig() {
+    private static PropagationFilter getPropagationFilter() {
 
-        mbCacheListConfigurationHolder = new HashMap<>();
+        PropagationFilter filter = propagationFilter;
+        if (filter == null) {
+            synchronized (JMSUtils.class) {
+                filter = propagationFilter;
+                if (filter == null) {
+                    filter = PropagationFilter.compile(buildMBCacheListConfig());
+                    propagationFilter = filter;
+                }
+            }
+        }
+        return filter;
+    }
+
+    private static ConnectionFactory createRabbitMQConnectionFactory() throws JMSException {
+
+        RMQConnectionFactory factory = new RMQConnectionFactory();
+        factory.setUri(getConfiguredStringValue.apply(JNDI_PROVIDER_URL_PROP_VALUE));
+        return factory;
+    }
+
+    private static Map<String, List<String>> buildMBCacheListConfig() {
+
+        Map<String, List<String>> mbCacheListConfigurationHolder = new HashMap<>();
         OMElement cacheConfig = IdentityConfigParser.getInstance().getConfigElement(CACHE_INVALIDATOR_ELEMENT);
         if (cacheConfig != null) {
             Iterator<OMElement> cacheManagers = cacheConfig.getChildrenWithName(
@@ -329,5 +997,6 @@ public class JMSUtils {
                 }
             }
         }
+        return mbCacheListConfigurationHolder;
     }
 }
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Computes 64-bit fingerprints of cache keys, which identify the invalidated keys on the wire instead of the keys
+ * themselves.
+ * <p>
+ * Keys of type {@link String}, {@link Long}, {@link Integer} and lists of those are hashed as they are, while any
+ * other key is hashed over its Java serialized form. Equal keys therefore get the same fingerprint on every node, as
+ * long as their serialized form does not depend on the node. Distinct keys of a cache may share a fingerprint, in which
+ * case an invalidation of one of them also evicts the others.
+ * </p>
+ */
+public final class KeyFingerprint {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private static final byte KEY_NULL = 0;
+    private static final byte KEY_STRING = 1;
+    private static final byte KEY_LONG = 2;
+    private static final byte KEY_INTEGER = 3;
+    private static final byte KEY_LIST = 4;
+    private static final byte KEY_SERIALIZED = 5;
+
+    private KeyFingerprint() {
+
+    }
+
+    /**
+     * Computes the fingerprint of a cache key.
+     *
+     * @param cacheKey Cache key.
+     * @return Fingerprint of the key.
+     * @throws IOException If the key is not one of the compact key types and cannot be serialized.
+     */
+    public static long of(Object cacheKey) throws IOException {
+
+        return mix(hash(FNV_OFFSET_BASIS, cacheKey));
+    }
+
+    private static long hash(long hash, Object value) throws IOException {
+
+        if (value == null) {
+            return hashByte(hash, KEY_NULL);
+        }
+        if (value instanceof String) {
+            String string = (String) value;
+            hash = hashInt(hashByte(hash, KEY_STRING), string.length());
+            for (int i = 0; i < string.length(); i++) {
+                char character = string.charAt(i);
+                hash = hashByte(hashByte(hash, character >>> 8), character);
+            }
+            return hash;
+        }
+        if (value instanceof Long) {
+            long longValue = (Long) value;
+            return hashInt(hashInt(hashByte(hash, KEY_LONG), (int) (longValue >>> 32)), (int) longValue);
+        }
+        if (value instanceof Integer) {
+            return hashInt(hashByte(hash, KEY_INTEGER), (Integer) value);
+        }
+        if (value instanceof List && isCompactList((List<?>) value)) {
+            List<?> elements = (List<?>) value;
+            hash = hashInt(hashByte(hash, KEY_LIST), elements.size());
+            for (Object element : elements) {
+                hash = hash(hash, element);
+            }
+            return hash;
+        }
+        if (!(value instanceof Serializable)) {
+            throw new NotSerializableException(value.getClass().getName());
+        }
+        hash = hashByte(hash, KEY_SERIALIZED);
+        for (byte serialized : InvalidationMessageCodec.serializeKey(value)) {
+            hash = hashByte(hash, serialized);
+        }
+        return hash;
+    }
+
+    private static boolean isCompactList(List<?> elements) {
+
+        for (Object element : elements) {
+            if (element != null && !(element instanceof String) && !(element instanceof Long) &&
+                    !(element instanceof Integer)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long hashInt(long hash, int value) {
+
+        hash = hashByte(hash, value >>> 24);
+        hash = hashByte(hash, value >>> 16);
+        hash = hashByte(hash, value >>> 8);
+        return hashByte(hash, value);
+    }
+
+    private static long hashByte(long hash, int value) {
+
+        // FNV-1a over each byte.
+        return (hash ^ (value & 0xff)) * FNV_PRIME;
+    }
+
+    private static long mix(long hash) {
+
+        // Finalization step of MurmurHash3, spreading the bits of the last bytes over the whole fingerprint.
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,363 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.caching.impl.CachingConstants;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.cache.Cache;
+import javax.cache.event.CacheEntryCreatedListener;
+import javax.cache.event.CacheEntryEvent;
+import javax.cache.event.CacheEntryListenerException;
+import javax.cache.event.CacheEntryRemovedListener;
+
+/**
+ * Indexes the keys of the local caches on this node by their {@link KeyFingerprint}s, keyed by tenant id, cache
+ * manager name and cache name, so that received invalidations carrying only the fingerprint of the invalidated key are
+ * applied without decoding the key.
+ * <p>
+ * Keys are indexed as entries are created in a local cache, and removed from the index as entries are removed. A cache
+ * is completely indexed only once its entries have been iterated, as entries may have been created before the index
+ * was registered or before the indexed keys were discarded. A cache which is not completely indexed is therefore never
+ * trusted to hold no other keys of a fingerprint. Discarding the indexed keys, e.g. when the limit of indexed keys is
+ * reached or when a tenant is unloaded, only causes the caches to be iterated again.
+ * </p>
+ */
+public class KeyFingerprintIndex implements CacheEntryCreatedListener, CacheEntryRemovedListener {
+
+    private static final Log log = LogFactory.getLog(KeyFingerprintIndex.class);
+    // Maximum number of indexed keys before the indexed keys are discarded.
+    private static final int DEFAULT_MAX_KEYS = 100000;
+
+    private final int maxKeys;
+    private final Map<CacheIdentifier, CacheKeys> caches = new ConcurrentHashMap<>();
+    // Approximate number of indexed fingerprints.
+    private final AtomicInteger size = new AtomicInteger();
+
+    public KeyFingerprintIndex() {
+
+        this(DEFAULT_MAX_KEYS);
+    }
+
+    public KeyFingerprintIndex(int maxKeys) {
+
+        this.maxKeys = maxKeys;
+    }
+
+    @Override
+    public void entryCreated(CacheEntryEvent cacheEntryEvent) throws CacheEntryListenerException {
+
+        Cache<?, ?> cache = cacheEntryEvent.getSource();
+        add(PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId(true),
+                cache.getCacheManager().getName(), cache.getName(), cacheEntryEvent.getKey());
+    }
+
+    @Override
+    public void entryRemoved(CacheEntryEvent cacheEntryEvent) throws CacheEntryListenerException {
+
+        Cache<?, ?> cache = cacheEntryEvent.getSource();
+        remove(PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId(true),
+                cache.getCacheManager().getName(), cache.getName(), cacheEntryEvent.getKey());
+    }
+
+    /**
+     * Indexes a key created in a local cache.
+     *
+     * @param tenantId         Tenant id.
+     * @param cacheManagerName Cache manager name.
+     * @param cacheName        Cache name.
+     * @param cacheKey         Cache key.
+     */
+    public void add(int tenantId, String cacheManagerName, String cacheName, Object cacheKey) {
+
+        if (!isLocalCache(cacheName) || !InvalidationMessageCodec.isFingerprinted(cacheKey)) {
+            return;
+        }
+        Long fingerprint = fingerprint(cacheName, cacheKey);
+        if (fingerprint == null) {
+            return;
+        }
+        CacheIdentifier cacheIdentifier = new CacheIdentifier(tenantId, cacheManagerName, cacheName);
+        if (size.get() >= maxKeys) {
+            discardIfFull();
+        }
+        caches.computeIfAbsent(cacheIdentifier, identifier -> new CacheKeys()).add(fingerprint, cacheKey);
+    }
+
+    /**
+     * Removes a key removed from a local cache from the index.
+     *
+     * @param tenantId         Tenant id.
+     * @param cacheManagerName Cache manager name.
+     * @param cacheName        Cache name.
+     * @param cacheKey         Cache key.
+     */
+    public void remove(int tenantId, String cacheManagerName, String cacheName, Object cacheKey) {
+
+        if (!isLocalCache(cacheName) || !InvalidationMessageCodec.isFingerprinted(cacheKey)) {
+            return;
+        }
+        CacheKeys cacheKeys = caches.get(new CacheIdentifier(tenantId, cacheManagerName, cacheName));
+        if (cacheKeys == null) {
+            return;
+        }
+        Long fingerprint = fingerprint(cacheName, cacheKey);
+        if (fingerprint != null) {
+            cacheKeys.remove(fingerprint, cacheKey);
+        }
+    }
+
+    /**
+     * Removes the keys of a fingerprint from the index of a cache, to be evicted from the cache.
+     *
+     * @param tenantId         Tenant id.
+     * @param cacheManagerName Cache manager name.
+     * @param cacheName        Cache name.
+     * @param fingerprint      Key fingerprint.
+     * @return Indexed keys of the fingerprint, or null if the cache is not completely indexed.
+     */
+    public List<Object> removeKeys(int tenantId, String cacheManagerName, String cacheName, long fingerprint) {
+
+        CacheKeys cacheKeys = caches.get(new CacheIdentifier(tenantId, cacheManagerName, cacheName));
+        if (cacheKeys == null || !cacheKeys.complete) {
+            return null;
+        }
+        return cacheKeys.removeKeys(fingerprint);
+    }
+
+    /**
+     * Indexes the keys of the entries of a cache which is not completely indexed. The index keeps tracking the entries
+     * created while the cache is iterated.
+     *
+     * @param tenantId         Tenant id.
+     * @param cacheManagerName Cache manager name.
+     * @param cacheName        Cache name.
+     * @param entries          Entries of the cache.
+     * @return True if the cache is completely indexed, or false if it is not a local cache or if its keys cannot be
+     * indexed within the limit of indexed keys.
+     */
+    public boolean indexAll(int tenantId, String cacheManagerName, String cacheName,
+                            Iterable<? extends Cache.Entry<?, ?>> entries) {
+
+        if (!isLocalCache(cacheName)) {
+            return false;
+        }
+        CacheIdentifier cacheIdentifier = new CacheIdentifier(tenantId, cacheManagerName, cacheName);
+        CacheKeys cacheKeys = caches.computeIfAbsent(cacheIdentifier, identifier -> new CacheKeys());
+        if (cacheKeys.complete) {
+            return true;
+        }
+        for (Cache.Entry<?, ?> entry : entries) {
+            Object cacheKey = entry.getKey();
+            if (!InvalidationMessageCodec.isFingerprinted(cacheKey)) {
+                continue;
+            }
+            Long fingerprint = fingerprint(cacheName, cacheKey);
+            if (size.get() >= maxKeys || fingerprint == null) {
+                // The cache is left out of the index rather than discarding the keys of every other cache.
+                if (caches.remove(cacheIdentifier, cacheKeys)) {
+                    size.addAndGet(-cacheKeys.size());
+                }
+                return false;
+            }
+            cacheKeys.add(fingerprint, cacheKey);
+        }
+        cacheKeys.complete = true;
+        return true;
+    }
+
+    /**
+     * Marks a cache as completely indexed with no keys, before every local entry of the cache is evicted.
+     *
+     * @param tenantId         Tenant id.
+     * @param cacheManagerName Cache manager name.
+     * @param cacheName        Cache name.
+     */
+    public void markCleared(int tenantId, String cacheManagerName, String cacheName) {
+
+        if (!isLocalCache(cacheName)) {
+            return;
+        }
+        CacheKeys cacheKeys = new CacheKeys();
+        cacheKeys.complete = true;
+        CacheKeys previous = caches.put(new CacheIdentifier(tenantId, cacheManagerName, cacheName), cacheKeys);
+        if (previous != null) {
+            size.addAndGet(-previous.size());
+        }
+    }
+
+    /**
+     * Forgets the indexed keys of the caches of a tenant.
+     *
+     * @param tenantId Tenant id.
+     */
+    public void invalidateTenant(int tenantId) {
+
+        caches.entrySet().removeIf(entry -> {
+            if (entry.getKey().getTenantId() != tenantId) {
+                return false;
+            }
+            size.addAndGet(-entry.getValue().size());
+            return true;
+        });
+    }
+
+    /**
+     * Number of indexed fingerprints.
+     *
+     * @return Approximate number of indexed fingerprints.
+     */
+    public int size() {
+
+        return Math.max(0, size.get());
+    }
+
+    private synchronized void discardIfFull() {
+
+        if (size.get() >= maxKeys) {
+            if (log.isDebugEnabled()) {
+                log.debug("Discarding " + size.get() + " indexed cache key fingerprints of " + caches.size() +
+                        " local caches.");
+            }
+            caches.clear();
+            size.set(0);
+        }
+    }
+
+    private static Long fingerprint(String cacheName, Object cacheKey) {
+
+        try {
+            return KeyFingerprint.of(cacheKey);
+        } catch (IOException e) {
+            // Invalidations of such keys cannot be sent as fingerprints either.
+            if (log.isDebugEnabled()) {
+                log.debug("Cannot compute the fingerprint of a key of the cache '" + cacheName + "'.", e);
+            }
+            return null;
+        }
+    }
+
+    private static boolean isLocalCache(String cacheName) {
+
+        return cacheName != null && cacheName.startsWith(CachingConstants.LOCAL_CACHE_PREFIX);
+    }
+
+    /**
+     * Indexed keys of a cache. Distinct keys sharing a fingerprint are kept together.
+     */
+    private final class CacheKeys {
+
+        private final Map<Long, Object> keys = new ConcurrentHashMap<>();
+        // Set once the entries of the cache have been iterated.
+        private volatile boolean complete;
+
+        void add(long fingerprint, Object cacheKey) {
+
+            keys.compute(fingerprint, (indexedFingerprint, indexed) -> {
+                if (indexed == null) {
+                    size.incrementAndGet();
+                    return cacheKey;
+                }
+                if (indexed instanceof CollidingKeys) {
+                    return ((CollidingKeys) indexed).with(cacheKey);
+                }
+                return indexed.equals(cacheKey) ? indexed : new CollidingKeys(indexed, cacheKey);
+            });
+        }
+
+        void remove(long fingerprint, Object cacheKey) {
+
+            keys.computeIfPresent(fingerprint, (indexedFingerprint, indexed) -> {
+                Object remaining = indexed instanceof CollidingKeys ? ((CollidingKeys) indexed).without(cacheKey) :
+                        indexed.equals(cacheKey) ? null : indexed;
+                if (remaining == null) {
+                    size.decrementAndGet();
+                }
+                return remaining;
+            });
+        }
+
+        List<Object> removeKeys(long fingerprint) {
+
+            Object indexed = keys.remove(fingerprint);
+            if (indexed == null) {
+                return Collections.emptyList();
+            }
+            size.decrementAndGet();
+            if (indexed instanceof CollidingKeys) {
+                return ((CollidingKeys) indexed).keys;
+            }
+            return Collections.singletonList(indexed);
+        }
+
+        int size() {
+
+            return keys.size();
+        }
+    }
+
+    /**
+     * Immutable set of distinct keys sharing a fingerprint.
+     */
+    private static final class CollidingKeys {
+
+        private final List<Object> keys;
+
+        CollidingKeys(Object first, Object second) {
+
+            this(new ArrayList<>(2));
+            keys.add(first);
+            keys.add(second);
+        }
+
+        private CollidingKeys(List<Object> keys) {
+
+            this.keys = keys;
+        }
+
+        CollidingKeys with(Object cacheKey) {
+
+            if (keys.contains(cacheKey)) {
+                return this;
+            }
+            List<Object> withKey = new ArrayList<>(keys);
+            withKey.add(cacheKey);
+            return new CollidingKeys(withKey);
+        }
+
+        Object without(Object cacheKey) {
+
+            if (!keys.contains(cacheKey)) {
+                return this;
+            }
+            List<Object> withoutKey = new ArrayList<>(keys);
+            withoutKey.remove(cacheKey);
+            return withoutKey.size() == 1 ? withoutKey.get(0) : new CollidingKeys(withoutKey);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with power of two buckets. A recorded latency falls into the bucket of its highest set
+ * bit, hence percentiles are reported as the upper bound of their bucket, within a factor of two of the actual value.
+ */
+public class LatencyHistogram {
+
+    private static final int BUCKET_COUNT = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos Latency in nanoseconds.
+     */
+    public void record(long nanos) {
+
+        long latency = Math.max(0, nanos);
+        buckets.incrementAndGet(BUCKET_COUNT - Long.numberOfLeadingZeros(latency) - (latency == 0 ? 0 : 1));
+        count.increment();
+        totalNanos.add(latency);
+        maxNanos.accumulateAndGet(latency, Math::max);
+    }
+
+    public long getCount() {
+
+        return count.sum();
+    }
+
+    public long getMeanMicros() {
+
+        long recorded = count.sum();
+        return recorded == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalNanos.sum() / recorded);
+    }
+
+    public long getMaxMicros() {
+
+        return TimeUnit.NANOSECONDS.toMicros(maxNanos.get());
+    }
+
+    /**
+     * Estimates a percentile of the recorded latencies.
+     *
+     * @param percentile Percentile, between 0 and 100.
+     * @return Upper bound of the bucket holding the percentile in microseconds, or 0 if no latency is recorded.
+     */
+    public long getPercentileMicros(double percentile) {
+
+        long[] snapshot = new long[BUCKET_COUNT];
+        long recorded = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = buckets.get(i);
+            recorded += snapshot[i];
+        }
+        if (recorded == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * recorded));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                long upperBound = i >= BUCKET_COUNT - 1 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+                return TimeUnit.NANOSECONDS.toMicros(Math.min(upperBound, maxNanos.get()));
+            }
+        }
+        return getMaxMicros();
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.caching.impl.CachingConstants;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.cache.Cache;
+import javax.cache.event.CacheEntryCreatedListener;
+import javax.cache.event.CacheEntryEvent;
+import javax.cache.event.CacheEntryListenerException;
+
+/**
+ * Tracks the local caches populated on this node, keyed by tenant id, cache manager name and cache name, so that
+ * received invalidations of local caches which hold no entries are skipped before starting their tenant flow or
+ * decoding their keys.
+ * <p>
+ * A cache is marked as populated when an entry is created in it. A cache which is not known yet is marked as not
+ * populated only after its cache handle is found empty, and a later entry creation always marks it as populated.
+ * Caches which may hold entries are therefore never skipped. Forgetting a cache, e.g. when its tenant is unloaded or
+ * when the tracked caches are discarded, only causes it to be checked again. A cache found empty is not marked if any
+ * cache was forgotten since the check started, as its entry creation may have been forgotten along with it.
+ * </p>
+ */
+public class LocalCacheInterest implements CacheEntryCreatedListener {
+
+    private static final Log log = LogFactory.getLog(LocalCacheInterest.class);
+    // Maximum number of tracked caches before the tracked caches are discarded.
+    private static final int DEFAULT_MAX_CACHES = 10000;
+
+    private final int maxCaches;
+    private final Map<CacheIdentifier, Boolean> populated = new ConcurrentHashMap<>();
+    // Incremented whenever tracked caches are forgotten.
+    private volatile long generation;
+
+    public LocalCacheInterest() {
+
+        this(DEFAULT_MAX_CACHES);
+    }
+
+    public LocalCacheInterest(int maxCaches) {
+
+        this.maxCaches = maxCaches;
+    }
+
+    @Override
+    public void entryCreated(CacheEntryEvent cacheEntryEvent) throws CacheEntryListenerException {
+
+        Cache<?, ?> cache = cacheEntryEvent.getSource();
+        markPopulated(PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId(true),
+                cache.getCacheManager().getName(), cache.getName());
+    }
+
+    /**
+     * Checks whether the invalidations of a cache need to be applied.
+     *
+     * @param tenantId         Tenant id.
+     * @param cacheManagerName Cache manager name.
+     * @param cacheName        Cache name.
+     * @return False only if the cache is a local cache known to hold no entries.
+     */
+    public boolean isInterested(int tenantId, String cacheManagerName, String cacheName) {
+
+        if (!isLocalCache(cacheName)) {
+            return true;
+        }
+        return !Boolean.FALSE.equals(populated.get(new CacheIdentifier(tenantId, cacheManagerName, cacheName)));
+    }
+
+    /**
+     * Checks whether it is known if a cache holds entries.
+     *
+     * @param tenantId         Tenant id.
+     * @param cacheManagerName Cache manager name.
+     * @param cacheName        Cache name.
+     * @return True if the cache is tracked.
+     */
+    public boolean isKnown(int tenantId, String cacheManagerName, String cacheName) {
+
+        return !isLocalCache(cacheName) || populated.containsKey(
+                new CacheIdentifier(tenantId, cacheManagerName, cacheName));
+    }
+
+    /**
+     * Marks a cache as populated, once an entry is created in it.
+     *
+     * @param tenantId         Tenant id.
+     * @param cacheManagerName Cache manager name.
+     * @param cacheName        Cache name.
+     */
+    public void markPopulated(int tenantId, String cacheManagerName, String cacheName) {
+
+        if (!isLocalCache(cacheName)) {
+            return;
+        }
+        CacheIdentifier cacheIdentifier = new CacheIdentifier(tenantId, cacheManagerName, cacheName);
+        if (!Boolean.TRUE.equals(populated.get(cacheIdentifier))) {
+            discardIfFull(cacheIdentifier);
+            populated.put(cacheIdentifier, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Returns the current generation of the tracked caches, to be read before checking whether a cache is empty.
+     *
+     * @return Generation.
+     */
+    public long getGeneration() {
+
+        return generation;
+    }
+
+    /**
+     * Marks a cache as not populated after its handle is found empty, unless an entry creation has been tracked or
+     * tracked caches have been forgotten since the given generation.
+     *
+     * @param tenantId         Tenant id.
+     * @param cacheManagerName Cache manager name.
+     * @param cacheName        Cache name.
+     * @param checkGeneration  Generation read before checking the cache.
+     */
+    public synchronized void markEmpty(int tenantId, String cacheManagerName, String cacheName,
+                                       long checkGeneration) {
+
+        if (!isLocalCache(cacheName) || checkGeneration != generation) {
+            return;
+        }
+        CacheIdentifier cacheIdentifier = new CacheIdentifier(tenantId, cacheManagerName, cacheName);
+        if (populated.size() >= maxCaches && !populated.containsKey(cacheIdentifier)) {
+            // Not tracked, hence checked again on the next invalidation.
+            return;
+        }
+        populated.putIfAbsent(cacheIdentifier, Boolean.FALSE);
+    }
+
+    /**
+     * Forgets the caches of a tenant.
+     *
+     * @param tenantId Tenant id.
+     */
+    public synchronized void invalidateTenant(int tenantId) {
+
+        generation++;
+        populated.keySet().removeIf(cacheIdentifier -> cacheIdentifier.getTenantId() == tenantId);
+    }
+
+    public int size() {
+
+        return populated.size();
+    }
+
+    private synchronized void discardIfFull(CacheIdentifier cacheIdentifier) {
+
+        if (populated.size() >= maxCaches && !populated.containsKey(cacheIdentifier)) {
+            if (log.isDebugEnabled()) {
+                log.debug("Discarding " + populated.size() + " tracked local caches.");
+            }
+            generation++;
+            populated.clear();
+        }
+    }
+
+    private static boolean isLocalCache(String cacheName) {
+
+        return cacheName != null && cacheName.startsWith(CachingConstants.LOCAL_CACHE_PREFIX);
+    }
+}
@@ -0,0 +1,450 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.caching.impl.clustering.ClusterCacheInvalidationRequest;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Append-only store for the cache invalidation frames which could not be sent while the broker is unavailable. Frames
+ * are encoded in the binary wire format directly into fixed-size segment files, which are memory-mapped so that an
+ * append does not need a write call, and the spooled frames are not held on the heap.
+ * <p>
+ * Segment files are mapped once and kept for the lifetime of the spool. A drained segment is rewound and reused by
+ * later appends instead of being deleted, as the file of a mapped segment cannot be deleted on some platforms. Each
+ * segment starts with the sequence number given to it when it was last started, which orders the segments left
+ * behind by a previous run, and every record is followed by an empty record marking the end of the written records.
+ * </p>
+ * <p>
+ * The number of segments is capped. Frames which do not fit into the spool are collapsed into a clear-all
+ * invalidation per cache, which are drained after the segments. Segments left behind by a previous run are drained
+ * as well.
+ * </p>
+ */
+public class MappedInvalidationSpool {
+
+    private static final Log log = LogFactory.getLog(MappedInvalidationSpool.class);
+    private static final String SEGMENT_PREFIX = "outage-";
+    private static final String SEGMENT_SUFFIX = ".segment";
+    // Sequence number of a segment, written at its start.
+    private static final int SEGMENT_HEADER_BYTES = Long.BYTES;
+    private static final int RECORD_HEADER_BYTES = Integer.BYTES * 2;
+    // Length written in place of a record to mark the unused end of a segment.
+    private static final int END_OF_SEGMENT = -1;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    // Segments holding spooled frames, from the oldest to the one being appended to.
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    // Drained segments, which are reused before a new segment file is created.
+    private final Deque<Segment> freeSegments = new ArrayDeque<>();
+    private final Map<CacheIdentifier, ClusterCacheInvalidationRequest> clearAllRequests = new LinkedHashMap<>();
+    // Clear-all invalidations returned by the last peek, which are removed once they are sent.
+    private List<ClusterCacheInvalidationRequest> peekedClearAllRequests;
+    private int segmentCount;
+    private long nextFileIndex;
+    private long nextSequence;
+    private int readPosition = SEGMENT_HEADER_BYTES;
+    private int size;
+    private long collapsedCount;
+
+    /**
+     * Opens the spool in the given directory, recovering the segments left behind by a previous run.
+     *
+     * @param directory   Directory of the segment files.
+     * @param segmentSize Size of a segment file in bytes.
+     * @param maxSegments Maximum number of segment files.
+     * @throws IOException If the directory cannot be created or a segment cannot be read.
+     */
+    public MappedInvalidationSpool(Path directory, int segmentSize, int maxSegments) throws IOException {
+
+        Files.createDirectories(directory);
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        recover();
+    }
+
+    /**
+     * Appends a frame of cache invalidation requests to the spool. If the spool is full, the frame is collapsed into a
+     * clear-all invalidation per cache.
+     *
+     * @param frame Cache invalidation requests.
+     */
+    public synchronized void append(List<ClusterCacheInvalidationRequest> frame) {
+
+        if (frame.isEmpty()) {
+            return;
+        }
+        Segment segment = segments.peekLast();
+        if (segment == null || !segment.write(frame)) {
+            try {
+                segment = startSegment();
+            } catch (IOException e) {
+                log.error("Error while creating a cache invalidation spool segment in " + directory + ".", e);
+                segment = null;
+            }
+            // A frame which does not fit into an empty segment is collapsed as well.
+            if (segment == null || !segment.write(frame)) {
+                collapse(frame);
+                return;
+            }
+        }
+        size += frame.size();
+    }
+
+    /**
+     * Returns the oldest frame of the spool without removing it.
+     *
+     * @return Cache invalidation requests of the oldest frame, or null if the spool is empty.
+     */
+    public synchronized List<ClusterCacheInvalidationRequest> peek() {
+
+        peekedClearAllRequests = null;
+        while (!segments.isEmpty()) {
+            Segment segment = segments.peekFirst();
+            int length = readPosition < segment.writePosition ? segment.getLength(readPosition) : END_OF_SEGMENT;
+            if (length <= 0) {
+                if (segment == segments.peekLast()) {
+                    break;
+                }
+                // The rest of the segment is unused, hence the next segment is read.
+                releaseFirstSegment();
+                continue;
+            }
+            try {
+                return InvalidationSpool.toRequests(InvalidationMessageCodec.decode(segment.read(readPosition,
+                        length)));
+            } catch (IOException e) {
+                log.error("Error while reading a spooled cache invalidation frame. Skipping the frame.", e);
+                removeRecord(segment, length);
+            }
+        }
+        if (clearAllRequests.isEmpty()) {
+            return null;
+        }
+        peekedClearAllRequests = new ArrayList<>(clearAllRequests.values());
+        return peekedClearAllRequests;
+    }
+
+    /**
+     * Removes the frame returned by the last {@link #peek()}, once it has been sent.
+     */
+    public synchronized void remove() {
+
+        if (peekedClearAllRequests != null) {
+            // Clear-all invalidations added after the peek are kept.
+            for (ClusterCacheInvalidationRequest request : peekedClearAllRequests) {
+                clearAllRequests.remove(new CacheIdentifier(request), request);
+            }
+            peekedClearAllRequests = null;
+            return;
+        }
+        Segment segment = segments.peekFirst();
+        if (segment == null) {
+            return;
+        }
+        if (readPosition < segment.writePosition && segment.getLength(readPosition) > 0) {
+            removeRecord(segment, segment.getLength(readPosition));
+        }
+    }
+
+    /**
+     * Number of cache invalidations held in the spool, counting a collapsed clear-all invalidation once.
+     *
+     * @return Spooled invalidation count.
+     */
+    public synchronized int size() {
+
+        return size + clearAllRequests.size();
+    }
+
+    /**
+     * Number of cache invalidations collapsed into clear-all invalidations as the spool was full.
+     *
+     * @return Collapsed invalidation count.
+     */
+    public synchronized long getCollapsedCount() {
+
+        return collapsedCount;
+    }
+
+    /**
+     * Flushes the segments to the disk, so that they are drained by the next run. Segments are rewound if the spool is
+     * empty.
+     */
+    public synchronized void close() {
+
+        if (!clearAllRequests.isEmpty()) {
+            log.warn(clearAllRequests.size() + " collapsed cache invalidations of the outage spool are discarded on "
+                    + "shutdown.");
+            clearAllRequests.clear();
+        }
+        if (size == 0) {
+            while (!segments.isEmpty()) {
+                releaseFirstSegment();
+            }
+            for (Segment segment : freeSegments) {
+                segment.buffer.force();
+            }
+            return;
+        }
+        for (Segment segment : segments) {
+            segment.buffer.force();
+        }
+        log.info(size + " cache invalidations are kept in the outage spool " + directory + ".");
+    }
+
+    private void collapse(List<ClusterCacheInvalidationRequest> frame) {
+
+        InvalidationDispatchQueue.addClearAllRequests(frame, clearAllRequests);
+        collapsedCount += frame.size();
+        if (log.isDebugEnabled()) {
+            log.debug("The cache invalidation spool is full. Collapsed " + frame.size()
+                    + " cache invalidations into clear-all invalidations.");
+        }
+    }
+
+    private void removeRecord(Segment segment, int length) {
+
+        size -= segment.getCount(readPosition);
+        readPosition += RECORD_HEADER_BYTES + length;
+        if (segment == segments.peekLast() && readPosition == segment.writePosition) {
+            // Reuse the segment once every spooled frame has been read.
+            releaseFirstSegment();
+        }
+    }
+
+    /**
+     * Seals the segment being appended to, and starts appending to a free segment.
+     *
+     * @return Segment to append to, or null if the spool has no free segment.
+     * @throws IOException If a new segment file cannot be created.
+     */
+    private Segment startSegment() throws IOException {
+
+        Segment segment = freeSegments.pollFirst();
+        if (segment == null) {
+            if (segmentCount >= maxSegments) {
+                return null;
+            }
+            segment = createSegment();
+        }
+        Segment last = segments.peekLast();
+        if (last != null) {
+            last.seal();
+        }
+        segment.start(nextSequence++);
+        segments.addLast(segment);
+        return segment;
+    }
+
+    private Segment createSegment() throws IOException {
+
+        Path file = directory.resolve(SEGMENT_PREFIX + nextFileIndex++ + SEGMENT_SUFFIX);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            Segment segment = new Segment(channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize));
+            segmentCount++;
+            return segment;
+        }
+    }
+
+    private void releaseFirstSegment() {
+
+        Segment segment = segments.pollFirst();
+        readPosition = SEGMENT_HEADER_BYTES;
+        segment.rewind();
+        freeSegments.addLast(segment);
+    }
+
+    private void recover() throws IOException {
+
+        Map<Long, Path> files = new TreeMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+                SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                try {
+                    files.put(Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length())), file);
+                } catch (NumberFormatException e) {
+                    log.warn("Ignoring the unknown file " + file + " in the cache invalidation spool.");
+                }
+            }
+        }
+
+        Map<Long, Segment> recovered = new TreeMap<>();
+        for (Map.Entry<Long, Path> entry : files.entrySet()) {
+            nextFileIndex = entry.getKey() + 1;
+            MappedByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(entry.getValue(), StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                if (channel.size() < SEGMENT_HEADER_BYTES + RECORD_HEADER_BYTES || channel.size() > Integer.MAX_VALUE) {
+                    log.warn("Ignoring the cache invalidation spool segment " + entry.getValue() + " of an unexpected "
+                            + "size.");
+                    continue;
+                }
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            }
+            Segment segment = new Segment(buffer);
+            segmentCount++;
+            // Records are written before their length, hence a partially written record ends the segment.
+            segment.writePosition = SEGMENT_HEADER_BYTES;
+            int length;
+            while ((length = segment.getLength(segment.writePosition)) > 0 &&
+                    segment.writePosition + RECORD_HEADER_BYTES + length <= segment.buffer.capacity()) {
+                size += segment.getCount(segment.writePosition);
+                segment.writePosition += RECORD_HEADER_BYTES + length;
+            }
+            if (segment.writePosition == SEGMENT_HEADER_BYTES) {
+                segment.rewind();
+                freeSegments.addLast(segment);
+            } else {
+                recovered.put(segment.getSequence(), segment);
+            }
+        }
+        segments.addAll(recovered.values());
+        Segment last = segments.peekLast();
+        if (last != null) {
+            nextSequence = last.getSequence() + 1;
+            if (last.buffer.capacity() != segmentSize) {
+                // Segments of a different size are drained, but not appended to until they are reused.
+                last.seal();
+            }
+        }
+        if (size > 0) {
+            log.info("Recovered " + size + " cache invalidations from the outage spool " + directory + ".");
+        }
+    }
+
+    /**
+     * A memory-mapped segment file, holding its sequence number followed by records of a length, an invalidation
+     * count and a binary frame.
+     */
+    private static final class Segment {
+
+        private final MappedByteBuffer buffer;
+        private int writePosition = SEGMENT_HEADER_BYTES;
+
+        private Segment(MappedByteBuffer buffer) {
+
+            this.buffer = buffer;
+        }
+
+        long getSequence() {
+
+            return buffer.getLong(0);
+        }
+
+        int getLength(int position) {
+
+            return position + RECORD_HEADER_BYTES <= buffer.capacity() ? buffer.getInt(position) : END_OF_SEGMENT;
+        }
+
+        int getCount(int position) {
+
+            return buffer.getInt(position + Integer.BYTES);
+        }
+
+        byte[] read(int position, int length) {
+
+            byte[] data = new byte[length];
+            ByteBuffer view = buffer.duplicate();
+            view.position(position + RECORD_HEADER_BYTES);
+            view.get(data);
+            return data;
+        }
+
+        /**
+         * Encodes a frame directly into the segment.
+         *
+         * @param frame Cache invalidation requests.
+         * @return True if the frame is written, false if it does not fit into the rest of the segment.
+         */
+        boolean write(List<ClusterCacheInvalidationRequest> frame) {
+
+            if (writePosition + RECORD_HEADER_BYTES > buffer.capacity()) {
+                return false;
+            }
+            ByteBuffer view = buffer.duplicate();
+            view.position(writePosition + RECORD_HEADER_BYTES);
+            int length;
+            try {
+                length = InvalidationMessageCodec.encode(frame, view);
+            } catch (BufferOverflowException e) {
+                // The length of the record is still empty, hence the partially written frame is not read back.
+                return false;
+            }
+            int next = writePosition + RECORD_HEADER_BYTES + length;
+            if (next + Integer.BYTES <= buffer.capacity()) {
+                // An empty record ends the written records, as a reused segment holds older records after them.
+                buffer.putInt(next, 0);
+            }
+            buffer.putInt(writePosition + Integer.BYTES, frame.size());
+            // The length is written last, so that a partially written record is not read back.
+            buffer.putInt(writePosition, length);
+            writePosition = next;
+            return true;
+        }
+
+        void start(long sequence) {
+
+            buffer.putLong(0, sequence);
+        }
+
+        void seal() {
+
+            if (getRemaining() >= Integer.BYTES) {
+                buffer.putInt(writePosition, END_OF_SEGMENT);
+            }
+            writePosition = buffer.capacity();
+            buffer.force();
+        }
+
+        void rewind() {
+
+            buffer.putInt(SEGMENT_HEADER_BYTES, 0);
+            writePosition = SEGMENT_HEADER_BYTES;
+        }
+
+        private int getRemaining() {
+
+            return buffer.capacity() - writePosition;
+        }
+    }
+}
@@ -0,0 +1,305 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Applies received cache invalidations on a fixed set of worker threads. Each invalidation is assigned to a partition
+ * by the hash of its cache name and cache key, and each partition is applied by a single worker. Hence the
+ * invalidations of a key are applied in the order they were received, while the invalidations of unrelated keys are
+ * applied in parallel.
+ * <p>
+ * Each worker queues a bounded number of frames. Once a queue is full, the thread receiving the messages is blocked
+ * until the worker catches up, so that the broker holds back further messages instead of the queue growing.
+ * </p>
+ */
+public class PartitionedInvalidationExecutor {
+
+    private static final Log log = LogFactory.getLog(PartitionedInvalidationExecutor.class);
+    // Maximum number of frames waiting to be applied by a worker.
+    private static final int DEFAULT_QUEUE_CAPACITY = 1000;
+    // Interval to check whether the workers are stopped, while waiting for a full queue.
+    private static final long QUEUE_WAIT_MILLIS = 100;
+
+    private final Consumer<List<InvalidationEntry>> applier;
+    private final Partition[] partitions;
+    private final AtomicLong lastLagMillis = new AtomicLong();
+    private final AtomicLong maxLagMillis = new AtomicLong();
+
+    public PartitionedInvalidationExecutor(int partitionCount, Consumer<List<InvalidationEntry>> applier) {
+
+        this(partitionCount, DEFAULT_QUEUE_CAPACITY, applier);
+    }
+
+    PartitionedInvalidationExecutor(int partitionCount, int queueCapacity, Consumer<List<InvalidationEntry>> applier) {
+
+        this.applier = applier;
+        this.partitions = new Partition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitions[i] = new Partition("cache-sync-consumer-" + i, queueCapacity);
+        }
+    }
+
+    /**
+     * Hands over the cache invalidations of a received frame to their partitions.
+     *
+     * @param entries       Cache invalidation entries of the frame.
+     * @param sentTimestamp Time the frame was sent by the producer, or 0 if unknown.
+     */
+    public void execute(List<InvalidationEntry> entries, long sentTimestamp) {
+
+        List<List<InvalidationEntry>> entriesByPartition = new ArrayList<>(partitions.length);
+        for (int i = 0; i < partitions.length; i++) {
+            entriesByPartition.add(null);
+        }
+        for (InvalidationEntry entry : entries) {
+            int partition = getPartition(entry, partitions.length);
+            if (entriesByPartition.get(partition) == null) {
+                entriesByPartition.set(partition, new ArrayList<>());
+            }
+            entriesByPartition.get(partition).add(entry);
+        }
+        for (int i = 0; i < partitions.length; i++) {
+            if (entriesByPartition.get(i) != null) {
+                partitions[i].submit(entriesByPartition.get(i), sentTimestamp);
+            }
+        }
+    }
+
+    /**
+     * Stops the workers after the pending invalidations are applied.
+     *
+     * @param timeoutMillis Maximum time to wait for the pending invalidations.
+     */
+    public void shutdown(long timeoutMillis) {
+
+        for (Partition partition : partitions) {
+            partition.executor.shutdown();
+        }
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        try {
+            for (Partition partition : partitions) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0 || !partition.executor.awaitTermination(remaining, TimeUnit.MILLISECONDS)) {
+                    partition.executor.shutdownNow();
+                }
+            }
+        } catch (InterruptedException e) {
+            for (Partition partition : partitions) {
+                partition.executor.shutdownNow();
+            }
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getPartitionCount() {
+
+        return partitions.length;
+    }
+
+    /**
+     * Number of cache invalidations waiting to be applied by a partition.
+     *
+     * @param partition Partition index.
+     * @return Pending invalidation count.
+     */
+    public int getPendingCount(int partition) {
+
+        return partitions[partition].pendingCount.get();
+    }
+
+    /**
+     * Number of frames queued for a partition, excluding the frame being applied.
+     *
+     * @param partition Partition index.
+     * @return Queue depth.
+     */
+    public int getQueueDepth(int partition) {
+
+        return partitions[partition].executor.getQueue().size();
+    }
+
+    /**
+     * Number of cache invalidations applied by a partition.
+     *
+     * @param partition Partition index.
+     * @return Applied invalidation count.
+     */
+    public long getAppliedCount(int partition) {
+
+        return partitions[partition].appliedCount.get();
+    }
+
+    /**
+     * Average time taken by a partition to apply the invalidations of a frame.
+     *
+     * @param partition Partition index.
+     * @return Average apply latency in nanoseconds.
+     */
+    public long getAverageApplyLatencyNanos(int partition) {
+
+        Partition selected = partitions[partition];
+        long batches = selected.appliedBatchCount.get();
+        return batches == 0 ? 0 : selected.totalApplyNanos.get() / batches;
+    }
+
+    /**
+     * Maximum time taken by a partition to apply the invalidations of a frame.
+     *
+     * @param partition Partition index.
+     * @return Maximum apply latency in nanoseconds.
+     */
+    public long getMaxApplyLatencyNanos(int partition) {
+
+        return partitions[partition].maxApplyNanos.get();
+    }
+
+    /**
+     * Time between sending and applying the most recently applied frame. The value depends on the clock offset
+     * between the producer and this node.
+     *
+     * @return Consumer lag in milliseconds.
+     */
+    public long getLastLagMillis() {
+
+        return lastLagMillis.get();
+    }
+
+    /**
+     * Maximum time observed between sending and applying a frame.
+     *
+     * @return Maximum consumer lag in milliseconds.
+     */
+    public long getMaxLagMillis() {
+
+        return maxLagMillis.get();
+    }
+
+    /**
+     * Resolves the partition of a cache invalidation entry.
+     *
+     * @param entry          Cache invalidation entry.
+     * @param partitionCount Number of partitions.
+     * @return Partition index.
+     */
+    static int getPartition(InvalidationEntry entry, int partitionCount) {
+
+        // Keys are hashed in their encoded form, hence they are decoded by the workers.
+        int hash = 31 * Objects.hashCode(entry.getCacheName()) + entry.getKeyHash();
+        return (hash & Integer.MAX_VALUE) % partitionCount;
+    }
+
+    private void recordLag(long sentTimestamp) {
+
+        if (sentTimestamp <= 0) {
+            return;
+        }
+        long lag = Math.max(0, System.currentTimeMillis() - sentTimestamp);
+        lastLagMillis.set(lag);
+        maxLagMillis.accumulateAndGet(lag, Math::max);
+    }
+
+    /**
+     * A single worker thread and its metrics.
+     */
+    private class Partition {
+
+        private final ThreadPoolExecutor executor;
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicLong appliedCount = new AtomicLong();
+        private final AtomicLong appliedBatchCount = new AtomicLong();
+        private final AtomicLong totalApplyNanos = new AtomicLong();
+        private final AtomicLong maxApplyNanos = new AtomicLong();
+
+        private Partition(String threadName, int queueCapacity) {
+
+            this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                        Thread thread = new Thread(runnable, threadName);
+                        thread.setDaemon(true);
+                        return thread;
+                    }, new BlockingPolicy());
+        }
+
+        private void submit(List<InvalidationEntry> entries, long sentTimestamp) {
+
+            pendingCount.addAndGet(entries.size());
+            try {
+                executor.execute(() -> apply(entries, sentTimestamp));
+            } catch (RejectedExecutionException e) {
+                pendingCount.addAndGet(-entries.size());
+                log.warn("Discarding " + entries.size() + " cache invalidation messages received after the " +
+                        "consumer is stopped.");
+            }
+        }
+
+        private void apply(List<InvalidationEntry> entries, long sentTimestamp) {
+
+            long start = System.nanoTime();
+            try {
+                applier.accept(entries);
+            } catch (RuntimeException e) {
+                log.error("Error while applying cache invalidation messages.", e);
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                pendingCount.addAndGet(-entries.size());
+                appliedCount.addAndGet(entries.size());
+                appliedBatchCount.incrementAndGet();
+                totalApplyNanos.addAndGet(elapsed);
+                maxApplyNanos.accumulateAndGet(elapsed, Math::max);
+                recordLag(sentTimestamp);
+            }
+        }
+    }
+
+    /**
+     * Blocks the submitting thread until the queue of the worker has space. Frames are not applied by the submitting
+     * thread, as that would apply them ahead of the queued frames of the same keys.
+     */
+    private static class BlockingPolicy implements RejectedExecutionHandler {
+
+        @Override
+        public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+
+            try {
+                while (!executor.isShutdown()) {
+                    if (executor.getQueue().offer(runnable, QUEUE_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new RejectedExecutionException("Cache invalidation workers are stopped.");
+        }
+    }
+}
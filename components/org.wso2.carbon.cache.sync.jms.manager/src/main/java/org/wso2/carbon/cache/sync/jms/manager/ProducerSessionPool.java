@@ -0,0 +1,396 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.jms.CompletionListener;
+import javax.jms.Connection;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+import javax.jms.Topic;
+
+/**
+ * Pool of JMS sessions and message producers sharing a single connection. JMS sessions are not thread safe, hence
+ * each member is used by one sender thread at a time. The pool size matches the number of dispatch threads, so that
+ * the senders publish in parallel without waiting for each other.
+ * <p>
+ * A pool created without a topic holds producers without a destination, which send each message to the topic given
+ * along with it.
+ * </p>
+ * <p>
+ * A member which fails validation or fails to send a message is closed and replaced on its own, without
+ * re-establishing the connection.
+ * </p>
+ * <p>
+ * Messages sent asynchronously are handed over with a JMS 2.0 {@link CompletionListener}, and the member is returned
+ * to the pool without waiting for the broker. If the provider does not support asynchronous sends, messages are sent
+ * synchronously and the listener is notified once the send returns.
+ * </p>
+ * <p>
+ * A sequenced pool stamps each message with a stream and a sequence number. A stream is a member along with the topic
+ * it sends to, as the messages of a single session are delivered in order. Replaced members start new streams, hence
+ * the message which failed to be sent by a member does not show up as a lost message. A member whose asynchronous send
+ * fails is replaced as well, so that the message resent after the failure starts a new stream.
+ * </p>
+ */
+public class ProducerSessionPool {
+
+    private static final Log log = LogFactory.getLog(ProducerSessionPool.class);
+
+    private final Connection connection;
+    private final Topic topic;
+    private final int size;
+    private final boolean sequenced;
+    // Prefix of the streams of the members, unique to the pool.
+    private final String streamPrefix = UUID.randomUUID().toString();
+    private final AtomicInteger memberCount = new AtomicInteger();
+    private final BlockingQueue<PooledProducer> members;
+    private final AtomicLong replacedCount = new AtomicLong();
+    private volatile boolean closed;
+    private volatile boolean asyncSendSupported = true;
+
+    /**
+     * Creates a pool of producers.
+     *
+     * @param connection Connection shared by the pooled sessions.
+     * @param topic      Topic of the producers, or null to create producers without a destination.
+     * @param size       Number of pooled sessions.
+     * @throws JMSException If a session or a producer cannot be created.
+     */
+    public ProducerSessionPool(Connection connection, Topic topic, int size) throws JMSException {
+
+        this(connection, topic, size, false);
+    }
+
+    /**
+     * Creates a pool of producers, stamping the sent messages with sequence numbers if requested.
+     *
+     * @param connection Connection shared by the pooled sessions.
+     * @param topic      Topic of the producers, or null to create producers without a destination.
+     * @param size       Number of pooled sessions.
+     * @param sequenced  Whether the sent messages are stamped with their stream and sequence number.
+     * @throws JMSException If a session or a producer cannot be created.
+     */
+    public ProducerSessionPool(Connection connection, Topic topic, int size, boolean sequenced) throws JMSException {
+
+        this.connection = connection;
+        this.topic = topic;
+        this.size = size;
+        this.sequenced = sequenced;
+        this.members = new LinkedBlockingQueue<>(size);
+        try {
+            for (int i = 0; i < size; i++) {
+                members.add(createMember());
+            }
+        } catch (JMSException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Sends a message through one of the pooled producers. The caller waits if all the members are in use.
+     *
+     * @param messageCreator Creates the message using the session of the borrowed member.
+     * @throws JMSException If the message cannot be created or sent.
+     */
+    public void send(MessageCreator messageCreator) throws JMSException {
+
+        send(null, messageCreator);
+    }
+
+    /**
+     * Sends a message to the given topic through one of the pooled producers. The caller waits if all the members are
+     * in use.
+     *
+     * @param destination    Topic of the message, or null to use the topic of the pool.
+     * @param messageCreator Creates the message using the session of the borrowed member.
+     * @throws JMSException If the message cannot be created or sent.
+     */
+    public void send(Topic destination, MessageCreator messageCreator) throws JMSException {
+
+        PooledProducer member = borrow();
+        try {
+            if (!member.isValid()) {
+                log.debug("Replacing an invalid JMS producer session.");
+                member = replace(member);
+            }
+            Message message = messageCreator.create(member.session);
+            stamp(member, destination, message);
+            if (destination != null) {
+                member.producer.send(destination, message);
+            } else {
+                member.producer.send(message);
+            }
+        } catch (JMSException e) {
+            // The member is in an unknown state after a failure, hence it is replaced before being reused.
+            member.close();
+            throw e;
+        } finally {
+            release(member);
+        }
+    }
+
+    /**
+     * Sends a message to the given topic through one of the pooled producers, without waiting for the broker to
+     * acknowledge the message. The caller waits if all the members are in use.
+     *
+     * @param destination        Topic of the message, or null to use the topic of the pool.
+     * @param messageCreator     Creates the message using the session of the borrowed member.
+     * @param completionListener Notified once the message is acknowledged by the broker or fails to be sent.
+     * @throws JMSException If the message cannot be created or handed over to the provider.
+     */
+    public void sendAsync(Topic destination, MessageCreator messageCreator, CompletionListener completionListener)
+            throws JMSException {
+
+        Message sentMessage = null;
+        PooledProducer member = borrow();
+        try {
+            if (!member.isValid()) {
+                log.debug("Replacing an invalid JMS producer session.");
+                member = replace(member);
+            }
+            Message message = messageCreator.create(member.session);
+            stamp(member, destination, message);
+            if (asyncSendSupported && sendAsync(member, destination, message, completionListener)) {
+                return;
+            }
+            if (destination != null) {
+                member.producer.send(destination, message);
+            } else {
+                member.producer.send(message);
+            }
+            sentMessage = message;
+        } catch (JMSException e) {
+            // The member is in an unknown state after a failure, hence it is replaced before being reused.
+            member.close();
+            throw e;
+        } finally {
+            release(member);
+        }
+        completionListener.onCompletion(sentMessage);
+    }
+
+    /**
+     * Checks whether the provider accepted the messages sent asynchronously.
+     *
+     * @return False once the provider is found not to support asynchronous sends.
+     */
+    public boolean isAsyncSendSupported() {
+
+        return asyncSendSupported;
+    }
+
+    public int getSize() {
+
+        return size;
+    }
+
+    /**
+     * Number of pooled members replaced after failing validation or failing to send a message.
+     *
+     * @return Replaced member count.
+     */
+    public long getReplacedCount() {
+
+        return replacedCount.get();
+    }
+
+    /**
+     * Closes all the pooled sessions and producers. The shared connection is not closed.
+     */
+    public void close() {
+
+        closed = true;
+        PooledProducer member;
+        while ((member = members.poll()) != null) {
+            member.close();
+        }
+    }
+
+    private boolean sendAsync(PooledProducer member, Topic destination, Message message,
+                              CompletionListener completionListener) throws JMSException {
+
+        CompletionListener memberListener = new CompletionListener() {
+
+            @Override
+            public void onCompletion(Message completedMessage) {
+
+                completionListener.onCompletion(completedMessage);
+            }
+
+            @Override
+            public void onException(Message failedMessage, Exception exception) {
+
+                // A session cannot be closed by its completion listener, hence the member is replaced once borrowed.
+                member.broken = true;
+                completionListener.onException(failedMessage, exception);
+            }
+        };
+        try {
+            if (destination != null) {
+                member.producer.send(destination, message, memberListener);
+            } else {
+                member.producer.send(message, memberListener);
+            }
+            return true;
+        } catch (UnsupportedOperationException | AbstractMethodError e) {
+            // JMS 1.1 providers, and JMS 2.0 providers without asynchronous sends, are used synchronously.
+            asyncSendSupported = false;
+            log.warn("The JMS provider does not support asynchronous sends. Cache invalidation messages are sent "
+                    + "synchronously.");
+            return false;
+        }
+    }
+
+    private void stamp(PooledProducer member, Topic destination, Message message) throws JMSException {
+
+        if (!sequenced) {
+            return;
+        }
+        String topicName = (destination != null ? destination : topic).getTopicName();
+        Sequence sequence = member.sequences.get(topicName);
+        if (sequence == null) {
+            sequence = new Sequence(member.stream + "@" + topicName);
+            member.sequences.put(topicName, sequence);
+        }
+        message.setStringProperty(JMSUtils.SEQUENCE_STREAM, sequence.stream);
+        message.setLongProperty(JMSUtils.SEQUENCE, ++sequence.last);
+    }
+
+    private PooledProducer borrow() throws JMSException {
+
+        if (closed) {
+            throw new JMSException("JMS producer session pool is closed.");
+        }
+        try {
+            return members.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JMSException("Interrupted while waiting for a JMS producer session.");
+        }
+    }
+
+    private void release(PooledProducer member) {
+
+        if (closed) {
+            member.close();
+            return;
+        }
+        members.add(member);
+    }
+
+    private PooledProducer replace(PooledProducer member) throws JMSException {
+
+        member.close();
+        replacedCount.incrementAndGet();
+        return createMember();
+    }
+
+    private PooledProducer createMember() throws JMSException {
+
+        Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+        try {
+            return new PooledProducer(session, session.createProducer(topic),
+                    streamPrefix + "-" + memberCount.incrementAndGet());
+        } catch (JMSException e) {
+            session.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates a message using the session of a pooled member.
+     */
+    @FunctionalInterface
+    public interface MessageCreator {
+
+        Message create(Session session) throws JMSException;
+    }
+
+    /**
+     * A session and the message producer created from it.
+     */
+    private static class PooledProducer {
+
+        private final Session session;
+        private final MessageProducer producer;
+        private final String stream;
+        // Sequences of the topics sent to, accessed only by the thread holding the member.
+        private final Map<String, Sequence> sequences = new HashMap<>();
+        // Set by the completion listeners of the asynchronous sends as well.
+        private volatile boolean broken;
+
+        private PooledProducer(Session session, MessageProducer producer, String stream) {
+
+            this.session = session;
+            this.producer = producer;
+            this.stream = stream;
+        }
+
+        private boolean isValid() {
+
+            if (broken) {
+                return false;
+            }
+            try {
+                session.getTransacted();
+                return true;
+            } catch (JMSException e) {
+                return false;
+            }
+        }
+
+        private void close() {
+
+            broken = true;
+            try {
+                producer.close();
+                session.close();
+            } catch (JMSException e) {
+                log.debug("Error while closing a JMS producer session.", e);
+            }
+        }
+    }
+
+    /**
+     * Stream of the messages sent by a member to a topic, along with the last sequence number stamped on them.
+     */
+    private static class Sequence {
+
+        private final String stream;
+        private long last;
+
+        private Sequence(String stream) {
+
+            this.stream = stream;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.apache.commons.lang.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Immutable, precompiled cache deny-list deciding whether invalidations of a cache are propagated to other nodes.
+ * Cache manager names are matched case-insensitively, and cache names are matched after removing their local cache
+ * or clear-all prefix. Both the cache manager names and the cache names may be given as
+ * <ul>
+ *     <li>an exact name,</li>
+ *     <li>{@code *}, matching every name, or</li>
+ *     <li>a prefix followed by {@code *}, matching every name starting with the prefix.</li>
+ * </ul>
+ * Decisions are cached per cache manager and cache name pair. A filter is never modified once compiled, hence a new
+ * filter is compiled to reload the deny-list.
+ */
+public final class PropagationFilter {
+
+    private static final String WILDCARD = "*";
+    // Maximum number of cached decisions before the cached decisions are discarded.
+    private static final int MAX_CACHED_DECISIONS = 10000;
+
+    private static final PropagationFilter ALLOW_ALL = new PropagationFilter(Collections.emptyMap(),
+            Collections.emptyList());
+
+    private final Map<String, CacheNameMatcher> exactManagers;
+    private final List<PrefixMatcher> prefixManagers;
+    private final Map<String, Map<String, Boolean>> decisions = new ConcurrentHashMap<>();
+    private final AtomicInteger decisionCount = new AtomicInteger();
+
+    private PropagationFilter(Map<String, CacheNameMatcher> exactManagers, List<PrefixMatcher> prefixManagers) {
+
+        this.exactManagers = exactManagers;
+        this.prefixManagers = prefixManagers;
+    }
+
+    /**
+     * Compiles a deny-list.
+     *
+     * @param denyList Denied cache names or cache name patterns, by cache manager name or cache manager name pattern.
+     * @return Propagation filter.
+     */
+    public static PropagationFilter compile(Map<String, List<String>> denyList) {
+
+        if (denyList == null || denyList.isEmpty()) {
+            return ALLOW_ALL;
+        }
+        Map<String, List<String>> exactManagerPatterns = new HashMap<>();
+        Map<String, List<String>> prefixManagerPatterns = new HashMap<>();
+        for (Map.Entry<String, List<String>> entry : denyList.entrySet()) {
+            if (StringUtils.isBlank(entry.getKey())) {
+                continue;
+            }
+            String managerPattern = fold(entry.getKey().trim());
+            if (managerPattern.endsWith(WILDCARD)) {
+                prefixManagerPatterns.computeIfAbsent(stripWildcard(managerPattern), prefix -> new ArrayList<>())
+                        .addAll(entry.getValue());
+            } else {
+                exactManagerPatterns.computeIfAbsent(managerPattern, name -> new ArrayList<>())
+                        .addAll(entry.getValue());
+            }
+        }
+
+        Map<String, CacheNameMatcher> exactManagers = new HashMap<>();
+        for (Map.Entry<String, List<String>> entry : exactManagerPatterns.entrySet()) {
+            exactManagers.put(entry.getKey(), CacheNameMatcher.compile(entry.getValue()));
+        }
+        List<PrefixMatcher> prefixManagers = new ArrayList<>();
+        for (Map.Entry<String, List<String>> entry : prefixManagerPatterns.entrySet()) {
+            prefixManagers.add(new PrefixMatcher(entry.getKey(), CacheNameMatcher.compile(entry.getValue())));
+        }
+        return new PropagationFilter(Collections.unmodifiableMap(exactManagers),
+                Collections.unmodifiableList(prefixManagers));
+    }
+
+    /**
+     * Checks whether the invalidations of a cache are propagated to other nodes.
+     *
+     * @param cacheManagerName Cache manager name.
+     * @param cacheName        Cache name, including its local cache or clear-all prefix.
+     * @return True if the cache is not denied.
+     */
+    public boolean isAllowed(String cacheManagerName, String cacheName) {
+
+        if (exactManagers.isEmpty() && prefixManagers.isEmpty()) {
+            return true;
+        }
+        if (cacheManagerName == null || cacheName == null) {
+            return evaluate(cacheManagerName, cacheName);
+        }
+        Map<String, Boolean> managerDecisions = decisions.get(cacheManagerName);
+        if (managerDecisions != null) {
+            Boolean decision = managerDecisions.get(cacheName);
+            if (decision != null) {
+                return decision;
+            }
+        }
+
+        boolean allowed = evaluate(cacheManagerName, cacheName);
+        if (decisionCount.incrementAndGet() > MAX_CACHED_DECISIONS) {
+            decisions.clear();
+            decisionCount.set(0);
+        }
+        decisions.computeIfAbsent(cacheManagerName, name -> new ConcurrentHashMap<>()).put(cacheName, allowed);
+        return allowed;
+    }
+
+    private boolean evaluate(String cacheManagerName, String cacheName) {
+
+        String name = getCacheName(cacheName);
+        if (name == null || cacheManagerName == null) {
+            return true;
+        }
+        String managerName = fold(cacheManagerName);
+        CacheNameMatcher matcher = exactManagers.get(managerName);
+        if (matcher != null && matcher.matches(name)) {
+            return false;
+        }
+        for (PrefixMatcher prefixMatcher : prefixManagers) {
+            if (managerName.startsWith(prefixMatcher.prefix) && prefixMatcher.cacheNameMatcher.matches(name)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String getCacheName(String cacheName) {
+
+        // Cache names are by default prefixed with "$__local__$." or "$__clear__all__$."
+        int start = cacheName.indexOf('.');
+        if (start < 0) {
+            return null;
+        }
+        int end = cacheName.indexOf('.', start + 1);
+        return end < 0 ? cacheName.substring(start + 1) : cacheName.substring(start + 1, end);
+    }
+
+    private static String fold(String name) {
+
+        return name.toLowerCase(Locale.ENGLISH);
+    }
+
+    private static String stripWildcard(String pattern) {
+
+        return pattern.substring(0, pattern.length() - WILDCARD.length());
+    }
+
+    /**
+     * Matches the cache names denied for a cache manager.
+     */
+    private static final class CacheNameMatcher {
+
+        private final boolean matchAll;
+        private final Set<String> names;
+        private final String[] prefixes;
+
+        private CacheNameMatcher(boolean matchAll, Set<String> names, String[] prefixes) {
+
+            this.matchAll = matchAll;
+            this.names = names;
+            this.prefixes = prefixes;
+        }
+
+        private static CacheNameMatcher compile(List<String> patterns) {
+
+            boolean matchAll = false;
+            Set<String> names = new HashSet<>();
+            List<String> prefixes = new ArrayList<>();
+            for (String pattern : patterns) {
+                if (StringUtils.isBlank(pattern)) {
+                    continue;
+                }
+                String trimmed = pattern.trim();
+                if (WILDCARD.equals(trimmed)) {
+                    matchAll = true;
+                } else if (trimmed.endsWith(WILDCARD)) {
+                    prefixes.add(stripWildcard(trimmed));
+                } else {
+                    names.add(trimmed);
+                }
+            }
+            return new CacheNameMatcher(matchAll, names, prefixes.toArray(new String[0]));
+        }
+
+        private boolean matches(String cacheName) {
+
+            if (matchAll || names.contains(cacheName)) {
+                return true;
+            }
+            for (String prefix : prefixes) {
+                if (cacheName.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Cache name matcher of a cache manager name prefix.
+     */
+    private static final class PrefixMatcher {
+
+        private final String prefix;
+        private final CacheNameMatcher cacheNameMatcher;
+
+        private PrefixMatcher(String prefix, CacheNameMatcher cacheNameMatcher) {
+
+            this.prefix = prefix;
+            this.cacheNameMatcher = cacheNameMatcher;
+        }
+    }
+}
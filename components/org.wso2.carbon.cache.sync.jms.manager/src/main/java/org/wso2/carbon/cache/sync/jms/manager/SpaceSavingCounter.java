@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded top-K counter using the space-saving algorithm. At most a fixed number of keys are counted. When a new key
+ * arrives while all the counters are taken, the key with the smallest count is replaced and the new key inherits its
+ * count as the overestimation error. Any key occurring more often than the total count divided by the number of
+ * counters is guaranteed to be kept.
+ * <p>
+ * This class is not thread safe.
+ * </p>
+ */
+class SpaceSavingCounter {
+
+    private final int capacity;
+    private final Map<String, Counter> counters;
+
+    SpaceSavingCounter(int capacity) {
+
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    /**
+     * Adds occurrences of a key.
+     *
+     * @param key       Key.
+     * @param increment Number of occurrences.
+     */
+    void add(String key, long increment) {
+
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            counter.count += increment;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(key, new Counter(key, increment, 0));
+            return;
+        }
+        Counter min = null;
+        for (Counter candidate : counters.values()) {
+            if (min == null || candidate.count < min.count) {
+                min = candidate;
+            }
+        }
+        counters.remove(min.key);
+        counters.put(key, new Counter(key, min.count + increment, min.count));
+    }
+
+    /**
+     * Returns the keys with the highest counts.
+     *
+     * @param limit Maximum number of keys to return.
+     * @return Counters in the descending order of their counts.
+     */
+    List<Counter> getTop(int limit) {
+
+        List<Counter> top = new ArrayList<>(counters.size());
+        for (Counter counter : counters.values()) {
+            top.add(new Counter(counter.key, counter.count, counter.error));
+        }
+        top.sort((first, second) -> Long.compare(second.count, first.count));
+        return top.size() > limit ? new ArrayList<>(top.subList(0, limit)) : top;
+    }
+
+    int size() {
+
+        return counters.size();
+    }
+
+    /**
+     * Estimated count of a key, which may overestimate the actual count by at most its error.
+     */
+    static final class Counter {
+
+        private final String key;
+        private long count;
+        private final long error;
+
+        private Counter(String key, long count, long error) {
+
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+
+        String getKey() {
+
+            return key;
+        }
+
+        long getCount() {
+
+            return count;
+        }
+
+        long getError() {
+
+            return error;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.Locale;
+import java.util.TreeSet;
+
+/**
+ * Immutable assignment of cache invalidations to shard topics. When sharding is enabled, the invalidations are
+ * published to {@code <topic name>.<shard>} instead of the cache invalidation topic, and the shard of an invalidation
+ * is given by its cache manager name, its cache name or its tenant id. Every invalidation of a cache is therefore
+ * published to the same shard, keeping the order of its invalidations.
+ * <p>
+ * Bulk invalidations covering the caches of several shards are published to every shard.
+ * </p>
+ * <p>
+ * Nodes subscribe to all the shards by default. A node may subscribe only to the shards of the cache managers, caches
+ * or tenants it loads, in which case it does not receive the invalidations of any other cache.
+ * </p>
+ */
+public final class TopicSharding {
+
+    private static final Log log = LogFactory.getLog(TopicSharding.class);
+    private static final String SHARD_SEPARATOR = ".";
+
+    public static final TopicSharding NONE = new TopicSharding(Mode.NONE, 1, new int[]{0});
+
+    /**
+     * Attribute of an invalidation deciding its shard.
+     */
+    public enum Mode {
+        /**
+         * All the invalidations are published to the cache invalidation topic.
+         */
+        NONE,
+        /**
+         * Shard by the case-insensitive cache manager name.
+         */
+        CACHE_MANAGER,
+        /**
+         * Shard by the cache name, excluding its local cache or clear-all prefix.
+         */
+        CACHE_NAME,
+        /**
+         * Shard by the tenant id.
+         */
+        TENANT;
+
+        public static Mode fromConfig(String value) {
+
+            if (StringUtils.isBlank(value)) {
+                return NONE;
+            }
+            try {
+                return Mode.valueOf(value.trim().toUpperCase(Locale.ENGLISH));
+            } catch (IllegalArgumentException e) {
+                log.warn("Unknown topic sharding mode: " + value + ". Using " + NONE);
+                return NONE;
+            }
+        }
+    }
+
+    private final Mode mode;
+    private final int shardCount;
+    private final int[] subscribedShards;
+
+    private TopicSharding(Mode mode, int shardCount, int[] subscribedShards) {
+
+        this.mode = mode;
+        this.shardCount = shardCount;
+        this.subscribedShards = subscribedShards;
+    }
+
+    /**
+     * Creates a shard assignment.
+     *
+     * @param mode          Attribute of an invalidation deciding its shard.
+     * @param shardCount    Number of shard topics.
+     * @param subscriptions Cache manager names, cache names or tenant ids of the shards to subscribe to, according to
+     *                      the mode. All the shards are subscribed to if empty.
+     * @return Topic sharding.
+     */
+    public static TopicSharding create(Mode mode, int shardCount, String[] subscriptions) {
+
+        if (mode == null || mode == Mode.NONE || shardCount < 1) {
+            return NONE;
+        }
+        TopicSharding sharding = new TopicSharding(mode, shardCount, null);
+        TreeSet<Integer> shards = new TreeSet<>();
+        if (subscriptions != null) {
+            for (String subscription : subscriptions) {
+                if (StringUtils.isBlank(subscription)) {
+                    continue;
+                }
+                try {
+                    shards.add(sharding.getShard(subscription.trim()));
+                } catch (NumberFormatException e) {
+                    log.warn("Ignoring the topic shard subscription: " + subscription + ". A tenant id is expected.");
+                }
+            }
+        }
+        if (shards.isEmpty()) {
+            for (int shard = 0; shard < shardCount; shard++) {
+                shards.add(shard);
+            }
+        }
+        int[] subscribedShards = new int[shards.size()];
+        int index = 0;
+        for (int shard : shards) {
+            subscribedShards[index++] = shard;
+        }
+        return new TopicSharding(mode, shardCount, subscribedShards);
+    }
+
+    public boolean isEnabled() {
+
+        return mode != Mode.NONE;
+    }
+
+    public Mode getMode() {
+
+        return mode;
+    }
+
+    public int getShardCount() {
+
+        return shardCount;
+    }
+
+    /**
+     * Shards subscribed to by the node, in ascending order.
+     *
+     * @return Subscribed shards.
+     */
+    public int[] getSubscribedShards() {
+
+        return subscribedShards.clone();
+    }
+
+    /**
+     * Returns the shard of an invalidation.
+     *
+     * @param cacheManagerName Cache manager name.
+     * @param cacheName        Cache name, including its local cache or clear-all prefix.
+     * @param tenantId         Tenant id.
+     * @return Shard, between 0 and the shard count.
+     */
+    public int getShard(String cacheManagerName, String cacheName, int tenantId) {
+
+        switch (mode) {
+            case CACHE_MANAGER:
+                return hash(cacheManagerName == null ? null : cacheManagerName.toLowerCase(Locale.ENGLISH));
+            case CACHE_NAME:
+                return hash(getCacheName(cacheName));
+            case TENANT:
+                return Math.floorMod(tenantId, shardCount);
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Checks whether invalidations of a scope may concern the caches of more than a single shard. Such invalidations
+     * are published to every shard, for instance a tenant invalidation when sharding by cache manager name.
+     *
+     * @param scope Invalidation scope.
+     * @return True if the invalidations of the scope are published to all the shards.
+     */
+    public boolean isBroadcast(InvalidationScope scope) {
+
+        switch (scope) {
+            case TENANT:
+                return mode != Mode.TENANT;
+            case CACHE_MANAGER:
+                return mode == Mode.CACHE_NAME;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Returns the name of a shard topic.
+     *
+     * @param topicName Name of the cache invalidation topic.
+     * @param shard     Shard.
+     * @return Shard topic name.
+     */
+    public String getTopicName(String topicName, int shard) {
+
+        return topicName + SHARD_SEPARATOR + shard;
+    }
+
+    private int getShard(String subscription) {
+
+        switch (mode) {
+            case CACHE_MANAGER:
+                return getShard(subscription, null, 0);
+            case CACHE_NAME:
+                return hash(subscription);
+            case TENANT:
+                return getShard(null, null, Integer.parseInt(subscription));
+            default:
+                return 0;
+        }
+    }
+
+    private int hash(String name) {
+
+        // String hash codes are specified by the language, hence every node assigns a name to the same shard.
+        return name == null ? 0 : Math.floorMod(name.hashCode(), shardCount);
+    }
+
+    private static String getCacheName(String cacheName) {
+
+        // Cache names are by default prefixed with "$__local__$." or "$__clear__all__$."
+        if (cacheName == null) {
+            return null;
+        }
+        return cacheName.substring(cacheName.indexOf('.') + 1);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+/**
+ * Invalidation traffic of a tenant or a cache within a profiling window.
+ */
+public class TrafficEntry {
+
+    private final String key;
+    private final long count;
+    private final long error;
+    private final double ratePerSecond;
+
+    public TrafficEntry(String key, long count, long error, double ratePerSecond) {
+
+        this.key = key;
+        this.count = count;
+        this.error = error;
+        this.ratePerSecond = ratePerSecond;
+    }
+
+    /**
+     * Tenant domain, or the tenant domain, cache manager name and cache name separated by '/'.
+     *
+     * @return Traffic key.
+     */
+    public String getKey() {
+
+        return key;
+    }
+
+    /**
+     * Estimated number of invalidations in the window.
+     *
+     * @return Invalidation count.
+     */
+    public long getCount() {
+
+        return count;
+    }
+
+    /**
+     * Maximum overestimation of the count.
+     *
+     * @return Count error.
+     */
+    public long getError() {
+
+        return error;
+    }
+
+    public double getRatePerSecond() {
+
+        return ratePerSecond;
+    }
+}
@@ -18,6 +18,10 @@
 
 package org.wso2.carbon.cache.sync.jms.manager.internal;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
 /**
  * Data Transfer Object (DTO) that represents a cache invalidation message
  * exchanged across cluster nodes via JMS.
@@ -28,6 +32,11 @@ package org.wso2.carbon.cache.sync.jms.manager.internal;
  * into a stable and decoupled format. This ensures that all required
  * information is propagated correctly across the cluster.
  * </p>
+ * <p>
+ * Bulk invalidations carry their scope, and the keys of a cache keys invalidation. Both are left out of single key
+ * invalidations, which are therefore still read by the nodes which do not support bulk invalidations. A key
+ * fingerprint invalidation carries the fingerprint of the key in place of the serialized key.
+ * </p>
  */
 public class CacheInvalidationMessageDTO {
 
@@ -36,6 +45,12 @@ public class CacheInvalidationMessageDTO {
     private String cacheManagerName;
     private String cacheName;
     private String cacheKeyBase64;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String scope;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<String> cacheKeysBase64;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long cacheKeyFingerprint;
 
     public CacheInvalidationMessageDTO() {
     }
@@ -79,4 +94,28 @@ public class CacheInvalidationMessageDTO {
     public void setCacheKeyBase64(String cacheKeyBase64) {
         this.cacheKeyBase64 = cacheKeyBase64;
     }
+
+    public String getScope() {
+        return scope;
+    }
+
+    public void setScope(String scope) {
+        this.scope = scope;
+    }
+
+    public List<String> getCacheKeysBase64() {
+        return cacheKeysBase64;
+    }
+
+    public void setCacheKeysBase64(List<String> cacheKeysBase64) {
+        this.cacheKeysBase64 = cacheKeysBase64;
+    }
+
+    public Long getCacheKeyFingerprint() {
+        return cacheKeyFingerprint;
+    }
+
+    public void setCacheKeyFingerprint(Long cacheKeyFingerprint) {
+        this.cacheKeyFingerprint = cacheKeyFingerprint;
+    }
 }
@@ -22,7 +22,9 @@ import org.apache.commons.logging.LogFactory;
 import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.wso2.carbon.cache.sync.jms.manager.CacheSyncMetrics;
 import org.wso2.carbon.cache.sync.jms.manager.HybridModeCoordinatorListener;
+import org.wso2.carbon.cache.sync.jms.manager.InvalidationTrafficProfiler;
 import org.wso2.carbon.cache.sync.jms.manager.JMSConsumer;
 import org.wso2.carbon.cache.sync.jms.manager.JMSProducer;
 import org.wso2.carbon.cache.sync.jms.manager.JMSUtils;
@@ -61,6 +63,9 @@ public class JMSManagerServiceComponent {
         // Shutdown JMS producer.
         JMSProducer.getInstance().shutdownExecutorService();
         JMSConsumer.getInstance().closeResources();
+        CacheSyncMetrics.unregisterMBean();
+        InvalidationTrafficProfiler.getInstance().stop();
+        InvalidationTrafficProfiler.unregisterMBean();
 
         if (log.isDebugEnabled()) {
             log.debug("Cache Sync JMS Manager Service bundle is deactivated.");
@@ -71,7 +76,8 @@ public class JMSManagerServiceComponent {
 
         scheduler.scheduleWithFixedDelay(() -> {
             try {
-                if (JMSUtils.isMBCacheInvalidatorEnabled() != null) {
+                // Load the configuration snapshot used by the JMS manager once the configurations are available.
+                if (JMSUtils.reloadConfig().getEnabled() != null) {
                     startClient(context);
                     scheduler.shutdown();
                 }
@@ -84,6 +90,14 @@ public class JMSManagerServiceComponent {
 
     private void startClient(ComponentContext context) {
 
+        if (JMSUtils.isMetricsEnabled()) {
+            CacheSyncMetrics.registerMBean();
+        }
+        if (JMSUtils.isProfilerEnabled()) {
+            InvalidationTrafficProfiler.getInstance().start(JMSUtils.getProfilerTopK(),
+                    JMSUtils.getProfilerWindowSeconds(), JMSUtils.getProfilerSampleRate());
+            InvalidationTrafficProfiler.registerMBean();
+        }
         // Start the listener for coordinator if hybrid mode is enabled; otherwise, start the JMS service directly.
         if (JMSUtils.getRunInHybridModeProperty()) {
              HybridModeCoordinatorListener coordinatorListener = HybridModeCoordinatorListener.getInstance(context);
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class AdaptiveBatchingPolicyTest {
+
+    private static final long SEND_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    public void testQuietTrafficIsSentImmediately() {
+
+        AtomicLong clock = new AtomicLong();
+        AdaptiveBatchingPolicy policy = new AdaptiveBatchingPolicy(1, 20, 100, clock::get);
+        policy.recordSendLatency(SEND_LATENCY_NANOS);
+        enqueue(policy, clock, 10, TimeUnit.SECONDS.toNanos(1));
+
+        assertEquals(policy.getBatchSize(), 1);
+        assertEquals(policy.getFlushIntervalNanos(), TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    @Test
+    public void testFlushIntervalFollowsEnqueueRate() {
+
+        AtomicLong clock = new AtomicLong();
+        AdaptiveBatchingPolicy policy = new AdaptiveBatchingPolicy(1, 20, 100, clock::get);
+        policy.recordSendLatency(SEND_LATENCY_NANOS);
+
+        // About two invalidations arrive while a message is sent.
+        enqueue(policy, clock, 10000, TimeUnit.MICROSECONDS.toNanos(500));
+        assertTrue(policy.getEnqueueRate() > 1900 && policy.getEnqueueRate() <= 2000);
+        assertTrue(policy.getFlushIntervalNanos() > TimeUnit.MICROSECONDS.toNanos(1500) &&
+                policy.getFlushIntervalNanos() < TimeUnit.MICROSECONDS.toNanos(2500));
+        assertEquals(policy.getBatchSize(), 4);
+
+        // A burst is batched up to the longest flush interval and the largest batch.
+        enqueue(policy, clock, 50000, TimeUnit.MICROSECONDS.toNanos(10));
+        assertEquals(policy.getFlushIntervalNanos(), TimeUnit.MILLISECONDS.toNanos(20));
+        assertEquals(policy.getBatchSize(), 100);
+
+        // Invalidations are sent immediately again once the burst is over.
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        policy.recordEnqueue();
+        assertEquals(policy.getBatchSize(), 1);
+        assertEquals(policy.getFlushIntervalNanos(), TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    @Test
+    public void testLongestFlushIntervalOnQueuePressure() {
+
+        AtomicLong clock = new AtomicLong();
+        AdaptiveBatchingPolicy policy = new AdaptiveBatchingPolicy(1, 20, 100, clock::get);
+        policy.setQueueFillRatio(() -> 0.8);
+        policy.recordSendLatency(SEND_LATENCY_NANOS);
+        enqueue(policy, clock, 10000, TimeUnit.MICROSECONDS.toNanos(500));
+
+        assertEquals(policy.getFlushIntervalNanos(), TimeUnit.MILLISECONDS.toNanos(20));
+        assertEquals(policy.getBatchSize(), 40);
+    }
+
+    @Test
+    public void testMinFlushIntervalIsBoundedByMaxFlushInterval() {
+
+        AdaptiveBatchingPolicy policy = new AdaptiveBatchingPolicy(50, 20, 100, () -> 0);
+        assertEquals(policy.getFlushIntervalNanos(), TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    private static void enqueue(AdaptiveBatchingPolicy policy, AtomicLong clock, int count, long intervalNanos) {
+
+        for (int i = 0; i < count; i++) {
+            clock.addAndGet(intervalNanos);
+            policy.recordEnqueue();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.testng.annotations.Test;
+import org.wso2.carbon.caching.impl.clustering.ClusterCacheInvalidationRequest;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.jms.CompletionListener;
+import javax.jms.JMSException;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+public class AsyncPublisherTest {
+
+    @Test
+    public void testSenderWaitsForFullWindow() throws Exception {
+
+        RecordingHandler handler = new RecordingHandler();
+        BlockingQueue<CompletionListener> listeners = new LinkedBlockingQueue<>();
+        AsyncPublisher publisher = new AsyncPublisher(1, 0, 10, handler);
+        try {
+            publisher.publish(listeners::add, 1, Collections.emptyList());
+            assertEquals(publisher.getInFlightCount(), 1);
+
+            CountDownLatch published = new CountDownLatch(1);
+            Thread sender = new Thread(() -> {
+                try {
+                    publisher.publish(listeners::add, 2, Collections.emptyList());
+                    published.countDown();
+                } catch (JMSException e) {
+                    // The latch is not released, hence the test fails.
+                }
+            });
+            sender.start();
+            assertFalse(published.await(100, TimeUnit.MILLISECONDS));
+
+            listeners.take().onCompletion(null);
+            assertTrue(published.await(5, TimeUnit.SECONDS));
+            listeners.take().onCompletion(null);
+
+            assertEquals(handler.sent.get(), 3);
+            assertEquals(publisher.getInFlightCount(), 0);
+        } finally {
+            assertTrue(publisher.shutdown(1000));
+        }
+    }
+
+    @Test
+    public void testResendFailedMessage() throws Exception {
+
+        RecordingHandler handler = new RecordingHandler();
+        AtomicInteger attempts = new AtomicInteger();
+        AsyncPublisher publisher = new AsyncPublisher(10, 3, 1, handler);
+        try {
+            publisher.publish(listener -> {
+                if (attempts.incrementAndGet() < 3) {
+                    listener.onException(null, new JMSException("Broker unavailable"));
+                } else {
+                    listener.onCompletion(null);
+                }
+            }, 5, Collections.emptyList());
+
+            assertTrue(handler.completed.await(5, TimeUnit.SECONDS));
+            assertEquals(attempts.get(), 3);
+            assertEquals(handler.sent.get(), 5);
+            assertEquals(handler.failed.get(), 0);
+            assertEquals(publisher.getRetryCount(), 2);
+            assertEquals(publisher.getInFlightCount(), 0);
+        } finally {
+            publisher.shutdown(1000);
+        }
+    }
+
+    @Test
+    public void testReportFailureAfterRetryLimit() throws Exception {
+
+        RecordingHandler handler = new RecordingHandler();
+        AtomicInteger attempts = new AtomicInteger();
+        AsyncPublisher publisher = new AsyncPublisher(10, 2, 1, handler);
+        try {
+            publisher.publish(listener -> {
+                if (attempts.incrementAndGet() == 1) {
+                    listener.onException(null, new JMSException("Broker unavailable"));
+                } else {
+                    // Failures of a resend thrown by the provider are retried as well.
+                    throw new JMSException("Connection closed");
+                }
+            }, 5, Collections.emptyList());
+
+            assertTrue(handler.completed.await(5, TimeUnit.SECONDS));
+            assertEquals(attempts.get(), 3);
+            assertEquals(handler.sent.get(), 0);
+            assertEquals(handler.failed.get(), 5);
+            assertEquals(publisher.getRetryCount(), 2);
+            assertEquals(publisher.getInFlightCount(), 0);
+        } finally {
+            publisher.shutdown(1000);
+        }
+    }
+
+    @Test
+    public void testReleaseSlotOnSendFailure() {
+
+        RecordingHandler handler = new RecordingHandler();
+        AsyncPublisher publisher = new AsyncPublisher(1, handler);
+        try {
+            expectThrows(JMSException.class, () -> publisher.publish(listener -> {
+                throw new JMSException("Producer closed");
+            }, 1, Collections.emptyList()));
+            assertEquals(publisher.getInFlightCount(), 0);
+            assertEquals(handler.failed.get(), 0);
+        } finally {
+            publisher.shutdown(1000);
+        }
+    }
+
+    private static class RecordingHandler implements AsyncPublisher.PublishHandler {
+
+        private final AtomicInteger sent = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        @Override
+        public void onSent(int invalidationCount, long elapsedNanos) {
+
+            sent.addAndGet(invalidationCount);
+            completed.countDown();
+        }
+
+        @Override
+        public void onFailed(int invalidationCount, List<ClusterCacheInvalidationRequest> requests, Exception cause) {
+
+            failed.addAndGet(invalidationCount);
+            completed.countDown();
+        }
+    }
+}
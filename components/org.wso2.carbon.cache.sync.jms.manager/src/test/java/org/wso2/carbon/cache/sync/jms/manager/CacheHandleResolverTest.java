@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.mockito.MockedStatic;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.caching.impl.CacheImpl;
+
+import javax.cache.CacheManager;
+import javax.cache.CacheManagerFactory;
+import javax.cache.Caching;
+import javax.cache.Status;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+public class CacheHandleResolverTest {
+
+    private MockedStatic<Caching> mockedCaching;
+    private CacheManager cacheManager;
+    private CacheImpl<Object, Object> cacheImpl;
+
+    @BeforeMethod
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+
+        mockedCaching = mockStatic(Caching.class);
+        CacheManagerFactory cacheManagerFactory = mock(CacheManagerFactory.class);
+        cacheManager = mock(CacheManager.class);
+        cacheImpl = mock(CacheImpl.class);
+        mockedCaching.when(Caching::getCacheManagerFactory).thenReturn(cacheManagerFactory);
+        when(cacheManagerFactory.getCacheManager("myCacheManager")).thenReturn(cacheManager);
+        when(cacheManager.getCache("myCache")).thenReturn(cacheImpl);
+        when(cacheImpl.getStatus()).thenReturn(Status.STARTED);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        mockedCaching.close();
+    }
+
+    @Test
+    public void testResolveReusesStartedCache() {
+
+        CacheHandleResolver resolver = new CacheHandleResolver();
+        assertSame(resolver.resolve(1, "myCacheManager", "myCache"), cacheImpl);
+        assertSame(resolver.resolve(1, "myCacheManager", "myCache"), cacheImpl);
+
+        verify(cacheManager, times(1)).getCache("myCache");
+        assertEquals(resolver.getHitCount(), 1);
+        assertEquals(resolver.getMissCount(), 1);
+    }
+
+    @Test
+    public void testResolveAgainAfterCacheIsStopped() {
+
+        CacheHandleResolver resolver = new CacheHandleResolver();
+        resolver.resolve(1, "myCacheManager", "myCache");
+        when(cacheImpl.getStatus()).thenReturn(Status.STOPPED);
+        resolver.resolve(1, "myCacheManager", "myCache");
+
+        verify(cacheManager, times(2)).getCache("myCache");
+    }
+
+    @Test
+    public void testHandlesAreTenantSpecific() {
+
+        CacheHandleResolver resolver = new CacheHandleResolver();
+        resolver.resolve(1, "myCacheManager", "myCache");
+        resolver.resolve(2, "myCacheManager", "myCache");
+        assertEquals(resolver.size(), 2);
+
+        resolver.invalidateTenant(1);
+        assertEquals(resolver.size(), 1);
+        resolver.resolve(1, "myCacheManager", "myCache");
+        verify(cacheManager, times(3)).getCache("myCache");
+    }
+
+    @Test
+    public void testResolveNonLocalCache() {
+
+        CacheHandleResolver resolver = new CacheHandleResolver();
+        assertNull(resolver.resolve(1, "myCacheManager", "otherCache"));
+        assertEquals(resolver.size(), 0);
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.mockito.MockedStatic;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.core.util.IdentityConfigParser;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * End-to-end propagation tests over an embedded broker. The number of nodes, the update rate and the number of
+ * updates per node can be changed with the cacheSync.harness.nodes, cacheSync.harness.rate and
+ * cacheSync.harness.updates system properties to use the tests as a performance regression suite. Each test first
+ * runs an unmeasured warm-up round of the same number of updates.
+ */
+public class CacheSyncClusterTest {
+
+    private static final Log log = LogFactory.getLog(CacheSyncClusterTest.class);
+    private static final long EVICTION_TIMEOUT_MILLIS = 30000;
+
+    private final int nodeCount = Integer.getInteger("cacheSync.harness.nodes", 3);
+    private final int updateRate = Integer.getInteger("cacheSync.harness.rate", 500);
+    private final int updatesPerNode = Integer.getInteger("cacheSync.harness.updates", 100);
+
+    private MockedStatic<IdentityUtil> mockedIdentityUtil;
+    private MockedStatic<IdentityConfigParser> mockedIdentityConfigParser;
+    private EmbeddedBrokerCluster cluster;
+
+    @BeforeMethod
+    public void setUp() {
+
+        mockedIdentityUtil = mockStatic(IdentityUtil.class);
+        mockedIdentityUtil.when(() -> IdentityUtil.getProperty(anyString())).thenAnswer(invocation ->
+                JMSUtils.JNDI_TOPIC_PROP_NAME_VALUE.equals(invocation.getArgument(0)) ?
+                        EmbeddedBrokerCluster.TOPIC_NAME : null);
+        mockedIdentityConfigParser = mockStatic(IdentityConfigParser.class);
+        mockedIdentityConfigParser.when(IdentityConfigParser::getInstance).thenReturn(mock(IdentityConfigParser.class));
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+
+        try {
+            if (cluster != null) {
+                cluster.stop();
+                cluster = null;
+            }
+        } finally {
+            JMSUtils.reloadConfig();
+            mockedIdentityConfigParser.close();
+            mockedIdentityUtil.close();
+        }
+    }
+
+    @Test
+    public void testPropagationLatencyWithJsonWireFormat() throws Exception {
+
+        runAtRate(new CacheSyncConfig.Builder().enabled(true).build(), "JSON wire format");
+    }
+
+    @Test
+    public void testPropagationLatencyWithBinaryWireFormat() throws Exception {
+
+        runAtRate(new CacheSyncConfig.Builder().enabled(true).binaryWireFormat(true).build(), "binary wire format");
+    }
+
+    @Test
+    public void testPropagationLatencyWithTopicSharding() throws Exception {
+
+        runAtRate(new CacheSyncConfig.Builder().enabled(true)
+                .topicSharding(TopicSharding.create(TopicSharding.Mode.CACHE_MANAGER, 4, null)).build(),
+                "cache manager topic sharding");
+    }
+
+    @Test
+    public void testThroughputAtSaturation() throws Exception {
+
+        startCluster(new CacheSyncConfig.Builder().enabled(true).batchingEnabled(true).build());
+        long expected = expectedEvictions();
+        updateConcurrently();
+        assertTrue(cluster.awaitEvictions(expected, EVICTION_TIMEOUT_MILLIS), "Warm-up evictions were not received.");
+        cluster.resetRecords();
+
+        long start = System.nanoTime();
+        updateConcurrently();
+        assertTrue(cluster.awaitEvictions(expected, EVICTION_TIMEOUT_MILLIS),
+                "Only " + cluster.getEvictionCount() + " of " + expected + " remote evictions were received.");
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        log.info(String.format("Saturation throughput of %d nodes: %.0f updates/s, %.0f remote evictions/s. %s",
+                nodeCount, nodeCount * updatesPerNode / elapsedSeconds, expected / elapsedSeconds,
+                formatLatencies()));
+        assertEquals(cluster.getSelfEvictionCount(), 0);
+    }
+
+    @Test
+    public void testDeliveredTrafficWithSenderSelector() throws Exception {
+
+        long withoutSelector = countDeliveredMessages(new CacheSyncConfig.Builder().enabled(true).build());
+        cluster.stop();
+        cluster = null;
+        long withSelector = countDeliveredMessages(new CacheSyncConfig.Builder().enabled(true)
+                .senderSelectorEnabled(true).build());
+
+        log.info(String.format("Messages delivered to %d nodes for %d updates: %d without the sender selector, %d "
+                        + "with the sender selector, %.0f%% fewer.", nodeCount, nodeCount * updatesPerNode,
+                withoutSelector, withSelector, 100.0 * (withoutSelector - withSelector) / withoutSelector));
+        // Without the selector, every message is also delivered back to the node which sent it.
+        assertEquals(withoutSelector, (long) nodeCount * updatesPerNode * nodeCount);
+        assertEquals(withSelector, expectedEvictions());
+    }
+
+    private long countDeliveredMessages(CacheSyncConfig config) throws Exception {
+
+        startCluster(config);
+        CacheSyncMetrics metrics = CacheSyncMetrics.getInstance();
+        long receivedBefore = metrics.getMessagesReceived();
+        long selfFilteredBefore = metrics.getSelfFilteredMessages();
+        updateConcurrently();
+        assertTrue(cluster.awaitEvictions(expectedEvictions(), EVICTION_TIMEOUT_MILLIS),
+                "Only " + cluster.getEvictionCount() + " remote evictions were received.");
+        // Wait for the messages sent back to their own node, which are not recorded as evictions.
+        long expectedSelfFiltered = config.isSenderSelectorEnabled() ? 0 : (long) nodeCount * updatesPerNode;
+        long deadline = System.currentTimeMillis() + EVICTION_TIMEOUT_MILLIS;
+        while (metrics.getSelfFilteredMessages() - selfFilteredBefore < expectedSelfFiltered
+                && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+        return metrics.getMessagesReceived() - receivedBefore + metrics.getSelfFilteredMessages() - selfFilteredBefore;
+    }
+
+    private void runAtRate(CacheSyncConfig config, String label) throws Exception {
+
+        startCluster(config);
+        long expected = expectedEvictions();
+        updateAtRate();
+        assertTrue(cluster.awaitEvictions(expected, EVICTION_TIMEOUT_MILLIS), "Warm-up evictions were not received.");
+        cluster.resetRecords();
+
+        updateAtRate();
+        assertTrue(cluster.awaitEvictions(expected, EVICTION_TIMEOUT_MILLIS),
+                "Only " + cluster.getEvictionCount() + " of " + expected + " remote evictions were received.");
+
+        log.info(String.format("Propagation latency of %d nodes at %d updates/s with the %s. %s", nodeCount,
+                updateRate, label, formatLatencies()));
+        EmbeddedBrokerCluster.LatencyRecorder latencies = cluster.getLatencies();
+        assertEquals(latencies.getCount(), expected);
+        assertTrue(latencies.getPercentile(50) <= latencies.getPercentile(99));
+        assertTrue(latencies.getPercentile(99) <= latencies.getPercentile(99.9));
+        assertEquals(cluster.getSelfEvictionCount(), 0);
+    }
+
+    private void updateConcurrently() throws InterruptedException {
+
+        List<Thread> updaters = new ArrayList<>();
+        for (int i = 0; i < nodeCount; i++) {
+            int nodeIndex = i;
+            Thread updater = new Thread(() -> {
+                for (int j = 0; j < updatesPerNode; j++) {
+                    cluster.invalidate(nodeIndex);
+                }
+            }, "cache-sync-updater-" + i);
+            updaters.add(updater);
+            updater.start();
+        }
+        for (Thread updater : updaters) {
+            updater.join();
+        }
+    }
+
+    private void updateAtRate() {
+
+        // Updates are spread over the nodes in turn, each sent at its scheduled time.
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / updateRate;
+        long next = System.nanoTime();
+        for (int i = 0; i < updatesPerNode * nodeCount; i++) {
+            long delay = next - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            cluster.invalidate(i % nodeCount);
+            next += intervalNanos;
+        }
+    }
+
+    private void startCluster(CacheSyncConfig config) throws Exception {
+
+        JMSUtils.applyConfig(config, PropagationFilter.compile(Collections.emptyMap()));
+        cluster = new EmbeddedBrokerCluster(nodeCount);
+        cluster.start();
+    }
+
+    private long expectedEvictions() {
+
+        // Every update is evicted on all the nodes except the one which sent it.
+        return (long) updatesPerNode * nodeCount * (nodeCount - 1);
+    }
+
+    private String formatLatencies() {
+
+        EmbeddedBrokerCluster.LatencyRecorder latencies = cluster.getLatencies();
+        return String.format("Update to remote eviction p50: %d us, p99: %d us, p999: %d us.",
+                TimeUnit.NANOSECONDS.toMicros(latencies.getPercentile(50)),
+                TimeUnit.NANOSECONDS.toMicros(latencies.getPercentile(99)),
+                TimeUnit.NANOSECONDS.toMicros(latencies.getPercentile(99.9)));
+    }
+}
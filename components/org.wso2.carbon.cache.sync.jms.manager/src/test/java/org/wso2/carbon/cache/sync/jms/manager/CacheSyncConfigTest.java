@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.mockito.MockedStatic;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.core.util.IdentityConfigParser;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class CacheSyncConfigTest {
+
+    private final Map<String, String> properties = new HashMap<>();
+    private MockedStatic<IdentityUtil> mockedIdentityUtil;
+    private MockedStatic<IdentityConfigParser> mockedIdentityConfigParser;
+
+    @BeforeMethod
+    public void setUp() {
+
+        properties.clear();
+        mockedIdentityUtil = mockStatic(IdentityUtil.class);
+        mockedIdentityUtil.when(() -> IdentityUtil.getProperty(anyString()))
+                .thenAnswer(invocation -> properties.get(invocation.getArgument(0, String.class)));
+        mockedIdentityConfigParser = mockStatic(IdentityConfigParser.class);
+        mockedIdentityConfigParser.when(IdentityConfigParser::getInstance).thenReturn(mock(IdentityConfigParser.class));
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        properties.clear();
+        JMSUtils.reloadConfig();
+        mockedIdentityConfigParser.close();
+        mockedIdentityUtil.close();
+    }
+
+    @Test
+    public void testDefaultConfig() {
+
+        CacheSyncConfig config = JMSUtils.reloadConfig();
+
+        assertNull(config.getEnabled());
+        assertFalse(config.isHybridMode());
+        assertNull(config.getProducerName());
+        assertEquals(config.getBatchMaxSize(), JMSUtils.DEFAULT_BATCH_MAX_SIZE);
+        assertEquals(config.getDispatchOverflowPolicy(), InvalidationDispatchQueue.OverflowPolicy.CLEAR_ALL);
+        assertEquals(config.getProducerSessionPoolSize(), config.getDispatchSenderThreads());
+        assertEquals(config.getConsumerWorkerThreads(), 1);
+    }
+
+    @Test
+    public void testConfiguredValues() {
+
+        properties.put(JMSUtils.INVALIDATOR_ENABLED_PROPERTY, "true");
+        properties.put(JMSUtils.RUN_IN_HYBRID_MODE_PROPERTY, " true ");
+        properties.put(JMSUtils.PRODUCER_NAME_PROPERTY, "node1");
+        properties.put(JMSUtils.BATCHING_MAX_SIZE_PROPERTY, "50");
+        properties.put(JMSUtils.COALESCING_WINDOW_PROPERTY, "invalid");
+        properties.put(JMSUtils.WIRE_FORMAT_PROPERTY, "BINARY");
+        properties.put(JMSUtils.DISPATCH_OVERFLOW_POLICY_PROPERTY, "spill");
+        properties.put(JMSUtils.DISPATCH_SENDER_THREADS_PROPERTY, "4");
+        properties.put(JMSUtils.DISPATCH_QUEUE_CAPACITY_PROPERTY, "-1");
+
+        CacheSyncConfig config = JMSUtils.reloadConfig();
+
+        assertTrue(config.getEnabled());
+        assertTrue(config.isHybridMode());
+        assertEquals(config.getProducerName(), "node1");
+        assertEquals(config.getBatchMaxSize(), 50);
+        assertEquals(config.getCoalescingWindowMillis(), JMSUtils.DEFAULT_COALESCING_WINDOW_MILLIS);
+        assertTrue(config.isBinaryWireFormat());
+        assertEquals(config.getDispatchOverflowPolicy(), InvalidationDispatchQueue.OverflowPolicy.SPILL);
+        assertEquals(config.getDispatchSenderThreads(), 4);
+        assertEquals(config.getProducerSessionPoolSize(), 4);
+        assertEquals(config.getDispatchQueueCapacity(), JMSUtils.DEFAULT_DISPATCH_QUEUE_CAPACITY);
+    }
+
+    @Test
+    public void testReloadReplacesSnapshot() {
+
+        properties.put(JMSUtils.PRODUCER_NAME_PROPERTY, "node1");
+        CacheSyncConfig config = JMSUtils.reloadConfig();
+        assertSame(JMSUtils.getConfig(), config);
+
+        // The snapshot is not affected by configuration changes until it is reloaded.
+        properties.put(JMSUtils.PRODUCER_NAME_PROPERTY, "node2");
+        assertEquals(JMSUtils.getProducerName(), "node1");
+        JMSUtils.reloadConfig();
+        assertEquals(JMSUtils.getProducerName(), "node2");
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.mockito.MockedStatic;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.caching.impl.CachingConstants;
+import org.wso2.carbon.caching.impl.clustering.ClusterCacheInvalidationRequest;
+import org.wso2.carbon.identity.core.util.IdentityConfigParser;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import javax.cache.CacheEntryInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class CacheSyncMetricsTest {
+
+    private static final String CACHE_MANAGER_NAME = "IdentityApplicationManagementCacheManager";
+
+    private MockedStatic<IdentityUtil> mockedIdentityUtil;
+    private MockedStatic<IdentityConfigParser> mockedIdentityConfigParser;
+
+    @BeforeMethod
+    public void setUp() {
+
+        mockedIdentityUtil = mockStatic(IdentityUtil.class);
+        mockedIdentityUtil.when(() -> IdentityUtil.getProperty(anyString())).thenReturn(null);
+        mockedIdentityConfigParser = mockStatic(IdentityConfigParser.class);
+        mockedIdentityConfigParser.when(IdentityConfigParser::getInstance).thenReturn(mock(IdentityConfigParser.class));
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        JMSUtils.reloadConfig();
+        mockedIdentityConfigParser.close();
+        mockedIdentityUtil.close();
+    }
+
+    @Test
+    public void testLatencyHistogramPercentiles() {
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 99; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(50));
+
+        assertEquals(histogram.getCount(), 100);
+        long p50 = histogram.getPercentileMicros(50);
+        assertTrue(p50 >= 100 && p50 < 200, "Unexpected p50: " + p50);
+        assertEquals(histogram.getPercentileMicros(99), p50);
+        assertEquals(histogram.getPercentileMicros(100), 50000);
+        assertEquals(histogram.getMaxMicros(), 50000);
+        assertEquals(new LatencyHistogram().getPercentileMicros(99), 0);
+    }
+
+    @Test
+    public void testProducerMetrics() throws Exception {
+
+        JMSUtils.applyConfig(new CacheSyncConfig.Builder().enabled(true).build(),
+                PropagationFilter.compile(Collections.singletonMap(CACHE_MANAGER_NAME,
+                        Collections.singletonList("AppInfoCache"))));
+        ProducerSessionPool sessionPool = mock(ProducerSessionPool.class);
+        JMSProducer producer = new JMSProducer(sessionPool);
+        CacheSyncMetrics metrics = CacheSyncMetrics.getInstance();
+        long denied = metrics.getDeniedInvalidations();
+        long invalidTenant = metrics.getInvalidTenantInvalidations();
+        long messagesSent = metrics.getMessagesSent();
+        long invalidationsSent = metrics.getInvalidationsSent();
+
+        producer.send(new CacheEntryInfo(CACHE_MANAGER_NAME, CachingConstants.LOCAL_CACHE_PREFIX + "AppInfoCache",
+                "key", "carbon.super", -1234));
+        producer.send(new CacheEntryInfo(CACHE_MANAGER_NAME, CachingConstants.LOCAL_CACHE_PREFIX + "ClaimCache",
+                "key", null, MultitenantConstants.INVALID_TENANT_ID));
+        producer.sendInvalidationBatch(Collections.nCopies(3, createRequest("key")));
+
+        verify(sessionPool).send(any(ProducerSessionPool.MessageCreator.class));
+        assertEquals(metrics.getDeniedInvalidations(), denied + 1);
+        assertEquals(metrics.getInvalidTenantInvalidations(), invalidTenant + 1);
+        assertEquals(metrics.getMessagesSent(), messagesSent + 1);
+        assertEquals(metrics.getInvalidationsSent(), invalidationsSent + 3);
+    }
+
+    @Test
+    public void testRegisterMBean() throws Exception {
+
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName(CacheSyncMetrics.OBJECT_NAME);
+
+        CacheSyncMetrics.registerMBean();
+        try {
+            assertTrue(mBeanServer.isRegistered(objectName));
+            assertEquals(mBeanServer.getAttribute(objectName, "MessagesSent"),
+                    CacheSyncMetrics.getInstance().getMessagesSent());
+        } finally {
+            CacheSyncMetrics.unregisterMBean();
+        }
+        assertFalse(mBeanServer.isRegistered(objectName));
+    }
+
+    private static ClusterCacheInvalidationRequest createRequest(String cacheKey) {
+
+        return new ClusterCacheInvalidationRequest(new ClusterCacheInvalidationRequest.CacheInfo(CACHE_MANAGER_NAME,
+                CachingConstants.LOCAL_CACHE_PREFIX + "ClaimCache", cacheKey), "carbon.super", -1234);
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.broker.BrokerService;
+import org.wso2.carbon.caching.impl.CachingConstants;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.cache.CacheEntryInfo;
+import javax.jms.ConnectionFactory;
+
+/**
+ * Test harness running cache sync nodes against an embedded in-JVM broker. Each node has its own producer and consumer
+ * with a distinct producer name, and the consumers record the time from sending an invalidation to its eviction on
+ * every other node instead of evicting local caches.
+ */
+class EmbeddedBrokerCluster {
+
+    static final String TOPIC_NAME = "CacheTopic";
+    private static final String BROKER_NAME = "cache-sync-test";
+    private static final String CACHE_MANAGER_NAME = "IdentityApplicationManagementCacheManager";
+    private static final String CACHE_NAME = CachingConstants.LOCAL_CACHE_PREFIX + "AppInfoCache";
+    private static final String TENANT_DOMAIN = "carbon.super";
+    private static final int TENANT_ID = -1234;
+    private static final String KEY_SEPARATOR = ":";
+
+    private final BrokerService broker;
+    private final List<Node> nodes = new ArrayList<>();
+    private final Map<String, Long> sentTimes = new ConcurrentHashMap<>();
+    private final LatencyRecorder latencies = new LatencyRecorder();
+    private final AtomicLong evictionCount = new AtomicLong();
+    private final AtomicLong selfEvictionCount = new AtomicLong();
+    private final AtomicLong sequence = new AtomicLong();
+
+    EmbeddedBrokerCluster(int nodeCount) throws Exception {
+
+        broker = new BrokerService();
+        broker.setBrokerName(BROKER_NAME);
+        broker.setPersistent(false);
+        broker.setUseJmx(false);
+        broker.setUseShutdownHook(false);
+        broker.start();
+        broker.waitUntilStarted();
+
+        ConnectionFactory connectionFactory = new ActiveMQConnectionFactory("vm://" + BROKER_NAME + "?create=false");
+        for (int i = 0; i < nodeCount; i++) {
+            nodes.add(new Node(connectionFactory, "node-" + i));
+        }
+    }
+
+    /**
+     * Subscribes the consumers of all the nodes, and then starts the producers.
+     */
+    void start() {
+
+        for (Node node : nodes) {
+            node.consumer.startService();
+        }
+        for (Node node : nodes) {
+            node.producer.startService();
+        }
+    }
+
+    /**
+     * Invalidates a new cache key on a node.
+     *
+     * @param nodeIndex Index of the node updating the cache.
+     */
+    void invalidate(int nodeIndex) {
+
+        Node node = nodes.get(nodeIndex);
+        invalidate(nodeIndex, node.producerName + KEY_SEPARATOR + sequence.incrementAndGet());
+    }
+
+    /**
+     * Invalidates the given cache key on a node.
+     *
+     * @param nodeIndex Index of the node updating the cache.
+     * @param cacheKey  Cache key to invalidate.
+     */
+    void invalidate(int nodeIndex, String cacheKey) {
+
+        sentTimes.put(cacheKey, System.nanoTime());
+        nodes.get(nodeIndex).producer.send(new CacheEntryInfo(CACHE_MANAGER_NAME, CACHE_NAME, cacheKey, TENANT_DOMAIN,
+                TENANT_ID));
+    }
+
+    /**
+     * Shuts down the producer of a node, while its consumer keeps receiving invalidations.
+     *
+     * @param nodeIndex Index of the node.
+     */
+    void stopProducer(int nodeIndex) {
+
+        nodes.get(nodeIndex).producer.shutdownExecutorService();
+    }
+
+    /**
+     * Waits until the given number of remote evictions are recorded.
+     *
+     * @param expected      Expected number of remote evictions.
+     * @param timeoutMillis Maximum time to wait.
+     * @return True if the expected evictions are recorded within the timeout.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    boolean awaitEvictions(long expected, long timeoutMillis) throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (evictionCount.get() < expected) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+        return true;
+    }
+
+    /**
+     * Discards the recorded evictions and latencies, e.g. after a warm-up round.
+     */
+    void resetRecords() {
+
+        sentTimes.clear();
+        latencies.clear();
+        evictionCount.set(0);
+        selfEvictionCount.set(0);
+    }
+
+    long getEvictionCount() {
+
+        return evictionCount.get();
+    }
+
+    /**
+     * Number of invalidations evicted on the node which sent them.
+     *
+     * @return Self eviction count.
+     */
+    long getSelfEvictionCount() {
+
+        return selfEvictionCount.get();
+    }
+
+    LatencyRecorder getLatencies() {
+
+        return latencies;
+    }
+
+    void stop() throws Exception {
+
+        for (Node node : nodes) {
+            node.producer.shutdownExecutorService();
+            node.consumer.closeResources();
+        }
+        broker.stop();
+        broker.waitUntilStopped();
+    }
+
+    private void recordEvictions(String producerName, List<InvalidationEntry> entries) {
+
+        long evictedTime = System.nanoTime();
+        for (InvalidationEntry entry : entries) {
+            String cacheKey;
+            try {
+                cacheKey = (String) entry.getCacheKey();
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to read the cache key of a received invalidation.", e);
+            }
+            if (cacheKey.startsWith(producerName + KEY_SEPARATOR)) {
+                selfEvictionCount.incrementAndGet();
+                continue;
+            }
+            Long sentTime = sentTimes.get(cacheKey);
+            if (sentTime != null) {
+                latencies.record(evictedTime - sentTime);
+            }
+            evictionCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * A simulated node, with its own producer and consumer.
+     */
+    private class Node {
+
+        private final String producerName;
+        private final JMSProducer producer;
+        private final JMSConsumer consumer;
+
+        private Node(ConnectionFactory connectionFactory, String producerName) {
+
+            this.producerName = producerName;
+            this.producer = new JMSProducer(connectionFactory, producerName);
+            this.consumer = new JMSConsumer(connectionFactory, producerName) {
+
+                @Override
+                void invalidateCache(List<InvalidationEntry> entries) {
+
+                    recordEvictions(producerName, entries);
+                }
+            };
+        }
+    }
+
+    /**
+     * Records latencies and reports their percentiles.
+     */
+    static class LatencyRecorder {
+
+        private long[] values = new long[1024];
+        private int count;
+
+        synchronized void record(long latencyNanos) {
+
+            if (count == values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            values[count++] = latencyNanos;
+        }
+
+        synchronized void clear() {
+
+            count = 0;
+        }
+
+        synchronized int getCount() {
+
+            return count;
+        }
+
+        /**
+         * Returns a percentile of the recorded latencies.
+         *
+         * @param percentile Percentile, between 0 and 100.
+         * @return Latency in nanoseconds, or 0 if no latency is recorded.
+         */
+        synchronized long getPercentile(double percentile) {
+
+            if (count == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(values, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100 * count) - 1;
+            return sorted[Math.max(0, Math.min(index, count - 1))];
+        }
+    }
+}
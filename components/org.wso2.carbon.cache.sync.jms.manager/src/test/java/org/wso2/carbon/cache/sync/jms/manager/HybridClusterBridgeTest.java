@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.testng.annotations.Test;
+import org.wso2.carbon.caching.impl.clustering.ClusterCacheInvalidationRequest;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.cache.CacheEntryInfo;
+import javax.cache.CacheInvalidationRequestSender;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class HybridClusterBridgeTest {
+
+    private static final String CACHE_MANAGER_NAME = "IdentityApplicationManagementCacheManager";
+    private static final String CACHE_NAME = "$__local__$.AppInfoCache";
+
+    @Test
+    public void testDistinctInvalidationsAreForwarded() {
+
+        CacheInvalidationRequestSender sender = mock(CacheInvalidationRequestSender.class);
+        HybridClusterBridge bridge = new HybridClusterBridge(sender);
+        bridge.forwardToLocalCluster(Arrays.asList(cacheEntryInfo("key1"), cacheEntryInfo("key2"),
+                cacheEntryInfo("key1")));
+
+        verify(sender, times(2)).send(any(CacheEntryInfo.class));
+    }
+
+    @Test
+    public void testEchoesPropagatedOnOtherThreadsAreSuppressed() throws Exception {
+
+        CacheInvalidationRequestSender sender = mock(CacheInvalidationRequestSender.class);
+        HybridClusterBridge bridge = new HybridClusterBridge(sender);
+        bridge.forwardToLocalCluster(Collections.singletonList(cacheEntryInfo("key1")));
+
+        // The local cluster members propagate the forwarded invalidation on their own cluster threads.
+        ExecutorService clusterThread = Executors.newSingleThreadExecutor();
+        try {
+            assertTrue(clusterThread.submit(() -> bridge.suppressEcho(request("key1"))).get(10, TimeUnit.SECONDS));
+            assertTrue(clusterThread.submit(() -> bridge.suppressEcho(request("key1"))).get(10, TimeUnit.SECONDS));
+            // Invalidations of other keys are propagated.
+            assertFalse(clusterThread.submit(() -> bridge.suppressEcho(request("key2"))).get(10, TimeUnit.SECONDS));
+        } finally {
+            clusterThread.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testEchoesAreSuppressedWithinWindow() throws Exception {
+
+        JMSUtils.applyConfig(new CacheSyncConfig.Builder().hybridMode(true).echoSuppressionWindowMillis(50).build(),
+                PropagationFilter.compile(Collections.emptyMap()));
+        try {
+            CacheInvalidationRequestSender sender = mock(CacheInvalidationRequestSender.class);
+            HybridClusterBridge bridge = new HybridClusterBridge(sender);
+            bridge.forwardToLocalCluster(Collections.singletonList(cacheEntryInfo("key1")));
+            assertTrue(bridge.suppressEcho(request("key1")));
+
+            // A local change of the forwarded key made after the window is propagated.
+            Thread.sleep(100);
+            assertFalse(bridge.suppressEcho(request("key1")));
+            assertEquals(bridge.getForwardedSize(), 0);
+
+            // Expired keys are dropped as further invalidations are forwarded.
+            bridge.forwardToLocalCluster(Collections.singletonList(cacheEntryInfo("key2")));
+            Thread.sleep(100);
+            bridge.forwardToLocalCluster(Collections.singletonList(cacheEntryInfo("key3")));
+            assertEquals(bridge.getForwardedSize(), 1);
+        } finally {
+            JMSUtils.reloadConfig();
+        }
+    }
+
+    private static CacheEntryInfo cacheEntryInfo(String cacheKey) {
+
+        return new CacheEntryInfo(CACHE_MANAGER_NAME, CACHE_NAME, cacheKey, "example.com", 1);
+    }
+
+    private static ClusterCacheInvalidationRequest request(String cacheKey) {
+
+        return new ClusterCacheInvalidationRequest(new ClusterCacheInvalidationRequest.CacheInfo(CACHE_MANAGER_NAME,
+                CACHE_NAME, cacheKey), "example.com", 1);
+    }
+}
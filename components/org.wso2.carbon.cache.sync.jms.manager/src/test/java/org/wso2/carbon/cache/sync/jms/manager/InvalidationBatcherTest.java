@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.testng.annotations.Test;
+import org.wso2.carbon.caching.impl.clustering.ClusterCacheInvalidationRequest;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+public class InvalidationBatcherTest {
+
+    @Test
+    public void testFlushOnBatchSize() {
+
+        BlockingQueue<List<ClusterCacheInvalidationRequest>> frames = new LinkedBlockingQueue<>();
+        InvalidationBatcher batcher = new InvalidationBatcher(3, 60000, frames::add);
+        try {
+            batcher.add(createRequest("key1"));
+            batcher.add(createRequest("key2"));
+            assertTrue(frames.isEmpty());
+
+            batcher.add(createRequest("key3"));
+            assertEquals(frames.size(), 1);
+            List<ClusterCacheInvalidationRequest> frame = frames.poll();
+            assertEquals(frame.size(), 3);
+            assertEquals(frame.get(0).getCacheInfo().getCacheKey(), "key1");
+            assertEquals(frame.get(2).getCacheInfo().getCacheKey(), "key3");
+        } finally {
+            batcher.shutdown();
+        }
+    }
+
+    @Test
+    public void testFlushOnInterval() throws InterruptedException {
+
+        BlockingQueue<List<ClusterCacheInvalidationRequest>> frames = new LinkedBlockingQueue<>();
+        InvalidationBatcher batcher = new InvalidationBatcher(100, 10, frames::add);
+        try {
+            batcher.add(createRequest("key1"));
+            batcher.add(createRequest("key2"));
+
+            List<ClusterCacheInvalidationRequest> frame = frames.poll(5, TimeUnit.SECONDS);
+            assertNotNull(frame);
+            assertEquals(frame.size(), 2);
+        } finally {
+            batcher.shutdown();
+        }
+    }
+
+    @Test
+    public void testShutdownFlushesPendingRequests() {
+
+        BlockingQueue<List<ClusterCacheInvalidationRequest>> frames = new LinkedBlockingQueue<>();
+        InvalidationBatcher batcher = new InvalidationBatcher(100, 60000, frames::add);
+        batcher.add(createRequest("key1"));
+        batcher.shutdown();
+
+        assertEquals(frames.size(), 1);
+        assertEquals(frames.poll().size(), 1);
+    }
+
+    @Test
+    public void testAdaptiveBatchingSendsQuietTrafficImmediately() {
+
+        BlockingQueue<List<ClusterCacheInvalidationRequest>> frames = new LinkedBlockingQueue<>();
+        InvalidationBatcher batcher = new InvalidationBatcher(new AdaptiveBatchingPolicy(1, 60000, 100), frames::add);
+        try {
+            batcher.add(createRequest("key1"));
+            assertEquals(frames.size(), 1);
+            assertEquals(frames.poll().size(), 1);
+        } finally {
+            batcher.shutdown();
+        }
+    }
+
+    private ClusterCacheInvalidationRequest createRequest(String key) {
+
+        return new ClusterCacheInvalidationRequest(new ClusterCacheInvalidationRequest.CacheInfo("myCacheManager",
+                "$__local__$.myCache", key), "example.com", 1);
+    }
+}
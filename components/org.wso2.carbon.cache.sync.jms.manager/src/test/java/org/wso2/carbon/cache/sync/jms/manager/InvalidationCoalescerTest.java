@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.caching.impl.clustering.ClusterCacheInvalidationRequest;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class InvalidationCoalescerTest {
+
+    private List<ClusterCacheInvalidationRequest> dispatched;
+    private InvalidationCoalescer coalescer;
+
+    @BeforeMethod
+    public void setUp() {
+
+        dispatched = new CopyOnWriteArrayList<>();
+        coalescer = new InvalidationCoalescer(60000, dispatched::add);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        coalescer.shutdown();
+    }
+
+    @Test
+    public void testDuplicatesAreCollapsed() {
+
+        coalescer.add(createRequest(1, "myCache", "key1"));
+        coalescer.add(createRequest(1, "myCache", "key1"));
+        coalescer.add(createRequest(1, "myCache", "key2"));
+        // Same key of a different tenant is not a duplicate.
+        coalescer.add(createRequest(2, "myCache", "key1"));
+        assertTrue(dispatched.isEmpty());
+
+        coalescer.flush();
+        assertEquals(dispatched.size(), 3);
+        assertEquals(coalescer.getReceivedCount(), 4);
+        assertEquals(coalescer.getSuppressedDuplicateCount(), 1);
+        assertEquals(coalescer.getSuppressedByClearAllCount(), 0);
+    }
+
+    @Test
+    public void testClearAllAbsorbsPendingInvalidations() {
+
+        coalescer.add(createRequest(1, "myCache", "key1"));
+        coalescer.add(createRequest(1, "myCache", "key2"));
+        coalescer.add(createRequest(1, "otherCache", "key1"));
+        coalescer.add(createRequest(1, "myCache", JMSUtils.CLEAR_ALL_PREFIX));
+        coalescer.add(createRequest(1, "myCache", "key3"));
+
+        coalescer.flush();
+        assertEquals(dispatched.size(), 2);
+        assertEquals(dispatched.get(0).getCacheInfo().getCacheKey(), JMSUtils.CLEAR_ALL_PREFIX);
+        assertEquals(dispatched.get(1).getCacheInfo().getCacheName(), "$__local__$.otherCache");
+        assertEquals(coalescer.getSuppressedByClearAllCount(), 3);
+    }
+
+    @Test
+    public void testInvalidationsAfterFlushAreDispatched() {
+
+        coalescer.add(createRequest(1, "myCache", "key1"));
+        coalescer.flush();
+        coalescer.add(createRequest(1, "myCache", "key1"));
+        coalescer.flush();
+
+        assertEquals(dispatched.size(), 2);
+        assertEquals(coalescer.getSuppressedDuplicateCount(), 0);
+    }
+
+    private ClusterCacheInvalidationRequest createRequest(int tenantId, String cacheName, String key) {
+
+        return new ClusterCacheInvalidationRequest(new ClusterCacheInvalidationRequest.CacheInfo("myCacheManager",
+                "$__local__$." + cacheName, key), "example.com", tenantId);
+    }
+}
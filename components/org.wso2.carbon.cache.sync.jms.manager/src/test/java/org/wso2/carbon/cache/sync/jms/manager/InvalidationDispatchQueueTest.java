@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.caching.impl.clustering.ClusterCacheInvalidationRequest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+public class InvalidationDispatchQueueTest {
+
+    private BlockingQueue<List<ClusterCacheInvalidationRequest>> sentFrames;
+    private CountDownLatch senderStarted;
+    private CountDownLatch senderReleased;
+
+    @BeforeMethod
+    public void setUp() {
+
+        sentFrames = new LinkedBlockingQueue<>();
+        senderStarted = new CountDownLatch(1);
+        senderReleased = new CountDownLatch(1);
+    }
+
+    @Test
+    public void testCollapseIntoClearAllOnOverflow() throws InterruptedException {
+
+        InvalidationDispatchQueue queue = createQueue(InvalidationDispatchQueue.OverflowPolicy.CLEAR_ALL, null);
+        try {
+            blockSender(queue);
+            assertTrue(queue.enqueue(createFrame("key1")));
+            assertTrue(queue.enqueue(createFrame("key2")));
+            assertTrue(queue.enqueue(createFrame("key3")));
+            assertEquals(queue.getQueueDepth(), 1);
+            assertEquals(queue.getCollapsedCount(), 2);
+
+            senderReleased.countDown();
+            assertEquals(getSentKeys(2), Arrays.asList("key0", JMSUtils.CLEAR_ALL_PREFIX));
+        } finally {
+            queue.shutdown(1000);
+        }
+    }
+
+    @Test
+    public void testDropOldestOnOverflow() throws InterruptedException {
+
+        InvalidationDispatchQueue queue = createQueue(InvalidationDispatchQueue.OverflowPolicy.DROP_OLDEST, null);
+        try {
+            blockSender(queue);
+            assertTrue(queue.enqueue(createFrame("key1")));
+            assertTrue(queue.enqueue(createFrame("key2")));
+            assertTrue(queue.enqueue(createFrame("key3")));
+            assertEquals(queue.getQueueDepth(), 2);
+            assertEquals(queue.getDroppedCount(), 1);
+
+            senderReleased.countDown();
+            assertEquals(getSentKeys(3), Arrays.asList("key0", "key2", "key3"));
+        } finally {
+            queue.shutdown(1000);
+        }
+    }
+
+    @Test
+    public void testBlockRejectsAfterTimeout() throws InterruptedException {
+
+        InvalidationDispatchQueue queue = createQueue(InvalidationDispatchQueue.OverflowPolicy.BLOCK, null);
+        try {
+            blockSender(queue);
+            assertTrue(queue.enqueue(createFrame("key1")));
+            assertTrue(queue.enqueue(createFrame("key2")));
+            assertFalse(queue.enqueue(createFrame("key3")));
+            assertEquals(queue.getRejectedCount(), 1);
+            assertTrue(queue.getMaxEnqueueLatencyNanos() >= TimeUnit.MILLISECONDS.toNanos(50));
+        } finally {
+            senderReleased.countDown();
+            queue.shutdown(1000);
+        }
+    }
+
+    @Test
+    public void testAverageEnqueueLatencyPerCall() throws InterruptedException {
+
+        InvalidationDispatchQueue queue = createQueue(InvalidationDispatchQueue.OverflowPolicy.BLOCK, null);
+        try {
+            blockSender(queue);
+            assertTrue(queue.enqueue(createFrame("key1")));
+            assertTrue(queue.enqueue(createFrame("key2")));
+            List<ClusterCacheInvalidationRequest> frame = new ArrayList<>(createFrame("key3"));
+            frame.addAll(createFrame("key4"));
+            frame.addAll(createFrame("key5"));
+            assertFalse(queue.enqueue(frame));
+
+            // Four calls enqueued six invalidations, and the average is taken over the calls.
+            assertEquals(queue.getEnqueuedCount() + queue.getRejectedCount(), 6);
+            assertTrue(queue.getAverageEnqueueLatencyNanos() >= queue.getMaxEnqueueLatencyNanos() / 4);
+        } finally {
+            senderReleased.countDown();
+            queue.shutdown(1000);
+        }
+    }
+
+    @Test
+    public void testSpillToDisk() throws InterruptedException, IOException {
+
+        Path spoolDirectory = Files.createTempDirectory("cache-sync-spool");
+        InvalidationDispatchQueue queue = createQueue(InvalidationDispatchQueue.OverflowPolicy.SPILL,
+                new InvalidationSpool(spoolDirectory));
+        try {
+            blockSender(queue);
+            assertTrue(queue.enqueue(createFrame("key1")));
+            assertTrue(queue.enqueue(createFrame("key2")));
+            assertTrue(queue.enqueue(createFrame("key3")));
+            assertTrue(queue.enqueue(createFrame("key4")));
+            assertEquals(queue.getSpilledCount(), 2);
+            assertEquals(queue.getQueueDepth(), 4);
+
+            senderReleased.countDown();
+            assertEquals(getSentKeys(5), Arrays.asList("key0", "key1", "key2", "key3", "key4"));
+        } finally {
+            queue.shutdown(1000);
+            Files.deleteIfExists(spoolDirectory);
+        }
+    }
+
+    @Test
+    public void testSpillingFrameIsNotOvertaken() throws Exception {
+
+        Path spoolDirectory = Files.createTempDirectory("cache-sync-spool");
+        BlockingSpool spool = new BlockingSpool(spoolDirectory);
+        InvalidationDispatchQueue queue = createQueue(InvalidationDispatchQueue.OverflowPolicy.SPILL, spool);
+        try {
+            blockSender(queue);
+            assertTrue(queue.enqueue(createFrame("key1")));
+            assertTrue(queue.enqueue(createFrame("key2")));
+            Thread spilling = new Thread(() -> queue.enqueue(createFrame("key3")));
+            spilling.start();
+            assertTrue(spool.appendStarted.await(5, TimeUnit.SECONDS));
+
+            // The queue is drained while the overflowing frame is still being written to the spool.
+            senderReleased.countDown();
+            assertEquals(getSentKeys(3), Arrays.asList("key0", "key1", "key2"));
+            Thread later = new Thread(() -> queue.enqueue(createFrame("key4")));
+            later.start();
+            later.join(200);
+
+            spool.appendReleased.countDown();
+            spilling.join(5000);
+            later.join(5000);
+            assertEquals(getSentKeys(2), Arrays.asList("key3", "key4"));
+            assertEquals(queue.getSpilledCount(), 2);
+        } finally {
+            queue.shutdown(1000);
+            Files.deleteIfExists(spoolDirectory);
+        }
+    }
+
+    private InvalidationDispatchQueue createQueue(InvalidationDispatchQueue.OverflowPolicy overflowPolicy,
+                                                  InvalidationSpool spool) {
+
+        Consumer<List<ClusterCacheInvalidationRequest>> sender = frame -> {
+            senderStarted.countDown();
+            try {
+                senderReleased.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            sentFrames.add(frame);
+        };
+        return new InvalidationDispatchQueue(2, overflowPolicy, 50, 1, spool, sender);
+    }
+
+    private void blockSender(InvalidationDispatchQueue queue) throws InterruptedException {
+
+        // The first frame is taken by the sender thread, which then waits until the sender is released.
+        assertTrue(queue.enqueue(createFrame("key0")));
+        assertTrue(senderStarted.await(5, TimeUnit.SECONDS));
+    }
+
+    private List<Object> getSentKeys(int frameCount) throws InterruptedException {
+
+        List<Object> keys = new ArrayList<>();
+        for (int i = 0; i < frameCount; i++) {
+            List<ClusterCacheInvalidationRequest> frame = sentFrames.poll(5, TimeUnit.SECONDS);
+            assertNotNull(frame);
+            for (ClusterCacheInvalidationRequest request : frame) {
+                keys.add(request.getCacheInfo().getCacheKey());
+            }
+        }
+        return keys;
+    }
+
+    private List<ClusterCacheInvalidationRequest> createFrame(String key) {
+
+        return Collections.singletonList(new ClusterCacheInvalidationRequest(
+                new ClusterCacheInvalidationRequest.CacheInfo("myCacheManager", "$__local__$.myCache", key),
+                "example.com", 1));
+    }
+
+    /**
+     * Spool holding up its first append until it is released.
+     */
+    private static class BlockingSpool extends InvalidationSpool {
+
+        private final CountDownLatch appendStarted = new CountDownLatch(1);
+        private final CountDownLatch appendReleased = new CountDownLatch(1);
+
+        private BlockingSpool(Path directory) throws IOException {
+
+            super(directory);
+        }
+
+        @Override
+        public void append(List<ClusterCacheInvalidationRequest> frame) throws IOException {
+
+            appendStarted.countDown();
+            try {
+                appendReleased.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            super.append(frame);
+        }
+    }
+}
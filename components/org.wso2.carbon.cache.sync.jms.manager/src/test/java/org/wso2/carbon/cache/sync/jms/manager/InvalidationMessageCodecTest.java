@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.testng.annotations.Test;
+import org.wso2.carbon.caching.impl.clustering.ClusterCacheInvalidationRequest;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class InvalidationMessageCodecTest {
+
+    @Test
+    public void testRoundTripOfCompactKeys() throws IOException {
+
+        List<Object> keys = Arrays.asList("myKey", 42L, 7, new ArrayList<>(Arrays.asList("user", 1L, 2)),
+                JMSUtils.CLEAR_ALL_PREFIX, null);
+        List<ClusterCacheInvalidationRequest> requests = new ArrayList<>();
+        for (Object key : keys) {
+            requests.add(createRequest(-1234, "carbon.super", "$__local__$.myCache", key));
+        }
+
+        byte[] frame = InvalidationMessageCodec.encode(requests);
+        assertTrue(InvalidationMessageCodec.isBinaryFrame(frame));
+
+        List<InvalidationEntry> entries = InvalidationMessageCodec.decode(frame);
+        assertEquals(entries.size(), keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            InvalidationEntry entry = entries.get(i);
+            assertEquals(entry.getTenantId(), -1234);
+            assertEquals(entry.getTenantDomain(), "carbon.super");
+            assertEquals(entry.getCacheManagerName(), "myCacheManager");
+            assertEquals(entry.getCacheName(), "$__local__$.myCache");
+            assertEquals(entry.getCacheKey(), keys.get(i));
+        }
+        // Names of a frame are decoded into a single instance.
+        assertSame(entries.get(0).getCacheName(), entries.get(1).getCacheName());
+    }
+
+    @Test
+    public void testRoundTripOfSerializedKey() throws IOException {
+
+        CompositeKey key = new CompositeKey("client", 10);
+        List<InvalidationEntry> entries = InvalidationMessageCodec.decode(InvalidationMessageCodec.encode(
+                Collections.singletonList(createRequest(1, null, "$__local__$.myCache", key))));
+
+        assertEquals(entries.size(), 1);
+        assertNull(entries.get(0).getTenantDomain());
+        assertEquals(entries.get(0).getCacheKey(), key);
+    }
+
+    @Test
+    public void testNonSerializableKeyIsSkipped() throws IOException {
+
+        List<ClusterCacheInvalidationRequest> requests = Arrays.asList(
+                createRequest(1, "example.com", "$__local__$.myCache", new Object()),
+                createRequest(1, "example.com", "$__local__$.myCache", "myKey"));
+
+        List<InvalidationEntry> entries = InvalidationMessageCodec.decode(InvalidationMessageCodec.encode(requests));
+        assertEquals(entries.size(), 1);
+        assertEquals(entries.get(0).getCacheKey(), "myKey");
+    }
+
+    @Test
+    public void testRoundTripOfBulkInvalidations() throws IOException {
+
+        CompositeKey compositeKey = new CompositeKey("client", 10);
+        List<ClusterCacheInvalidationRequest> requests = Arrays.asList(
+                createRequest(1, "example.com", "$__local__$.myCache", "myKey"),
+                BulkInvalidationRequest.forCacheKeys("example.com", 1, "myCacheManager", "$__local__$.myCache",
+                        Arrays.asList("key1", 2L, compositeKey, new Object())),
+                BulkInvalidationRequest.forCacheManager("example.com", 1, "myCacheManager"),
+                BulkInvalidationRequest.forTenant("example.com", 1));
+
+        byte[] frame = InvalidationMessageCodec.encode(requests);
+        assertEquals(frame[1], InvalidationMessageCodec.BULK_VERSION);
+        List<InvalidationEntry> entries = InvalidationMessageCodec.decode(frame);
+        assertEquals(entries.size(), 4);
+
+        assertEquals(entries.get(0).getScope(), InvalidationScope.KEY);
+        assertEquals(entries.get(0).getCacheKey(), "myKey");
+        assertEquals(entries.get(1).getScope(), InvalidationScope.CACHE_KEYS);
+        assertEquals(entries.get(1).getCacheName(), "$__local__$.myCache");
+        // Keys which cannot be serialized are left out of the frame.
+        assertEquals(entries.get(1).getCacheKey(), Arrays.asList("key1", 2L, compositeKey));
+        assertEquals(entries.get(2).getScope(), InvalidationScope.CACHE_MANAGER);
+        assertEquals(entries.get(2).getCacheManagerName(), "myCacheManager");
+        assertNull(entries.get(2).getCacheName());
+        assertEquals(entries.get(3).getScope(), InvalidationScope.TENANT);
+        assertEquals(entries.get(3).getTenantDomain(), "example.com");
+        assertNull(entries.get(3).getCacheManagerName());
+        assertNull(entries.get(3).getCacheKey());
+    }
+
+    @Test
+    public void testRoundTripOfKeyFingerprints() throws IOException {
+
+        CompositeKey compositeKey = new CompositeKey("client", 10);
+        List<ClusterCacheInvalidationRequest> requests = Arrays.asList(
+                createRequest(1, "example.com", "$__local__$.myCache", compositeKey),
+                createRequest(1, "example.com", "$__local__$.myCache", "myKey"),
+                createRequest(1, "example.com", "$__local__$.myCache", JMSUtils.CLEAR_ALL_PREFIX),
+                createRequest(1, "example.com", "$__local__$.myCache", new Object()));
+
+        byte[] frame = InvalidationMessageCodec.encode(requests, true);
+        assertEquals(frame[1], InvalidationMessageCodec.BULK_VERSION);
+        List<InvalidationEntry> entries = InvalidationMessageCodec.decode(frame);
+        // Keys which cannot be fingerprinted are left out of the frame.
+        assertEquals(entries.size(), 3);
+
+        assertEquals(entries.get(0).getScope(), InvalidationScope.KEY_FINGERPRINT);
+        assertEquals(entries.get(0).getKeyFingerprint(), KeyFingerprint.of(new CompositeKey("client", 10)));
+        assertNull(entries.get(0).getCacheKey());
+        assertEquals(entries.get(1).getScope(), InvalidationScope.KEY_FINGERPRINT);
+        assertEquals(entries.get(1).getKeyFingerprint(), KeyFingerprint.of("myKey"));
+        // Clear-all invalidations carry their key.
+        assertEquals(entries.get(2).getScope(), InvalidationScope.KEY);
+        assertEquals(entries.get(2).getCacheKey(), JMSUtils.CLEAR_ALL_PREFIX);
+    }
+
+    @Test
+    public void testKeyFingerprintsOfKeyTypes() throws IOException {
+
+        assertEquals(KeyFingerprint.of(Arrays.asList("user", 1L)), KeyFingerprint.of(Arrays.asList("user", 1L)));
+        assertFalse(KeyFingerprint.of(1L) == KeyFingerprint.of(1));
+        assertFalse(KeyFingerprint.of("ab") == KeyFingerprint.of(Arrays.asList("a", "b")));
+        assertFalse(KeyFingerprint.of(new CompositeKey("client", 10)) ==
+                KeyFingerprint.of(new CompositeKey("client", 11)));
+    }
+
+    @Test
+    public void testFrameWithoutBulkInvalidationsKeepsVersion() {
+
+        byte[] frame = InvalidationMessageCodec.encode(Collections.singletonList(
+                createRequest(1, "example.com", "$__local__$.myCache", "myKey")));
+        assertEquals(frame[1], InvalidationMessageCodec.VERSION);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testTruncatedFrame() throws IOException {
+
+        byte[] frame = InvalidationMessageCodec.encode(Collections.singletonList(
+                createRequest(1, "example.com", "$__local__$.myCache", "myKey")));
+        InvalidationMessageCodec.decode(Arrays.copyOf(frame, frame.length - 2));
+    }
+
+    @Test
+    public void testListKeysKeepTheirType() throws IOException {
+
+        // Lists other than ArrayLists are serialized, hence they are read back with their own type.
+        List<Object> keys = Arrays.asList(new ArrayList<>(Arrays.asList("user", 1L)), new KeyPair("user", "1"));
+        List<ClusterCacheInvalidationRequest> requests = new ArrayList<>();
+        for (Object key : keys) {
+            requests.add(createRequest(1, "example.com", "$__local__$.myCache", key));
+        }
+
+        List<InvalidationEntry> entries = InvalidationMessageCodec.decode(InvalidationMessageCodec.encode(requests));
+        assertEquals(entries.size(), keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(entries.get(i).getCacheKey(), keys.get(i));
+            assertSame(entries.get(i).getCacheKey().getClass(), keys.get(i).getClass());
+        }
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testNestedKeyListIsRejected() throws IOException {
+
+        byte[] frame = InvalidationMessageCodec.encode(Collections.singletonList(
+                createRequest(1, "example.com", "$__local__$.myCache", null)));
+        // The null key is replaced with a list holding a list, which is not written by the encoder.
+        byte[] nestedKeyFrame = Arrays.copyOf(frame, frame.length + 4);
+        System.arraycopy(new byte[]{4, 1, 4, 1, 0}, 0, nestedKeyFrame, frame.length - 1, 5);
+        InvalidationMessageCodec.decode(nestedKeyFrame);
+    }
+
+    @Test
+    public void testEncodeIntoBuffer() {
+
+        List<ClusterCacheInvalidationRequest> requests = Arrays.asList(
+                createRequest(1, "example.com", "$__local__$.myCache", "key1"),
+                createRequest(1, "example.com", "$__local__$.myCache", 42L));
+        byte[] frame = InvalidationMessageCodec.encode(requests);
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(frame.length + 8);
+        buffer.position(4);
+        assertEquals(InvalidationMessageCodec.encode(requests, buffer), frame.length);
+        byte[] written = new byte[frame.length];
+        buffer.position(4);
+        buffer.get(written);
+        assertEquals(written, frame);
+    }
+
+    @Test(expectedExceptions = BufferOverflowException.class)
+    public void testEncodeIntoTooSmallBuffer() {
+
+        InvalidationMessageCodec.encode(Collections.singletonList(
+                createRequest(1, "example.com", "$__local__$.myCache", "key1")), ByteBuffer.allocate(16));
+    }
+
+    @Test
+    public void testJsonPayloadIsNotBinaryFrame() {
+
+        assertFalse(InvalidationMessageCodec.isBinaryFrame("{\"tenantId\":1}".getBytes()));
+    }
+
+    private ClusterCacheInvalidationRequest createRequest(int tenantId, String tenantDomain, String cacheName,
+                                                          Object key) {
+
+        return new ClusterCacheInvalidationRequest(new ClusterCacheInvalidationRequest.CacheInfo("myCacheManager",
+                cacheName, key), tenantDomain, tenantId);
+    }
+
+    private static class CompositeKey implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+        private final String name;
+        private final int id;
+
+        CompositeKey(String name, int id) {
+
+            this.name = name;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (!(o instanceof CompositeKey)) {
+                return false;
+            }
+            CompositeKey that = (CompositeKey) o;
+            return id == that.id && Objects.equals(name, that.name);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return Objects.hash(name, id);
+        }
+    }
+
+    private static class KeyPair extends AbstractList<String> implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+        private final String first;
+        private final String second;
+
+        KeyPair(String first, String second) {
+
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public String get(int index) {
+
+            return index == 0 ? first : second;
+        }
+
+        @Override
+        public int size() {
+
+            return 2;
+        }
+    }
+}
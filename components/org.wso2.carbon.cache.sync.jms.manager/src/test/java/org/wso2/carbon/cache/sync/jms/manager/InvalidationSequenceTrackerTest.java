@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class InvalidationSequenceTrackerTest {
+
+    private static final String CACHE_MANAGER_NAME = "IdentityApplicationManagementCacheManager";
+
+    @Test
+    public void testGapDetection() {
+
+        InvalidationSequenceTracker tracker = new InvalidationSequenceTracker();
+        // The first message of a stream is accepted as it is.
+        assertFalse(tracker.record("node1@topic", 5));
+        assertFalse(tracker.record("node1@topic", 6));
+        assertFalse(tracker.record("node2@topic", 1));
+        assertTrue(tracker.record("node1@topic", 8));
+        // Duplicates and late messages do not move the stream back.
+        assertFalse(tracker.record("node1@topic", 7));
+        assertFalse(tracker.record("node1@topic", 9));
+
+        tracker.reset();
+        assertEquals(tracker.getStreamCount(), 0);
+        assertFalse(tracker.record("node1@topic", 20));
+    }
+
+    @Test
+    public void testStreamsAreDiscardedOnceFull() {
+
+        InvalidationSequenceTracker tracker = new InvalidationSequenceTracker(2, 10);
+        tracker.record("node1@topic", 1);
+        tracker.record("node2@topic", 1);
+        tracker.record("node3@topic", 1);
+        assertEquals(tracker.getStreamCount(), 1);
+        assertFalse(tracker.record("node1@topic", 3));
+    }
+
+    @Test
+    public void testRecoveryClearsRecentlySeenLocalCaches() throws IOException {
+
+        InvalidationSequenceTracker tracker = new InvalidationSequenceTracker(10, 2);
+        tracker.recordCaches(Arrays.asList(
+                new InvalidationEntry(1, "example.com", CACHE_MANAGER_NAME, "$__local__$.AppInfoCache", "key1"),
+                new InvalidationEntry(1, "example.com", CACHE_MANAGER_NAME, "AppInfoCache", "key1"),
+                new InvalidationEntry(InvalidationScope.TENANT, 2, "wso2.com", null, null, () -> null),
+                new InvalidationEntry(2, "wso2.com", CACHE_MANAGER_NAME, "$__local__$.SessionCache", 10L)));
+        tracker.recordCaches(Arrays.asList(
+                new InvalidationEntry(1, "example.com", CACHE_MANAGER_NAME, "$__local__$.AppInfoCache", "key2"),
+                new InvalidationEntry(3, "abc.com", CACHE_MANAGER_NAME, "$__local__$.ClaimCache", "key1")));
+
+        // Only the most recently seen local caches are kept.
+        List<InvalidationEntry> entries = tracker.getRecoveryEntries();
+        assertEquals(entries.size(), 2);
+        assertEquals(entries.get(0).getTenantDomain(), "example.com");
+        assertEquals(entries.get(0).getCacheName(), "$__local__$.AppInfoCache");
+        assertEquals(entries.get(0).getCacheKey(), JMSUtils.CLEAR_ALL_PREFIX);
+        assertEquals(entries.get(1).getTenantId(), 3);
+        assertEquals(entries.get(1).getCacheName(), "$__local__$.ClaimCache");
+    }
+}
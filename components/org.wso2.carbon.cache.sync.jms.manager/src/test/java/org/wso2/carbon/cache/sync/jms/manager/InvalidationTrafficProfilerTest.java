@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.testng.annotations.Test;
+import org.wso2.carbon.caching.impl.CachingConstants;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class InvalidationTrafficProfilerTest {
+
+    private static final String CACHE_MANAGER_NAME = "IdentityApplicationManagementCacheManager";
+    private static final String CACHE_NAME = CachingConstants.LOCAL_CACHE_PREFIX + "AppInfoCache";
+
+    @Test
+    public void testSpaceSavingCounterKeepsHeavyHitters() {
+
+        SpaceSavingCounter counter = new SpaceSavingCounter(4);
+        for (int i = 0; i < 1000; i++) {
+            counter.add("heavy-1", 1);
+            if (i % 2 == 0) {
+                counter.add("heavy-2", 1);
+            }
+            counter.add("light-" + i, 1);
+        }
+
+        List<SpaceSavingCounter.Counter> top = counter.getTop(2);
+        assertEquals(counter.size(), 4);
+        assertEquals(top.size(), 2);
+        assertEquals(top.get(0).getKey(), "heavy-1");
+        assertEquals(top.get(0).getCount() - top.get(0).getError(), 1000);
+        assertEquals(top.get(1).getKey(), "heavy-2");
+        assertTrue(top.get(1).getCount() - top.get(1).getError() <= 500);
+        assertTrue(top.get(1).getCount() >= 500);
+    }
+
+    @Test
+    public void testRatesOfLastCompletedWindow() {
+
+        AtomicLong clock = new AtomicLong(TimeUnit.SECONDS.toMillis(100));
+        InvalidationTrafficProfiler profiler = new InvalidationTrafficProfiler(clock::get);
+        profiler.recordSent("carbon.super", CACHE_MANAGER_NAME, CACHE_NAME);
+        assertTrue(profiler.getTopSentTenants().isEmpty());
+
+        profiler.start(2, 10, 1);
+        for (int i = 0; i < 50; i++) {
+            profiler.recordSent("carbon.super", CACHE_MANAGER_NAME, CACHE_NAME);
+            profiler.recordReceived("wso2.com", CACHE_MANAGER_NAME, CACHE_NAME);
+        }
+        profiler.recordSent("abc.com", CACHE_MANAGER_NAME, CACHE_NAME);
+        // Nothing is reported until the first window is completed.
+        assertTrue(profiler.getTopSentTenants().isEmpty());
+
+        clock.addAndGet(TimeUnit.SECONDS.toMillis(10));
+        List<TrafficEntry> sentTenants = profiler.getTopSentTenants();
+        assertEquals(sentTenants.size(), 2);
+        assertEquals(sentTenants.get(0).getKey(), "carbon.super");
+        assertEquals(sentTenants.get(0).getCount(), 50);
+        assertEquals(sentTenants.get(0).getRatePerSecond(), 5.0);
+        assertEquals(sentTenants.get(1).getKey(), "abc.com");
+        List<TrafficEntry> receivedCaches = profiler.getTopReceivedCaches();
+        assertEquals(receivedCaches.size(), 1);
+        assertEquals(receivedCaches.get(0).getKey(), "wso2.com/" + CACHE_MANAGER_NAME + "/AppInfoCache");
+        assertEquals(profiler.getTopReceivedTenants().get(0).getKey(), "wso2.com");
+
+        // The last completed window is empty once a whole window passes without invalidations.
+        clock.addAndGet(TimeUnit.SECONDS.toMillis(20));
+        assertTrue(profiler.getTopSentTenants().isEmpty());
+
+        profiler.stop();
+        assertFalse(profiler.isEnabled());
+    }
+
+    @Test
+    public void testSampledCountsAreScaled() {
+
+        AtomicLong clock = new AtomicLong();
+        InvalidationTrafficProfiler profiler = new InvalidationTrafficProfiler(clock::get);
+        profiler.start(1, 1, 4);
+        for (int i = 0; i < 40000; i++) {
+            profiler.recordSent("carbon.super", CACHE_MANAGER_NAME, CACHE_NAME);
+        }
+
+        clock.addAndGet(TimeUnit.SECONDS.toMillis(1));
+        TrafficEntry entry = profiler.getTopSentTenants().get(0);
+        assertEquals(entry.getCount() % 4, 0);
+        assertTrue(Math.abs(entry.getCount() - 40000) < 4000, "Sampled count " + entry.getCount());
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class InvalidationVersionTrackerTest {
+
+    private static final String CACHE_MANAGER_NAME = "IdentityApplicationManagementCacheManager";
+    private static final String CACHE_NAME = "$__local__$.AppInfoCache";
+
+    @Test
+    public void testStaleInvalidationsOfSameOrigin() {
+
+        InvalidationVersionTracker tracker = new InvalidationVersionTracker();
+        InvalidationEntry applied = stampedEntry("node1", 20, "key1");
+        assertFalse(tracker.isStale(applied, "key1"));
+        tracker.recordApplied(applied, "key1");
+
+        // Late and duplicated invalidations of the same origin are stale.
+        assertTrue(tracker.isStale(stampedEntry("node1", 10, "key1"), "key1"));
+        assertTrue(tracker.isStale(stampedEntry("node1", 20, "key1"), "key1"));
+        assertFalse(tracker.isStale(stampedEntry("node1", 30, "key1"), "key1"));
+        // Stamps of other origins and other keys are not compared.
+        assertFalse(tracker.isStale(stampedEntry("node2", 10, "key1"), "key1"));
+        assertFalse(tracker.isStale(stampedEntry("node1", 10, "key2"), "key2"));
+
+        // A later stamp recorded first is kept.
+        tracker.recordApplied(stampedEntry("node1", 15, "key1"), "key1");
+        assertTrue(tracker.isStale(stampedEntry("node1", 20, "key1"), "key1"));
+    }
+
+    @Test
+    public void testClearAllMakesEarlierInvalidationsOfCacheStale() {
+
+        InvalidationVersionTracker tracker = new InvalidationVersionTracker();
+        tracker.recordApplied(stampedEntry("node1", 20, JMSUtils.CLEAR_ALL_PREFIX), JMSUtils.CLEAR_ALL_PREFIX);
+
+        assertTrue(tracker.isStale(stampedEntry("node1", 10, "key1"), "key1"));
+        assertTrue(tracker.isStale(stampedEntry("node1", 10, 42L), 42L));
+        assertFalse(tracker.isStale(stampedEntry("node1", 30, "key1"), "key1"));
+    }
+
+    @Test
+    public void testLeastRecentlyInvalidatedKeysAreDropped() {
+
+        InvalidationVersionTracker tracker = new InvalidationVersionTracker(2);
+        tracker.recordApplied(stampedEntry("node1", 10, "key1"), "key1");
+        tracker.recordApplied(stampedEntry("node1", 10, "key2"), "key2");
+        assertTrue(tracker.isStale(stampedEntry("node1", 5, "key1"), "key1"));
+        tracker.recordApplied(stampedEntry("node1", 10, "key3"), "key3");
+
+        assertEquals(tracker.size(), 2);
+        assertTrue(tracker.isStale(stampedEntry("node1", 5, "key1"), "key1"));
+        assertFalse(tracker.isStale(stampedEntry("node1", 5, "key2"), "key2"));
+    }
+
+    @Test
+    public void testConcurrentInvalidationsAreBounded() throws Exception {
+
+        int threadCount = 4;
+        int maxKeys = 500;
+        InvalidationVersionTracker tracker = new InvalidationVersionTracker(maxKeys);
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threadCount; i++) {
+                String origin = "node" + i;
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 2000; j++) {
+                        InvalidationEntry entry = stampedEntry(origin, j, "key" + j);
+                        if (!tracker.isStale(entry, "key" + j)) {
+                            tracker.recordApplied(entry, "key" + j);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Keys recorded while another thread drops keys may be left over.
+        assertTrue(tracker.size() <= maxKeys + threadCount);
+        tracker.recordApplied(stampedEntry("node0", 5000, "key1"), "key1");
+        assertTrue(tracker.isStale(stampedEntry("node0", 4000, "key1"), "key1"));
+    }
+
+    @Test
+    public void testInvalidationsOlderThanLocalEntryOfAnyOrigin() {
+
+        InvalidationVersionTracker tracker = new InvalidationVersionTracker(100, 1000);
+        tracker.recordLoaded(1, CACHE_MANAGER_NAME, CACHE_NAME, "key1");
+        long now = System.currentTimeMillis();
+
+        // Invalidations made before the entry was loaded, by more than the clock skew, are older than the entry.
+        assertTrue(tracker.isOlderThanLocalEntry(stampedEntry("node1", (now - 5000) << 16, "key1"), "key1"));
+        assertTrue(tracker.isOlderThanLocalEntry(stampedEntry("node2", (now - 5000) << 16, "key1"), "key1"));
+        assertFalse(tracker.isOlderThanLocalEntry(stampedEntry("node1", now << 16, "key1"), "key1"));
+        // Keys without a local entry and clear-all invalidations are not compared.
+        assertFalse(tracker.isOlderThanLocalEntry(stampedEntry("node1", (now - 5000) << 16, "key2"), "key2"));
+        assertFalse(tracker.isOlderThanLocalEntry(stampedEntry("node1", (now - 5000) << 16,
+                JMSUtils.CLEAR_ALL_PREFIX), JMSUtils.CLEAR_ALL_PREFIX));
+        assertEquals(tracker.getLoadedSize(), 1);
+    }
+
+    @Test
+    public void testReceivedStampsWithinClockSkewAreMerged() {
+
+        long now = System.currentTimeMillis();
+        InvalidationEntry entry = stampedEntry("node1", (now - 500) << 16, "key1");
+
+        // A stamp far ahead of the local time does not move the load stamps forward.
+        InvalidationVersionTracker tracker = new InvalidationVersionTracker(100, 1000);
+        tracker.receive((now + 60000) << 16);
+        tracker.recordLoaded(1, CACHE_MANAGER_NAME, CACHE_NAME, "key1");
+        assertFalse(tracker.isOlderThanLocalEntry(stampedEntry("node1", now << 16, "key1"), "key1"));
+
+        // A stamp within the clock skew is merged, so the entries loaded afterwards are stamped later than it.
+        tracker = new InvalidationVersionTracker(100, 1000);
+        tracker.receive((now + 800) << 16);
+        tracker.recordLoaded(1, CACHE_MANAGER_NAME, CACHE_NAME, "key1");
+        assertTrue(tracker.isOlderThanLocalEntry(entry, "key1"));
+    }
+
+    @Test
+    public void testClockMergesReceivedStamps() {
+
+        HybridLogicalClock clock = new HybridLogicalClock("node1");
+        long received = (System.currentTimeMillis() + 60000) << 16;
+        clock.receive(received);
+        assertTrue(clock.tick() > received);
+        clock.receive(received - 1);
+        assertTrue(clock.tick() > received + 1);
+    }
+
+    @Test
+    public void testClockStampsIncrease() {
+
+        HybridLogicalClock clock = new HybridLogicalClock("node1");
+        long previous = clock.tick();
+        for (int i = 0; i < 1000; i++) {
+            long stamp = clock.tick();
+            assertTrue(stamp > previous);
+            previous = stamp;
+        }
+        assertTrue(HybridLogicalClock.getPhysicalTime(previous) <= System.currentTimeMillis());
+        assertEquals(clock.getOrigin(), "node1");
+    }
+
+    private static InvalidationEntry stampedEntry(String origin, long stamp, Object cacheKey) {
+
+        InvalidationEntry entry = new InvalidationEntry(1, "example.com", CACHE_MANAGER_NAME, CACHE_NAME, cacheKey);
+        entry.setStamp(origin, stamp);
+        return entry;
+    }
+}
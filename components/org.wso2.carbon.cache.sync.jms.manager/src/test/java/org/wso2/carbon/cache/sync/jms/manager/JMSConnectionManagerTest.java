@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.jms.ExceptionListener;
+import javax.jms.JMSException;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class JMSConnectionManagerTest {
+
+    @Test
+    public void testStartConnectsOnCallingThread() {
+
+        RecordingConnector connector = new RecordingConnector(0);
+        JMSConnectionManager manager = new JMSConnectionManager("test", connector, 10, 100, 3);
+        try {
+            assertTrue(manager.start());
+            assertEquals(manager.getState(), JMSConnectionManager.State.CONNECTED);
+            assertEquals(connector.connects.get(), 1);
+        } finally {
+            manager.shutdown();
+        }
+    }
+
+    @Test
+    public void testConnectInBackground() throws InterruptedException {
+
+        RecordingConnector connector = new RecordingConnector(2);
+        JMSConnectionManager manager = new JMSConnectionManager("test", connector, 1, 10, 5);
+        try {
+            assertFalse(manager.start());
+            assertEquals(manager.getState(), JMSConnectionManager.State.RECONNECTING);
+
+            assertTrue(manager.awaitConnected(5000));
+            assertEquals(connector.connects.get(), 3);
+            // Resources of the failed attempts are closed.
+            assertEquals(connector.disconnects.get(), 2);
+        } finally {
+            manager.shutdown();
+        }
+    }
+
+    @Test
+    public void testReconnectAfterConnectionLost() throws InterruptedException {
+
+        RecordingConnector connector = new RecordingConnector(0);
+        JMSConnectionManager manager = new JMSConnectionManager("test", connector, 1, 10, 5);
+        try {
+            assertTrue(manager.start());
+            ExceptionListener lostConnection = connector.exceptionListener;
+            lostConnection.onException(new JMSException("Connection reset"));
+
+            assertTrue(awaitConnects(connector, 2));
+            assertTrue(manager.awaitConnected(5000));
+            assertEquals(connector.disconnects.get(), 1);
+
+            // Failures of the closed connection do not close the new connection.
+            lostConnection.onException(new JMSException("Connection reset"));
+            TimeUnit.MILLISECONDS.sleep(50);
+            assertEquals(connector.connects.get(), 2);
+            assertEquals(manager.getState(), JMSConnectionManager.State.CONNECTED);
+        } finally {
+            manager.shutdown();
+        }
+    }
+
+    @Test
+    public void testDownAfterRetryLimit() throws InterruptedException {
+
+        RecordingConnector connector = new RecordingConnector(Integer.MAX_VALUE);
+        JMSConnectionManager manager = new JMSConnectionManager("test", connector, 1, 2, 2);
+        try {
+            assertFalse(manager.start());
+            // The fifth attempt is made after the retry limit is exceeded.
+            assertTrue(awaitConnects(connector, 5));
+            assertEquals(manager.getState(), JMSConnectionManager.State.DOWN);
+            assertFalse(manager.awaitConnected(10));
+        } finally {
+            manager.shutdown();
+        }
+        assertFalse(manager.awaitConnected(10));
+    }
+
+    @Test
+    public void testAwaitConnectedIsNotBlockedBySlowConnect() throws InterruptedException {
+
+        CountDownLatch connectStarted = new CountDownLatch(1);
+        CountDownLatch connectReleased = new CountDownLatch(1);
+        JMSConnectionManager.Connector slowConnector = new JMSConnectionManager.Connector() {
+
+            @Override
+            public void connect(ExceptionListener exceptionListener) {
+
+                connectStarted.countDown();
+                try {
+                    connectReleased.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void disconnect() {
+
+            }
+        };
+        JMSConnectionManager manager = new JMSConnectionManager("test", slowConnector, 1, 10, 5);
+        Thread starter = new Thread(manager::start);
+        try {
+            starter.start();
+            assertTrue(connectStarted.await(5, TimeUnit.SECONDS));
+
+            // The waiting thread times out while the broker is still being connected.
+            long start = System.nanoTime();
+            assertFalse(manager.awaitConnected(50));
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+
+            connectReleased.countDown();
+            assertTrue(manager.awaitConnected(5000));
+            starter.join(5000);
+        } finally {
+            connectReleased.countDown();
+            manager.shutdown();
+        }
+    }
+
+    @Test
+    public void testBackoffGrowsUpToMaximum() {
+
+        JMSConnectionManager manager = new JMSConnectionManager("test", new RecordingConnector(0), 100, 1000, 3);
+        try {
+            for (int i = 0; i < 100; i++) {
+                assertInRange(manager.getBackoffMillis(0), 50, 100);
+                assertInRange(manager.getBackoffMillis(2), 200, 400);
+                assertInRange(manager.getBackoffMillis(4), 500, 1000);
+                assertInRange(manager.getBackoffMillis(Integer.MAX_VALUE), 500, 1000);
+            }
+        } finally {
+            manager.shutdown();
+        }
+    }
+
+    private static void assertInRange(long value, long min, long max) {
+
+        assertTrue(value >= min && value <= max, value + " is not within [" + min + ", " + max + "].");
+    }
+
+    private static boolean awaitConnects(RecordingConnector connector, int expected) throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (connector.connects.get() < expected) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+        return true;
+    }
+
+    private static class RecordingConnector implements JMSConnectionManager.Connector {
+
+        private final int failures;
+        private final AtomicInteger connects = new AtomicInteger();
+        private final AtomicInteger disconnects = new AtomicInteger();
+        private volatile ExceptionListener exceptionListener;
+
+        private RecordingConnector(int failures) {
+
+            this.failures = failures;
+        }
+
+        @Override
+        public void connect(ExceptionListener exceptionListener) throws JMSException {
+
+            if (connects.incrementAndGet() <= failures) {
+                throw new JMSException("Broker unavailable");
+            }
+            this.exceptionListener = exceptionListener;
+        }
+
+        @Override
+        public void disconnect() {
+
+            disconnects.incrementAndGet();
+        }
+    }
+}
@@ -25,18 +25,24 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 import org.wso2.carbon.base.CarbonBaseConstants;
 import org.wso2.carbon.caching.impl.CacheImpl;
+import org.wso2.carbon.caching.impl.CacheManagerFactoryImpl;
+import org.wso2.carbon.caching.impl.clustering.ClusterCacheInvalidationRequest;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
 
 import java.io.IOException;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
 
+import javax.cache.Cache;
 import javax.cache.CacheManager;
 import javax.cache.CacheManagerFactory;
 import javax.cache.Caching;
 import javax.jms.Connection;
 import javax.jms.ConnectionFactory;
 import javax.jms.JMSException;
-import javax.jms.MessageConsumer;
 import javax.jms.Session;
 import javax.jms.Topic;
 import javax.naming.InitialContext;
@@ -51,6 +57,8 @@ import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertSame;
 
 public class JMSConsumerTest {
@@ -65,8 +73,6 @@ public class JMSConsumerTest {
     private Topic topic;
     @Mock
     private Connection connection;
-    @Mock
-    private MessageConsumer consumer;
 
     private MockedStatic<JMSUtils> mockedJMSUtils;
     private JMSConsumer jmsConsumer;
@@ -84,12 +90,7 @@ public class JMSConsumerTest {
         initPrivilegedCarbonContext();
 
         jmsConsumer = spy(new JMSConsumer());
-
-        // Initialize JMSConsumer fields
         doNothing().when(jmsConsumer).startConnection();
-        jmsConsumer.session = session;
-        jmsConsumer.consumer = consumer;
-        jmsConsumer.connection = connection;
     }
 
     @Test
@@ -147,6 +148,316 @@ public class JMSConsumerTest {
         }
     }
 
+    @Test
+    public void testInvalidateCacheWithBatchFrame() {
+
+        String message = "["
+            + "{\"tenantDomain\":\"example.com\",\"tenantId\":1,\"cacheManagerName\":\"myCacheManager\","
+            + "\"cacheName\":\"myCache\",\"cacheKeyBase64\":\"rO0ABXQABW15S2V5\"},"
+            + "{\"tenantDomain\":\"other.com\",\"tenantId\":2,\"cacheManagerName\":\"myCacheManager\","
+            + "\"cacheName\":\"myCache\",\"cacheKeyBase64\":\"rO0ABXQABW15S2V5\"},"
+            + "{\"tenantDomain\":\"example.com\",\"tenantId\":1,\"cacheManagerName\":\"myCacheManager\","
+            + "\"cacheName\":\"myCache\",\"cacheKeyBase64\":\"rO0ABXQACG90aGVyS2V5\"}"
+            + "]";
+
+        try (MockedStatic<PrivilegedCarbonContext> mockedPrivilegedCarbonContext =
+                     mockStatic(PrivilegedCarbonContext.class);
+             MockedStatic<Caching> mockedCaching = mockStatic(Caching.class)) {
+
+            mockedJMSUtils.when(JMSUtils::getRunInHybridModeProperty).thenReturn(false);
+
+            CacheManager cacheManager = mock(CacheManager.class);
+            CacheImpl<Object, Object> cacheImpl = mock(CacheImpl.class);
+            CacheManagerFactory cacheManagerFactory = mock(CacheManagerFactory.class);
+
+            mockedCaching.when(Caching::getCacheManagerFactory).thenReturn(cacheManagerFactory);
+            when(cacheManagerFactory.getCacheManager("myCacheManager")).thenReturn(cacheManager);
+            when(cacheManager.getCache("myCache")).thenReturn(cacheImpl);
+
+            PrivilegedCarbonContext carbonContext = mock(PrivilegedCarbonContext.class);
+            mockedPrivilegedCarbonContext.when(PrivilegedCarbonContext::getThreadLocalCarbonContext)
+                    .thenReturn(carbonContext);
+
+            jmsConsumer.invalidateCache(message);
+
+            // Entries of the same tenant are applied within a single tenant flow.
+            mockedPrivilegedCarbonContext.verify(PrivilegedCarbonContext::startTenantFlow, times(2));
+            verify(carbonContext, times(1)).setTenantId(1);
+            verify(carbonContext, times(1)).setTenantId(2);
+            verify(cacheImpl, times(2)).removeLocal("myKey");
+            verify(cacheImpl, times(1)).removeLocal("otherKey");
+        }
+    }
+
+    @Test
+    public void testInvalidateCacheWithBinaryFrame() {
+
+        byte[] frame = InvalidationMessageCodec.encode(Arrays.asList(
+                new ClusterCacheInvalidationRequest(new ClusterCacheInvalidationRequest.CacheInfo("myCacheManager",
+                        "myCache", "myKey"), "example.com", 1),
+                new ClusterCacheInvalidationRequest(new ClusterCacheInvalidationRequest.CacheInfo("myCacheManager",
+                        "myCache", JMSUtils.CLEAR_ALL_PREFIX), "example.com", 1)));
+
+        try (MockedStatic<PrivilegedCarbonContext> mockedPrivilegedCarbonContext =
+                     mockStatic(PrivilegedCarbonContext.class);
+             MockedStatic<Caching> mockedCaching = mockStatic(Caching.class)) {
+
+            mockedJMSUtils.when(JMSUtils::getRunInHybridModeProperty).thenReturn(false);
+
+            CacheManager cacheManager = mock(CacheManager.class);
+            CacheImpl<Object, Object> cacheImpl = mock(CacheImpl.class);
+            CacheManagerFactory cacheManagerFactory = mock(CacheManagerFactory.class);
+
+            mockedCaching.when(Caching::getCacheManagerFactory).thenReturn(cacheManagerFactory);
+            when(cacheManagerFactory.getCacheManager("myCacheManager")).thenReturn(cacheManager);
+            when(cacheManager.getCache("myCache")).thenReturn(cacheImpl);
+
+            PrivilegedCarbonContext carbonContext = mock(PrivilegedCarbonContext.class);
+            mockedPrivilegedCarbonContext.when(PrivilegedCarbonContext::getThreadLocalCarbonContext)
+                    .thenReturn(carbonContext);
+
+            jmsConsumer.invalidateCache(frame);
+
+            verify(carbonContext, times(1)).setTenantId(1);
+            verify(cacheImpl, times(1)).removeLocal("myKey");
+            verify(cacheImpl, times(1)).removeAllLocal();
+        }
+    }
+
+    @Test
+    public void testInvalidateCacheWithBulkFrame() {
+
+        byte[] frame = InvalidationMessageCodec.encode(Arrays.asList(
+                BulkInvalidationRequest.forCacheKeys("example.com", 1, "myCacheManager", "myCache",
+                        Arrays.asList("key1", "key2")),
+                BulkInvalidationRequest.forCacheManager("example.com", 1, "otherCacheManager"),
+                BulkInvalidationRequest.forTenant("example.com", 1)));
+
+        try (MockedStatic<PrivilegedCarbonContext> mockedPrivilegedCarbonContext =
+                     mockStatic(PrivilegedCarbonContext.class);
+             MockedStatic<Caching> mockedCaching = mockStatic(Caching.class)) {
+
+            mockedJMSUtils.when(JMSUtils::getRunInHybridModeProperty).thenReturn(false);
+
+            CacheManager cacheManager = mock(CacheManager.class);
+            CacheManager otherCacheManager = mock(CacheManager.class);
+            CacheImpl<Object, Object> cacheImpl = mock(CacheImpl.class);
+            CacheImpl<Object, Object> localCache = mock(CacheImpl.class);
+            CacheImpl<Object, Object> distributedCache = mock(CacheImpl.class);
+            CacheManagerFactoryImpl cacheManagerFactory = mock(CacheManagerFactoryImpl.class);
+            when(localCache.getName()).thenReturn("$__local__$.otherCache");
+            when(distributedCache.getName()).thenReturn("otherCache");
+
+            mockedCaching.when(Caching::getCacheManagerFactory).thenReturn(cacheManagerFactory);
+            when(cacheManagerFactory.getCacheManager("myCacheManager")).thenReturn(cacheManager);
+            when(cacheManagerFactory.getCacheManager("otherCacheManager")).thenReturn(otherCacheManager);
+            when(cacheManager.getCache("myCache")).thenReturn(cacheImpl);
+            when(otherCacheManager.getCaches()).thenReturn(Arrays.asList(localCache, distributedCache));
+
+            PrivilegedCarbonContext carbonContext = mock(PrivilegedCarbonContext.class);
+            mockedPrivilegedCarbonContext.when(PrivilegedCarbonContext::getThreadLocalCarbonContext)
+                    .thenReturn(carbonContext);
+
+            jmsConsumer.invalidateCache(frame);
+
+            mockedPrivilegedCarbonContext.verify(PrivilegedCarbonContext::startTenantFlow, times(1));
+            verify(cacheImpl, times(1)).removeLocal("key1");
+            verify(cacheImpl, times(1)).removeLocal("key2");
+            verify(localCache, times(1)).removeAllLocal();
+            verify(distributedCache, never()).removeAllLocal();
+            verify(cacheManagerFactory, times(1)).removeAllCacheManagers("example.com");
+        }
+    }
+
+    @Test
+    public void testDecodeBulkJsonFrame() throws IOException {
+
+        String keyBase64 = Base64.getEncoder().encodeToString(InvalidationMessageCodec.serializeKey("key1"));
+        List<InvalidationEntry> entries = JMSConsumer.decodeJsonFrame("[{\"tenantDomain\":\"example.com\"," +
+                "\"tenantId\":1,\"cacheManagerName\":\"myCacheManager\",\"cacheName\":\"myCache\"," +
+                "\"scope\":\"CACHE_KEYS\",\"cacheKeysBase64\":[\"" + keyBase64 + "\"]}," +
+                "{\"tenantDomain\":\"example.com\",\"tenantId\":1,\"scope\":\"TENANT\"}]");
+
+        assertEquals(entries.size(), 2);
+        assertEquals(entries.get(0).getScope(), InvalidationScope.CACHE_KEYS);
+        assertEquals(entries.get(0).getCacheKey(), Collections.singletonList("key1"));
+        assertEquals(entries.get(1).getScope(), InvalidationScope.TENANT);
+        assertNull(entries.get(1).getCacheKey());
+    }
+
+    @Test
+    public void testInvalidateCacheSkipsEmptyLocalCaches() {
+
+        List<InvalidationEntry> entries = Collections.singletonList(new InvalidationEntry(1, "example.com",
+                "myCacheManager", "$__local__$.myCache", "myKey"));
+
+        try (MockedStatic<PrivilegedCarbonContext> mockedPrivilegedCarbonContext =
+                     mockStatic(PrivilegedCarbonContext.class);
+             MockedStatic<Caching> mockedCaching = mockStatic(Caching.class)) {
+
+            mockedJMSUtils.when(JMSUtils::getRunInHybridModeProperty).thenReturn(false);
+            mockedJMSUtils.when(JMSUtils::isInterestFilterEnabled).thenReturn(true);
+
+            CacheManager cacheManager = mock(CacheManager.class);
+            CacheImpl<Object, Object> cacheImpl = mock(CacheImpl.class);
+            CacheManagerFactory cacheManagerFactory = mock(CacheManagerFactory.class);
+            when(cacheImpl.iterator()).thenReturn(Collections.emptyIterator());
+
+            mockedCaching.when(Caching::getCacheManagerFactory).thenReturn(cacheManagerFactory);
+            when(cacheManagerFactory.getCacheManager("myCacheManager")).thenReturn(cacheManager);
+            when(cacheManager.getCache("$__local__$.myCache")).thenReturn(cacheImpl);
+
+            PrivilegedCarbonContext carbonContext = mock(PrivilegedCarbonContext.class);
+            mockedPrivilegedCarbonContext.when(PrivilegedCarbonContext::getThreadLocalCarbonContext)
+                    .thenReturn(carbonContext);
+
+            // The first invalidation is applied, and finds the cache empty.
+            jmsConsumer.invalidateCache(entries);
+            // Later invalidations are skipped before starting the tenant flow.
+            jmsConsumer.invalidateCache(entries);
+            mockedPrivilegedCarbonContext.verify(PrivilegedCarbonContext::startTenantFlow, times(1));
+            verify(cacheImpl, times(1)).removeLocal("myKey");
+
+            // Invalidations are applied again once an entry is created in the cache.
+            jmsConsumer.getLocalCacheInterest().markPopulated(1, "myCacheManager", "$__local__$.myCache");
+            jmsConsumer.invalidateCache(entries);
+            verify(cacheImpl, times(2)).removeLocal("myKey");
+        }
+    }
+
+    @Test
+    public void testInvalidateCacheByKeyFingerprint() throws IOException {
+
+        List<InvalidationEntry> entries = Collections.singletonList(new InvalidationEntry(1, "example.com",
+                "myCacheManager", "$__local__$.myCache", KeyFingerprint.of("myKey")));
+
+        try (MockedStatic<PrivilegedCarbonContext> mockedPrivilegedCarbonContext =
+                     mockStatic(PrivilegedCarbonContext.class);
+             MockedStatic<Caching> mockedCaching = mockStatic(Caching.class)) {
+
+            mockedJMSUtils.when(JMSUtils::getRunInHybridModeProperty).thenReturn(false);
+            mockedJMSUtils.when(JMSUtils::isKeyFingerprintEnabled).thenReturn(true);
+
+            CacheManager cacheManager = mock(CacheManager.class);
+            CacheImpl<Object, Object> cacheImpl = mock(CacheImpl.class);
+            CacheManagerFactory cacheManagerFactory = mock(CacheManagerFactory.class);
+            Cache.Entry<Object, Object> cachedEntry = mock(Cache.Entry.class);
+            Cache.Entry<Object, Object> otherCachedEntry = mock(Cache.Entry.class);
+            when(cachedEntry.getKey()).thenReturn("myKey");
+            when(otherCachedEntry.getKey()).thenReturn("otherKey");
+            when(cacheImpl.iterator()).thenReturn(Arrays.asList(cachedEntry, otherCachedEntry).iterator());
+
+            mockedCaching.when(Caching::getCacheManagerFactory).thenReturn(cacheManagerFactory);
+            when(cacheManagerFactory.getCacheManager("myCacheManager")).thenReturn(cacheManager);
+            when(cacheManager.getCache("$__local__$.myCache")).thenReturn(cacheImpl);
+
+            PrivilegedCarbonContext carbonContext = mock(PrivilegedCarbonContext.class);
+            mockedPrivilegedCarbonContext.when(PrivilegedCarbonContext::getThreadLocalCarbonContext)
+                    .thenReturn(carbonContext);
+
+            // The keys of the cache are indexed on its first fingerprint invalidation.
+            jmsConsumer.invalidateCache(entries);
+            verify(cacheImpl, times(1)).removeLocal("myKey");
+            verify(cacheImpl, never()).removeLocal("otherKey");
+            verify(cacheImpl, never()).removeAllLocal();
+            assertEquals(jmsConsumer.getKeyFingerprintIndex().size(), 1);
+
+            // Keys which are not indexed are not in the cache.
+            jmsConsumer.invalidateCache(entries);
+            verify(cacheImpl, times(1)).removeLocal("myKey");
+            verify(cacheImpl, times(1)).iterator();
+
+            // Without the index, every local entry of the cache is evicted.
+            mockedJMSUtils.when(JMSUtils::isKeyFingerprintEnabled).thenReturn(false);
+            jmsConsumer.invalidateCache(entries);
+            verify(cacheImpl, times(1)).removeAllLocal();
+        }
+    }
+
+    @Test
+    public void testInvalidateCacheSkipsStaleInvalidations() {
+
+        InvalidationEntry entry = new InvalidationEntry(1, "example.com", "myCacheManager", "$__local__$.myCache",
+                "myKey");
+        entry.setStamp("node1", 20);
+        InvalidationEntry lateEntry = new InvalidationEntry(1, "example.com", "myCacheManager",
+                "$__local__$.myCache", "myKey");
+        lateEntry.setStamp("node1", 10);
+
+        try (MockedStatic<PrivilegedCarbonContext> mockedPrivilegedCarbonContext =
+                     mockStatic(PrivilegedCarbonContext.class);
+             MockedStatic<Caching> mockedCaching = mockStatic(Caching.class)) {
+
+            mockedJMSUtils.when(JMSUtils::getRunInHybridModeProperty).thenReturn(false);
+
+            CacheManager cacheManager = mock(CacheManager.class);
+            CacheImpl<Object, Object> cacheImpl = mock(CacheImpl.class);
+            CacheManagerFactory cacheManagerFactory = mock(CacheManagerFactory.class);
+
+            mockedCaching.when(Caching::getCacheManagerFactory).thenReturn(cacheManagerFactory);
+            when(cacheManagerFactory.getCacheManager("myCacheManager")).thenReturn(cacheManager);
+            when(cacheManager.getCache("$__local__$.myCache")).thenReturn(cacheImpl);
+
+            PrivilegedCarbonContext carbonContext = mock(PrivilegedCarbonContext.class);
+            mockedPrivilegedCarbonContext.when(PrivilegedCarbonContext::getThreadLocalCarbonContext)
+                    .thenReturn(carbonContext);
+
+            jmsConsumer.invalidateCache(Collections.singletonList(entry));
+            verify(cacheImpl, times(1)).removeLocal("myKey");
+
+            // A late invalidation of the same node does not evict the reloaded entry.
+            jmsConsumer.invalidateCache(Collections.singletonList(lateEntry));
+            verify(cacheImpl, times(1)).removeLocal("myKey");
+        }
+    }
+
+    @Test
+    public void testInvalidateCacheSkipsInvalidationsOlderThanLocalEntry() {
+
+        long now = System.currentTimeMillis();
+        InvalidationEntry entry = new InvalidationEntry(1, "example.com", "myCacheManager", "$__local__$.myCache",
+                "myKey");
+        entry.setStamp("node2", (now - 5000) << 16);
+
+        try (MockedStatic<PrivilegedCarbonContext> mockedPrivilegedCarbonContext =
+                     mockStatic(PrivilegedCarbonContext.class);
+             MockedStatic<Caching> mockedCaching = mockStatic(Caching.class)) {
+
+            CacheManager cacheManager = mock(CacheManager.class);
+            CacheImpl<Object, Object> cacheImpl = mock(CacheImpl.class);
+            CacheManagerFactory cacheManagerFactory = mock(CacheManagerFactory.class);
+
+            mockedCaching.when(Caching::getCacheManagerFactory).thenReturn(cacheManagerFactory);
+            when(cacheManagerFactory.getCacheManager("myCacheManager")).thenReturn(cacheManager);
+            when(cacheManager.getCache("$__local__$.myCache")).thenReturn(cacheImpl);
+
+            PrivilegedCarbonContext carbonContext = mock(PrivilegedCarbonContext.class);
+            mockedPrivilegedCarbonContext.when(PrivilegedCarbonContext::getThreadLocalCarbonContext)
+                    .thenReturn(carbonContext);
+
+            // The local entry was loaded after the invalidated change of another node was made.
+            jmsConsumer.getVersionTracker().recordLoaded(1, "myCacheManager", "$__local__$.myCache", "myKey");
+
+            mockedJMSUtils.when(JMSUtils::getRunInHybridModeProperty).thenReturn(false);
+            jmsConsumer.invalidateCache(Collections.singletonList(entry));
+            verify(cacheImpl, never()).removeLocal("myKey");
+
+            // In hybrid mode, the invalidation is passed on to the local cluster members, which may hold older
+            // entries of the key.
+            mockedJMSUtils.when(JMSUtils::getRunInHybridModeProperty).thenReturn(true);
+            jmsConsumer.invalidateCache(Collections.singletonList(entry));
+            verify(cacheImpl, times(1)).removeLocal("myKey");
+        }
+    }
+
+    @Test
+    public void testSenderSelector() {
+
+        assertEquals(JMSConsumer.getSenderSelector("node-1"), "sender IS NULL OR sender <> 'node-1'");
+        assertEquals(JMSConsumer.getSenderSelector("node's"), "sender IS NULL OR sender <> 'node''s'");
+        assertNull(JMSConsumer.getSenderSelector(null));
+    }
+
     @AfterMethod
     public void tearDown() {
 
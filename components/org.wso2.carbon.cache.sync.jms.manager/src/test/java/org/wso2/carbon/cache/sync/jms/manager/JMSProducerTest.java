@@ -23,10 +23,20 @@ import org.mockito.MockitoAnnotations;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
+import org.wso2.carbon.caching.impl.clustering.ClusterCacheInvalidationRequest;
+import org.wso2.carbon.identity.core.util.IdentityConfigParser;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import javax.cache.CacheEntryInfo;
 import javax.cache.event.CacheEntryEvent;
@@ -37,20 +47,34 @@ import javax.jms.JMSException;
 import javax.jms.Message;
 import javax.jms.MessageProducer;
 import javax.jms.Session;
+import javax.jms.TextMessage;
 import javax.jms.Topic;
 import javax.naming.InitialContext;
 import javax.naming.NamingException;
 
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
 
 public class JMSProducerTest {
 
+    private static final long EVICTION_TIMEOUT_MILLIS = 10000;
+    // Flush interval long enough for a batch to be flushed only by its size or on shutdown.
+    private static final int NEVER_FLUSHED_MILLIS = 60000;
+    private static final int BATCH_MAX_SIZE = 10;
+    private static final int BATCH_FLUSH_INTERVAL_MILLIS = 500;
+
     private JMSProducer jmsProducer;
     private ExecutorService executorService;
 
@@ -70,6 +94,10 @@ public class JMSProducerTest {
     private CacheEntryEvent<Object, Object> cacheEntryEvent;
 
     private MockedStatic<JMSUtils> mockedJMSUtils;
+    private MockedStatic<IdentityUtil> mockedIdentityUtil;
+    private MockedStatic<IdentityConfigParser> mockedIdentityConfigParser;
+    private EmbeddedBrokerCluster cluster;
+    private final CacheSyncMetrics metrics = CacheSyncMetrics.getInstance();
 
     @BeforeMethod
     public void setUp() throws NamingException, JMSException, IOException {
@@ -87,13 +115,23 @@ public class JMSProducerTest {
     }
 
     @AfterMethod
-    public void tearDown() {
+    public void tearDown() throws Exception {
 
         executorService.shutdown();
         jmsProducer.shutdownExecutorService();
         if (mockedJMSUtils != null) {
             mockedJMSUtils.close();
         }
+        if (cluster != null) {
+            try {
+                cluster.stop();
+                cluster = null;
+            } finally {
+                JMSUtils.reloadConfig();
+                mockedIdentityConfigParser.close();
+                mockedIdentityUtil.close();
+            }
+        }
     }
 
     @Test
@@ -119,6 +157,174 @@ public class JMSProducerTest {
         verifyNoInteractions(producer);
     }
 
+    @Test
+    public void testSendAfterSpooledInvalidations() throws Exception {
+
+        Path spoolDirectory = Files.createTempDirectory("cache-sync-outage");
+        ProducerSessionPool sessionPool = mock(ProducerSessionPool.class);
+        List<String> payloads = new CopyOnWriteArrayList<>();
+        List<String> senderThreads = new CopyOnWriteArrayList<>();
+        when(session.createTextMessage(anyString())).thenAnswer(invocation -> {
+            payloads.add(invocation.getArgument(0));
+            senderThreads.add(Thread.currentThread().getName());
+            return mock(TextMessage.class);
+        });
+        // The first message fails before it is created as the broker is unavailable, and the rest go through.
+        doThrow(new JMSException("Broker unavailable")).doAnswer(invocation -> {
+            invocation.getArgument(0, ProducerSessionPool.MessageCreator.class).create(session);
+            return null;
+        }).when(sessionPool).send(any(ProducerSessionPool.MessageCreator.class));
+
+        JMSProducer outageProducer = new JMSProducer(sessionPool,
+                new MappedInvalidationSpool(spoolDirectory, 4096, 4));
+        try {
+            outageProducer.sendInvalidationBatch(Collections.singletonList(createRequest("firstCache")));
+            outageProducer.sendInvalidationBatch(Collections.singletonList(createRequest("secondCache")));
+
+            long deadline = System.currentTimeMillis() + 10000;
+            while (payloads.size() < 2 && System.currentTimeMillis() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+            // The spooled invalidation is sent first, by the drainer instead of the thread sending the new one.
+            assertEquals(payloads.size(), 2);
+            assertTrue(payloads.get(0).contains("\"cacheName\":\"firstCache\""));
+            assertTrue(payloads.get(1).contains("\"cacheName\":\"secondCache\""));
+            assertNotEquals(senderThreads.get(1), Thread.currentThread().getName());
+        } finally {
+            outageProducer.shutdownExecutorService();
+            try (Stream<Path> files = Files.list(spoolDirectory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(spoolDirectory);
+        }
+    }
+
+    @Test
+    public void testTenantInvalidationIsNotSentInHybridMode() {
+
+        mockedJMSUtils.when(JMSUtils::isMBCacheInvalidatorEnabled).thenReturn(true);
+        JMSProducer bulkProducer = spy(new JMSProducer(mock(ProducerSessionPool.class)));
+
+        mockedJMSUtils.when(JMSUtils::getRunInHybridModeProperty).thenReturn(true);
+        bulkProducer.invalidateTenant("example.com", 1);
+        verify(bulkProducer, never()).sendAsyncInvalidation(any(ClusterCacheInvalidationRequest.class));
+        bulkProducer.invalidateCacheManager("example.com", 1, "myCacheManager");
+        verify(bulkProducer).sendAsyncInvalidation(any(BulkInvalidationRequest.class));
+
+        mockedJMSUtils.when(JMSUtils::getRunInHybridModeProperty).thenReturn(false);
+        bulkProducer.invalidateTenant("example.com", 1);
+        verify(bulkProducer, times(2)).sendAsyncInvalidation(any(BulkInvalidationRequest.class));
+    }
+
+    @Test
+    public void testBatchIsFlushedOnSize() throws Exception {
+
+        startCluster(new CacheSyncConfig.Builder().enabled(true).batchingEnabled(true).batchMaxSize(BATCH_MAX_SIZE)
+                .batchFlushIntervalMillis(NEVER_FLUSHED_MILLIS).build());
+        long messagesSent = metrics.getMessagesSent();
+        long invalidationsSent = metrics.getInvalidationsSent();
+
+        for (int i = 0; i < BATCH_MAX_SIZE; i++) {
+            cluster.invalidate(0);
+        }
+        assertTrue(cluster.awaitEvictions(BATCH_MAX_SIZE, EVICTION_TIMEOUT_MILLIS),
+                "Only " + cluster.getEvictionCount() + " invalidations of a full batch were received.");
+        awaitInvalidationsSent(invalidationsSent + BATCH_MAX_SIZE);
+        assertEquals(metrics.getMessagesSent() - messagesSent, 1);
+    }
+
+    @Test
+    public void testBatchIsFlushedOnInterval() throws Exception {
+
+        startCluster(new CacheSyncConfig.Builder().enabled(true).batchingEnabled(true).batchMaxSize(BATCH_MAX_SIZE)
+                .batchFlushIntervalMillis(BATCH_FLUSH_INTERVAL_MILLIS).build());
+        long messagesSent = metrics.getMessagesSent();
+        long invalidationsSent = metrics.getInvalidationsSent();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            cluster.invalidate(0);
+        }
+        assertTrue(cluster.awaitEvictions(3, EVICTION_TIMEOUT_MILLIS),
+                "Only " + cluster.getEvictionCount() + " invalidations of a partial batch were received.");
+        // A partial batch is held back until the oldest invalidation has waited for the flush interval.
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= BATCH_FLUSH_INTERVAL_MILLIS);
+        awaitInvalidationsSent(invalidationsSent + 3);
+        assertEquals(metrics.getMessagesSent() - messagesSent, 1);
+    }
+
+    @Test
+    public void testDuplicateInvalidationsAreCoalesced() throws Exception {
+
+        startCluster(new CacheSyncConfig.Builder().enabled(true).coalescingEnabled(true)
+                .coalescingWindowMillis(BATCH_FLUSH_INTERVAL_MILLIS).build());
+        long invalidationsSent = metrics.getInvalidationsSent();
+
+        for (int i = 0; i < 5; i++) {
+            cluster.invalidate(0, "sharedKey");
+        }
+        cluster.invalidate(0, "otherKey");
+        assertTrue(cluster.awaitEvictions(2, EVICTION_TIMEOUT_MILLIS),
+                "Only " + cluster.getEvictionCount() + " coalesced invalidations were received.");
+        awaitInvalidationsSent(invalidationsSent + 2);
+
+        // Wait for another window to make sure that the suppressed duplicates are not sent later.
+        TimeUnit.MILLISECONDS.sleep(BATCH_FLUSH_INTERVAL_MILLIS * 2);
+        assertEquals(cluster.getEvictionCount(), 2);
+        assertEquals(metrics.getInvalidationsSent() - invalidationsSent, 2);
+    }
+
+    @Test
+    public void testShutdownFlushesPendingInvalidations() throws Exception {
+
+        startCluster(new CacheSyncConfig.Builder().enabled(true).coalescingEnabled(true)
+                .coalescingWindowMillis(NEVER_FLUSHED_MILLIS).batchingEnabled(true).batchMaxSize(BATCH_MAX_SIZE)
+                .batchFlushIntervalMillis(NEVER_FLUSHED_MILLIS).build());
+
+        for (int i = 0; i < 3; i++) {
+            cluster.invalidate(0);
+        }
+        assertEquals(cluster.getEvictionCount(), 0);
+        cluster.stopProducer(0);
+        assertTrue(cluster.awaitEvictions(3, EVICTION_TIMEOUT_MILLIS),
+                "Only " + cluster.getEvictionCount() + " pending invalidations were sent on shutdown.");
+    }
+
+    private void startCluster(CacheSyncConfig config) throws Exception {
+
+        // The end-to-end tests run the producers against the real configuration instead of the mocked one.
+        mockedJMSUtils.close();
+        mockedJMSUtils = null;
+        mockedIdentityUtil = mockStatic(IdentityUtil.class);
+        mockedIdentityUtil.when(() -> IdentityUtil.getProperty(anyString())).thenAnswer(invocation ->
+                JMSUtils.JNDI_TOPIC_PROP_NAME_VALUE.equals(invocation.getArgument(0)) ?
+                        EmbeddedBrokerCluster.TOPIC_NAME : null);
+        mockedIdentityConfigParser = mockStatic(IdentityConfigParser.class);
+        mockedIdentityConfigParser.when(IdentityConfigParser::getInstance).thenReturn(mock(IdentityConfigParser.class));
+
+        JMSUtils.applyConfig(config, PropagationFilter.compile(Collections.emptyMap()));
+        cluster = new EmbeddedBrokerCluster(2);
+        cluster.start();
+    }
+
+    private void awaitInvalidationsSent(long expected) throws InterruptedException {
+
+        // The metrics are recorded once the send returns, which may be after the invalidations are received.
+        long deadline = System.currentTimeMillis() + EVICTION_TIMEOUT_MILLIS;
+        while (metrics.getInvalidationsSent() < expected && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(5);
+        }
+        assertEquals(metrics.getInvalidationsSent(), expected);
+    }
+
+    private ClusterCacheInvalidationRequest createRequest(String cacheName) {
+
+        return new ClusterCacheInvalidationRequest(new ClusterCacheInvalidationRequest.CacheInfo("myCacheManager",
+                cacheName, "myKey"), "example.com", 1);
+    }
+
     private CacheEntryInfo createCacheEntryInfo() {
 
         return new CacheEntryInfo("myCacheManager", "myCache",
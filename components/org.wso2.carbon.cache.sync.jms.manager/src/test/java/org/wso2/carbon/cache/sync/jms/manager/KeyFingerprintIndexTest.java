@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.cache.Cache;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class KeyFingerprintIndexTest {
+
+    private static final String CACHE_MANAGER_NAME = "IdentityApplicationManagementCacheManager";
+    private static final String CACHE_NAME = "$__local__$.AppInfoCache";
+
+    @Test
+    public void testCacheIsTrustedOnceIterated() throws IOException {
+
+        KeyFingerprintIndex index = new KeyFingerprintIndex();
+        index.add(1, CACHE_MANAGER_NAME, CACHE_NAME, "key1");
+        // Entries created before the index was registered may be missing, until the cache is iterated.
+        assertNull(index.removeKeys(1, CACHE_MANAGER_NAME, CACHE_NAME, KeyFingerprint.of("key2")));
+
+        assertTrue(index.indexAll(1, CACHE_MANAGER_NAME, CACHE_NAME, entries("key1", "key2")));
+        assertEquals(index.size(), 2);
+        assertEquals(index.removeKeys(1, CACHE_MANAGER_NAME, CACHE_NAME, KeyFingerprint.of("key2")),
+                Collections.singletonList("key2"));
+        assertEquals(index.removeKeys(1, CACHE_MANAGER_NAME, CACHE_NAME, KeyFingerprint.of("key2")),
+                Collections.emptyList());
+
+        index.add(1, CACHE_MANAGER_NAME, CACHE_NAME, "key3");
+        index.remove(1, CACHE_MANAGER_NAME, CACHE_NAME, "key1");
+        assertEquals(index.size(), 1);
+        assertEquals(index.removeKeys(1, CACHE_MANAGER_NAME, CACHE_NAME, KeyFingerprint.of("key3")),
+                Collections.singletonList("key3"));
+    }
+
+    @Test
+    public void testOnlyLocalCachesAreIndexed() throws IOException {
+
+        KeyFingerprintIndex index = new KeyFingerprintIndex();
+        index.add(1, CACHE_MANAGER_NAME, "AppInfoCache", "key1");
+        index.add(1, CACHE_MANAGER_NAME, CACHE_NAME, JMSUtils.CLEAR_ALL_PREFIX);
+        assertEquals(index.size(), 0);
+        assertFalse(index.indexAll(1, CACHE_MANAGER_NAME, "AppInfoCache", entries("key1")));
+        assertNull(index.removeKeys(1, CACHE_MANAGER_NAME, "AppInfoCache", KeyFingerprint.of("key1")));
+    }
+
+    @Test
+    public void testDiscardedCachesAreIteratedAgain() throws IOException {
+
+        KeyFingerprintIndex index = new KeyFingerprintIndex(2);
+        index.markCleared(1, CACHE_MANAGER_NAME, CACHE_NAME);
+        index.add(1, CACHE_MANAGER_NAME, CACHE_NAME, "key1");
+        index.add(1, CACHE_MANAGER_NAME, CACHE_NAME, "key2");
+        // The indexed keys are discarded once the limit is reached.
+        index.add(2, CACHE_MANAGER_NAME, CACHE_NAME, "key3");
+        assertEquals(index.size(), 1);
+        assertNull(index.removeKeys(1, CACHE_MANAGER_NAME, CACHE_NAME, KeyFingerprint.of("key1")));
+
+        // A cache whose keys exceed the limit is left out of the index.
+        assertFalse(index.indexAll(1, CACHE_MANAGER_NAME, CACHE_NAME, entries("key1", "key2")));
+        assertEquals(index.size(), 1);
+
+        index.markCleared(1, CACHE_MANAGER_NAME, CACHE_NAME);
+        index.invalidateTenant(2);
+        assertEquals(index.size(), 0);
+        assertEquals(index.removeKeys(1, CACHE_MANAGER_NAME, CACHE_NAME, KeyFingerprint.of("key1")),
+                Collections.emptyList());
+        assertNull(index.removeKeys(2, CACHE_MANAGER_NAME, CACHE_NAME, KeyFingerprint.of("key3")));
+    }
+
+    private static List<Cache.Entry<?, ?>> entries(Object... keys) {
+
+        List<Cache.Entry<?, ?>> entries = new ArrayList<>();
+        for (Object key : Arrays.asList(keys)) {
+            Cache.Entry<?, ?> entry = mock(Cache.Entry.class);
+            when(entry.getKey()).thenAnswer(invocation -> key);
+            entries.add(entry);
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class LocalCacheInterestTest {
+
+    private static final String CACHE_MANAGER_NAME = "IdentityApplicationManagementCacheManager";
+    private static final String CACHE_NAME = "$__local__$.AppInfoCache";
+
+    @Test
+    public void testUnknownCachesAreApplied() {
+
+        LocalCacheInterest interest = new LocalCacheInterest();
+        assertTrue(interest.isInterested(1, CACHE_MANAGER_NAME, CACHE_NAME));
+        assertFalse(interest.isKnown(1, CACHE_MANAGER_NAME, CACHE_NAME));
+
+        // Only local caches are tracked.
+        interest.markEmpty(1, CACHE_MANAGER_NAME, "AppInfoCache", interest.getGeneration());
+        assertTrue(interest.isInterested(1, CACHE_MANAGER_NAME, "AppInfoCache"));
+        assertTrue(interest.isKnown(1, CACHE_MANAGER_NAME, "AppInfoCache"));
+    }
+
+    @Test
+    public void testEntryCreationWinsOverEmptyCheck() {
+
+        LocalCacheInterest interest = new LocalCacheInterest();
+        long generation = interest.getGeneration();
+        interest.markPopulated(1, CACHE_MANAGER_NAME, CACHE_NAME);
+        interest.markEmpty(1, CACHE_MANAGER_NAME, CACHE_NAME, generation);
+        assertTrue(interest.isInterested(1, CACHE_MANAGER_NAME, CACHE_NAME));
+
+        interest.markEmpty(2, CACHE_MANAGER_NAME, CACHE_NAME, interest.getGeneration());
+        assertFalse(interest.isInterested(2, CACHE_MANAGER_NAME, CACHE_NAME));
+        interest.markPopulated(2, CACHE_MANAGER_NAME, CACHE_NAME);
+        assertTrue(interest.isInterested(2, CACHE_MANAGER_NAME, CACHE_NAME));
+    }
+
+    @Test
+    public void testForgottenCachesAreCheckedAgain() {
+
+        LocalCacheInterest interest = new LocalCacheInterest(2);
+        long generation = interest.getGeneration();
+        interest.markPopulated(1, CACHE_MANAGER_NAME, CACHE_NAME);
+        interest.invalidateTenant(1);
+        assertFalse(interest.isKnown(1, CACHE_MANAGER_NAME, CACHE_NAME));
+        // The entry creation may have been forgotten after the cache was checked, hence it is not marked empty.
+        interest.markEmpty(1, CACHE_MANAGER_NAME, CACHE_NAME, generation);
+        assertTrue(interest.isInterested(1, CACHE_MANAGER_NAME, CACHE_NAME));
+        assertFalse(interest.isKnown(1, CACHE_MANAGER_NAME, CACHE_NAME));
+
+        interest.markPopulated(1, CACHE_MANAGER_NAME, CACHE_NAME);
+        interest.markPopulated(2, CACHE_MANAGER_NAME, CACHE_NAME);
+        interest.markPopulated(3, CACHE_MANAGER_NAME, CACHE_NAME);
+        // The tracked caches are discarded once the limit is reached.
+        assertEquals(interest.size(), 1);
+    }
+}
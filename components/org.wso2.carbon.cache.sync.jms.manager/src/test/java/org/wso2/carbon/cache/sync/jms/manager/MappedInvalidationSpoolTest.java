@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.caching.impl.clustering.ClusterCacheInvalidationRequest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class MappedInvalidationSpoolTest {
+
+    private static final int SEGMENT_SIZE = 512;
+
+    private Path spoolDirectory;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+
+        spoolDirectory = Files.createTempDirectory("cache-sync-outage");
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+
+        try (Stream<Path> files = Files.list(spoolDirectory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(spoolDirectory);
+    }
+
+    @Test
+    public void testDrainAcrossSegmentsInOrder() throws IOException {
+
+        MappedInvalidationSpool spool = new MappedInvalidationSpool(spoolDirectory, SEGMENT_SIZE, 100);
+        List<Object> expectedKeys = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            spool.append(Arrays.asList(createRequest("myCache", "key" + i + "a"),
+                    createRequest("myCache", "key" + i + "b")));
+            expectedKeys.add("key" + i + "a");
+            expectedKeys.add("key" + i + "b");
+        }
+        assertEquals(spool.size(), 40);
+        long segmentCount = countSegments();
+        assertTrue(segmentCount > 1);
+
+        assertEquals(drainKeys(spool), expectedKeys);
+        assertEquals(spool.size(), 0);
+        // Drained segments are reused instead of being deleted.
+        for (int i = 0; i < 20; i++) {
+            spool.append(Arrays.asList(createRequest("myCache", "key" + i + "a"),
+                    createRequest("myCache", "key" + i + "b")));
+        }
+        assertEquals(countSegments(), segmentCount);
+        assertEquals(drainKeys(spool), expectedKeys);
+    }
+
+    @Test
+    public void testRecoverReusedSegments() throws IOException {
+
+        MappedInvalidationSpool spool = new MappedInvalidationSpool(spoolDirectory, SEGMENT_SIZE, 100);
+        for (int i = 0; i < 20; i++) {
+            spool.append(Collections.singletonList(createRequest("myCache", "staleKey" + i)));
+        }
+        drainKeys(spool);
+        for (int i = 0; i < 3; i++) {
+            spool.append(Collections.singletonList(createRequest("myCache", "key" + i)));
+        }
+        spool.close();
+
+        // Records left in the reused segments from before they were drained are not read back.
+        MappedInvalidationSpool recovered = new MappedInvalidationSpool(spoolDirectory, SEGMENT_SIZE, 100);
+        assertEquals(recovered.size(), 3);
+        assertEquals(drainKeys(recovered), Arrays.asList("key0", "key1", "key2"));
+        recovered.close();
+
+        assertEquals(new MappedInvalidationSpool(spoolDirectory, SEGMENT_SIZE, 100).size(), 0);
+    }
+
+    @Test
+    public void testKeepFrameUntilRemoved() throws IOException {
+
+        MappedInvalidationSpool spool = new MappedInvalidationSpool(spoolDirectory, SEGMENT_SIZE, 100);
+        spool.append(Collections.singletonList(createRequest("myCache", "key1")));
+        spool.append(Collections.singletonList(createRequest("myCache", "key2")));
+
+        assertEquals(spool.peek().get(0).getCacheInfo().getCacheKey(), "key1");
+        assertEquals(spool.peek().get(0).getCacheInfo().getCacheKey(), "key1");
+        spool.remove();
+        assertEquals(spool.peek().get(0).getCacheInfo().getCacheKey(), "key2");
+        spool.remove();
+        assertNull(spool.peek());
+    }
+
+    @Test
+    public void testCollapseIntoClearAllWhenFull() throws IOException {
+
+        MappedInvalidationSpool spool = new MappedInvalidationSpool(spoolDirectory, SEGMENT_SIZE, 1);
+        int written = 0;
+        while (spool.getCollapsedCount() == 0) {
+            spool.append(Collections.singletonList(createRequest("myCache", "key" + written++)));
+        }
+        spool.append(Collections.singletonList(createRequest("myCache", "key" + written++)));
+        spool.append(Collections.singletonList(createRequest("otherCache", "key" + written++)));
+        assertEquals(spool.getCollapsedCount(), 3);
+        assertEquals(countSegments(), 1);
+
+        List<Object> keys = drainKeys(spool);
+        assertEquals(keys.size(), written - 3 + 2);
+        assertEquals(keys.get(0), "key0");
+        // The collapsed invalidations are sent as clear-all invalidations after the spooled frames.
+        assertEquals(keys.subList(keys.size() - 2, keys.size()),
+                Arrays.asList(JMSUtils.CLEAR_ALL_PREFIX, JMSUtils.CLEAR_ALL_PREFIX));
+    }
+
+    @Test
+    public void testRecoverSegmentsOfPreviousRun() throws IOException {
+
+        MappedInvalidationSpool spool = new MappedInvalidationSpool(spoolDirectory, SEGMENT_SIZE, 100);
+        for (int i = 0; i < 12; i++) {
+            spool.append(Collections.singletonList(createRequest("myCache", "key" + i)));
+        }
+        spool.peek();
+        spool.remove();
+        spool.close();
+
+        MappedInvalidationSpool recovered = new MappedInvalidationSpool(spoolDirectory, SEGMENT_SIZE, 100);
+        assertEquals(recovered.size(), 12);
+        recovered.append(Collections.singletonList(createRequest("myCache", "key12")));
+
+        List<Object> keys = drainKeys(recovered);
+        // Frames read before the shutdown are sent again.
+        assertEquals(keys.size(), 13);
+        assertEquals(keys.get(0), "key0");
+        assertEquals(keys.get(12), "key12");
+    }
+
+    private static List<Object> drainKeys(MappedInvalidationSpool spool) {
+
+        List<Object> keys = new ArrayList<>();
+        List<ClusterCacheInvalidationRequest> frame;
+        while ((frame = spool.peek()) != null) {
+            for (ClusterCacheInvalidationRequest request : frame) {
+                keys.add(request.getCacheInfo().getCacheKey());
+            }
+            spool.remove();
+        }
+        return keys;
+    }
+
+    private long countSegments() throws IOException {
+
+        try (Stream<Path> files = Files.list(spoolDirectory)) {
+            return files.count();
+        }
+    }
+
+    private static ClusterCacheInvalidationRequest createRequest(String cacheName, String cacheKey) {
+
+        return new ClusterCacheInvalidationRequest(new ClusterCacheInvalidationRequest.CacheInfo("myCacheManager",
+                cacheName, cacheKey), "example.com", 1);
+    }
+}
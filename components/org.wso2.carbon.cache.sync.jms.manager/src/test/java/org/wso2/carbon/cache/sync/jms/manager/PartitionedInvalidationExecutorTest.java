@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.testng.annotations.Test;
+import org.wso2.carbon.caching.impl.clustering.ClusterCacheInvalidationRequest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class PartitionedInvalidationExecutorTest {
+
+    @Test
+    public void testSameKeyIsAppliedInOrderOnOnePartition() throws InterruptedException {
+
+        int keyCount = 20;
+        int invalidationsPerKey = 50;
+        CountDownLatch applied = new CountDownLatch(keyCount * invalidationsPerKey);
+        Map<String, List<Integer>> appliedSequences = new ConcurrentHashMap<>();
+        Map<String, String> threadsByKey = new ConcurrentHashMap<>();
+        PartitionedInvalidationExecutor executor = new PartitionedInvalidationExecutor(4, entries -> {
+            for (InvalidationEntry entry : entries) {
+                // The tenant domain of the test entries carries their sequence number.
+                String key = String.valueOf(getCacheKey(entry));
+                appliedSequences.computeIfAbsent(key, k -> Collections.synchronizedList(new ArrayList<>()))
+                        .add(Integer.parseInt(entry.getTenantDomain()));
+                String previous = threadsByKey.putIfAbsent(key, Thread.currentThread().getName());
+                assertTrue(previous == null || previous.equals(Thread.currentThread().getName()));
+                applied.countDown();
+            }
+        });
+        try {
+            for (int sequence = 0; sequence < invalidationsPerKey; sequence++) {
+                List<InvalidationEntry> frame = new ArrayList<>();
+                for (int key = 0; key < keyCount; key++) {
+                    frame.add(new InvalidationEntry(1, String.valueOf(sequence), "myCacheManager",
+                            "$__local__$.myCache", "key" + key));
+                }
+                executor.execute(frame, System.currentTimeMillis());
+            }
+            assertTrue(applied.await(10, TimeUnit.SECONDS));
+
+            for (List<Integer> sequences : appliedSequences.values()) {
+                List<Integer> expected = new ArrayList<>();
+                for (int sequence = 0; sequence < invalidationsPerKey; sequence++) {
+                    expected.add(sequence);
+                }
+                assertEquals(sequences, expected);
+            }
+            // The applied counts are updated once a frame is applied, hence wait for the workers to finish.
+            executor.shutdown(1000);
+            long appliedCount = 0;
+            for (int partition = 0; partition < executor.getPartitionCount(); partition++) {
+                appliedCount += executor.getAppliedCount(partition);
+            }
+            assertEquals(appliedCount, keyCount * invalidationsPerKey);
+            assertTrue(threadsByKey.values().stream().distinct().count() > 1);
+        } finally {
+            executor.shutdown(1000);
+        }
+    }
+
+    @Test
+    public void testPartitionOfEntry() throws IOException {
+
+        List<InvalidationEntry> entries = InvalidationMessageCodec.decode(InvalidationMessageCodec.encode(
+                Arrays.asList(request(1, "example.com", "myKey"), request(2, "wso2.com", "myKey"))));
+        for (int partitionCount : Arrays.asList(1, 2, 7, 16)) {
+            int partition = PartitionedInvalidationExecutor.getPartition(entries.get(0), partitionCount);
+            assertTrue(partition >= 0 && partition < partitionCount);
+            assertEquals(PartitionedInvalidationExecutor.getPartition(entries.get(1), partitionCount), partition);
+        }
+
+        // Keys are not decoded to resolve their partition.
+        InvalidationEntry entry = new InvalidationEntry(1, "example.com", "myCacheManager", "$__local__$.myCache",
+                () -> {
+                    throw new IOException("Key is decoded.");
+                });
+        entry.setEncodedKeyHash(entries.get(0).getKeyHash());
+        assertEquals(PartitionedInvalidationExecutor.getPartition(entry, 7),
+                PartitionedInvalidationExecutor.getPartition(entries.get(0), 7));
+    }
+
+    @Test
+    public void testFullQueueBlocksReceiver() throws InterruptedException {
+
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        PartitionedInvalidationExecutor executor = new PartitionedInvalidationExecutor(1, 1, entries -> {
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        List<InvalidationEntry> frame = Collections.singletonList(new InvalidationEntry(1, "example.com",
+                "myCacheManager", "$__local__$.myCache", "myKey"));
+        try {
+            executor.execute(frame, 0);
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            executor.execute(frame, 0);
+            assertEquals(executor.getQueueDepth(0), 1);
+
+            // The third frame waits for the worker instead of growing the queue.
+            Thread receiver = new Thread(() -> executor.execute(frame, 0));
+            receiver.start();
+            receiver.join(300);
+            assertTrue(receiver.isAlive());
+            assertEquals(executor.getQueueDepth(0), 1);
+
+            release.countDown();
+            receiver.join(10000);
+            assertFalse(receiver.isAlive());
+        } finally {
+            release.countDown();
+            executor.shutdown(1000);
+        }
+        long appliedCount = executor.getAppliedCount(0);
+        assertEquals(appliedCount, 3);
+    }
+
+    private static ClusterCacheInvalidationRequest request(int tenantId, String tenantDomain, String cacheKey) {
+
+        return new ClusterCacheInvalidationRequest(new ClusterCacheInvalidationRequest.CacheInfo("myCacheManager",
+                "$__local__$.myCache", cacheKey), tenantDomain, tenantId);
+    }
+
+    private static Object getCacheKey(InvalidationEntry entry) {
+
+        try {
+            return entry.getCacheKey();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.jms.CompletionListener;
+import javax.jms.Connection;
+import javax.jms.JMSException;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+import javax.jms.Topic;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+public class ProducerSessionPoolTest {
+
+    @Mock
+    private Connection connection;
+    @Mock
+    private Topic topic;
+    @Mock
+    private Session session;
+    @Mock
+    private Session replacementSession;
+    @Mock
+    private MessageProducer producer;
+    @Mock
+    private MessageProducer replacementProducer;
+
+    @BeforeMethod
+    public void setUp() throws JMSException {
+
+        MockitoAnnotations.initMocks(this);
+        when(connection.createSession(false, Session.AUTO_ACKNOWLEDGE)).thenReturn(session, replacementSession);
+        when(session.createProducer(topic)).thenReturn(producer);
+        when(replacementSession.createProducer(topic)).thenReturn(replacementProducer);
+    }
+
+    @Test
+    public void testSendThroughPooledProducer() throws JMSException {
+
+        TextMessage message = mock(TextMessage.class);
+        when(session.createTextMessage("payload")).thenReturn(message);
+
+        ProducerSessionPool pool = new ProducerSessionPool(connection, topic, 1);
+        pool.send(pooledSession -> pooledSession.createTextMessage("payload"));
+        pool.send(pooledSession -> pooledSession.createTextMessage("payload"));
+
+        verify(producer, times(2)).send(message);
+        verify(connection, times(1)).createSession(false, Session.AUTO_ACKNOWLEDGE);
+        assertEquals(pool.getReplacedCount(), 0);
+    }
+
+    @Test
+    public void testSequencedMessages() throws JMSException {
+
+        TextMessage message = mock(TextMessage.class);
+        TextMessage replacementMessage = mock(TextMessage.class);
+        Topic shardTopic = mock(Topic.class);
+        when(topic.getTopicName()).thenReturn("cache-topic");
+        when(shardTopic.getTopicName()).thenReturn("cache-topic.1");
+        when(session.createTextMessage("payload")).thenReturn(message);
+        when(replacementSession.createTextMessage("payload")).thenReturn(replacementMessage);
+
+        ProducerSessionPool pool = new ProducerSessionPool(connection, topic, 1, true);
+        pool.send(pooledSession -> pooledSession.createTextMessage("payload"));
+        pool.send(pooledSession -> pooledSession.createTextMessage("payload"));
+        pool.send(shardTopic, pooledSession -> pooledSession.createTextMessage("payload"));
+        verify(message).setLongProperty(JMSUtils.SEQUENCE, 2L);
+        // Each topic is a stream of its own.
+        verify(message, times(2)).setLongProperty(JMSUtils.SEQUENCE, 1L);
+        ArgumentCaptor<String> streams = ArgumentCaptor.forClass(String.class);
+        verify(message, times(3)).setStringProperty(eq(JMSUtils.SEQUENCE_STREAM), streams.capture());
+        assertTrue(streams.getAllValues().get(0).endsWith("@cache-topic"));
+        assertEquals(streams.getAllValues().get(1), streams.getAllValues().get(0));
+        assertTrue(streams.getAllValues().get(2).endsWith("@cache-topic.1"));
+
+        // A replaced member starts a new stream.
+        doThrow(new JMSException("Producer closed")).when(producer).send(message);
+        expectThrows(JMSException.class, () -> pool.send(pooledSession -> pooledSession.createTextMessage("payload")));
+        pool.send(pooledSession -> pooledSession.createTextMessage("payload"));
+        verify(replacementMessage).setLongProperty(JMSUtils.SEQUENCE, 1L);
+        verify(replacementMessage).setStringProperty(eq(JMSUtils.SEQUENCE_STREAM),
+                argThat(stream -> !stream.equals(streams.getAllValues().get(0))));
+    }
+
+    @Test
+    public void testFailedAsyncSendStartsNewStream() throws JMSException {
+
+        TextMessage message = mock(TextMessage.class);
+        TextMessage replacementMessage = mock(TextMessage.class);
+        when(topic.getTopicName()).thenReturn("cache-topic");
+        when(session.createTextMessage("payload")).thenReturn(message);
+        when(replacementSession.createTextMessage("payload")).thenReturn(replacementMessage);
+        CompletionListener completionListener = mock(CompletionListener.class);
+        JMSException failure = new JMSException("Broker unavailable");
+        // The first message is acknowledged, while the second fails once handed over to the provider.
+        doAnswer(invocation -> {
+            invocation.getArgument(1, CompletionListener.class).onCompletion(message);
+            return null;
+        }).doAnswer(invocation -> {
+            invocation.getArgument(1, CompletionListener.class).onException(message, failure);
+            return null;
+        }).when(producer).send(eq(message), any(CompletionListener.class));
+
+        ProducerSessionPool pool = new ProducerSessionPool(connection, topic, 1, true);
+        pool.sendAsync(null, pooledSession -> pooledSession.createTextMessage("payload"), completionListener);
+        pool.sendAsync(null, pooledSession -> pooledSession.createTextMessage("payload"), completionListener);
+        verify(completionListener).onException(message, failure);
+        // The failed message is resent, followed by a new message.
+        pool.sendAsync(null, pooledSession -> pooledSession.createTextMessage("payload"), completionListener);
+        pool.sendAsync(null, pooledSession -> pooledSession.createTextMessage("payload"), completionListener);
+        verify(replacementProducer, times(2)).send(eq(replacementMessage), any(CompletionListener.class));
+        assertEquals(pool.getReplacedCount(), 1);
+
+        ArgumentCaptor<String> streams = ArgumentCaptor.forClass(String.class);
+        verify(message, times(2)).setStringProperty(eq(JMSUtils.SEQUENCE_STREAM), streams.capture());
+        ArgumentCaptor<String> replacementStreams = ArgumentCaptor.forClass(String.class);
+        verify(replacementMessage, times(2)).setStringProperty(eq(JMSUtils.SEQUENCE_STREAM),
+                replacementStreams.capture());
+        ArgumentCaptor<Long> replacementSequences = ArgumentCaptor.forClass(Long.class);
+        verify(replacementMessage, times(2)).setLongProperty(eq(JMSUtils.SEQUENCE), replacementSequences.capture());
+
+        // The consumer receives the first message and the messages of the replaced member, without a gap.
+        InvalidationSequenceTracker tracker = new InvalidationSequenceTracker();
+        assertFalse(tracker.record(streams.getAllValues().get(0), 1));
+        for (int i = 0; i < 2; i++) {
+            assertFalse(tracker.record(replacementStreams.getAllValues().get(i),
+                    replacementSequences.getAllValues().get(i)));
+        }
+        assertNotEquals(replacementStreams.getAllValues().get(0), streams.getAllValues().get(0));
+    }
+
+    @Test
+    public void testReplaceMemberAfterSendFailure() throws JMSException {
+
+        TextMessage message = mock(TextMessage.class);
+        TextMessage replacementMessage = mock(TextMessage.class);
+        when(session.createTextMessage("payload")).thenReturn(message);
+        when(replacementSession.createTextMessage("payload")).thenReturn(replacementMessage);
+        doThrow(new JMSException("Producer closed")).when(producer).send(message);
+
+        ProducerSessionPool pool = new ProducerSessionPool(connection, topic, 1);
+        expectThrows(JMSException.class, () -> pool.send(pooledSession -> pooledSession.createTextMessage("payload")));
+        verify(session).close();
+
+        pool.send(pooledSession -> pooledSession.createTextMessage("payload"));
+        verify(replacementProducer).send(replacementMessage);
+        assertEquals(pool.getReplacedCount(), 1);
+    }
+
+    @Test
+    public void testReplaceInvalidMember() throws JMSException {
+
+        TextMessage replacementMessage = mock(TextMessage.class);
+        when(session.getTransacted()).thenThrow(new JMSException("Session closed"));
+        when(replacementSession.createTextMessage("payload")).thenReturn(replacementMessage);
+
+        ProducerSessionPool pool = new ProducerSessionPool(connection, topic, 1);
+        pool.send(pooledSession -> pooledSession.createTextMessage("payload"));
+
+        verify(replacementProducer).send(replacementMessage);
+        assertEquals(pool.getReplacedCount(), 1);
+    }
+
+    @Test
+    public void testSendAsyncThroughPooledProducer() throws JMSException {
+
+        TextMessage message = mock(TextMessage.class);
+        CompletionListener listener = mock(CompletionListener.class);
+        when(session.createTextMessage("payload")).thenReturn(message);
+
+        ProducerSessionPool pool = new ProducerSessionPool(connection, topic, 1);
+        pool.sendAsync(null, pooledSession -> pooledSession.createTextMessage("payload"), listener);
+
+        ArgumentCaptor<CompletionListener> memberListener = ArgumentCaptor.forClass(CompletionListener.class);
+        verify(producer).send(eq(message), memberListener.capture());
+        verify(producer, times(0)).send(message);
+        assertTrue(pool.isAsyncSendSupported());
+        memberListener.getValue().onCompletion(message);
+        verify(listener).onCompletion(message);
+    }
+
+    @Test
+    public void testSendAsyncFallsBackToSynchronousSend() throws JMSException {
+
+        TextMessage message = mock(TextMessage.class);
+        CompletionListener listener = mock(CompletionListener.class);
+        when(session.createTextMessage("payload")).thenReturn(message);
+        doThrow(new UnsupportedOperationException()).when(producer).send(eq(message), any(CompletionListener.class));
+
+        ProducerSessionPool pool = new ProducerSessionPool(connection, topic, 1);
+        pool.sendAsync(null, pooledSession -> pooledSession.createTextMessage("payload"), listener);
+        pool.sendAsync(null, pooledSession -> pooledSession.createTextMessage("payload"), listener);
+
+        // The provider is not asked again once asynchronous sends are found to be unsupported.
+        verify(producer, times(1)).send(eq(message), any(CompletionListener.class));
+        verify(producer, times(2)).send(message);
+        verify(listener, times(2)).onCompletion(message);
+        assertFalse(pool.isAsyncSendSupported());
+    }
+}
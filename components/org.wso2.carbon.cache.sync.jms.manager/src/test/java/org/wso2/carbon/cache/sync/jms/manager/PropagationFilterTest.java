@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class PropagationFilterTest {
+
+    @Test
+    public void testEmptyDenyList() {
+
+        PropagationFilter filter = PropagationFilter.compile(Collections.emptyMap());
+        assertTrue(filter.isAllowed("IdentityApplicationManagementCacheManager", "$__local__$.AppInfoCache"));
+    }
+
+    @Test
+    public void testExactNames() {
+
+        Map<String, List<String>> denyList = new HashMap<>();
+        denyList.put("IdentityApplicationManagementCacheManager", Arrays.asList("AppInfoCache", "ServiceProvider"));
+        PropagationFilter filter = PropagationFilter.compile(denyList);
+
+        assertFalse(filter.isAllowed("IdentityApplicationManagementCacheManager", "$__local__$.AppInfoCache"));
+        assertFalse(filter.isAllowed("identityapplicationmanagementcachemanager", "$__clear__all__$.AppInfoCache"));
+        // Repeated lookups are answered from the cached decisions.
+        assertFalse(filter.isAllowed("IdentityApplicationManagementCacheManager", "$__local__$.AppInfoCache"));
+        assertTrue(filter.isAllowed("IdentityApplicationManagementCacheManager", "$__local__$.appinfocache"));
+        assertTrue(filter.isAllowed("OtherCacheManager", "$__local__$.AppInfoCache"));
+        assertTrue(filter.isAllowed("IdentityApplicationManagementCacheManager", "AppInfoCache"));
+    }
+
+    @Test
+    public void testWildcardAndPrefixPatterns() {
+
+        Map<String, List<String>> denyList = new HashMap<>();
+        denyList.put("Identity*", Collections.singletonList("Session*"));
+        denyList.put("OAuthCacheManager", Collections.singletonList("*"));
+        PropagationFilter filter = PropagationFilter.compile(denyList);
+
+        assertFalse(filter.isAllowed("IdentityCacheManager", "$__local__$.SessionDataCache"));
+        assertTrue(filter.isAllowed("IdentityCacheManager", "$__local__$.AppInfoCache"));
+        assertFalse(filter.isAllowed("OAuthCacheManager", "$__local__$.AppInfoCache"));
+        assertTrue(filter.isAllowed("UserCacheManager", "$__local__$.SessionDataCache"));
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2026, WSO2 LLC. (http://www.wso2.com).
+ *
+ * WSO2 LLC. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.cache.sync.jms.manager;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+public class TopicShardingTest {
+
+    private static final String CACHE_MANAGER_NAME = "IdentityApplicationManagementCacheManager";
+
+    @Test
+    public void testShardingIsDisabledByDefault() {
+
+        assertSame(TopicSharding.create(TopicSharding.Mode.fromConfig(null), 8, null), TopicSharding.NONE);
+        assertSame(TopicSharding.create(TopicSharding.Mode.fromConfig("unknown"), 8, null), TopicSharding.NONE);
+        assertFalse(TopicSharding.NONE.isEnabled());
+        assertEquals(TopicSharding.NONE.getShard(CACHE_MANAGER_NAME, "$__local__$.AppInfoCache", 1), 0);
+    }
+
+    @Test
+    public void testShardByCacheManager() {
+
+        TopicSharding sharding = TopicSharding.create(TopicSharding.Mode.fromConfig("cache_manager"), 8, null);
+        assertTrue(sharding.isEnabled());
+        assertEquals(sharding.getSubscribedShards(), new int[]{0, 1, 2, 3, 4, 5, 6, 7});
+
+        int shard = sharding.getShard(CACHE_MANAGER_NAME, "$__local__$.AppInfoCache", 1);
+        assertEquals(shard, Math.floorMod(CACHE_MANAGER_NAME.toLowerCase().hashCode(), 8));
+        assertEquals(sharding.getShard(CACHE_MANAGER_NAME.toUpperCase(), "$__clear__all__$.Other", 2), shard);
+        assertEquals(sharding.getTopicName("CacheTopic", shard), "CacheTopic." + shard);
+    }
+
+    @Test
+    public void testShardByCacheName() {
+
+        TopicSharding sharding = TopicSharding.create(TopicSharding.Mode.CACHE_NAME, 16, null);
+        int shard = sharding.getShard(CACHE_MANAGER_NAME, "$__local__$.AppInfoCache", 1);
+        // Clear-all invalidations of a cache are published to the same shard as its key invalidations.
+        assertEquals(sharding.getShard("Other", "$__clear__all__$.AppInfoCache", 2), shard);
+        assertEquals(sharding.getShard(CACHE_MANAGER_NAME, "AppInfoCache", 1), shard);
+    }
+
+    @Test
+    public void testShardByTenant() {
+
+        TopicSharding sharding = TopicSharding.create(TopicSharding.Mode.TENANT, 4, null);
+        assertEquals(sharding.getShard(CACHE_MANAGER_NAME, "$__local__$.AppInfoCache", 5), 1);
+        assertEquals(sharding.getShard(CACHE_MANAGER_NAME, "$__local__$.AppInfoCache", -1234), 2);
+        assertNotEquals(sharding.getShard(CACHE_MANAGER_NAME, "$__local__$.AppInfoCache", 6), 1);
+    }
+
+    @Test
+    public void testSubscriptions() {
+
+        TopicSharding sharding = TopicSharding.create(TopicSharding.Mode.TENANT, 4,
+                new String[]{" 5", "-1234", "9", "tenant.com", ""});
+        // Tenants 5 and 9 share a shard, and tenant domains are ignored.
+        assertEquals(sharding.getSubscribedShards(), new int[]{1, 2});
+
+        sharding = TopicSharding.create(TopicSharding.Mode.CACHE_MANAGER, 8, new String[]{CACHE_MANAGER_NAME});
+        assertEquals(sharding.getSubscribedShards(),
+                new int[]{sharding.getShard(CACHE_MANAGER_NAME, "$__local__$.AppInfoCache", 1)});
+    }
+
+    @Test
+    public void testBroadcastOfBulkInvalidations() {
+
+        TopicSharding byCacheManager = TopicSharding.create(TopicSharding.Mode.CACHE_MANAGER, 8, null);
+        assertTrue(byCacheManager.isBroadcast(InvalidationScope.TENANT));
+        assertFalse(byCacheManager.isBroadcast(InvalidationScope.CACHE_MANAGER));
+        assertFalse(byCacheManager.isBroadcast(InvalidationScope.CACHE_KEYS));
+
+        TopicSharding byCacheName = TopicSharding.create(TopicSharding.Mode.CACHE_NAME, 8, null);
+        assertTrue(byCacheName.isBroadcast(InvalidationScope.TENANT));
+        assertTrue(byCacheName.isBroadcast(InvalidationScope.CACHE_MANAGER));
+        assertFalse(byCacheName.isBroadcast(InvalidationScope.KEY));
+
+        TopicSharding byTenant = TopicSharding.create(TopicSharding.Mode.TENANT, 8, null);
+        assertFalse(byTenant.isBroadcast(InvalidationScope.TENANT));
+        assertFalse(byTenant.isBroadcast(InvalidationScope.CACHE_MANAGER));
+    }
+}